@@ -0,0 +1,129 @@
+/*
+ * License : MIT License
+ *
+ * Copyright (c) 2023 Team PFE_2023_16
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.example.benchmark;
+
+import org.example.view.LineView;
+import org.example.view.MainPanel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.awt.AlphaComposite;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of the rendering of the network layer, every line being drawn
+ * by {@link LineView#show(Graphics2D, Rectangle, org.example.model.Station)}
+ * into an offscreen image the size of the main panel, as the
+ * {@link MainPanel} does.
+ *
+ * @author Team PFE_2023_16
+ * @file LineRenderBenchmark.java
+ * @date 2026-10-17
+ * @since 3.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class LineRenderBenchmark {
+  /**
+   * Number of stations of the network.
+   */
+  @Param({"50", "500", "5000", "50000"})
+  private int stations;
+  /**
+   * Lines of the network.
+   */
+  private List<LineView> lineViews;
+  /**
+   * Image the lines are drawn into.
+   */
+  private BufferedImage image;
+  /**
+   * Graphics of the image.
+   */
+  private Graphics2D g2D;
+  /**
+   * Visible part of the panel.
+   */
+  private Rectangle viewport;
+
+  /**
+   * Build the network and the image.
+   */
+  @Setup(Level.Trial)
+  public void setUp() {
+    MainPanel mainPanel = NetworkFixture.install(stations);
+    lineViews = mainPanel.getLineViews();
+    image = new BufferedImage(mainPanel.getWidth(), mainPanel.getHeight(),
+        BufferedImage.TYPE_INT_ARGB);
+    g2D = image.createGraphics();
+    g2D.setRenderingHint(RenderingHints.KEY_ANTIALIASING,
+        RenderingHints.VALUE_ANTIALIAS_ON);
+    viewport = new Rectangle(0, 0, image.getWidth(), image.getHeight());
+  }
+
+  /**
+   * Release the graphics.
+   */
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    g2D.dispose();
+  }
+
+  /**
+   * Clear the image and draw every line.
+   *
+   * @return the image
+   */
+  @Benchmark
+  public BufferedImage show() {
+    g2D.setComposite(AlphaComposite.Clear);
+    g2D.fillRect(0, 0, image.getWidth(), image.getHeight());
+    g2D.setComposite(AlphaComposite.SrcOver);
+    for (LineView lineView : lineViews) {
+      lineView.show(g2D, viewport, null);
+    }
+    return image;
+  }
+}
@@ -0,0 +1,139 @@
+/*
+ * License : MIT License
+ *
+ * Copyright (c) 2023 Team PFE_2023_16
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.example.benchmark;
+
+import org.example.data.Data;
+import org.example.model.Area;
+import org.example.model.Line;
+import org.example.model.Station;
+import org.example.view.AreaView;
+import org.example.view.LineView;
+import org.example.view.MainPanel;
+import org.example.view.MainWindow;
+import org.example.view.StationView;
+import org.openstreetmap.gui.jmapviewer.Coordinate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Builds a network of a given number of stations in the {@link MainPanel},
+ * the same network for a given size in every run.
+ *
+ * <p>The stations are laid out on a jittered grid around the city centre,
+ * each line running across {@value #STATIONS_PER_LINE} stations of a row,
+ * with an area every {@value #STATIONS_PER_AREA} stations.
+ *
+ * @author Team PFE_2023_16
+ * @file NetworkFixture.java
+ * @date 2026-10-17
+ * @since 3.0
+ */
+public final class NetworkFixture {
+  /**
+   * Number of stations of a line.
+   */
+  public static final int STATIONS_PER_LINE = 25;
+  /**
+   * Number of stations for an area.
+   */
+  public static final int STATIONS_PER_AREA = 50;
+  /**
+   * Latitude of the city centre.
+   */
+  private static final double CENTER_LATITUDE = 47.4784;
+  /**
+   * Longitude of the city centre.
+   */
+  private static final double CENTER_LONGITUDE = -0.5632;
+  /**
+   * Distance between two stations of the grid, in degrees.
+   */
+  private static final double SPACING = 0.004;
+  /**
+   * Zoom of the map.
+   */
+  private static final int ZOOM = 13;
+  /**
+   * Seed of the positions, for the same network in every run.
+   */
+  private static final long SEED = 42;
+
+  private NetworkFixture() {
+  }
+
+  /**
+   * Replace the network of the main panel with a generated one, the map
+   * being centred on it with the size of the main window.
+   *
+   * @param stations number of stations
+   * @return the main panel
+   */
+  public static MainPanel install(final int stations) {
+    MainPanel mainPanel = MainPanel.getInstance();
+    mainPanel.setSize(MainWindow.WINDOW_WIDTH, MainWindow.WINDOW_HEIGHT);
+    mainPanel.setDisplayPosition(
+        new Coordinate(CENTER_LATITUDE, CENTER_LONGITUDE), ZOOM);
+
+    Random random = new Random(SEED);
+    String[] names = Data.getStationsNames();
+    int columns = (int) Math.ceil(Math.sqrt(stations));
+    double north = CENTER_LATITUDE + columns * SPACING / 2;
+    double west = CENTER_LONGITUDE - columns * SPACING / 2;
+    List<LineView> lineViews = new ArrayList<>();
+    List<Station> lineStations = new ArrayList<>();
+    List<StationView> stationViews = new ArrayList<>();
+    for (int id = 0; id < stations; id++) {
+      double latitude = north - (id / columns) * SPACING
+          + (random.nextDouble() - 0.5) * SPACING / 2;
+      double longitude = west + (id % columns) * SPACING
+          + (random.nextDouble() - 0.5) * SPACING / 2;
+      Station station = new Station(id, latitude, longitude,
+          names[id % names.length]);
+      lineStations.add(station);
+      stationViews.add(new StationView(station));
+      if (lineStations.size() == STATIONS_PER_LINE || id == stations - 1) {
+        lineViews.add(new LineView(new Line(lineViews.size(), lineStations),
+            stationViews));
+        lineStations = new ArrayList<>();
+        stationViews = new ArrayList<>();
+      }
+    }
+
+    List<AreaView> areaViews = new ArrayList<>();
+    int areas = Math.max(1, stations / STATIONS_PER_AREA);
+    double size = columns * SPACING;
+    for (int i = 0; i < areas; i++) {
+      double top = north - random.nextDouble() * size;
+      double left = west + random.nextDouble() * size;
+      areaViews.add(new AreaView(new Area(top, left,
+          top - 3 * SPACING, left + 3 * SPACING)));
+    }
+    mainPanel.setLineViews(lineViews);
+    mainPanel.setAreaViews(areaViews);
+    return mainPanel;
+  }
+}
@@ -0,0 +1,124 @@
+/*
+ * License : MIT License
+ *
+ * Copyright (c) 2023 Team PFE_2023_16
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.example.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openstreetmap.gui.jmapviewer.ConcurrentTileCache;
+import org.openstreetmap.gui.jmapviewer.MemoryTileCache;
+import org.openstreetmap.gui.jmapviewer.Tile;
+import org.openstreetmap.gui.jmapviewer.interfaces.TileCache;
+import org.openstreetmap.gui.jmapviewer.interfaces.TileSource;
+import org.openstreetmap.gui.jmapviewer.tilesources.OsmTileSource;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of the tile cache under contention: several threads look tiles
+ * up, as the paint loop does, and add the missing ones, as the loaders do.
+ * The tiles requested are twice as many as the cache holds, so tiles are
+ * evicted all along.
+ *
+ * <p>The network size does not matter here, the {@link MemoryTileCache} is
+ * measured against the {@link ConcurrentTileCache} used by the map instead.
+ *
+ * @author Team PFE_2023_16
+ * @file TileCacheBenchmark.java
+ * @date 2026-10-17
+ * @since 3.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+@Threads(4)
+public class TileCacheBenchmark {
+  /**
+   * Number of tiles held by the cache.
+   */
+  private static final int CACHE_SIZE = 1024;
+  /**
+   * Zoom of the tiles requested.
+   */
+  private static final int ZOOM = 12;
+  /**
+   * Width of the square of tiles requested, twice the cache size.
+   */
+  private static final int SIDE = (int) Math.sqrt(2 * CACHE_SIZE) + 1;
+  /**
+   * Source of the tiles.
+   */
+  private static final TileSource SOURCE = new OsmTileSource.Mapnik();
+  /**
+   * Cache implementation measured.
+   */
+  @Param({"memory", "concurrent"})
+  private String cache;
+  /**
+   * The cache.
+   */
+  private TileCache tileCache;
+
+  /**
+   * Create the cache.
+   */
+  @Setup(Level.Trial)
+  public void setUp() {
+    tileCache = "memory".equals(cache) ? new MemoryTileCache(CACHE_SIZE)
+        : new ConcurrentTileCache(CACHE_SIZE);
+  }
+
+  /**
+   * Look a tile up and add it if it is missing.
+   *
+   * @return the tile
+   */
+  @Benchmark
+  public Tile getOrAdd() {
+    ThreadLocalRandom random = ThreadLocalRandom.current();
+    int x = random.nextInt(SIDE);
+    int y = random.nextInt(SIDE);
+    Tile tile = tileCache.getTile(SOURCE, x, y, ZOOM);
+    if (tile == null) {
+      tile = new Tile(SOURCE, x, y, ZOOM);
+      tileCache.addTile(tile);
+    }
+    return tile;
+  }
+}
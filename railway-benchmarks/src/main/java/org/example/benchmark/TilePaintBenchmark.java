@@ -0,0 +1,146 @@
+/*
+ * License : MIT License
+ *
+ * Copyright (c) 2023 Team PFE_2023_16
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.example.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openstreetmap.gui.jmapviewer.ConcurrentTileCache;
+import org.openstreetmap.gui.jmapviewer.MemoryTileCache;
+import org.openstreetmap.gui.jmapviewer.Tile;
+import org.openstreetmap.gui.jmapviewer.interfaces.TileCache;
+import org.openstreetmap.gui.jmapviewer.interfaces.TileSource;
+import org.openstreetmap.gui.jmapviewer.tilesources.OsmTileSource;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of the latency of a paint pass while the loaders fill the tile
+ * cache: one thread looks up a 6x4 screen of tiles, half of them cached, as
+ * the paint loop does, while 8 threads keep adding tiles elsewhere. The
+ * sample time mode gives the percentiles of the paint pass, the loaders
+ * only provide the contention.
+ *
+ * @author Team PFE_2023_16
+ * @file TilePaintBenchmark.java
+ * @date 2026-10-17
+ * @since 3.0
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class TilePaintBenchmark {
+  /**
+   * Number of tiles held by the cache.
+   */
+  private static final int CACHE_SIZE = 200;
+  /**
+   * Width of the screen, in tiles.
+   */
+  private static final int SCREEN_WIDTH = 6;
+  /**
+   * Height of the screen, in tiles.
+   */
+  private static final int SCREEN_HEIGHT = 4;
+  /**
+   * Zoom of the screen tiles.
+   */
+  private static final int SCREEN_ZOOM = 3;
+  /**
+   * Zoom of the tiles added by the loaders, away from the screen.
+   */
+  private static final int LOADED_ZOOM = 10;
+  /**
+   * Source of the tiles.
+   */
+  private static final TileSource SOURCE = new OsmTileSource.Mapnik();
+  /**
+   * Cache implementation measured.
+   */
+  @Param({"memory", "concurrent"})
+  private String cache;
+  /**
+   * The cache.
+   */
+  private TileCache tileCache;
+
+  /**
+   * Create the cache with the upper half of the screen.
+   */
+  @Setup(Level.Trial)
+  public void setUp() {
+    tileCache = "memory".equals(cache) ? new MemoryTileCache(CACHE_SIZE)
+        : new ConcurrentTileCache(CACHE_SIZE);
+    for (int x = 0; x < SCREEN_WIDTH; x++) {
+      for (int y = 0; y < SCREEN_HEIGHT / 2; y++) {
+        tileCache.addTile(new Tile(SOURCE, x, y, SCREEN_ZOOM));
+      }
+    }
+  }
+
+  /**
+   * Look the tiles of the screen up.
+   *
+   * @param blackhole consumes the tiles
+   */
+  @Benchmark
+  @Group("paint")
+  @GroupThreads(1)
+  public void paint(final Blackhole blackhole) {
+    for (int x = 0; x < SCREEN_WIDTH; x++) {
+      for (int y = 0; y < SCREEN_HEIGHT; y++) {
+        blackhole.consume(tileCache.getTile(SOURCE, x, y, SCREEN_ZOOM));
+      }
+    }
+  }
+
+  /**
+   * Add a tile, as a loader does.
+   */
+  @Benchmark
+  @Group("paint")
+  @GroupThreads(8)
+  public void load() {
+    ThreadLocalRandom random = ThreadLocalRandom.current();
+    tileCache.addTile(new Tile(SOURCE, random.nextInt(1024),
+        random.nextInt(1024), LOADED_ZOOM));
+  }
+}
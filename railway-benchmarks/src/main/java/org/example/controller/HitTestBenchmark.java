@@ -0,0 +1,143 @@
+/*
+ * License : MIT License
+ *
+ * Copyright (c) 2023 Team PFE_2023_16
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.example.controller;
+
+import org.example.benchmark.NetworkFixture;
+import org.example.model.Station;
+import org.example.view.AreaView;
+import org.example.view.LineView;
+import org.example.view.MainPanel;
+import org.example.view.StationView;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the hit-tests done by the {@link MovingAdapter} on each
+ * click, half of the clicks being on a station and half anywhere on the
+ * panel.
+ *
+ * @author Team PFE_2023_16
+ * @file HitTestBenchmark.java
+ * @date 2026-10-17
+ * @since 3.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class HitTestBenchmark {
+  /**
+   * Number of clicks, a power of two.
+   */
+  private static final int CLICKS = 1024;
+  /**
+   * Number of stations of the network.
+   */
+  @Param({"50", "500", "5000", "50000"})
+  private int stations;
+  /**
+   * Mouse adapter of the main panel.
+   */
+  private MovingAdapter movingAdapter;
+  /**
+   * X coordinates of the clicks.
+   */
+  private final int[] clicksX = new int[CLICKS];
+  /**
+   * Y coordinates of the clicks.
+   */
+  private final int[] clicksY = new int[CLICKS];
+  /**
+   * Index of the next click.
+   */
+  private int next;
+
+  /**
+   * Build the network and the clicks.
+   */
+  @Setup(Level.Trial)
+  public void setUp() {
+    MainPanel mainPanel = NetworkFixture.install(stations);
+    movingAdapter = mainPanel.getMovingAdapter();
+    List<Station> all = new ArrayList<>();
+    for (LineView lineView : mainPanel.getLineViews()) {
+      for (StationView stationView : lineView.getStationViews()) {
+        all.add(stationView.getStation());
+      }
+    }
+    Random random = new Random(CLICKS);
+    for (int i = 0; i < CLICKS; i++) {
+      if (i % 2 == 0) {
+        Station station = all.get(random.nextInt(all.size()));
+        clicksX[i] = station.getPosX();
+        clicksY[i] = station.getPosY();
+      } else {
+        clicksX[i] = random.nextInt(mainPanel.getWidth());
+        clicksY[i] = random.nextInt(mainPanel.getHeight());
+      }
+    }
+    // builds the spatial index before the measurement
+    mainPanel.getSpatialIndex();
+  }
+
+  /**
+   * Find the station under a click.
+   *
+   * @return the station clicked, null if none
+   */
+  @Benchmark
+  public StationView clickedStation() {
+    int i = next++ & (CLICKS - 1);
+    return movingAdapter.getClickedStation(clicksX[i], clicksY[i]);
+  }
+
+  /**
+   * Find the area under a click.
+   *
+   * @return the area clicked, null if none
+   */
+  @Benchmark
+  public AreaView clickedArea() {
+    int i = next++ & (CLICKS - 1);
+    return movingAdapter.getClickedArea(clicksX[i], clicksY[i]);
+  }
+}
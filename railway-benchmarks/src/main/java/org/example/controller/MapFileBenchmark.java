@@ -0,0 +1,133 @@
+/*
+ * License : MIT License
+ *
+ * Copyright (c) 2023 Team PFE_2023_16
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.example.controller;
+
+import org.example.benchmark.NetworkFixture;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+import javax.xml.stream.XMLStreamException;
+
+/**
+ * Benchmarks of the map file export and import, and of the assignment of
+ * the areas to the stations done before each export.
+ *
+ * <p>The import is measured up to the map read by {@link MapXmlReader},
+ * installing it in the main window needs a display.
+ *
+ * @author Team PFE_2023_16
+ * @file MapFileBenchmark.java
+ * @date 2026-10-17
+ * @since 3.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class MapFileBenchmark {
+  /**
+   * Number of stations of the network.
+   */
+  @Param({"50", "500", "5000", "50000"})
+  private int stations;
+  /**
+   * File the network is exported to.
+   */
+  private File exported;
+  /**
+   * File of the network, read by the import.
+   */
+  private File imported;
+
+  /**
+   * Build the network and export it once for the import.
+   *
+   * @throws IOException if the files cannot be created
+   */
+  @Setup(Level.Trial)
+  public void setUp() throws IOException {
+    NetworkFixture.install(stations);
+    exported = Files.createTempFile("benchmark-export", ".xml").toFile();
+    imported = Files.createTempFile("benchmark-import", ".xml").toFile();
+    ActionFile.getInstance().export(imported);
+  }
+
+  /**
+   * Delete the files.
+   */
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    exported.delete();
+    imported.delete();
+  }
+
+  /**
+   * Export the network.
+   *
+   * @return size of the file
+   */
+  @Benchmark
+  public long export() {
+    ActionFile.getInstance().export(exported);
+    return exported.length();
+  }
+
+  /**
+   * Read the network file.
+   *
+   * @return the map read
+   * @throws IOException        if the file cannot be read
+   * @throws XMLStreamException if the file is not valid
+   */
+  @Benchmark
+  public MapXmlReader importMap() throws IOException, XMLStreamException {
+    return MapXmlReader.read(imported);
+  }
+
+  /**
+   * Find the areas of all the stations.
+   */
+  @Benchmark
+  public void assignAreaToStations() {
+    ActionFile.getInstance().assignAreaToStations();
+  }
+}
@@ -0,0 +1,334 @@
+// License: GPL. For details, see Readme.txt file.
+package org.openstreetmap.gui.jmapviewer;
+
+import java.awt.Graphics2D;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBuffer;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.openstreetmap.gui.jmapviewer.interfaces.TileCache;
+import org.openstreetmap.gui.jmapviewer.interfaces.TileSource;
+
+/**
+ * {@link TileCache} implementation that stores the {@link Tile} objects in
+ * memory up to a certain limit ({@link #getCacheSize()}), like
+ * {@link MemoryTileCache}, without any lock.
+ * <p>
+ * Tiles are indexed in a {@link ConcurrentHashMap}, so the paint loop never
+ * waits for the loader threads. Eviction approximates LRU with the CLOCK
+ * policy: a lookup only sets the reference bit of the tile, and the tiles
+ * are swept in insertion order, each referenced tile getting a second
+ * chance. A single thread sweeps at a time; the others skip it, so the
+ * cache may briefly hold a few more tiles than its size.
+ * <p>
+ * Besides the number of tiles, the cache can be bounded by the memory of
+ * the decoded images ({@link #setMaxBytes(long)}). The images are accounted
+ * when {@link #tileLoaded(Tile)} is called from the loader threads, which
+ * can also store opaque images in 16-bit RGB ({@link #setCompactImages(boolean)}).
+ */
+public class ConcurrentTileCache implements TileCache {
+
+  protected volatile int cacheSize;
+
+  protected volatile long maxBytes = Long.MAX_VALUE;
+
+  protected volatile boolean compactImages;
+
+  protected final ConcurrentHashMap<String, CacheEntry> hash;
+
+  /**
+   * Tiles in the order of the clock hand, the head being the next tile
+   * considered for eviction.
+   */
+  protected final Queue<CacheEntry> clock = new ConcurrentLinkedQueue<>();
+
+  private final AtomicBoolean evicting = new AtomicBoolean();
+
+  private final AtomicLong totalBytes = new AtomicLong();
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final LongAdder evictions = new LongAdder();
+
+  /**
+   * Constructs a new {@code ConcurrentTileCache}.
+   */
+  public ConcurrentTileCache() {
+    this(200);
+  }
+
+  /**
+   * Constructs a new {@code ConcurrentTileCache}.
+   * @param cacheSize size of the cache
+   */
+  public ConcurrentTileCache(int cacheSize) {
+    this.cacheSize = cacheSize;
+    hash = new ConcurrentHashMap<>(cacheSize * 4 / 3 + 1);
+  }
+
+  @Override
+  public void addTile(Tile tile) {
+    CacheEntry entry = new CacheEntry(tile);
+    if (hash.putIfAbsent(tile.getKey(), entry) == null) {
+      clock.offer(entry);
+      updateSize(entry);
+      removeOldEntries();
+    }
+  }
+
+  @Override
+  public Tile getTile(TileSource source, int x, int y, int z) {
+    CacheEntry entry = hash.get(Tile.getTileKey(source, x, y, z));
+    if (entry == null) {
+      misses.increment();
+      return null;
+    }
+    hits.increment();
+    if (!entry.referenced) {
+      // avoid writing the shared field on every lookup
+      entry.referenced = true;
+    }
+    return entry.tile;
+  }
+
+  /**
+   * Accounts for the image of a tile once it is loaded, compacting it first
+   * if enabled. Meant to be called from the loader threads, before the tile
+   * is painted.
+   *
+   * @param tile the loaded tile
+   */
+  public void tileLoaded(Tile tile) {
+    CacheEntry entry = hash.get(tile.getKey());
+    if (entry == null || entry.tile != tile)
+      return;
+    if (compactImages && !tile.hasError()) {
+      tile.setImage(compact(tile.getImage()));
+    }
+    updateSize(entry);
+    removeOldEntries();
+  }
+
+  /**
+   * Converts an opaque image to 16-bit RGB, halving the memory of a decoded
+   * RGB tile. Indexed, gray and translucent images are kept as they are.
+   *
+   * @param image the image
+   * @return the compact image, or the image itself
+   */
+  public static BufferedImage compact(BufferedImage image) {
+    if (image == null || image == Tile.LOADING_IMAGE || image == Tile.ERROR_IMAGE
+        || image.getTransparency() != Transparency.OPAQUE)
+      return image;
+    switch (image.getType()) {
+      case BufferedImage.TYPE_USHORT_565_RGB:
+      case BufferedImage.TYPE_USHORT_555_RGB:
+      case BufferedImage.TYPE_BYTE_INDEXED:
+      case BufferedImage.TYPE_BYTE_BINARY:
+      case BufferedImage.TYPE_BYTE_GRAY:
+      case BufferedImage.TYPE_USHORT_GRAY:
+        return image;
+      default:
+        BufferedImage compact = new BufferedImage(image.getWidth(), image.getHeight(),
+            BufferedImage.TYPE_USHORT_565_RGB);
+        Graphics2D g = compact.createGraphics();
+        try {
+          g.drawImage(image, 0, 0, null);
+        } finally {
+          g.dispose();
+        }
+        return compact;
+    }
+  }
+
+  /**
+   * Memory of the pixels of an image, the shared placeholder images
+   * excepted.
+   *
+   * @param image the image, may be null
+   * @return size in bytes
+   */
+  public static long imageBytes(BufferedImage image) {
+    if (image == null || image == Tile.LOADING_IMAGE || image == Tile.ERROR_IMAGE)
+      return 0;
+    DataBuffer buffer = image.getRaster().getDataBuffer();
+    return (long) buffer.getSize() * buffer.getNumBanks()
+        * DataBuffer.getDataTypeSize(buffer.getDataType()) / 8;
+  }
+
+  /**
+   * Accounts for the current image of a tile, if it changed.
+   */
+  private void updateSize(CacheEntry entry) {
+    synchronized (entry) {
+      BufferedImage image = entry.tile.getImage();
+      if (entry.removed || image == entry.accounted)
+        return;
+      long bytes = imageBytes(image);
+      totalBytes.addAndGet(bytes - entry.bytes);
+      entry.bytes = bytes;
+      entry.accounted = image;
+    }
+  }
+
+  private boolean remove(CacheEntry entry) {
+    if (!hash.remove(entry.tile.getKey(), entry))
+      return false;
+    synchronized (entry) {
+      entry.removed = true;
+      totalBytes.addAndGet(-entry.bytes);
+      entry.bytes = 0;
+    }
+    return true;
+  }
+
+  private boolean isFull() {
+    return hash.size() > cacheSize || totalBytes.get() > maxBytes;
+  }
+
+  /**
+   * Sweeps the clock until the cache fits, unless another thread does it.
+   */
+  protected void removeOldEntries() {
+    // checked again after the sweep, for the tiles added meanwhile, but
+    // only once: under a steady stream of additions the caller would never
+    // return, the next addition sweeps instead
+    for (int sweep = 0; sweep < 2 && isFull() && evicting.compareAndSet(false, true); sweep++) {
+      try {
+        // each tile is given at most one second chance per sweep
+        int budget = 2 * clock.size() + 1;
+        while (isFull() && budget-- > 0) {
+          CacheEntry entry = clock.poll();
+          if (entry == null)
+            break;
+          if (entry.referenced) {
+            entry.referenced = false;
+            // placeholders drawn since the last sweep are accounted here
+            updateSize(entry);
+            clock.offer(entry);
+          } else if (remove(entry)) {
+            evictions.increment();
+          }
+        }
+      } finally {
+        evicting.set(false);
+      }
+    }
+  }
+
+  @Override
+  public void clear() {
+    for (CacheEntry entry : hash.values()) {
+      remove(entry);
+    }
+    clock.clear();
+  }
+
+  @Override
+  public int getTileCount() {
+    return hash.size();
+  }
+
+  @Override
+  public int getCacheSize() {
+    return cacheSize;
+  }
+
+  /**
+   * Changes the maximum number of {@link Tile} objects that this cache holds.
+   *
+   * @param cacheSize
+   *            new maximum number of tiles
+   */
+  public void setCacheSize(int cacheSize) {
+    this.cacheSize = cacheSize;
+    removeOldEntries();
+  }
+
+  /**
+   * @return maximum memory of the cached images, in bytes
+   */
+  public long getMaxBytes() {
+    return maxBytes;
+  }
+
+  /**
+   * Changes the maximum memory of the cached images.
+   *
+   * @param maxBytes new maximum, in bytes
+   */
+  public void setMaxBytes(long maxBytes) {
+    this.maxBytes = maxBytes;
+    removeOldEntries();
+  }
+
+  /**
+   * @return whether loaded opaque images are stored in 16-bit RGB
+   */
+  public boolean isCompactImages() {
+    return compactImages;
+  }
+
+  /**
+   * Sets whether loaded opaque images are stored in 16-bit RGB.
+   *
+   * @param compactImages true to compact the images loaded from now on
+   */
+  public void setCompactImages(boolean compactImages) {
+    this.compactImages = compactImages;
+  }
+
+  /**
+   * @return memory of the cached images, in bytes
+   */
+  public long getTotalBytes() {
+    return totalBytes.get();
+  }
+
+  /**
+   * @return number of lookups that found their tile
+   */
+  public long getHits() {
+    return hits.sum();
+  }
+
+  /**
+   * @return number of lookups that did not find their tile
+   */
+  public long getMisses() {
+    return misses.sum();
+  }
+
+  /**
+   * @return number of tiles evicted to fit the size or the memory budget
+   */
+  public long getEvictions() {
+    return evictions.sum();
+  }
+
+  /**
+   * Tile with its reference bit, set when the tile is looked up and cleared
+   * by the clock hand, and the memory accounted for its image.
+   */
+  protected static class CacheEntry {
+    private final Tile tile;
+    private volatile boolean referenced;
+    private BufferedImage accounted;
+    private long bytes;
+    private boolean removed;
+
+    protected CacheEntry(Tile tile) {
+      this.tile = tile;
+    }
+
+    @Override
+    public String toString() {
+      return tile.toString();
+    }
+  }
+}
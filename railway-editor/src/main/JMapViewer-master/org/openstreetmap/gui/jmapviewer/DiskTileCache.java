@@ -0,0 +1,490 @@
+// License: GPL. For details, see Readme.txt file.
+package org.openstreetmap.gui.jmapviewer;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.imageio.ImageIO;
+
+import org.openstreetmap.gui.jmapviewer.interfaces.TileCache;
+import org.openstreetmap.gui.jmapviewer.interfaces.TileSource;
+
+/**
+ * {@link TileCache} implementation that keeps the downloaded tiles on disk,
+ * so that they survive a restart of the application. It is meant to sit
+ * under a memory cache, such as {@link ConcurrentTileCache}: the
+ * {@link OsmTileLoader} looks a tile up here, on its own threads, before
+ * downloading it, and stores every downloaded tile here.
+ * <p>
+ * Each tile is stored as the bytes received from the server in
+ * {@code <source>/<zoom>/<x>/<y>.tile}, next to a {@code .meta} file holding
+ * its metadata ({@code etag}, {@code expires}, ...). When the total size
+ * exceeds {@link #getMaxBytes()} the least recently used tiles are deleted.
+ * A tile past its {@code expires} date is returned with its image but not
+ * marked as loaded, so that the loader revalidates it with its
+ * {@code etag}.
+ */
+public class DiskTileCache implements TileCache {
+
+  private static final Logger LOG = FeatureAdapter.getLogger(DiskTileCache.class);
+
+  /** Extension of the tile image files */
+  public static final String TILE_EXTENSION = ".tile";
+  /** Extension of the tile metadata files */
+  public static final String META_EXTENSION = ".meta";
+  /** Metadata key of the entity tag of a tile */
+  public static final String ETAG = "etag";
+  /** Metadata key of the expiry date of a tile, in epoch milliseconds */
+  public static final String EXPIRES = "expires";
+
+  protected final File directory;
+  protected long maxBytes;
+
+  /**
+   * Size in bytes of each stored tile, by relative path without extension,
+   * in least recently used order.
+   */
+  protected final LinkedHashMap<String, Long> entries =
+      new LinkedHashMap<>(256, 0.75f, true);
+  protected long totalBytes;
+
+  /** Lock of the indexing, held while the directory is walked */
+  private final Object indexLock = new Object();
+  /** Whether the tiles already stored have been indexed */
+  private volatile boolean indexed;
+
+  /**
+   * Constructs a new {@code DiskTileCache}. The tiles already stored in the
+   * directory are indexed on first use, which happens on the loader
+   * threads, so the constructor can be called from the event dispatch
+   * thread.
+   *
+   * @param directory directory of the cache, created if needed
+   * @param maxBytes maximum total size of the stored tiles
+   */
+  public DiskTileCache(File directory, long maxBytes) {
+    this.directory = directory;
+    this.maxBytes = maxBytes;
+    if (!directory.isDirectory() && !directory.mkdirs()) {
+      LOG.warning("Unable to create the tile cache " + directory);
+    }
+  }
+
+  /**
+   * Indexes the stored tiles if not done yet, the other callers waiting for
+   * the end of the walk.
+   */
+  private void ensureIndexed() {
+    if (!indexed) {
+      synchronized (indexLock) {
+        if (!indexed) {
+          index();
+          indexed = true;
+        }
+      }
+    }
+  }
+
+  /**
+   * Reads the stored tiles, oldest first so that they are evicted first.
+   */
+  private void index() {
+    final List<Path> files = new ArrayList<>();
+    final Map<Path, Long> modified = new LinkedHashMap<>();
+    try {
+      Files.walkFileTree(directory.toPath(), new SimpleFileVisitor<Path>() {
+        @Override
+        public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+          if (file.getFileName().toString().endsWith(TILE_EXTENSION)) {
+            files.add(file);
+            modified.put(file, attrs.lastModifiedTime().toMillis());
+          }
+          return FileVisitResult.CONTINUE;
+        }
+      });
+    } catch (IOException e) {
+      LOG.log(Level.WARNING, "Unable to index the tile cache " + directory, e);
+    }
+    files.sort(Comparator.comparing(modified::get));
+    Map<String, Long> sizes = new LinkedHashMap<>();
+    for (Path file : files) {
+      String path = directory.toPath().relativize(file).toString()
+          .replace(File.separatorChar, '/');
+      path = path.substring(0, path.length() - TILE_EXTENSION.length());
+      sizes.put(path, file.toFile().length() + metaFile(path).length());
+    }
+    List<String> evicted;
+    synchronized (this) {
+      for (Map.Entry<String, Long> size : sizes.entrySet()) {
+        entries.put(size.getKey(), size.getValue());
+        totalBytes += size.getValue();
+      }
+      evicted = removeOldEntries();
+    }
+    deleteFiles(evicted);
+  }
+
+  /**
+   * Relative path of a tile, without extension.
+   *
+   * @param source tile source
+   * @param x tile number on the x axis
+   * @param y tile number on the y axis
+   * @param z zoom level
+   * @return path of the tile in the cache
+   */
+  protected static String tilePath(TileSource source, int x, int y, int z) {
+    return source.getName().replaceAll("[^A-Za-z0-9._-]", "_")
+        + "/" + z + "/" + x + "/" + y;
+  }
+
+  private File tileFile(String path) {
+    return new File(directory, path + TILE_EXTENSION);
+  }
+
+  private File metaFile(String path) {
+    return new File(directory, path + META_EXTENSION);
+  }
+
+  /**
+   * Retrieves a tile from the disk. The image is decoded on the calling
+   * thread, so this should not be called from the event dispatch thread.
+   */
+  @Override
+  public Tile getTile(TileSource source, int x, int y, int z) {
+    Tile tile = new Tile(source, x, y, z);
+    return loadTile(tile) ? tile : null;
+  }
+
+  /**
+   * Fills a tile with its image and metadata from the disk, marking it as
+   * loaded unless it is expired.
+   *
+   * @param tile the tile to fill
+   * @return true if the tile was found on disk
+   */
+  public boolean loadTile(Tile tile) {
+    ensureIndexed();
+    String path = tilePath(tile.getSource(), tile.getXtile(), tile.getYtile(), tile.getZoom());
+    synchronized (this) {
+      if (entries.get(path) == null) {
+        return false;
+      }
+    }
+    try {
+      Properties meta = readMeta(path);
+      tile.loadImage(new ByteArrayInputStream(read(tileFile(path))));
+      if (tile.getImage() == null) {
+        remove(path);
+        return false;
+      }
+      for (String key : meta.stringPropertyNames()) {
+        tile.putValue(key, meta.getProperty(key));
+      }
+      tile.setLoaded(!isExpired(tile));
+      return true;
+    } catch (IOException e) {
+      // Deleted by another process or corrupted, download it again
+      LOG.log(Level.FINE, "Unable to read cached tile " + path, e);
+      remove(path);
+      return false;
+    }
+  }
+
+  /**
+   * Whether the expiry date of a tile is past.
+   *
+   * @param tile the tile
+   * @return true if the tile has an expiry date in the past
+   */
+  public static boolean isExpired(Tile tile) {
+    String expires = tile.getValue(EXPIRES);
+    if (expires == null) {
+      return false;
+    }
+    try {
+      return Long.parseLong(expires) < System.currentTimeMillis();
+    } catch (NumberFormatException e) {
+      return true;
+    }
+  }
+
+  /**
+   * Reads a whole file through a channel.
+   */
+  private static byte[] read(File file) throws IOException {
+    try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+      long size = channel.size();
+      if (size > Integer.MAX_VALUE) {
+        throw new IOException("Tile too large: " + file);
+      }
+      ByteBuffer buffer = ByteBuffer.allocate((int) size);
+      while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+        // read until the end of the file
+      }
+      return buffer.array();
+    }
+  }
+
+  private Properties readMeta(String path) throws IOException {
+    Properties meta = new Properties();
+    File file = metaFile(path);
+    if (file.isFile()) {
+      try (InputStream input = Files.newInputStream(file.toPath())) {
+        meta.load(input);
+      }
+    }
+    return meta;
+  }
+
+  /**
+   * Adds a loaded tile to the cache, encoding its image as PNG. Tiles that
+   * are not loaded yet are ignored; the loader stores the downloaded bytes
+   * with {@link #putTileData(Tile, byte[])} instead.
+   */
+  @Override
+  public void addTile(Tile tile) {
+    if (!tile.isLoaded() || tile.hasError() || tile.getImage() == null
+        || tile.getImage() == Tile.LOADING_IMAGE) {
+      return;
+    }
+    ensureIndexed();
+    String path = tilePath(tile.getSource(), tile.getXtile(), tile.getYtile(), tile.getZoom());
+    synchronized (this) {
+      if (entries.containsKey(path)) {
+        return;
+      }
+    }
+    ByteArrayOutputStream png = new ByteArrayOutputStream();
+    try {
+      ImageIO.write(tile.getImage(), "png", png);
+    } catch (IOException e) {
+      LOG.log(Level.WARNING, "Unable to encode tile " + tile.getKey(), e);
+      return;
+    }
+    putTileData(tile, png.toByteArray());
+  }
+
+  /**
+   * Stores the bytes of a downloaded tile with its metadata.
+   *
+   * @param tile the tile
+   * @param data the image bytes, as received from the server
+   */
+  public void putTileData(Tile tile, byte[] data) {
+    ensureIndexed();
+    String path = tilePath(tile.getSource(), tile.getXtile(), tile.getYtile(), tile.getZoom());
+    try {
+      long size = write(tileFile(path), data) + writeMeta(path, tile);
+      List<String> evicted;
+      synchronized (this) {
+        Long previous = entries.put(path, size);
+        totalBytes += size - (previous == null ? 0 : previous);
+        evicted = removeOldEntries();
+      }
+      deleteFiles(evicted);
+    } catch (IOException e) {
+      LOG.log(Level.WARNING, "Unable to store tile " + tile.getKey(), e);
+    }
+  }
+
+  /**
+   * Updates the metadata of a stored tile, after a revalidation.
+   *
+   * @param tile the tile
+   */
+  public void putMetadata(Tile tile) {
+    ensureIndexed();
+    String path = tilePath(tile.getSource(), tile.getXtile(), tile.getYtile(), tile.getZoom());
+    synchronized (this) {
+      if (!entries.containsKey(path)) {
+        return;
+      }
+    }
+    try {
+      writeMeta(path, tile);
+    } catch (IOException e) {
+      LOG.log(Level.WARNING, "Unable to store metadata of tile " + tile.getKey(), e);
+    }
+  }
+
+  private long writeMeta(String path, Tile tile) throws IOException {
+    Properties meta = new Properties();
+    meta.putAll(tile.getMetadata());
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    meta.store(bytes, null);
+    return write(metaFile(path), bytes.toByteArray());
+  }
+
+  /**
+   * Writes a file atomically, through a temporary file in the same folder,
+   * so that a concurrent reader never sees a partial tile.
+   */
+  private static long write(File file, byte[] data) throws IOException {
+    File folder = file.getParentFile();
+    if (!folder.isDirectory() && !folder.mkdirs() && !folder.isDirectory()) {
+      throw new IOException("Unable to create " + folder);
+    }
+    Path temporary = Files.createTempFile(folder.toPath(), file.getName(), ".tmp");
+    try {
+      try (OutputStream output = Files.newOutputStream(temporary)) {
+        output.write(data);
+      }
+      try {
+        Files.move(temporary, file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+            StandardCopyOption.ATOMIC_MOVE);
+      } catch (AtomicMoveNotSupportedException e) {
+        Files.move(temporary, file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+      }
+    } finally {
+      Files.deleteIfExists(temporary);
+    }
+    return data.length;
+  }
+
+  /**
+   * Removes the least recently used tiles from the index until the size
+   * fits. Their files are deleted by the caller with
+   * {@link #deleteFiles(List)}, once the lock is released, so that the
+   * other threads do not wait for the disk.
+   *
+   * @return the paths of the removed tiles
+   */
+  protected synchronized List<String> removeOldEntries() {
+    List<String> evicted = new ArrayList<>();
+    Iterator<Map.Entry<String, Long>> eldest = entries.entrySet().iterator();
+    while (totalBytes > maxBytes && eldest.hasNext()) {
+      Map.Entry<String, Long> entry = eldest.next();
+      eldest.remove();
+      totalBytes -= entry.getValue();
+      evicted.add(entry.getKey());
+    }
+    return evicted;
+  }
+
+  private void remove(String path) {
+    synchronized (this) {
+      Long size = entries.remove(path);
+      if (size != null) {
+        totalBytes -= size;
+      }
+    }
+    deleteFiles(path);
+  }
+
+  /**
+   * Deletes the files of tiles removed from the index. A tile stored again
+   * meanwhile may lose its file, it is then downloaded again.
+   *
+   * @param paths paths of the tiles
+   */
+  protected void deleteFiles(List<String> paths) {
+    for (String path : paths) {
+      deleteFiles(path);
+    }
+  }
+
+  private void deleteFiles(String path) {
+    try {
+      Files.deleteIfExists(tileFile(path).toPath());
+      Files.deleteIfExists(metaFile(path).toPath());
+    } catch (IOException e) {
+      LOG.log(Level.FINE, "Unable to delete cached tile " + path, e);
+    }
+  }
+
+  /**
+   * Deletes all tiles from the disk.
+   */
+  @Override
+  public void clear() {
+    ensureIndexed();
+    List<String> removed;
+    synchronized (this) {
+      removed = new ArrayList<>(entries.keySet());
+      entries.clear();
+      totalBytes = 0;
+    }
+    deleteFiles(removed);
+  }
+
+  @Override
+  public int getTileCount() {
+    ensureIndexed();
+    synchronized (this) {
+      return entries.size();
+    }
+  }
+
+  /**
+   * The disk cache is bounded by its size in bytes, see {@link #getMaxBytes()}.
+   *
+   * @return {@link Integer#MAX_VALUE}
+   */
+  @Override
+  public int getCacheSize() {
+    return Integer.MAX_VALUE;
+  }
+
+  /**
+   * @return total size of the stored tiles, in bytes
+   */
+  public long getTotalBytes() {
+    ensureIndexed();
+    synchronized (this) {
+      return totalBytes;
+    }
+  }
+
+  /**
+   * @return maximum total size of the stored tiles, in bytes
+   */
+  public synchronized long getMaxBytes() {
+    return maxBytes;
+  }
+
+  /**
+   * Changes the maximum total size of the stored tiles.
+   *
+   * @param maxBytes new maximum size, in bytes
+   */
+  public void setMaxBytes(long maxBytes) {
+    ensureIndexed();
+    List<String> evicted;
+    synchronized (this) {
+      this.maxBytes = maxBytes;
+      evicted = removeOldEntries();
+    }
+    deleteFiles(evicted);
+  }
+
+  /**
+   * @return directory of the cache
+   */
+  public File getDirectory() {
+    return directory;
+  }
+}
@@ -109,11 +109,11 @@ public class JMapViewer extends JPanel implements TileLoaderListener {
    * Creates a standard {@link JMapViewer} instance that can be controlled via
    * mouse: hold right mouse button for moving, double click left mouse button
    * or use mouse wheel for zooming. Loaded tiles are stored in a
-   * {@link MemoryTileCache} and the tile loader uses 4 parallel threads for
+   * {@link ConcurrentTileCache} and the tile loader uses 4 parallel threads for
    * retrieving the tiles.
    */
   public JMapViewer() {
-    this(new MemoryTileCache());
+    this(new ConcurrentTileCache());
     new DefaultMapController(this);
   }
 
@@ -601,6 +601,13 @@ public class JMapViewer extends JPanel implements TileLoaderListener {
     // calculate the length of the grid (number of squares per edge)
     int gridLength = 1 << zoom;
 
+    // visible tiles, to load the ones nearest to the center first
+    tileController.setViewport(new TileViewport(zoom,
+        center.x / (double) tilesize, center.y / (double) tilesize,
+        Math.floorDiv(center.x - w2, tilesize), Math.floorDiv(center.y - h2, tilesize),
+        Math.floorDiv(center.x - w2 + getWidth() - 1, tilesize),
+        Math.floorDiv(center.y - h2 + getHeight() - 1, tilesize)));
+
     // paint the tiles in a spiral, starting from center of the map
     boolean painted = true;
     int x = 0;
@@ -1123,6 +1130,11 @@ public class JMapViewer extends JPanel implements TileLoaderListener {
     repaint();
   }
 
+  @Override
+  public void placeholderReady(Tile tile) {
+    repaint();
+  }
+
   /**
    * Determines whether the {@link MapRectangle}s are painted or not.
    * @return {@code true} if the {@link MapRectangle}s are painted, {@code false} otherwise
@@ -0,0 +1,116 @@
+// License: GPL. For details, see Readme.txt file.
+package org.openstreetmap.gui.jmapviewer;
+
+import static org.openstreetmap.gui.jmapviewer.FeatureAdapter.tr;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.openstreetmap.gui.jmapviewer.interfaces.TileJob;
+import org.openstreetmap.gui.jmapviewer.interfaces.TileLoader;
+import org.openstreetmap.gui.jmapviewer.interfaces.TileLoaderListener;
+import org.openstreetmap.gui.jmapviewer.tilesources.OfflineTileSource;
+
+/**
+ * A {@link TileLoader} implementation that loads the tiles of an
+ * {@link OfflineTileSource} from its {@link TilePackage}, without network
+ * access. Tiles missing from the package are left blank.
+ */
+public class OfflineTileLoader implements TileLoader {
+
+  private static final Logger LOG = FeatureAdapter.getLogger(OfflineTileLoader.class);
+
+  /** Reading mapped tiles is cheap, a couple of threads decode them */
+  private static final ThreadPoolExecutor jobDispatcher = (ThreadPoolExecutor) Executors.newFixedThreadPool(
+      Math.max(2, Runtime.getRuntime().availableProcessors() / 2), runnable -> {
+        Thread thread = new Thread(runnable, "offline-tile-loader");
+        thread.setDaemon(true);
+        return thread;
+      });
+
+  protected TileLoaderListener listener;
+
+  /**
+   * Constructs a new {@code OfflineTileLoader}.
+   * @param listener tile loader listener
+   */
+  public OfflineTileLoader(TileLoaderListener listener) {
+    this.listener = listener;
+  }
+
+  @Override
+  public TileJob createTileLoaderJob(final Tile tile) {
+    return new TileJob() {
+      @Override
+      public void run() {
+        synchronized (tile) {
+          if ((tile.isLoaded() && !tile.hasError()) || tile.isLoading())
+            return;
+          tile.initLoading();
+        }
+        boolean success = true;
+        try {
+          if (!(tile.getSource() instanceof OfflineTileSource)) {
+            tile.setError(tr("Not an offline tile source"));
+            success = false;
+          } else {
+            TilePackage tilePackage = ((OfflineTileSource) tile.getSource()).getTilePackage();
+            byte[] data = tilePackage.getTile(tile.getZoom(), tile.getXtile(), tile.getYtile());
+            if (data == null) {
+              // outside of the package: keep the placeholder, if any
+              if (tile.getImage() == Tile.LOADING_IMAGE) {
+                tile.setImage(null);
+              }
+              tile.putValue("tile-info", "no-tile");
+            } else {
+              tile.loadImage(new ByteArrayInputStream(data));
+              success = tile.getImage() != null;
+              if (!success) {
+                tile.setError(tr("Unreadable offline tile"));
+              }
+            }
+          }
+        } catch (IOException e) {
+          LOG.log(Level.WARNING, "Failed reading offline tile " + tile.getKey(), e);
+          tile.setError(e.getMessage());
+          success = false;
+        }
+        try {
+          listener.tileLoadingFinished(tile, success);
+        } finally {
+          // like OsmTileLoader, a failed tile is not loaded again
+          tile.finishLoading();
+        }
+      }
+
+      @Override
+      public void submit() {
+        submit(false);
+      }
+
+      @Override
+      public void submit(boolean force) {
+        jobDispatcher.execute(this);
+      }
+    };
+  }
+
+  @Override
+  public boolean hasOutstandingTasks() {
+    return jobDispatcher.getTaskCount() > jobDispatcher.getCompletedTaskCount();
+  }
+
+  @Override
+  public void cancelOutstandingTasks() {
+    jobDispatcher.getQueue().clear();
+  }
+
+  @Override
+  public String toString() {
+    return getClass().getSimpleName();
+  }
+}
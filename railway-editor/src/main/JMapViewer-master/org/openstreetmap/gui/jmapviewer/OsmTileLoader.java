@@ -3,12 +3,16 @@ package org.openstreetmap.gui.jmapviewer;
 
 import static org.openstreetmap.gui.jmapviewer.FeatureAdapter.tr;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.HttpURLConnection;
 import java.net.URL;
 import java.net.URLConnection;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.concurrent.Executors;
@@ -22,6 +26,10 @@ import org.openstreetmap.gui.jmapviewer.interfaces.TileLoaderListener;
 
 /**
  * A {@link TileLoader} implementation that loads tiles from OSM.
+ * <p>
+ * Tiles are not downloaded in request order: each free download thread
+ * takes the pending tile nearest to the center of the {@link TileViewport},
+ * and tiles that left the viewport or its zoom level are dropped.
  *
  * @author Jan Peter Stotz
  */
@@ -62,21 +70,43 @@ public class OsmTileLoader implements TileLoader {
         tile.loading = true;
       }
       try {
+        // Second tier, under the memory cache: an expired tile keeps its
+        // image while it is revalidated
+        boolean stale = false;
+        if (diskCache != null && !force && diskCache.loadTile(tile)) {
+          if (tile.isLoaded()) {
+            listener.tileLoadingFinished(tile, true);
+            return;
+          }
+          stale = true;
+        }
         URLConnection conn = loadTileFromOsm(tile);
         if (force) {
           conn.setUseCaches(false);
         }
+        String etag = tile.getValue(DiskTileCache.ETAG);
+        if (stale && etag != null) {
+          conn.setRequestProperty("If-None-Match", etag);
+        }
         loadTileMetadata(tile, conn);
-        if ("no-tile".equals(tile.getValue("tile-info"))) {
+        if (stale && conn instanceof HttpURLConnection
+            && ((HttpURLConnection) conn).getResponseCode() == HttpURLConnection.HTTP_NOT_MODIFIED) {
+          diskCache.putMetadata(tile);
+        } else if ("no-tile".equals(tile.getValue("tile-info"))) {
           tile.setError(tr("No tiles at this zoom level"));
         } else {
           input = conn.getInputStream();
+          byte[] data;
           try {
-            tile.loadImage(input);
+            data = readAll(input);
           } finally {
             input.close();
             input = null;
           }
+          tile.loadImage(new ByteArrayInputStream(data));
+          if (diskCache != null && tile.getImage() != null) {
+            diskCache.putTileData(tile, data);
+          }
         }
         tile.setLoaded(true);
         listener.tileLoadingFinished(tile, true);
@@ -105,10 +135,103 @@ public class OsmTileLoader implements TileLoader {
     @Override
     public void submit(boolean force) {
       this.force = force;
-      jobDispatcher.execute(this);
+      synchronized (pending) {
+        // a tile is requested on every paint until it is loaded
+        if (pending.putIfAbsent(tile.getKey(), this) != null) {
+          return;
+        }
+      }
+      // each queued task runs the most urgent pending job
+      jobDispatcher.execute(OsmTileLoader.this::runNextJob);
+    }
+  }
+
+  /**
+   * Jobs waiting for a download thread, by tile key.
+   */
+  private final Map<String, OsmTileJob> pending = new LinkedHashMap<>();
+
+  /**
+   * Tiles currently visible, null to load the tiles in request order.
+   */
+  private volatile TileViewport viewport;
+
+  private int droppedJobs;
+
+  /**
+   * Runs the pending job whose tile is nearest to the center of the
+   * viewport, dropping the jobs of the tiles no longer needed.
+   */
+  private void runNextJob() {
+    OsmTileJob next = null;
+    synchronized (pending) {
+      TileViewport current = viewport;
+      double best = Double.MAX_VALUE;
+      for (Iterator<OsmTileJob> it = pending.values().iterator(); it.hasNext();) {
+        OsmTileJob job = it.next();
+        if (current == null) {
+          next = job;
+          break;
+        }
+        if (!current.isWanted(job.tile)) {
+          // requested again by the paint loop if it comes back into view
+          it.remove();
+          droppedJobs++;
+          continue;
+        }
+        double distance = current.distanceSq(job.tile);
+        if (distance < best) {
+          best = distance;
+          next = job;
+        }
+      }
+      if (next != null) {
+        pending.remove(next.tile.getKey());
+      }
+    }
+    if (next != null) {
+      next.run();
     }
   }
 
+  /**
+   * Sets the tiles currently visible: the pending tiles nearest to its
+   * center are loaded first, and those outside of it are dropped.
+   *
+   * @param viewport the visible tiles, null to load the tiles in request order
+   */
+  public void setViewport(TileViewport viewport) {
+    this.viewport = viewport;
+  }
+
+  /**
+   * @return number of jobs dropped because their tile left the viewport
+   */
+  public int getDroppedJobs() {
+    synchronized (pending) {
+      return droppedJobs;
+    }
+  }
+
+  /**
+   * Reads a whole stream, keeping the bytes to store them on disk.
+   */
+  private static byte[] readAll(InputStream input) throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream(16 * 1024);
+    byte[] buffer = new byte[8192];
+    int read;
+    while ((read = input.read(buffer)) != -1) {
+      bytes.write(buffer, 0, read);
+    }
+    return bytes.toByteArray();
+  }
+
+  /**
+   * Disk cache looked up before downloading a tile, and storing the
+   * downloaded tiles. May be null.
+   */
+  protected DiskTileCache diskCache;
+
   /**
    * Holds the HTTP headers. Insert e.g. User-Agent here when default should not be used.
    */
@@ -160,6 +283,10 @@ public class OsmTileLoader implements TileLoader {
     if (str != null) {
       tile.putValue("tile-info", str);
     }
+    str = urlConn.getHeaderField("ETag");
+    if (str != null) {
+      tile.putValue(DiskTileCache.ETAG, str);
+    }
 
     Long lng = urlConn.getExpiration();
     if (lng.equals(0L)) {
@@ -181,7 +308,7 @@ public class OsmTileLoader implements TileLoader {
       }
     }
     if (!lng.equals(0L)) {
-      tile.putValue("expires", lng.toString());
+      tile.putValue(DiskTileCache.EXPIRES, lng.toString());
     }
   }
 
@@ -195,6 +322,22 @@ public class OsmTileLoader implements TileLoader {
       urlConn.setReadTimeout(timeoutRead);
   }
 
+  /**
+   * Sets the disk cache looked up before downloading a tile.
+   *
+   * @param diskCache the disk cache, null to always download the tiles
+   */
+  public void setDiskCache(DiskTileCache diskCache) {
+    this.diskCache = diskCache;
+  }
+
+  /**
+   * @return the disk cache looked up before downloading a tile, or null
+   */
+  public DiskTileCache getDiskCache() {
+    return diskCache;
+  }
+
   @Override
   public String toString() {
     return getClass().getSimpleName();
@@ -202,12 +345,20 @@ public class OsmTileLoader implements TileLoader {
 
   @Override
   public boolean hasOutstandingTasks() {
+    synchronized (pending) {
+      if (!pending.isEmpty()) {
+        return true;
+      }
+    }
     return jobDispatcher.getTaskCount() > jobDispatcher.getCompletedTaskCount();
   }
 
   @Override
   public void cancelOutstandingTasks() {
-    jobDispatcher.getQueue().clear();
+    // the queued tasks of this loader find nothing left to run
+    synchronized (pending) {
+      pending.clear();
+    }
   }
 
   /**
@@ -0,0 +1,124 @@
+// License: GPL. For details, see Readme.txt file.
+package org.openstreetmap.gui.jmapviewer;
+
+import java.awt.image.BufferedImage;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
+
+import org.openstreetmap.gui.jmapviewer.interfaces.TileCache;
+import org.openstreetmap.gui.jmapviewer.interfaces.TileLoaderListener;
+
+/**
+ * Small cache of the scaled placeholders shown while tiles load, built from
+ * the tiles of the neighbouring zoom levels by
+ * {@link Tile#createPlaceholder(TileCache)}.
+ * <p>
+ * Scaling is done on a background thread, so the paint loop never draws
+ * sub-images. A placeholder is built once and kept here, apart from the
+ * tiles, so zooming back and forth shows it again at once, even when its
+ * tile has been evicted meanwhile.
+ */
+public class PlaceholderCache {
+
+  /** Scaling is cheap next to decoding, a single thread does it */
+  private static final ThreadPoolExecutor scaler = (ThreadPoolExecutor) Executors.newFixedThreadPool(1, runnable -> {
+    Thread thread = new Thread(runnable, "tile-placeholder");
+    thread.setDaemon(true);
+    return thread;
+  });
+
+  private final Map<String, BufferedImage> images;
+  private final Set<String> pending = ConcurrentHashMap.newKeySet();
+  private volatile int cacheSize;
+
+  /**
+   * Constructs a new {@code PlaceholderCache}.
+   * @param cacheSize maximum number of placeholders kept
+   */
+  public PlaceholderCache(int cacheSize) {
+    this.cacheSize = cacheSize;
+    images = Collections.synchronizedMap(new LinkedHashMap<String, BufferedImage>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<String, BufferedImage> eldest) {
+        return size() > PlaceholderCache.this.cacheSize;
+      }
+    });
+  }
+
+  /**
+   * Gives a placeholder to a tile that is not loaded: the cached one right
+   * away, or one built in the background from the tiles in the cache. The
+   * listener is told when a placeholder built in the background is set.
+   *
+   * @param tile the tile waiting for its image
+   * @param cache the tiles to build the placeholder from
+   * @param listener notified with {@link TileLoaderListener#placeholderReady(Tile)}
+   */
+  public void request(final Tile tile, final TileCache cache, final TileLoaderListener listener) {
+    if (tile.isLoaded())
+      return;
+    BufferedImage image = images.get(tile.getKey());
+    if (image != null) {
+      tile.setPlaceholder(image);
+      return;
+    }
+    if (!pending.add(tile.getKey()))
+      return;
+    scaler.execute(() -> {
+      try {
+        if (tile.isLoaded())
+          return;
+        BufferedImage placeholder = tile.createPlaceholder(cache);
+        if (placeholder != null) {
+          images.put(tile.getKey(), placeholder);
+          if (tile.setPlaceholder(placeholder)) {
+            listener.placeholderReady(tile);
+          }
+        }
+      } finally {
+        pending.remove(tile.getKey());
+      }
+    });
+  }
+
+  /**
+   * @param tile the tile
+   * @return the cached placeholder of the tile, or null
+   */
+  public BufferedImage getPlaceholder(Tile tile) {
+    return images.get(tile.getKey());
+  }
+
+  /**
+   * @return number of placeholders kept
+   */
+  public int getCount() {
+    return images.size();
+  }
+
+  public int getCacheSize() {
+    return cacheSize;
+  }
+
+  /**
+   * Changes the maximum number of placeholders kept; the least recently
+   * used go first once the cache is over it.
+   *
+   * @param cacheSize new maximum number of placeholders
+   */
+  public void setCacheSize(int cacheSize) {
+    this.cacheSize = cacheSize;
+  }
+
+  /**
+   * Removes all the placeholders, for instance when the tile source changes.
+   */
+  public void clear() {
+    images.clear();
+  }
+}
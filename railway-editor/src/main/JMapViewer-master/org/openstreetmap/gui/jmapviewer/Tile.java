@@ -45,6 +45,8 @@ public class Tile {
   protected volatile boolean loading;
   protected volatile boolean error;
   protected String error_message;
+  /** Image shown until the tile is loaded, replaced by the loaded image */
+  protected BufferedImage placeholder;
 
   /** TileLoader-specific tile metadata */
   protected Map<String, String> metadata;
@@ -120,6 +122,19 @@ public class Tile {
    * @param cache Tile cache
    */
   public void loadPlaceholderFromCache(TileCache cache) {
+    BufferedImage scaled = createPlaceholder(cache);
+    if (scaled != null) {
+      image = scaled;
+    }
+  }
+
+  /**
+   * Builds a placeholder from the tiles of a lower or higher zoom level
+   * (one or two level difference) in the cache, scaled to this tile.
+   * @param cache Tile cache
+   * @return the placeholder, or null if the cache has no tile to build it from
+   */
+  public BufferedImage createPlaceholder(TileCache cache) {
     /*
      *  use LazyTask as creation of BufferedImage is very expensive
      *  this way we can avoid object creation until we're sure it's needed
@@ -165,8 +180,7 @@ public class Tile {
           }
         }
         if (paintedTileCount == factor * factor) {
-          image = tmpImage.call();
-          return;
+          return tmpImage.call();
         }
       }
 
@@ -193,11 +207,26 @@ public class Tile {
         Tile tile = cache.getTile(source, xtileLow, ytileLow, zoomLow);
         if (tile != null && tile.isLoaded()) {
           tile.paint(graphics.call(), 0, 0);
-          image = tmpImage.call();
-          return;
+          return tmpImage.call();
         }
       }
     }
+    return null;
+  }
+
+  /**
+   * Shows a placeholder until the tile is loaded. The image of a loaded tile
+   * is never replaced, even when the placeholder was built concurrently.
+   *
+   * @param placeholder the placeholder image
+   * @return whether the placeholder was set
+   */
+  public synchronized boolean setPlaceholder(BufferedImage placeholder) {
+    if (loaded || (image != LOADING_IMAGE && image != ERROR_IMAGE && image != this.placeholder))
+      return false;
+    image = placeholder;
+    this.placeholder = placeholder;
+    return true;
   }
 
   public TileSource getSource() {
@@ -239,7 +268,7 @@ public class Tile {
     return image;
   }
 
-  public void setImage(BufferedImage image) {
+  public synchronized void setImage(BufferedImage image) {
     this.image = image;
   }
 
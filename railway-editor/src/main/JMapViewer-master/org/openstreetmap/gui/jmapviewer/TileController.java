@@ -10,13 +10,37 @@ public class TileController {
   protected TileLoader tileLoader;
   protected TileCache tileCache;
   protected TileSource tileSource;
+  protected DiskTileCache diskCache;
+  protected final TileLoaderListener loaderListener;
+  protected final TileLoaderListener listener;
+  protected PlaceholderCache placeholders = new PlaceholderCache(32);
+  protected TileViewport viewport;
 
-  public TileController(TileSource source, TileCache tileCache, TileLoaderListener listener) {
+  public TileController(TileSource source, TileCache tileCache, final TileLoaderListener listener) {
     this.tileSource = source;
-    this.tileLoader = new OsmTileLoader(listener);
+    this.listener = listener;
+    // lets the cache account for the loaded images on the loader threads
+    this.loaderListener = (tile, success) -> {
+      TileCache cache = this.tileCache;
+      if (cache instanceof ConcurrentTileCache) {
+        ((ConcurrentTileCache) cache).tileLoaded(tile);
+      }
+      listener.tileLoadingFinished(tile, success);
+    };
+    this.tileLoader = new OsmTileLoader(loaderListener);
     this.tileCache = tileCache;
   }
 
+  /**
+   * Listener to give to the tile loaders, notifying the tile cache and the
+   * map when a tile is loaded.
+   *
+   * @return the listener of the tile loaders
+   */
+  public TileLoaderListener getTileLoaderListener() {
+    return loaderListener;
+  }
+
   /**
    * retrieves a tile from the cache. If the tile is not present in the cache
    * a load job is added to the working queue of {@link TileLoader}.
@@ -35,10 +59,10 @@ public class TileController {
     if (tile == null) {
       tile = new Tile(tileSource, tilex, tiley, zoom);
       tileCache.addTile(tile);
-      tile.loadPlaceholderFromCache(tileCache);
+      placeholders.request(tile, tileCache, listener);
     }
     if (tile.error) {
-      tile.loadPlaceholderFromCache(tileCache);
+      placeholders.request(tile, tileCache, listener);
     }
     if (!tile.isLoaded()) {
       tileLoader.createTileLoaderJob(tile).submit();
@@ -46,6 +70,65 @@ public class TileController {
     return tile;
   }
 
+  /**
+   * Sets the tiles currently visible, so that the loader gives them
+   * priority. When the view moved at the same zoom level, the ring of tiles
+   * just outside of it in the direction of the move is requested too.
+   *
+   * @param newViewport the visible tiles
+   */
+  public void setViewport(TileViewport newViewport) {
+    TileViewport previous = viewport;
+    viewport = newViewport;
+    if (tileLoader instanceof OsmTileLoader) {
+      ((OsmTileLoader) tileLoader).setViewport(newViewport);
+    }
+    if (previous != null && previous.getZoom() == newViewport.getZoom()) {
+      prefetchRing(newViewport, Double.compare(newViewport.getCenterX(), previous.getCenterX()),
+          Double.compare(newViewport.getCenterY(), previous.getCenterY()));
+    }
+  }
+
+  /**
+   * Requests the tiles bordering the viewport on the sides it moves to.
+   *
+   * @param v the visible tiles
+   * @param dx direction of the move on the x axis: -1, 0 or 1
+   * @param dy direction of the move on the y axis: -1, 0 or 1
+   */
+  protected void prefetchRing(TileViewport v, int dx, int dy) {
+    int zoom = v.getZoom();
+    if (dx != 0) {
+      int x = dx > 0 ? v.getMaxX() + 1 : v.getMinX() - 1;
+      for (int y = v.getMinY() - 1; y <= v.getMaxY() + 1; y++) {
+        getTile(x, y, zoom);
+      }
+    }
+    if (dy != 0) {
+      int y = dy > 0 ? v.getMaxY() + 1 : v.getMinY() - 1;
+      for (int x = v.getMinX() - 1; x <= v.getMaxX() + 1; x++) {
+        getTile(x, y, zoom);
+      }
+    }
+  }
+
+  public TileViewport getViewport() {
+    return viewport;
+  }
+
+  public PlaceholderCache getPlaceholderCache() {
+    return placeholders;
+  }
+
+  /**
+   * Sets the cache of the scaled placeholders shown while tiles load.
+   *
+   * @param placeholders the placeholder cache
+   */
+  public void setPlaceholderCache(PlaceholderCache placeholders) {
+    this.placeholders = placeholders;
+  }
+
   public TileCache getTileCache() {
     return tileCache;
   }
@@ -60,6 +143,27 @@ public class TileController {
 
   public void setTileLoader(TileLoader tileLoader) {
     this.tileLoader = tileLoader;
+    setDiskCache(diskCache);
+    if (tileLoader instanceof OsmTileLoader) {
+      ((OsmTileLoader) tileLoader).setViewport(viewport);
+    }
+  }
+
+  public DiskTileCache getDiskCache() {
+    return diskCache;
+  }
+
+  /**
+   * Sets the disk cache looked up by the tile loader when a tile is not in
+   * the memory cache.
+   *
+   * @param diskCache the disk cache, null to always download the tiles
+   */
+  public void setDiskCache(DiskTileCache diskCache) {
+    this.diskCache = diskCache;
+    if (tileLoader instanceof OsmTileLoader) {
+      ((OsmTileLoader) tileLoader).setDiskCache(diskCache);
+    }
   }
 
   public TileSource getTileLayerSource() {
@@ -0,0 +1,303 @@
+// License: GPL. For details, see Readme.txt file.
+package org.openstreetmap.gui.jmapviewer;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Tiles available offline, read from a single package file or from a
+ * {@code <zoom>/<x>/<y>.png} directory tree.
+ * <p>
+ * A package file holds the image bytes of its tiles one after the other,
+ * followed by an index sorted by tile and a footer:
+ * <pre>
+ * magic (8 bytes) | tile data ... | index: (key long, offset long, length int) ... |
+ * index offset (long) | tile count (int) | magic (8 bytes)
+ * </pre>
+ * The file is memory-mapped and the index is binary-searched in place, so
+ * opening a package does not read it. Packages are written with a
+ * {@link Writer} and are limited to 2 GB.
+ */
+public abstract class TilePackage implements Closeable {
+
+  /** Extension of the package files */
+  public static final String EXTENSION = ".tiles";
+
+  private static final byte[] MAGIC = "RWTILES1".getBytes(StandardCharsets.US_ASCII);
+  private static final int INDEX_ENTRY_BYTES = 8 + 8 + 4;
+  private static final int FOOTER_BYTES = 8 + 4 + MAGIC.length;
+
+  /**
+   * Opens a package file or a tile directory.
+   *
+   * @param file the package file or the directory
+   * @return the package
+   * @throws IOException if the file is not a tile package
+   */
+  public static TilePackage open(File file) throws IOException {
+    return file.isDirectory() ? new DirectoryPackage(file) : new FilePackage(file);
+  }
+
+  /**
+   * Creates a package file, replacing any existing one.
+   *
+   * @param file the package file
+   * @return the writer of the package
+   * @throws IOException if the file cannot be created
+   */
+  public static Writer create(File file) throws IOException {
+    return new Writer(file);
+  }
+
+  /**
+   * Key of a tile, ordering the tiles by zoom, x and y.
+   */
+  static long key(int zoom, int x, int y) {
+    return ((long) zoom << 58) | ((long) x << 29) | y;
+  }
+
+  /**
+   * Reads the image bytes of a tile.
+   *
+   * @param zoom zoom level
+   * @param x tile number on the x axis
+   * @param y tile number on the y axis
+   * @return the bytes, or null if the package does not hold the tile
+   * @throws IOException if the tile cannot be read
+   */
+  public abstract byte[] getTile(int zoom, int x, int y) throws IOException;
+
+  /**
+   * @return lowest zoom level of the package
+   */
+  public abstract int getMinZoom();
+
+  /**
+   * @return highest zoom level of the package
+   */
+  public abstract int getMaxZoom();
+
+  /**
+   * @return the package file or directory
+   */
+  public abstract File getFile();
+
+  @Override
+  public void close() throws IOException {
+    // nothing to release by default
+  }
+
+  /**
+   * Package stored in a single memory-mapped file.
+   */
+  private static final class FilePackage extends TilePackage {
+    private final File file;
+    private final MappedByteBuffer buffer;
+    private final int indexOffset;
+    private final int count;
+    private final int minZoom;
+    private final int maxZoom;
+
+    FilePackage(File file) throws IOException {
+      this.file = file;
+      try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+        long size = channel.size();
+        if (size > Integer.MAX_VALUE) {
+          throw new IOException("Tile package larger than 2 GB: " + file);
+        }
+        if (size < MAGIC.length + FOOTER_BYTES) {
+          throw new IOException("Not a tile package: " + file);
+        }
+        // the mapping stays valid once the channel is closed
+        buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+      }
+      byte[] magic = new byte[MAGIC.length];
+      buffer.position(buffer.limit() - MAGIC.length);
+      buffer.get(magic);
+      long offset = buffer.getLong(buffer.limit() - FOOTER_BYTES);
+      count = buffer.getInt(buffer.limit() - FOOTER_BYTES + 8);
+      if (!Arrays.equals(MAGIC, magic) || offset < MAGIC.length || count < 0
+          || offset + (long) count * INDEX_ENTRY_BYTES != buffer.limit() - FOOTER_BYTES) {
+        throw new IOException("Not a tile package: " + file);
+      }
+      indexOffset = (int) offset;
+      minZoom = count == 0 ? 0 : (int) (keyAt(0) >>> 58);
+      maxZoom = count == 0 ? 0 : (int) (keyAt(count - 1) >>> 58);
+    }
+
+    private long keyAt(int i) {
+      return buffer.getLong(indexOffset + i * INDEX_ENTRY_BYTES);
+    }
+
+    @Override
+    public byte[] getTile(int zoom, int x, int y) throws IOException {
+      long key = key(zoom, x, y);
+      int low = 0;
+      int high = count - 1;
+      while (low <= high) {
+        int mid = (low + high) >>> 1;
+        long midKey = keyAt(mid);
+        if (midKey < key) {
+          low = mid + 1;
+        } else if (midKey > key) {
+          high = mid - 1;
+        } else {
+          int entry = indexOffset + mid * INDEX_ENTRY_BYTES;
+          long offset = buffer.getLong(entry + 8);
+          int length = buffer.getInt(entry + 16);
+          if (offset < MAGIC.length || offset + length > indexOffset) {
+            throw new IOException("Corrupted tile package: " + file);
+          }
+          byte[] data = new byte[length];
+          // the duplicate has its own position, for the concurrent readers
+          ByteBuffer tile = buffer.duplicate();
+          tile.position((int) offset);
+          tile.get(data);
+          return data;
+        }
+      }
+      return null;
+    }
+
+    @Override
+    public int getMinZoom() {
+      return minZoom;
+    }
+
+    @Override
+    public int getMaxZoom() {
+      return maxZoom;
+    }
+
+    @Override
+    public File getFile() {
+      return file;
+    }
+  }
+
+  /**
+   * Package stored as a {@code <zoom>/<x>/<y>.png} directory tree.
+   */
+  private static final class DirectoryPackage extends TilePackage {
+    private final File directory;
+    private final int minZoom;
+    private final int maxZoom;
+
+    DirectoryPackage(File directory) {
+      this.directory = directory;
+      int min = Integer.MAX_VALUE;
+      int max = 0;
+      String[] names = directory.list();
+      for (String name : names == null ? new String[0] : names) {
+        // zoom level folders only
+        if (name.matches("\\d{1,2}")) {
+          int zoom = Integer.parseInt(name);
+          min = Math.min(min, zoom);
+          max = Math.max(max, zoom);
+        }
+      }
+      minZoom = min == Integer.MAX_VALUE ? 0 : min;
+      maxZoom = max;
+    }
+
+    @Override
+    public byte[] getTile(int zoom, int x, int y) throws IOException {
+      File file = new File(directory, zoom + File.separator + x + File.separator + y + ".png");
+      return file.isFile() ? Files.readAllBytes(file.toPath()) : null;
+    }
+
+    @Override
+    public int getMinZoom() {
+      return minZoom;
+    }
+
+    @Override
+    public int getMaxZoom() {
+      return maxZoom;
+    }
+
+    @Override
+    public File getFile() {
+      return directory;
+    }
+  }
+
+  /**
+   * Writes a package file. Tiles may be added concurrently and in any
+   * order; the index is sorted and written when the writer is closed.
+   */
+  public static final class Writer implements Closeable {
+    private final RandomAccessFile output;
+    private final List<long[]> index = new ArrayList<>();
+    private long position;
+
+    private Writer(File file) throws IOException {
+      output = new RandomAccessFile(file, "rw");
+      output.setLength(0);
+      output.write(MAGIC);
+      position = MAGIC.length;
+    }
+
+    /**
+     * Adds a tile to the package.
+     *
+     * @param zoom zoom level
+     * @param x tile number on the x axis
+     * @param y tile number on the y axis
+     * @param data the image bytes of the tile
+     * @throws IOException if the tile cannot be written
+     */
+    public synchronized void putTile(int zoom, int x, int y, byte[] data) throws IOException {
+      if (position + data.length > Integer.MAX_VALUE) {
+        throw new IOException("Tile package larger than 2 GB");
+      }
+      output.write(data);
+      index.add(new long[] {key(zoom, x, y), position, data.length});
+      position += data.length;
+    }
+
+    /**
+     * @return number of tiles added
+     */
+    public synchronized int getTileCount() {
+      return index.size();
+    }
+
+    /**
+     * Writes the index and the footer and closes the file.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+      try {
+        index.sort((a, b) -> Long.compare(a[0], b[0]));
+        ByteBuffer footer = ByteBuffer.allocate(index.size() * INDEX_ENTRY_BYTES + FOOTER_BYTES);
+        long previous = -1;
+        int count = 0;
+        for (long[] entry : index) {
+          if (entry[0] == previous) {
+            // a tile added twice, the first one is kept
+            continue;
+          }
+          previous = entry[0];
+          footer.putLong(entry[0]).putLong(entry[1]).putInt((int) entry[2]);
+          count++;
+        }
+        footer.putLong(position).putInt(count).put(MAGIC);
+        output.write(footer.array(), 0, footer.position());
+      } finally {
+        output.close();
+      }
+    }
+  }
+}
@@ -0,0 +1,243 @@
+// License: GPL. For details, see Readme.txt file.
+package org.openstreetmap.gui.jmapviewer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.net.URLConnection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.openstreetmap.gui.jmapviewer.interfaces.TileSource;
+
+/**
+ * Downloads the tiles of a region over a range of zoom levels into a
+ * {@link TilePackage}, to use them offline. A fixed number of downloads run
+ * at a time, and only a few more are queued, so the tiles of a large region
+ * are never all held in memory.
+ */
+public class TilePrefetcher {
+
+  private static final Logger LOG = FeatureAdapter.getLogger(TilePrefetcher.class);
+
+  /**
+   * Receives the progress of a prefetch, from the download threads.
+   */
+  public interface ProgressListener {
+    /**
+     * @param done number of tiles downloaded or failed
+     * @param total number of tiles of the region
+     */
+    void progress(int done, int total);
+  }
+
+  /**
+   * Holds the HTTP headers, as in {@link OsmTileLoader}.
+   */
+  public Map<String, String> headers = new HashMap<>();
+
+  /**
+   * Connect and read timeouts of the downloads in milliseconds, as in
+   * {@link OsmTileLoader}, 0 to wait forever. A stalled server only costs
+   * the tiles it does not send instead of hanging the prefetch.
+   */
+  public int timeoutConnect = 10_000;
+  public int timeoutRead = 30_000;
+
+  private final TileSource source;
+  private final int threads;
+  private volatile boolean cancelled;
+
+  /**
+   * Constructs a new {@code TilePrefetcher}.
+   * @param source the tile source to download from
+   * @param threads number of concurrent downloads
+   */
+  public TilePrefetcher(TileSource source, int threads) {
+    if (threads < 1) {
+      throw new IllegalArgumentException("At least one download thread is needed");
+    }
+    this.source = source;
+    this.threads = threads;
+    headers.put("Accept", "image/png, image/jpeg, */*");
+    headers.put("User-Agent", "JMapViewer Java/" + System.getProperty("java.version"));
+  }
+
+  /**
+   * Range of tiles covering a region at a zoom level.
+   *
+   * @return minimum x, minimum y, maximum x and maximum y, inclusive
+   */
+  private int[] range(double minLat, double minLon, double maxLat, double maxLon, int zoom) {
+    int max = (1 << zoom) - 1;
+    TileXY topLeft = source.latLonToTileXY(maxLat, minLon, zoom);
+    TileXY bottomRight = source.latLonToTileXY(minLat, maxLon, zoom);
+    return new int[] {
+        clamp(topLeft.getXIndex(), max), clamp(topLeft.getYIndex(), max),
+        clamp(bottomRight.getXIndex(), max), clamp(bottomRight.getYIndex(), max)
+    };
+  }
+
+  private static int clamp(int index, int max) {
+    return Math.max(0, Math.min(max, index));
+  }
+
+  /**
+   * Number of tiles covering a region over a range of zoom levels.
+   *
+   * @param minLat south of the region
+   * @param minLon west of the region
+   * @param maxLat north of the region
+   * @param maxLon east of the region
+   * @param minZoom lowest zoom level
+   * @param maxZoom highest zoom level
+   * @return the number of tiles
+   */
+  public long countTiles(double minLat, double minLon, double maxLat, double maxLon, int minZoom, int maxZoom) {
+    long count = 0;
+    for (int zoom = minZoom; zoom <= maxZoom; zoom++) {
+      int[] range = range(minLat, minLon, maxLat, maxLon, zoom);
+      count += (long) (range[2] - range[0] + 1) * (range[3] - range[1] + 1);
+    }
+    return count;
+  }
+
+  /**
+   * Downloads the tiles covering a region over a range of zoom levels and
+   * waits for the end of the downloads. Tiles that fail are skipped.
+   *
+   * @param writer the package the tiles are added to
+   * @param minLat south of the region
+   * @param minLon west of the region
+   * @param maxLat north of the region
+   * @param maxLon east of the region
+   * @param minZoom lowest zoom level
+   * @param maxZoom highest zoom level
+   * @param listener receives the progress, may be null
+   * @return the number of tiles added to the package
+   * @throws IOException if the package cannot be written
+   * @throws InterruptedException if interrupted while waiting
+   */
+  public int prefetch(final TilePackage.Writer writer, double minLat, double minLon, double maxLat, double maxLon,
+      int minZoom, int maxZoom, final ProgressListener listener) throws IOException, InterruptedException {
+    long count = countTiles(minLat, minLon, maxLat, maxLon, minZoom, maxZoom);
+    if (count > Integer.MAX_VALUE) {
+      throw new IOException("Too many tiles: " + count);
+    }
+    final int total = (int) count;
+    final AtomicInteger done = new AtomicInteger();
+    final AtomicInteger added = new AtomicInteger();
+    final AtomicReference<IOException> writeError = new AtomicReference<>();
+    // bounds the queued downloads
+    final Semaphore slots = new Semaphore(2 * threads);
+    ExecutorService pool = Executors.newFixedThreadPool(threads);
+    try {
+      for (int zoom = minZoom; zoom <= maxZoom && !cancelled; zoom++) {
+        int[] range = range(minLat, minLon, maxLat, maxLon, zoom);
+        for (int x = range[0]; x <= range[2] && !cancelled; x++) {
+          for (int y = range[1]; y <= range[3] && !cancelled; y++) {
+            if (writeError.get() != null) {
+              throw writeError.get();
+            }
+            slots.acquire();
+            final int z = zoom;
+            final int tx = x;
+            final int ty = y;
+            pool.execute(() -> {
+              try {
+                byte[] data = download(z, tx, ty);
+                if (data != null) {
+                  writer.putTile(z, tx, ty, data);
+                  added.incrementAndGet();
+                }
+              } catch (IOException e) {
+                writeError.compareAndSet(null, e);
+              } finally {
+                slots.release();
+                if (listener != null) {
+                  listener.progress(done.incrementAndGet(), total);
+                }
+              }
+            });
+          }
+        }
+      }
+      pool.shutdown();
+      while (!pool.awaitTermination(1, TimeUnit.SECONDS)) {
+        if (cancelled) {
+          pool.shutdownNow();
+        }
+      }
+    } finally {
+      pool.shutdownNow();
+    }
+    if (writeError.get() != null) {
+      throw writeError.get();
+    }
+    return added.get();
+  }
+
+  /**
+   * Downloads a tile.
+   *
+   * @return the image bytes, or null if the download failed
+   */
+  protected byte[] download(int zoom, int x, int y) {
+    try {
+      URLConnection conn = new URL(source.getTileUrl(zoom, x, y)).openConnection();
+      if (conn instanceof HttpURLConnection) {
+        prepareHttpUrlConnection((HttpURLConnection) conn);
+        if (((HttpURLConnection) conn).getResponseCode() != HttpURLConnection.HTTP_OK) {
+          LOG.fine("No tile " + zoom + "/" + x + "/" + y + ": " + ((HttpURLConnection) conn).getResponseCode());
+          return null;
+        }
+      }
+      try (InputStream input = conn.getInputStream()) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(16 * 1024);
+        byte[] buffer = new byte[8192];
+        int read;
+        while ((read = input.read(buffer)) != -1) {
+          bytes.write(buffer, 0, read);
+        }
+        return bytes.toByteArray();
+      }
+    } catch (IOException e) {
+      LOG.log(Level.FINE, "Failed downloading tile " + zoom + "/" + x + "/" + y, e);
+      return null;
+    }
+  }
+
+  protected void prepareHttpUrlConnection(HttpURLConnection urlConn) {
+    for (Map.Entry<String, String> header : headers.entrySet()) {
+      urlConn.setRequestProperty(header.getKey(), header.getValue());
+    }
+    if (timeoutConnect != 0)
+      urlConn.setConnectTimeout(timeoutConnect);
+    if (timeoutRead != 0)
+      urlConn.setReadTimeout(timeoutRead);
+  }
+
+  /**
+   * Stops the prefetch; the tiles already downloaded are kept.
+   */
+  public void cancel() {
+    cancelled = true;
+  }
+
+  /**
+   * @return whether the prefetch was cancelled
+   */
+  public boolean isCancelled() {
+    return cancelled;
+  }
+}
@@ -0,0 +1,100 @@
+// License: GPL. For details, see Readme.txt file.
+package org.openstreetmap.gui.jmapviewer;
+
+/**
+ * Tiles visible on the map at a given time: the zoom level, the range of
+ * visible tiles and the center of the view, in tile units. Used to load the
+ * tiles nearest to the center first and to drop the requests of tiles that
+ * are no longer needed.
+ */
+public final class TileViewport {
+
+  /** Tiles kept around the visible ones, for the prefetched ring */
+  public static final int MARGIN = 1;
+
+  private final int zoom;
+  private final double centerX;
+  private final double centerY;
+  private final int minX;
+  private final int minY;
+  private final int maxX;
+  private final int maxY;
+
+  /**
+   * Constructs a new {@code TileViewport}.
+   * @param zoom zoom level
+   * @param centerX center of the view on the x axis, in tiles
+   * @param centerY center of the view on the y axis, in tiles
+   * @param minX first visible tile on the x axis
+   * @param minY first visible tile on the y axis
+   * @param maxX last visible tile on the x axis
+   * @param maxY last visible tile on the y axis
+   */
+  public TileViewport(int zoom, double centerX, double centerY, int minX, int minY, int maxX, int maxY) {
+    this.zoom = zoom;
+    this.centerX = centerX;
+    this.centerY = centerY;
+    this.minX = minX;
+    this.minY = minY;
+    this.maxX = maxX;
+    this.maxY = maxY;
+  }
+
+  /**
+   * Whether a tile is still needed: at the zoom level of the view, and
+   * visible or in the ring around the visible tiles.
+   *
+   * @param tile the tile
+   * @return true if the tile should still be loaded
+   */
+  public boolean isWanted(Tile tile) {
+    return tile.getZoom() == zoom
+        && tile.getXtile() >= minX - MARGIN && tile.getXtile() <= maxX + MARGIN
+        && tile.getYtile() >= minY - MARGIN && tile.getYtile() <= maxY + MARGIN;
+  }
+
+  /**
+   * Squared distance from the center of the view to the center of a tile.
+   *
+   * @param tile the tile
+   * @return distance, in tiles squared
+   */
+  public double distanceSq(Tile tile) {
+    double dx = tile.getXtile() + 0.5 - centerX;
+    double dy = tile.getYtile() + 0.5 - centerY;
+    return dx * dx + dy * dy;
+  }
+
+  public int getZoom() {
+    return zoom;
+  }
+
+  public double getCenterX() {
+    return centerX;
+  }
+
+  public double getCenterY() {
+    return centerY;
+  }
+
+  public int getMinX() {
+    return minX;
+  }
+
+  public int getMinY() {
+    return minY;
+  }
+
+  public int getMaxX() {
+    return maxX;
+  }
+
+  public int getMaxY() {
+    return maxY;
+  }
+
+  @Override
+  public String toString() {
+    return "TileViewport " + zoom + "/[" + minX + "-" + maxX + "]x[" + minY + "-" + maxY + "]";
+  }
+}
@@ -17,4 +17,14 @@ public interface TileLoaderListener {
    * @param success {@code true} if the tile has been loaded successfully, {@code false} otherwise
    */
   void tileLoadingFinished(Tile tile, boolean success);
+
+  /**
+   * Will be called when a placeholder built in the background has been set
+   * on a {@link Tile} still loading, from the thread that built it.
+   *
+   * @param tile The tile
+   */
+  default void placeholderReady(Tile tile) {
+    // nothing to do by default
+  }
 }
\ No newline at end of file
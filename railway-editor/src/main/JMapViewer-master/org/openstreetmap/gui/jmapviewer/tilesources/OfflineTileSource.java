@@ -0,0 +1,40 @@
+// License: GPL. For details, see Readme.txt file.
+package org.openstreetmap.gui.jmapviewer.tilesources;
+
+import org.openstreetmap.gui.jmapviewer.OfflineTileLoader;
+import org.openstreetmap.gui.jmapviewer.TilePackage;
+
+/**
+ * Tile source reading its tiles from a {@link TilePackage}, for machines
+ * without network access. Its tiles are loaded by an
+ * {@link OfflineTileLoader}.
+ */
+public class OfflineTileSource extends TMSTileSource {
+
+  private final TilePackage tilePackage;
+
+  /**
+   * Constructs a new {@code OfflineTileSource}.
+   * @param tilePackage the package holding the tiles
+   */
+  public OfflineTileSource(TilePackage tilePackage) {
+    super(info(tilePackage));
+    this.tilePackage = tilePackage;
+  }
+
+  private static TileSourceInfo info(TilePackage tilePackage) {
+    String name = tilePackage.getFile().getName();
+    TileSourceInfo info = new TileSourceInfo("Offline " + name,
+        tilePackage.getFile().toURI().toString(), "offline-" + name);
+    // lower zoom levels stay reachable, blank outside of the package
+    info.maxZoom = tilePackage.getMaxZoom();
+    return info;
+  }
+
+  /**
+   * @return the package holding the tiles
+   */
+  public TilePackage getTilePackage() {
+    return tilePackage;
+  }
+}
@@ -25,16 +25,25 @@
 package org.example.controller;
 
 
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.model.NetworkSnapshot;
 import org.example.view.MainWindow;
 
 import javax.swing.JFileChooser;
+import javax.swing.JOptionPane;
+import javax.swing.SwingWorker;
 import javax.swing.filechooser.FileNameExtensionFilter;
 import java.io.File;
+import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -67,39 +76,68 @@ public class ActionArchive {
 
   /**
    * Prompts the export dialog to choose the location to export the configs.
+   * The files are written on a worker thread, from a snapshot of the map
+   * taken now.
    */
   public void showExportDialogJsonAndXml() {
-    try {
-      LocalDateTime now = LocalDateTime.now();
-      DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM"
-          + "-dd_HH-mm");
-      String baseFolderName = now.format(formatter);
-      String folderName = baseFolderName;
-      File exportFolder =
-          new File(ARCHIVES_PATH + File.separator + folderName);
-      int increment = 1;
-
-      while (exportFolder.exists()) {
-        folderName = baseFolderName + "(" + increment + ")";
-        exportFolder = new File(ARCHIVES_PATH + File.separator
-            + folderName);
-        increment++;
+    NetworkSnapshot snapshot = NetworkHistory.getInstance().snapshot();
+    new SwingWorker<Void, Void>() {
+      @Override
+      protected Void doInBackground() throws Exception {
+        File exportFolder = createDatedFolder(new File(ARCHIVES_PATH), "");
+
+        Files.copy(Paths.get(JSON_FILE_PATH),
+            Paths.get(exportFolder.getAbsolutePath() + File.separator
+                + "config.json"),
+            StandardCopyOption.REPLACE_EXISTING);
+
+        File xmlFileToSave = new File(exportFolder.getAbsolutePath()
+            + File.separator + "runThisSimulation.xml");
+
+        ActionFile.getInstance().export(snapshot, xmlFileToSave);
+        return null;
       }
-      exportFolder.mkdirs();
-
-      Files.copy(Paths.get(JSON_FILE_PATH),
-          Paths.get(exportFolder.getAbsolutePath() + File.separator
-              + "config.json"),
-          StandardCopyOption.REPLACE_EXISTING);
-
-      File xmlFileToSave = new File(exportFolder.getAbsolutePath()
-          + File.separator + "runThisSimulation.xml");
 
-      ActionFile.getInstance().export(xmlFileToSave);
+      @Override
+      protected void done() {
+        try {
+          this.get();
+        } catch (ExecutionException e) {
+          logger.log(Level.SEVERE, "Error exporting files", e.getCause());
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+      }
+    }.execute();
+  }
 
-    } catch (Exception e) {
-      logger.log(Level.SEVERE, "Error exporting files", e);
+  /**
+   * Create a folder named after the current date and time, with an
+   * increment if it already exists.
+   *
+   * @param parent the folder to create it in
+   * @param suffix appended to the date in the name of the folder
+   * @return the created folder
+   * @throws IOException if the folder cannot be created
+   */
+  public static File createDatedFolder(final File parent, final String suffix)
+      throws IOException {
+    DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM"
+        + "-dd_HH-mm");
+    String baseFolderName = LocalDateTime.now().format(formatter) + suffix;
+    File folder = new File(parent, baseFolderName);
+    int increment = 1;
+
+    // mkdir fails if the folder exists, also when created concurrently
+    parent.mkdirs();
+    while (!folder.mkdir()) {
+      if (!parent.isDirectory()) {
+        throw new IOException("Unable to create " + folder);
+      }
+      folder = new File(parent, baseFolderName + "(" + increment + ")");
+      increment++;
     }
+    return folder;
   }
 
   /**
@@ -129,7 +167,7 @@ public class ActionArchive {
               actionConfiguration.copyFile(file.getAbsolutePath(),
                   JSON_FILE_PATH);
             } else if ("xml".equalsIgnoreCase(extension)) {
-              ActionFile.getInstance().importMap(file);
+              ActionFile.getInstance().importMapInBackground(file);
             }
           }
         } catch (Exception e) {
@@ -140,4 +178,65 @@ public class ActionArchive {
     }
   }
 
+  /**
+   * Prompts the open dialog to select a parameter grid, then runs the
+   * simulator for each combination in the background. The grid is a json
+   * object giving the values of each configuration parameter, for example
+   * {@code {"population": [1000, 2000], "seed": [1, 2]}}.
+   */
+  public void showBatchDialog() {
+    JFileChooser fileChooser = new JFileChooser(ARCHIVES_PATH);
+    fileChooser.setFileFilter(new FileNameExtensionFilter(
+        "JSON Files", "json"));
+    if (fileChooser.showOpenDialog(MainWindow.getInstance().getMainPanel())
+        != JFileChooser.APPROVE_OPTION) {
+      return;
+    }
+    LinkedHashMap<String, List<Object>> grid;
+    try {
+      grid = new ObjectMapper().readValue(fileChooser.getSelectedFile(),
+          new TypeReference<LinkedHashMap<String, List<Object>>>() { });
+    } catch (IOException e) {
+      logger.log(Level.SEVERE, "Error reading parameter grid", e);
+      JOptionPane.showMessageDialog(MainWindow.getInstance(),
+          "Invalid parameter grid: " + e.getMessage(), "Batch",
+          JOptionPane.ERROR_MESSAGE);
+      return;
+    }
+
+    NetworkSnapshot snapshot = NetworkHistory.getInstance().snapshot();
+    new SwingWorker<List<SimulationBatch.RunResult>, Void>() {
+      @Override
+      protected List<SimulationBatch.RunResult> doInBackground()
+          throws Exception {
+        return ActionRunSimulation.getInstance().runBatch(snapshot, grid);
+      }
+
+      @Override
+      protected void done() {
+        String message;
+        int type = JOptionPane.INFORMATION_MESSAGE;
+        try {
+          List<SimulationBatch.RunResult> results = this.get();
+          long succeeded = results.stream()
+              .filter(SimulationBatch.RunResult::isSuccess).count();
+          message = succeeded + " of " + results.size()
+              + " runs succeeded.";
+          if (!results.isEmpty()) {
+            message += "\nResults in "
+                + results.get(0).getFolder().getParent();
+          }
+        } catch (ExecutionException e) {
+          logger.log(Level.SEVERE, "Error running batch", e.getCause());
+          message = "Batch failed: " + e.getCause().getMessage();
+          type = JOptionPane.ERROR_MESSAGE;
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          return;
+        }
+        JOptionPane.showMessageDialog(MainWindow.getInstance(), message,
+            "Batch", type);
+      }
+    }.execute();
+  }
 }
@@ -26,7 +26,6 @@ package org.example.controller;
 
 import org.example.data.Data;
 import org.example.model.Area;
-import org.openstreetmap.gui.jmapviewer.Coordinate;
 import org.example.view.AreaView;
 import org.example.view.MainWindow;
 
@@ -87,20 +86,10 @@ public class ActionArea {
     Area area = new Area(AREA_POS_X_DEFAULT,
         AREA_POS_Y_DEFAULT, AREA_WIDTH_DEFAULT, AREA_HEIGHT_DEFAULT);
 
-    Coordinate latLonTop = (Coordinate) MainWindow.getInstance().getMainPanel()
-        .getPosition(area.getPosX(), area.getPosY());
-    area.setLatitudeTop(latLonTop.getLat());
-    area.setLongitudeTop(latLonTop.getLon());
-
-    Coordinate latLonBot = (Coordinate) MainWindow.getInstance().getMainPanel()
-        .getPosition(area.getPosX() + area.getWidth(),
-            area.getPosY() + area.getHeight());
-    area.setLatitudeBot(latLonBot.getLat());
-    area.setLongitudeBot(latLonBot.getLon());
-
     Data.getInstance().getAreaList().add(area);
     AreaView areaView = new AreaView(area);
     MainWindow.getInstance().getMainPanel().addAreaView(areaView);
+    NetworkHistory.getInstance().commit();
     MainWindow.getInstance().getMainPanel().repaint();
   }
 }
@@ -152,23 +152,7 @@ public class ActionConfiguration {
         : this.editConfigDialog.getEditConfigParamPanelList()) {
       String key = editConfigParamPanel.getParamName();
       String value = editConfigParamPanel.getParamValue();
-      // Check if the value is an integer, a double or a boolean and
-      // convert it to the right type if it is the case
-      try {
-        Integer intValue = Integer.parseInt(value);
-        this.jsonMap.put(key, intValue);
-      } catch (NumberFormatException e) {
-        try {
-          Double doubleValue = Double.parseDouble(value);
-          this.jsonMap.put(key, doubleValue);
-        } catch (NumberFormatException e2) {
-          if (value.equals("true") || value.equals("false")) {
-            this.jsonMap.put(key, Boolean.valueOf(value));
-          } else {
-            this.jsonMap.put(key, value);
-          }
-        }
-      }
+      this.jsonMap.put(key, parseValue(value));
     }
 
     // Use ObjectMapper to write in the JSON file
@@ -181,6 +165,53 @@ public class ActionConfiguration {
     }
   }
 
+  /**
+   * Convert a parameter value to the type written in the json file.
+   *
+   * @param value the value as typed
+   * @return an integer, a double or a boolean if the value is one, the value
+   *     itself otherwise
+   */
+  public static Object parseValue(final String value) {
+    // Check if the value is an integer, a double or a boolean and
+    // convert it to the right type if it is the case
+    try {
+      return Integer.parseInt(value);
+    } catch (NumberFormatException e) {
+      try {
+        return Double.parseDouble(value);
+      } catch (NumberFormatException e2) {
+        if (value.equals("true") || value.equals("false")) {
+          return Boolean.valueOf(value);
+        }
+        return value;
+      }
+    }
+  }
+
+  /**
+   * Write a configuration file with some parameters overridden, without
+   * the configuration dialog. The other parameters keep their value and
+   * their type.
+   *
+   * @param source    the configuration to start from
+   * @param overrides the new values, as typed
+   * @param target    the file to write, may be the source
+   * @throws IOException if a file cannot be read or written
+   */
+  public static void writeOverrides(final File source,
+                                    final Map<String, String> overrides,
+                                    final File target) throws IOException {
+    ObjectMapper mapper = new ObjectMapper();
+    @SuppressWarnings("unchecked")
+    Map<String, Object> config = mapper.readValue(source,
+        LinkedHashMap.class);
+    for (Map.Entry<String, String> override : overrides.entrySet()) {
+      config.put(override.getKey(), parseValue(override.getValue()));
+    }
+    mapper.writeValue(target, config);
+  }
+
   /**
    * Prompts the export dialog to choose the location to export the json config.
    */
@@ -24,51 +24,34 @@
 
 package org.example.controller;
 
-import javax.xml.XMLConstants;
 import org.example.data.Data;
-import org.example.model.Area;
 import org.example.model.Event;
-import org.example.model.EventGaussianPeak;
-import org.example.model.EventRampPeak;
-import org.example.model.EventHour;
-import org.example.model.EventLineClosed;
-import org.example.model.EventMultipleStationsClosed;
-import org.example.model.EventLineDelay;
-import org.example.model.EventStationClosed;
-import org.example.model.Line;
-import org.example.model.Station;
+import org.example.model.NetworkSnapshot;
 import org.example.view.AreaView;
 import org.example.view.LineView;
+import org.example.view.MainPanel;
 import org.example.view.MainWindow;
-import org.example.view.StationView;
+import org.example.view.StationIndex;
 import org.openstreetmap.gui.jmapviewer.Coordinate;
 import org.openstreetmap.gui.jmapviewer.interfaces.ICoordinate;
-import org.w3c.dom.Attr;
-import org.w3c.dom.Document;
-import org.w3c.dom.Element;
-import org.w3c.dom.Node;
-import org.w3c.dom.NodeList;
-import org.xml.sax.SAXException;
 
 import javax.swing.JFileChooser;
+import javax.swing.JLabel;
+import javax.swing.JOptionPane;
+import javax.swing.JPanel;
+import javax.swing.JSpinner;
+import javax.swing.SpinnerNumberModel;
+import javax.swing.SwingWorker;
 import javax.swing.filechooser.FileNameExtensionFilter;
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
-import javax.xml.parsers.ParserConfigurationException;
-import javax.xml.transform.OutputKeys;
-import javax.xml.transform.Transformer;
-import javax.xml.transform.TransformerException;
-import javax.xml.transform.TransformerFactory;
-import javax.xml.transform.dom.DOMSource;
-import javax.xml.transform.stream.StreamResult;
+import javax.xml.stream.XMLStreamException;
+import java.awt.GridLayout;
 import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.logging.Logger;
 
 
 /**
@@ -123,6 +106,23 @@ public class ActionFile {
    * String of the peakSize tag.
    */
   public static final String PEAK_SIZE = "peakSize";
+  /**
+   * Logger of the class.
+   */
+  private static final Logger LOGGER =
+      Logger.getLogger(ActionFile.class.getName());
+  /**
+   * Default number of lines of a generated network.
+   */
+  private static final int GENERATED_LINES = 12;
+  /**
+   * Default number of stations of a generated network.
+   */
+  private static final int GENERATED_STATIONS = 2000;
+  /**
+   * Default number of events of a generated network.
+   */
+  private static final int GENERATED_EVENTS = 50;
   /**
    * Number of letters in alphabet.
    */
@@ -130,23 +130,48 @@ public class ActionFile {
   /**
    * End of time string.
    */
-  private static final String END_TIME_STRING = ":00.000Z";
+  static final String END_TIME_STRING = ":00.000Z";
   /**
    * Station id start xml marker.
    */
-  private static final String STATION_ID_START = "stationIdStart";
+  static final String STATION_ID_START = "stationIdStart";
   /**
    * Station id end xml marker.
    */
-  private static final String STATION_ID_END = "stationIdEnd";
+  static final String STATION_ID_END = "stationIdEnd";
   /**
    * Longitude marker.
    */
-  private static final String LONGITUDE = "longitude";
+  static final String LONGITUDE = "longitude";
   /**
    * Latitude marker.
    */
-  private static final String LATITUDE = "latitude";
+  static final String LATITUDE = "latitude";
+
+  /**
+   * Population distribution attributes, in export order.
+   */
+  static final List<String> POPULATION_ELEMENTS = Arrays.asList(
+      Data.AREA_TOURIST,
+      Data.AREA_STUDENT,
+      Data.AREA_BUSINESSMAN,
+      Data.AREA_WORKER,
+      Data.AREA_CHILD,
+      Data.AREA_RETIRED,
+      Data.AREA_UNEMPLOYED
+  );
+  /**
+   * Destination distribution attributes, in export order.
+   */
+  static final List<String> DESTINATION_ELEMENTS = Arrays.asList(
+      Data.AREA_RESIDENTIAL,
+      Data.AREA_COMMERCIAL,
+      Data.AREA_OFFICE,
+      Data.AREA_INDUSTRIAL,
+      Data.AREA_TOURISTIC,
+      Data.AREA_LEISURE,
+      Data.AREA_EDUCATIONAL
+  );
 
   /**
    * Path to the archives' folder.
@@ -157,11 +182,15 @@ public class ActionFile {
   /**
    * Line id marker.
    */
-  private static final String LINE_ID = "idLine";
+  static final String LINE_ID = "idLine";
   /**
    * Singleton instance.
    */
   private static ActionFile instance;
+  /**
+   * Import running in the background, null if none.
+   */
+  private MapImportWorker importWorker;
 
   /**
    * Create Singleton.
@@ -194,7 +223,7 @@ public class ActionFile {
       if (!fileToSave.getAbsolutePath().endsWith(".xml")) {
         fileToSave = new File(fileToSave + ".xml");
       }
-      this.export(fileToSave);
+      this.exportInBackground(fileToSave);
     }
   }
 
@@ -209,8 +238,82 @@ public class ActionFile {
     int returnVal = fileChooser.showOpenDialog(MainWindow.getInstance()
         .getMainPanel());
     if (returnVal == JFileChooser.APPROVE_OPTION) {
-      this.importMap(fileChooser.getSelectedFile());
+      this.importMapInBackground(fileChooser.getSelectedFile());
+    }
+  }
+
+  /**
+   * Prompts the dialog of the network generator, then the file to save the
+   * network to. The network is generated around the current map centre in
+   * the background, then opened.
+   */
+  public void showGenerateDialog() {
+    JSpinner lines = new JSpinner(new SpinnerNumberModel(
+        GENERATED_LINES, 1, Integer.MAX_VALUE, 1));
+    JSpinner stations = new JSpinner(new SpinnerNumberModel(
+        GENERATED_STATIONS, 2, Integer.MAX_VALUE, 100));
+    JSpinner events = new JSpinner(new SpinnerNumberModel(
+        GENERATED_EVENTS, 0, Integer.MAX_VALUE, 10));
+    JPanel panel = new JPanel(new GridLayout(0, 2));
+    panel.add(new JLabel("Lines"));
+    panel.add(lines);
+    panel.add(new JLabel("Stations"));
+    panel.add(stations);
+    panel.add(new JLabel("Events"));
+    panel.add(events);
+    if (JOptionPane.showConfirmDialog(MainWindow.getInstance(), panel,
+        "Generate network", JOptionPane.OK_CANCEL_OPTION)
+        != JOptionPane.OK_OPTION) {
+      return;
+    }
+    ICoordinate center = MainWindow.getInstance().getMainPanel()
+        .getPosition();
+    NetworkGenerator generator;
+    try {
+      generator = new NetworkGenerator((Integer) lines.getValue(),
+          (Integer) stations.getValue(), center.getLat(), center.getLon());
+    } catch (IllegalArgumentException e) {
+      JOptionPane.showMessageDialog(MainWindow.getInstance(), e.getMessage(),
+          "Generate network", JOptionPane.ERROR_MESSAGE);
+      return;
+    }
+    generator.setEventCount((Integer) events.getValue());
+    generator.setZoom(MainWindow.getInstance().getMainPanel().getZoom());
+    generator.setSeed(System.nanoTime());
+
+    JFileChooser fileChooser = new JFileChooser(ARCHIVES_PATH);
+    fileChooser.setFileFilter(new FileNameExtensionFilter("xml files",
+        "xml"));
+    fileChooser.setSelectedFile(new File("generated.xml"));
+    if (fileChooser.showSaveDialog(MainWindow.getInstance())
+        != JFileChooser.APPROVE_OPTION) {
+      return;
     }
+    File file = fileChooser.getSelectedFile();
+    File fileToSave = file.getName().endsWith(".xml") ? file
+        : new File(file + ".xml");
+    new SwingWorker<Void, Void>() {
+      @Override
+      protected Void doInBackground() throws IOException {
+        generator.generate().write(fileToSave);
+        return null;
+      }
+
+      @Override
+      protected void done() {
+        try {
+          this.get();
+          ActionFile.this.importMapInBackground(fileToSave);
+        } catch (ExecutionException e) {
+          e.getCause().printStackTrace();
+          JOptionPane.showMessageDialog(MainWindow.getInstance(),
+              "Generation failed: " + e.getCause().getMessage(),
+              "Generate network", JOptionPane.ERROR_MESSAGE);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+      }
+    }.execute();
   }
 
   /**
@@ -234,998 +337,203 @@ public class ActionFile {
       if (!fileToSave.getAbsolutePath().endsWith(".xml")) {
         fileToSave = new File(fileToSave + ".xml");
       }
-      this.export(fileToSave);
+      this.exportInBackground(fileToSave);
     }
   }
 
   /**
-   * Export the current map as xml file.
+   * Export the current map as xml file. The map is captured by
+   * {@link NetworkHistory#snapshot()}, the export is not an undo step.
+   *
+   * <p>The file is streamed by {@link MapXmlWriter}, without building the
+   * whole document in memory first.
    *
    * @param fileToSave the xml file to save
    */
   public void export(final File fileToSave) {
-    this.assignAreaToStations();
     try {
-
-      DocumentBuilderFactory documentFactory = DocumentBuilderFactory
-          .newInstance();
-      // Disable access to external entities in XML parsing.
-      documentFactory.setFeature(
-          "http://xml.org/sax/features/external-general-entities", false);
-      documentFactory.setFeature(
-          "http://xml.org/sax/features/external-parameter-entities", false);
-      documentFactory.setFeature(
-          "http://apache.org/xml/features/nonvalidating/load-external-dtd",
-          false);
-      documentFactory.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
-      DocumentBuilder documentBuilder = documentFactory.newDocumentBuilder();
-
-      Document document = documentBuilder.newDocument();
-      // root element
-      Element root = document.createElement("map");
-      document.appendChild(root);
-
-      // Export the location (with zoom and center)
-      ICoordinate centerCoordinate =
-          MainWindow.getInstance().getMainPanel().getPosition();
-      Element zoom = document.createElement("zoom");
-      zoom.appendChild(document.createTextNode(Integer.toString(
-          MainWindow.getInstance().getMainPanel().getZoom())));
-      Element latitude = document.createElement(LATITUDE);
-      latitude.appendChild(document.createTextNode(Double.toString(
-          centerCoordinate.getLat())));
-      Element longitude = document.createElement(LONGITUDE);
-      longitude.appendChild(document.createTextNode(Double.toString(
-          centerCoordinate.getLon())));
-      Element location = document.createElement("location");
-      location.appendChild(latitude);
-      location.appendChild(longitude);
-      location.appendChild(zoom);
-      root.appendChild(location);
-
-      this.exportStations(document, root);
-      this.exportLines(document, root);
-      this.exportAreas(document, root);
-      this.exportEvents(document, root);
-
-      // create the xml file
-      // transform the DOM Object to an XML File
-      TransformerFactory transformerFactory = TransformerFactory.newInstance();
-      // Disable external entities
-      transformerFactory.setAttribute(
-          "http://javax.xml.XMLConstants/property/accessExternalDTD", "");
-      transformerFactory.setAttribute(
-          "http://javax.xml.XMLConstants/property/accessExternalStylesheet",
-          "");
-      Transformer transformer = transformerFactory.newTransformer();
-      transformer.setOutputProperty(OutputKeys.ENCODING, "UTF-8");
-      transformer.setOutputProperty(OutputKeys.INDENT, "yes");
-      transformer.setOutputProperty(
-          "{https://xml.apache.org/xslt}indent-amount", "4");
-
-      DOMSource domSource = new DOMSource(document);
-      StreamResult streamResult = new StreamResult(fileToSave);
-      transformer.transform(domSource, streamResult);
-    } catch (ParserConfigurationException | TransformerException pce) {
-      pce.printStackTrace();
-    }
-  }
-
-  /**
-   * Generate the xml part of the events.
-   *
-   * @param document the document to add the events
-   * @param root     the root element of the document
-   */
-  private void exportEvents(final Document document, final Element root) {
-    // Events
-    Element events = document.createElement("events");
-    root.appendChild(events);
-    List<Event> eventList = Data.getInstance().getEventList();
-    for (Event event : eventList) {
-      // Name of the event
-      String timeStart = event.getStartTime();
-      timeStart = timeStart.replace("-", "T");
-      timeStart = timeStart.replace("/", "-");
-      timeStart = timeStart + END_TIME_STRING;
-
-      String timeEnd = event.getEndTime();
-      timeEnd = timeEnd.replace("-", "T");
-      timeEnd = timeEnd.replace("/", "-");
-      timeEnd = timeEnd + END_TIME_STRING;
-
-      Element eventName = document.createElement(event.getEventName()
-          .getString());
-      events.appendChild(eventName);
-      Element eventStart = document.createElement("start");
-      eventStart.appendChild(document.createTextNode(timeStart));
-      eventName.appendChild(eventStart);
-
-      Element eventEnd = document.createElement("end");
-      eventEnd.appendChild(document.createTextNode(timeEnd));
-      eventName.appendChild(eventEnd);
-
-      switch (event.getEventName().getString()) {
-        case "lineDelay":
-          EventLineDelay eventLineDelay = (EventLineDelay) event;
-
-          Element stationStart = document.createElement(STATION_ID_START);
-          stationStart
-              .appendChild(document.createTextNode(Integer.toString(
-                  eventLineDelay.getIdStationStart())));
-          eventName.appendChild(stationStart);
-
-          Element stationEnd = document.createElement(STATION_ID_END);
-          stationEnd.appendChild(document.createTextNode(Integer.toString(
-              eventLineDelay.getIdStationEnd())));
-          eventName.appendChild(stationEnd);
-
-          Element delay = document.createElement("delay");
-          delay.appendChild(document.createTextNode(Integer.toString(
-              eventLineDelay.getDelay())));
-          eventName.appendChild(delay);
-          break;
-
-        case "multipleStationsClosed":
-          EventMultipleStationsClosed eventMultipleStationsClosed =
-              (EventMultipleStationsClosed) event;
-
-          Element stationStartClosed = document.createElement(STATION_ID_START);
-          stationStartClosed.appendChild(
-                  document.createTextNode(Integer.toString(
-                      eventMultipleStationsClosed.getIdStationStart())));
-          eventName.appendChild(stationStartClosed);
-
-          Element stationEndClosed = document.createElement(STATION_ID_END);
-          stationEndClosed
-                  .appendChild(document.createTextNode(Integer.toString(
-                          eventMultipleStationsClosed.getIdStationEnd())));
-          eventName.appendChild(stationEndClosed);
-          break;
-
-        case "gaussianPeak":
-          EventGaussianPeak eventGaussianPeak = (EventGaussianPeak) event;
-
-          String gaussianPeakTime = eventGaussianPeak.getPeakTime();
-          gaussianPeakTime = gaussianPeakTime.replace("-", "T");
-          gaussianPeakTime = gaussianPeakTime.replace("/", "-");
-          gaussianPeakTime = gaussianPeakTime + END_TIME_STRING;
-
-          Element gaussianPeakTimeElement = document.createElement(PEAK_TIME);
-          gaussianPeakTimeElement.appendChild(
-                  document.createTextNode(gaussianPeakTime));
-          eventName.appendChild(gaussianPeakTimeElement);
-
-          Element stationIdGaussian = document.createElement(STATION_ID);
-          stationIdGaussian
-              .appendChild(document.createTextNode(Integer.toString(
-                  eventGaussianPeak.getIdStation())));
-          eventName.appendChild(stationIdGaussian);
-
-          Element sizeGaussianPeak = document.createElement(PEAK_SIZE);
-          sizeGaussianPeak.appendChild(document.createTextNode(Integer.toString(
-              eventGaussianPeak.getSize())));
-          eventName.appendChild(sizeGaussianPeak);
-
-          Element gaussianPeakWidth = document.createElement("peakWidth");
-          gaussianPeakWidth
-                  .appendChild(document.createTextNode(Integer.toString(
-                          eventGaussianPeak.getPeakWidth())));
-          eventName.appendChild(gaussianPeakWidth);
-          break;
-
-        case "rampPeak":
-          EventRampPeak eventRampPeak = (EventRampPeak) event;
-
-          String rampPeakTime = eventRampPeak.getPeakTime();
-          rampPeakTime = rampPeakTime.replace("-", "T");
-          rampPeakTime = rampPeakTime.replace("/", "-");
-          rampPeakTime = rampPeakTime + END_TIME_STRING;
-
-          Element rampPeakTimeElement = document.createElement(PEAK_TIME);
-          rampPeakTimeElement.appendChild(
-                  document.createTextNode(rampPeakTime));
-          eventName.appendChild(rampPeakTimeElement);
-
-          Element stationIdRamp = document.createElement(STATION_ID);
-          stationIdRamp
-              .appendChild(document.createTextNode(Integer.toString(
-                  eventRampPeak.getIdStation())));
-          eventName.appendChild(stationIdRamp);
-
-          Element sizeRampPeak = document.createElement(PEAK_SIZE);
-          sizeRampPeak.appendChild(document.createTextNode(Integer.toString(
-              eventRampPeak.getSize())));
-          eventName.appendChild(sizeRampPeak);
-          break;
-
-        case "stationClosed":
-          EventStationClosed eventStationClosed = (EventStationClosed) event;
-
-          Element stationClosedId
-              = document.createElement("idStation");
-          stationClosedId.appendChild(document.createTextNode(Integer.toString(
-              eventStationClosed.getIdStation())));
-          eventName.appendChild(stationClosedId);
-          break;
-
-        case "hour":
-          EventHour eventHour = (EventHour) event;
-
-          Element idLine = document.createElement(LINE_ID);
-          idLine.appendChild(document.createTextNode(Integer.toString(eventHour
-              .getIdLine())));
-          eventName.appendChild(idLine);
-
-          Element trainNumber = document.createElement("trainNumber");
-          trainNumber.appendChild(document.createTextNode(Integer.toString(
-              eventHour.getTrainNumber())));
-          eventName.appendChild(trainNumber);
-          break;
-        case "lineClosed":
-          EventLineClosed eventLineClosed = (EventLineClosed) event;
-
-          Element idLineClosed = document.createElement(LINE_ID);
-          idLineClosed.appendChild(document.createTextNode(
-              Integer.toString(eventLineClosed.getIdLine())));
-          eventName.appendChild(idLineClosed);
-
-          Element closureType = document.createElement("closureType");
-          closureType.appendChild(document.createTextNode(eventLineClosed
-              .getClosureType().getValue()));
-          eventName.appendChild(closureType);
-          break;
-
-        default:
-          break;
-      }
-    }
-  }
-
-  /**
-   * Generates the xml part of the areas.
-   *
-   * @param document the document to add the areas
-   * @param root     the root element of the document
-   */
-  private void exportAreas(final Document document, final Element root) {
-    // Areas of the Map
-    Element areas = document.createElement("areas");
-    root.appendChild(areas);
-    for (AreaView areaView : MainWindow.getInstance().getMainPanel()
-        .getAreaViews()) {
-
-      // one area of the map
-      Element area = document.createElement("area");
-      if (areas != null) {
-        areas.appendChild(area);
-      }
-
-      // id of the area
-      Element id = document.createElement("id");
-      id.appendChild(document.createTextNode(Integer.toString(areaView.getArea()
-          .getId())));
-      area.appendChild(id);
-
-      // position of the area
-      Element position = document.createElement(POSITION);
-      Attr latitudeTop = document.createAttribute("latitudeTop");
-      latitudeTop.setValue(Double.toString(areaView.getArea()
-          .getLatitudeTop()));
-      position.setAttributeNode(latitudeTop);
-      Attr longitudeTop = document.createAttribute("longitudeTop");
-      longitudeTop.setValue(Double.toString(areaView.getArea()
-          .getLongitudeTop()));
-      position.setAttributeNode(longitudeTop);
-      Attr latitudeBot = document.createAttribute("latitudeBot");
-      latitudeBot.setValue(Double.toString(areaView.getArea()
-          .getLatitudeBot()));
-      position.setAttributeNode(latitudeBot);
-      Attr longitudeBot = document.createAttribute("longitudeBot");
-      longitudeBot.setValue(Double.toString(areaView.getArea()
-          .getLongitudeBot()));
-      position.setAttributeNode(longitudeBot);
-      area.appendChild(position);
-
-      this.exportDistributions(document, areaView, area);
+      this.export(NetworkHistory.getInstance().snapshot(), fileToSave);
+    } catch (IOException | XMLStreamException e) {
+      e.printStackTrace();
     }
   }
 
   /**
-   * Export the distributions elements of an area or a station
-   * that doesn't have an area.
+   * Export a snapshot of the map as xml file. The snapshot is not modified,
+   * so the export can run on any thread while the map is edited, and it
+   * already knows the area of each station.
    *
-   * @param document the document to add the distributions
-   * @param areaView the area view, null if it's for a station
-   * @param element  the element to add the distributions
-   */
-  private void exportDistributions(final Document document,
-                                   final AreaView areaView,
-                                   final Element element) {
-    List<String> distributionPopulationElements = Arrays.asList(
-        Data.AREA_TOURIST,
-        Data.AREA_STUDENT,
-        Data.AREA_BUSINESSMAN,
-        Data.AREA_WORKER,
-        Data.AREA_CHILD,
-        Data.AREA_RETIRED,
-        Data.AREA_UNEMPLOYED
-    );
-
-    List<String> distributionDestinationElements = Arrays.asList(
-        Data.AREA_RESIDENTIAL,
-        Data.AREA_COMMERCIAL,
-        Data.AREA_OFFICE,
-        Data.AREA_INDUSTRIAL,
-        Data.AREA_TOURISTIC,
-        Data.AREA_LEISURE,
-        Data.AREA_EDUCATIONAL
-    );
-
-    /* Export population distribution. */
-    Element populationDistribution = document.createElement(
-        "populationDistribution");
-    for (String distributionPopulationElement
-        : distributionPopulationElements) {
-
-      Attr attr = document.createAttribute(distributionPopulationElement
-          .toLowerCase());
-      if (areaView != null) {
-        attr.setValue(Integer.toString(areaView.getArea()
-            .getDistributionPopulation()
-            .get(distributionPopulationElement)));
-      } else {
-        attr.setValue(String.valueOf(Area.getDefaultPopulationDistribution(
-            distributionPopulationElement)));
-      }
-      populationDistribution.setAttributeNode(attr);
-    }
-    element.appendChild(populationDistribution);
-
-    /* Export destination distribution. */
-    Element destinationDistribution = document.createElement(
-        "destinationDistribution");
-    for (String distributionDestinationElement
-        : distributionDestinationElements) {
-
-      Attr attr = document.createAttribute(distributionDestinationElement
-          .toLowerCase());
-      if (areaView != null) {
-        attr.setValue(Integer.toString(areaView.getArea()
-            .getDistributionDestination()
-            .get(distributionDestinationElement)));
-      } else {
-        attr.setValue(String.valueOf(Area.getDefaultDestinationDistribution(
-            distributionDestinationElement)));
-      }
-      destinationDistribution.setAttributeNode(attr);
-    }
-    element.appendChild(destinationDistribution);
+   * @param snapshot   the snapshot of the map
+   * @param fileToSave the xml file to save
+   * @throws IOException        if the file cannot be written
+   * @throws XMLStreamException if the xml cannot be written
+   */
+  public void export(final NetworkSnapshot snapshot, final File fileToSave)
+      throws IOException, XMLStreamException {
+    List<AreaView> areaViews = NetworkHistory.areaViews(snapshot);
+    List<LineView> lineViews = NetworkHistory.lineViews(snapshot, areaViews);
+    MapXmlWriter.write(fileToSave, new Coordinate(snapshot.getLatitude(),
+        snapshot.getLongitude()), snapshot.getZoom(), lineViews, areaViews,
+        snapshot.getEvents());
   }
 
   /**
-   * Generates the xml part of the lines.
+   * Export the current map as xml file on a worker thread, from a snapshot
+   * taken now. Must be called on the EDT.
    *
-   * @param document the document to add the lines
-   * @param root     the root element of the document
+   * @param fileToSave the xml file to save
    */
-  private void exportLines(final Document document, final Element root) {
-    // lines of map
-    Element lines = document.createElement(LINES);
-    root.appendChild(lines);
-    for (LineView lineView : MainWindow.getInstance().getMainPanel()
-        .getLineViews()) {
-
-      // lines line element
-      Element line = document.createElement("line");
-      lines.appendChild(line);
-
-      // line id element
-      Element id = document.createElement("id");
-      id.appendChild(document.createTextNode(Integer.toString(lineView.getLine()
-          .getId())));
-      line.appendChild(id);
-
-      // line name element
-      Element name = document.createElement("name");
-      name.appendChild(document.createTextNode(lineView.getLine().getName()));
-      line.appendChild(name);
-
-      // line number of train element
-
-      Element numberOfTrain = document.createElement("numberOfTrain");
-      numberOfTrain.appendChild(document.createTextNode("30"));
-      line.appendChild(numberOfTrain);
-
-      // line Stations element
-      Element stations2 = document.createElement(STATIONS);
-      line.appendChild(stations2);
-      int order = 0;
-      for (Station station : lineView.getLine().getStations()) {
-        // line Stations station element
-        Element station2 = document.createElement(STATION);
-        Attr attrId = document.createAttribute("id");
-        attrId.setNodeValue(Integer.toString(station.getId()));
-        station2.setAttributeNode(attrId);
-
-        Attr attrOrder = document.createAttribute("order");
-        attrOrder.setNodeValue(Integer.toString(order));
-        station2.setAttributeNode(attrOrder);
-
-        stations2.appendChild(station2);
-        order += 1;
+  public void exportInBackground(final File fileToSave) {
+    NetworkSnapshot snapshot = NetworkHistory.getInstance().snapshot();
+    new SwingWorker<Void, Void>() {
+      @Override
+      protected Void doInBackground() throws Exception {
+        ActionFile.this.export(snapshot, fileToSave);
+        return null;
       }
-    }
-  }
 
-  /**
-   * Generates the xml part of the stations.
-   *
-   * @param document the document to add the stations
-   * @param root     the root element of the document
-   */
-  private void exportStations(final Document document, final Element root) {
-    // stations of map
-    Element stations = document.createElement(STATIONS);
-
-    root.appendChild(stations);
-    List<Integer> stationIds;
-    stationIds = new ArrayList<>();
-    for (LineView lineView : MainWindow.getInstance().getMainPanel()
-        .getLineViews()) {
-      for (StationView stationView : lineView.getStationViews()) {
-        if (!stationIds.contains(stationView.getStation().getId())) {
-          // station element
-          Element station = document.createElement(STATION);
-          stations.appendChild(station);
-
-          // station id element
-          Element stationId = document.createElement("id");
-          stationId.appendChild(document.createTextNode(Integer.toString(
-              stationView.getStation().getId())));
-          station.appendChild(stationId);
-
-          // station name element
-          Element stationName = document.createElement("name");
-          stationName.appendChild(document.createTextNode(
-              stationView.getStation().getName()));
-          station.appendChild(stationName);
-
-          // station position element
-          Element position = document.createElement(POSITION);
-          station.appendChild(position);
-
-          // position latitude element
-          Element latitude = document.createElement(LATITUDE);
-          double latitudeValue = stationView.getStation().getLatitude();
-          latitude.appendChild(document.createTextNode(Double.toString(
-              latitudeValue)));
-          position.appendChild(latitude);
-
-          // position longitude element
-          Element longitude = document.createElement(LONGITUDE);
-          double longitudeValue = stationView.getStation().getLongitude();
-          longitude.appendChild(document.createTextNode(Double.toString(
-              longitudeValue)));
-          position.appendChild(longitude);
-
-          this.exportStationsLines(document, station, stationView);
-
-          // id area element
-          if (stationView.getStation().getArea() != null) {
-            Element idArea = document.createElement("idArea");
-            idArea.appendChild(document.createTextNode(Integer.toString(
-                stationView.getStation().getArea().getId())));
-            station.appendChild(idArea);
-          } else {
-            this.exportDistributions(document, null, station);
-          }
-          stationIds.add(stationView.getStation().getId());
+      @Override
+      protected void done() {
+        try {
+          this.get();
+        } catch (ExecutionException e) {
+          e.getCause().printStackTrace();
+          JOptionPane.showMessageDialog(MainWindow.getInstance(),
+              "Export failed: " + e.getCause().getMessage(), "Export",
+              JOptionPane.ERROR_MESSAGE);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
         }
       }
-    }
-  }
-
-  /**
-   * Generates the xml part of the stations lines.
-   *
-   * @param document    the document to add the stations lines
-   * @param station     the station element
-   * @param stationView the station view
-   */
-  private void exportStationsLines(final Document document,
-                                   final Element station,
-                                   final StationView stationView) {
-    // station lines element
-    Element lines = document.createElement(LINES);
-    station.appendChild(lines);
-
-    // Station lines line element
-    for (LineView lineView2 : MainWindow.getInstance().getMainPanel()
-        .getLineViews()) {
-      if (lineView2.getLine().getStations()
-          .contains(stationView.getStation())) {
-        Element line = document.createElement("line");
-        Attr attrLineId = document.createAttribute("id");
-        attrLineId.setValue(Integer.toString(lineView2.getLine()
-            .getId()));
-        line.setAttributeNode(attrLineId);
-
-        Attr attrLinePlatform = document.createAttribute(
-            "platform");
-        attrLinePlatform.setValue("");
-        line.setAttributeNode(attrLinePlatform);
-        lines.appendChild(line);
-      }
-    }
+    }.execute();
   }
 
   /**
    * Load the xml file and generate the views of each element.
    *
+   * <p>The file is read by {@link MapXmlReader}, and its events created,
+   * before the current map is cleaned, so a file that cannot be read leaves
+   * the map untouched.
+   *
    * @param fileToLoad the xml file to load
    */
   public void importMap(final File fileToLoad) {
-    // Clean the map
-    MainWindow.getInstance().getMainPanel().cleanMap();
-    DocumentBuilderFactory dbFactory = DocumentBuilderFactory.newInstance();
+    MapXmlReader map;
     try {
-      // Disable external entities
-      dbFactory.setFeature(
-          "http://apache.org/xml/features/disallow-doctype-decl", true);
-      dbFactory.setFeature(
-          "http://xml.org/sax/features/external-general-entities", false);
-      dbFactory.setFeature(
-          "http://xml.org/sax/features/external-parameter-entities", false);
-      dbFactory.setXIncludeAware(false);
-      dbFactory.setExpandEntityReferences(false);
-
-      dbFactory.setXIncludeAware(false);
-      dbFactory.setExpandEntityReferences(false);
-      DocumentBuilder docBuilder = dbFactory.newDocumentBuilder();
-      Document doc = docBuilder.parse(fileToLoad);
-      // Get location
-      NodeList location = doc.getElementsByTagName("location");
-      Node nthNodeLocation = location.item(0);
-      if (nthNodeLocation != null && nthNodeLocation.getNodeType()
-          == Node.ELEMENT_NODE) {
-        Element locationElement = (Element) nthNodeLocation;
-        Element latitude = (Element) locationElement.getElementsByTagName(
-            LATITUDE).item(0);
-        Element longitude = (Element) locationElement.getElementsByTagName(
-            LONGITUDE).item(0);
-        Element zoom = (Element) locationElement.getElementsByTagName("zoom")
-            .item(0);
-        ICoordinate coordinate = new Coordinate(
-            Double.parseDouble(latitude.getTextContent()),
-            Double.parseDouble(longitude.getTextContent()));
-        MainWindow.getInstance().getMainPanel().setDisplayPosition(coordinate,
-            Integer.parseInt(zoom.getTextContent()));
-        MainWindow.getInstance().getMainPanel().setZoom(Integer.parseInt(
-            zoom.getTextContent()));
-      }
-
-      List<Station> stationsToLoad = new ArrayList<>();
-      List<Integer> linesId = new ArrayList<>();
-      NodeList linesList = doc.getElementsByTagName(LINES);
-      HashMap<Integer, String[]> linesMatchStations = new HashMap<>();
-      Node nthNodeL = linesList.item(linesList.getLength() - 1);
-
-      this.readStationsSection(stationsToLoad, linesId, doc);
-      this.readLinesSection(linesMatchStations, nthNodeL);
-
-      List<Line> lineModelList = new ArrayList<>();
-      if (!linesId.isEmpty()) {
-        int linesNumber = Collections.max(linesId) + 1;
-        for (int i = 0; i < linesNumber; i++) {
-          Line line = new Line(i, new ArrayList<>());
-          lineModelList.add(line);
-        }
-      }
-      this.addStationsToLines(stationsToLoad, linesMatchStations,
-          lineModelList);
-      for (Line line : lineModelList) {
-        List<StationView> stationsViews = new ArrayList<>();
-        for (Station station : line.getStations()) {
-          stationsViews.add(new StationView(station));
-        }
-        LineView lineView = new LineView(line, stationsViews);
-        MainWindow.getInstance().getMainPanel().addLineView(lineView);
-      }
-
-      List<Area> areasToLoad = new ArrayList<>();
-      this.readAreasSection(doc, areasToLoad);
-      for (Area area : areasToLoad) {
-        MainWindow.getInstance().getMainPanel().addAreaView(new AreaView(area));
-      }
-
-      this.readEventsSection(doc);
-
-    } catch (ParserConfigurationException | SAXException | IOException e) {
+      map = MapXmlReader.read(fileToLoad);
+      map.createEvents();
+    } catch (IOException | XMLStreamException | IllegalArgumentException e) {
       e.printStackTrace();
+      return;
     }
-  }
-
-  private void addStationsToLines(final List<Station> stationsToLoad,
-                                  final HashMap<Integer, String[]>
-                                      linesMatchStations,
-                                  final List<Line> lineModelList) {
-    for (Map.Entry<Integer, String[]> entry : linesMatchStations.entrySet()) {
-      int stationId = Integer.parseInt(linesMatchStations.get(entry
-          .getKey())[0]);
-      int lineId = Integer.parseInt(linesMatchStations.get(entry
-          .getKey())[1]);
-      Station station = null;
-      for (Station stationL : stationsToLoad) {
-        if (stationL.getId() == stationId) {
-          station = stationL;
-        }
-      }
-      if (station != null) {
-        lineModelList.get(lineId).addStation(station);
-      }
-    }
-  }
-
-  /**
-   * Load the event section of the xml file and generate the view for each
-   * event.
-   *
-   * @param doc the document to read
-   */
-  private void readEventsSection(final Document doc) {
-    NodeList eventList = doc.getElementsByTagName("events");
-    NodeList childList = eventList.item(0).getChildNodes();
-    for (int j = 0; j < childList.getLength(); j++) {
-      Node childNode = childList.item(j);
-      if (childNode.getNodeType() == Node.ELEMENT_NODE) {
-        Element eventElement = (Element) childNode;
-        String startTime = eventElement.getElementsByTagName("start")
-            .item(0).getTextContent();
-        String endTime = eventElement.getElementsByTagName("end")
-            .item(0).getTextContent();
-        String[] startTimeSplit = this.formatDate(startTime);
-        String[] endTimeSplit = this.formatDate(endTime);
-        switch (eventElement.getTagName()) {
-          case "lineDelay":
-            ActionMetroEvent.getInstance().addLineDelay(
-                startTimeSplit[0] + "," + startTimeSplit[1] + ","
-                    + endTimeSplit[0] + "," + endTimeSplit[1] + ","
-                    + eventElement.getElementsByTagName(STATION_ID_START)
-                    .item(0).getTextContent() + ","
-                    + eventElement.getElementsByTagName(STATION_ID_END)
-                    .item(0).getTextContent() + ","
-                    + eventElement.getElementsByTagName("delay")
-                    .item(0).getTextContent()
-            );
-            break;
-          case "multipleStationsClosed":
-            ActionMetroEvent.getInstance().addMultipleStationsClosed(
-                startTimeSplit[0]
-                + "," + startTimeSplit[1] + "," + endTimeSplit[0] + ","
-                + endTimeSplit[1] + "," + eventElement.getElementsByTagName(
-                    STATION_ID_START).item(0).getTextContent() + ","
-                + eventElement.getElementsByTagName(STATION_ID_END).item(0)
-                    .getTextContent());
-            break;
-
-          case "gaussianPeak":
-            String gaussianPeakTime = eventElement.getElementsByTagName(
-                    PEAK_TIME).item(0).getTextContent();
-            String[] gaussianPeakTimeSplit = this.formatDate(gaussianPeakTime);
-            ActionMetroEvent.getInstance().addGaussianPeak(
-                startTimeSplit[0] + "," + startTimeSplit[1] + ","
-                    + endTimeSplit[0] + "," + endTimeSplit[1] + ","
-                    + gaussianPeakTimeSplit[0] + "," + gaussianPeakTimeSplit[1]
-                    + "," + eventElement.getElementsByTagName(STATION_ID)
-                    .item(0).getTextContent() + ","
-                    + eventElement.getElementsByTagName(PEAK_SIZE)
-                    .item(0).getTextContent() + ","
-                    + eventElement.getElementsByTagName("peakWidth")
-                    .item(0).getTextContent()
-            );
-            break;
-
-          case "rampPeak":
-            String rampPeakTime = eventElement.getElementsByTagName(PEAK_TIME)
-                .item(0).getTextContent();
-            String[] rampPeakTimeSplit = this.formatDate(rampPeakTime);
-            ActionMetroEvent.getInstance().addRampPeak(
-                startTimeSplit[0] + "," + startTimeSplit[1] + ","
-                    + endTimeSplit[0] + "," + endTimeSplit[1] + ","
-                    + rampPeakTimeSplit[0] + "," + rampPeakTimeSplit[1] + ","
-                    + eventElement.getElementsByTagName(STATION_ID)
-                    .item(0).getTextContent() + ","
-                    + eventElement.getElementsByTagName(PEAK_SIZE)
-                    .item(0).getTextContent()
-            );
-            break;
-
-          case "stationClosed":
-            ActionMetroEvent.getInstance().addStationClosed(startTimeSplit[0]
-                + "," + startTimeSplit[1] + "," + endTimeSplit[0] + ","
-                + endTimeSplit[1] + "," + eventElement.getElementsByTagName(
-                "idStation").item(0).getTextContent()
-            );
-            break;
-
-          case "hour":
-            String startHour = startTime.replace(END_TIME_STRING, "");
-            String endHour = endTime.replace(END_TIME_STRING, "");
-            ActionMetroEvent.getInstance().addTrainHour(startHour + ","
-                + endHour + "," + eventElement.getElementsByTagName(LINE_ID)
-                .item(0).getTextContent() + ","
-                + eventElement.getElementsByTagName("trainNumber").item(0)
-                .getTextContent());
-            break;
-          case "lineClosed":
-            ActionMetroEvent.getInstance().addLineClosed(startTimeSplit[0]
-                    + "," + startTimeSplit[1] + "," + endTimeSplit[0] + ","
-                    + endTimeSplit[1] + ","
-                    + eventElement.getElementsByTagName(LINE_ID)
-                    .item(0).getTextContent() + ","
-                    + eventElement.getElementsByTagName("closureType")
-                    .item(0).getTextContent());
-            break;
-
-          default:
-            break;
-        }
-      }
-    }
+    this.installMap(map);
   }
 
   /**
-   * Format the date of the xml to be able to use it in the HMI.
-   *
-   * @param date the date from the xml file to format
+   * Load the xml file on a worker thread, showing the progress, then replace
+   * the current map with it. Must be called on the EDT, an import already
+   * running is cancelled.
    *
-   * @return the formatted date
+   * @param fileToLoad the xml file to load
    */
-  private String[] formatDate(final String date) {
-    String result = date;
-    result = result.replace(END_TIME_STRING, "");
-    result = result.replace("-", "/");
-    result = result.replace("T", "-");
-    return result.split("-");
+  public void importMapInBackground(final File fileToLoad) {
+    this.cancelImport();
+    this.importWorker = new MapImportWorker(fileToLoad,
+        MainWindow.getInstance());
+    this.importWorker.execute();
   }
 
   /**
-   * Load the areas section of the xml file and generate the view for each area.
-   *
-   * @param doc         the document to read
-   * @param areasToLoad the list of areas to load
+   * Cancel the import running in the background, if any. The current map is
+   * left untouched.
    */
-  private void readAreasSection(final Document doc,
-                                final List<Area> areasToLoad) {
-    // ! reading area section
-    NodeList areasList = doc.getElementsByTagName("areas");
-    Node nthNodeA = areasList.item(0);
-    if (nthNodeA.getNodeType() == Node.ELEMENT_NODE) {
-      Element areasElement = (Element) nthNodeA;
-      NodeList areaList = areasElement.getElementsByTagName("area");
-      for (int i = 0; i < areaList.getLength(); i++) {
-        Node nthNodeA2 = areaList.item(i);
-        if (nthNodeA2.getNodeType() == Node.ELEMENT_NODE) {
-          Element areaElement = (Element) nthNodeA2;
-          Element populationDistribution = (Element) areaElement
-              .getElementsByTagName("populationDistribution").item(0);
-          Element destinationDistribution = (Element) areaElement
-              .getElementsByTagName("destinationDistribution").item(0);
-          Element positions = (Element) areaElement.getElementsByTagName(
-              POSITION).item(0);
-          String latitudeTop = positions.getAttribute("latitudeTop");
-          String longitudeTop = positions.getAttribute("longitudeTop");
-          String latitudeBot = positions.getAttribute("latitudeBot");
-          String longitudeBot = positions.getAttribute("longitudeBot");
-          Area area = new Area(Double.parseDouble(latitudeTop),
-              Double.parseDouble(longitudeTop), Double.parseDouble(latitudeBot),
-              Double.parseDouble(longitudeBot));
-          // format number
-          String touristAmount = this.formatNumber(populationDistribution
-              .getAttribute(Data.AREA_TOURIST.toLowerCase()));
-          String studentAmount = this.formatNumber(populationDistribution
-              .getAttribute(Data.AREA_STUDENT.toLowerCase()));
-          String businessManAmount = this.formatNumber(populationDistribution
-              .getAttribute(Data.AREA_BUSINESSMAN.toLowerCase()));
-          String childAmount = this.formatNumber(populationDistribution
-              .getAttribute(Data.AREA_CHILD.toLowerCase()));
-          String retiredAmount = this.formatNumber(populationDistribution
-              .getAttribute(Data.AREA_RETIRED.toLowerCase()));
-          String unemployedAmount = this.formatNumber(populationDistribution
-              .getAttribute(Data.AREA_UNEMPLOYED.toLowerCase()));
-          String workerAmount = this.formatNumber(populationDistribution
-              .getAttribute(Data.AREA_WORKER.toLowerCase()));
-          area.setNewPopulationPart(Data.AREA_TOURIST, Integer.parseInt(
-              touristAmount));
-          area.setNewPopulationPart(Data.AREA_STUDENT, Integer.parseInt(
-              studentAmount));
-          area.setNewPopulationPart(Data.AREA_BUSINESSMAN,
-              Integer.parseInt(businessManAmount));
-          area.setNewPopulationPart(Data.AREA_CHILD, Integer.parseInt(
-              childAmount));
-          area.setNewPopulationPart(Data.AREA_RETIRED, Integer.parseInt(
-              retiredAmount));
-          area.setNewPopulationPart(Data.AREA_UNEMPLOYED,
-              Integer.parseInt(unemployedAmount));
-          area.setNewPopulationPart(Data.AREA_WORKER, Integer.parseInt(
-              workerAmount));
-
-          // format number
-          String touristicAmount = this.formatNumber(destinationDistribution
-              .getAttribute(Data.AREA_TOURISTIC.toLowerCase()));
-          String educationalAmount = this.formatNumber(destinationDistribution
-              .getAttribute(Data.AREA_EDUCATIONAL.toLowerCase()));
-          String officeAmount = this.formatNumber(destinationDistribution
-              .getAttribute(Data.AREA_OFFICE.toLowerCase()));
-          String leisureAmount = this.formatNumber(destinationDistribution
-              .getAttribute(Data.AREA_LEISURE.toLowerCase()));
-          String commercialAmount = this.formatNumber(destinationDistribution
-              .getAttribute(Data.AREA_COMMERCIAL.toLowerCase()));
-          String residentialAmount = this.formatNumber(destinationDistribution
-              .getAttribute(Data.AREA_RESIDENTIAL.toLowerCase()));
-          String industrialAmount = this.formatNumber(destinationDistribution
-              .getAttribute(Data.AREA_INDUSTRIAL.toLowerCase()));
-          area.setNewDestinationPart(Data.AREA_TOURISTIC, Integer.parseInt(
-              touristicAmount));
-          area.setNewDestinationPart(Data.AREA_EDUCATIONAL, Integer.parseInt(
-              educationalAmount));
-          area.setNewDestinationPart(Data.AREA_OFFICE, Integer.parseInt(
-              officeAmount));
-          area.setNewDestinationPart(Data.AREA_LEISURE, Integer.parseInt(
-              leisureAmount));
-          area.setNewDestinationPart(Data.AREA_COMMERCIAL, Integer.parseInt(
-              commercialAmount));
-          area.setNewDestinationPart(Data.AREA_RESIDENTIAL, Integer.parseInt(
-              residentialAmount));
-          area.setNewDestinationPart(Data.AREA_INDUSTRIAL, Integer.parseInt(
-              industrialAmount));
-
-          areasToLoad.add(area);
-        }
-      }
+  public void cancelImport() {
+    if (this.importWorker != null) {
+      this.importWorker.cancel(true);
+      this.importWorker = null;
     }
   }
 
   /**
-   * Format the number to avoid empty string.
+   * Called on the EDT when a background import ends. The map is installed
+   * only if it comes from the current import.
    *
-   * @param populationAmount the population amount to format
-   * @return the formatted number
+   * @param worker the worker of the import
+   * @param map    the map read, null if the import failed or was cancelled
    */
-  private String formatNumber(final String populationAmount) {
-    String resultPopulationAmount = populationAmount;
-    if (resultPopulationAmount.isEmpty()) {
-      resultPopulationAmount = "0";
+  void importFinished(final MapImportWorker worker, final MapXmlReader map) {
+    if (worker != this.importWorker) {
+      return;
+    }
+    this.importWorker = null;
+    if (map != null) {
+      this.installMap(map);
     }
-    return resultPopulationAmount;
   }
 
   /**
-   * Load the stations section of the xml file and generate the view for each.
+   * Replace the current map, its location, lines, areas and events, with the
+   * map read from a file.
    *
-   * @param stationsToLoad the list of stations to load
-   * @param linesId        the list of lines id
-   * @param doc            the document to read
+   * @param map the map read
    */
-  private void readStationsSection(final List<Station> stationsToLoad,
-                                   final List<Integer> linesId,
-                                   final Document doc) {
-    NodeList stationsList = doc.getElementsByTagName(STATIONS);
-    Node nthNodeS
-        = stationsList.item(0);
-    if (nthNodeS
-        .getNodeType() == Node.ELEMENT_NODE) {
-      Element stationsElement = (Element) nthNodeS;
-      NodeList stationList = stationsElement.getElementsByTagName(STATION);
-      for (int i = 0; i < stationList.getLength(); i++) {
-        Node nthNode = stationList.item(i);
-        if (nthNode.getNodeType() == Node.ELEMENT_NODE) {
-          Element stationElement = (Element) nthNode;
-          String id = stationElement.getElementsByTagName("id")
-              .item(0).getTextContent();
-          String name = stationElement.getElementsByTagName("name")
-              .item(0).getTextContent();
-          Element positions = (Element) stationElement
-              .getElementsByTagName(POSITION).item(0);
-          String latitude = positions.getElementsByTagName(LATITUDE)
-              .item(0).getTextContent();
-          String longitude = positions.getElementsByTagName(LONGITUDE)
-              .item(0).getTextContent();
-          Element lines = (Element) stationElement.getElementsByTagName(LINES)
-              .item(0);
-          Element line = (Element) lines.getElementsByTagName("line")
-              .item(0);
-          String lineId = line.getAttribute("id");
-
-          Station station = new Station(Integer.parseInt(id),
-              Double.parseDouble(latitude), Double.parseDouble(longitude),
-              name);
-          stationsToLoad.add(station);
-          linesId.add(Integer.valueOf(lineId));
-        }
-      }
+  private void installMap(final MapXmlReader map) {
+    // Clean the map
+    MainPanel mainPanel = MainWindow.getInstance().getMainPanel();
+    mainPanel.cleanMap();
+    if (map.hasLocation()) {
+      ICoordinate coordinate = new Coordinate(map.getLatitude(),
+          map.getLongitude());
+      mainPanel.setDisplayPosition(coordinate, map.getZoom());
+      mainPanel.setZoom(map.getZoom());
+    }
+    if (map.getLastLineId() != null) {
+      MainWindow.getInstance().getToolBarPanel().getLineId().setText(
+          map.getLastLineId());
+      ActionLine.getInstance().setLineToUpdateIndex(Integer.parseInt(
+          map.getLastLineId().trim()));
     }
+    mainPanel.setLineViews(map.getLineViews());
+    mainPanel.setAreaViews(map.getAreaViews());
+
+    this.addImportedEvents(map.createEvents(), mainPanel);
+    NetworkHistory.getInstance().reset();
   }
 
   /**
-   * Load the lines section of the xml file and generate the view for each line.
+   * Add the events read from the xml file as a batch, the network must
+   * already be loaded. The events whose stations or line are not in the
+   * network are skipped.
    *
-   * @param linesMatchStations the map of lines match stations
-   * @param nthNodeL           the node to read
-   */
-  public void readLinesSection(final Map<Integer, String[]> linesMatchStations,
-                               final Node nthNodeL) {
-    if (nthNodeL.getNodeType() == Node.ELEMENT_NODE) {
-      Element linesElement = (Element) nthNodeL;
-      NodeList lineList = linesElement.getElementsByTagName("line");
-      int counter = 0;
-      for (int i = 0; i < lineList.getLength(); i++) {
-        Node nodeL = lineList.item(i);
-
-        if (nodeL.getNodeType() == Node.ELEMENT_NODE) {
-          Element lineElement = (Element) nodeL;
-          String lineId = lineElement.getElementsByTagName("id")
-              .item(0).getTextContent();
-          MainWindow.getInstance().getToolBarPanel().getLineId().setText(
-              lineId);
-          ActionLine.getInstance().setLineToUpdateIndex(Integer.parseInt(
-              lineId));
-          Element stations = (Element) lineElement
-              .getElementsByTagName(STATIONS).item(0);
-          NodeList stationL = stations.getElementsByTagName(STATION);
-
-          for (int j = 0; j < stationL.getLength(); j++) {
-            Node nodeS = stationL.item(j);
-            if (nodeS.getNodeType() == Node.ELEMENT_NODE) {
-              Element stationElement = (Element) nodeS;
-              String stationId = stationElement.getAttribute("id");
-              String[] array = {stationId, lineId};
-              linesMatchStations.put(counter, array);
-              counter += 1;
-            }
-          }
-        }
+   * @param events    the events to add
+   * @param mainPanel the main panel holding the network
+   */
+  private void addImportedEvents(final List<Event> events,
+                                 final MainPanel mainPanel) {
+    StationIndex stationIndex = mainPanel.getStationIndex();
+    int lineCount = mainPanel.getLineViews().size();
+    List<Event> validEvents = new ArrayList<>(events.size());
+    for (Event event : events) {
+      String error = EventImport.networkError(event, stationIndex,
+          lineCount);
+      if (error == null) {
+        validEvents.add(event);
+      } else {
+        LOGGER.warning(() -> "Event " + event.getEventName()
+            + " skipped: " + error);
       }
     }
+    ActionMetroEvent.getInstance().addEvents(validEvents);
   }
 
   /**
-   * iterate over all stations and area to find which stations are in
-   * area,
-   * then assign areas to stations.
+   * Assign its area to each station of the map, see
+   * {@link NetworkCore#assignAreaToStations(List, List)}.
    */
   public void assignAreaToStations() {
-    for (LineView lineview : MainWindow.getInstance().getMainPanel()
-        .getLineViews()) {
-      for (StationView stationView : lineview.getStationViews()) {
-        for (AreaView areaView : MainWindow.getInstance().getMainPanel()
-            .getAreaViews()) {
-          if (isInArea(stationView, areaView)) {
-            stationView.getStation().setAreas(areaView.getArea());
-          }
-        }
-      }
-    }
-  }
-
-  /**
-   * check if a station is in an Area.
-   *
-   * @param stationView station to check
-   * @param areaView    area to check
-   * @return true if the station is in the area
-   */
-  private boolean isInArea(final StationView stationView,
-                           final AreaView areaView) {
-    int x = stationView.getStation().getPosX();
-    int ax = areaView.getArea().getPosX();
-    int y = stationView.getStation().getPosY();
-    int ay = areaView.getArea().getPosY();
-    int widthA = areaView.getArea().getWidth();
-    int heightA
-        = areaView.getArea().getHeight();
-    return ((x > ax) && (x < ax + widthA) && (y > ay) && (y < ay + heightA));
+    MainPanel mainPanel = MainPanel.getInstance();
+    NetworkCore.assignAreaToStations(mainPanel.getLineViews(),
+        mainPanel.getAreaViews());
   }
 
   /**
@@ -114,6 +114,7 @@ public final class ActionLine {
     MainWindow.getInstance().getToolBarPanel().getLineId().setText(
         Integer.toString(lineIndex)); // change line id displayed in the
     // toolBar Panel
+    NetworkHistory.getInstance().commit();
     MainWindow.getInstance().getMainPanel().repaint();
   }
 
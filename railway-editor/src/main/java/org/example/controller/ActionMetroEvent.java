@@ -34,24 +34,43 @@ import org.example.model.EventLineClosed;
 import org.example.model.EventMultipleStationsClosed;
 import org.example.model.EventLineDelay;
 import org.example.model.EventName;
+import org.example.model.EventPeak;
 import org.example.model.EventStationClosed;
-import org.example.model.Line;
-import org.example.model.LineClosureType;
+import org.example.model.EventTimeline;
 import org.example.model.Station;
 import org.example.view.EventRecap;
 import org.example.view.EventWindow;
 import org.example.view.LineView;
+import org.example.view.MainPanel;
 import org.example.view.MainWindow;
+import org.example.view.StationIndex;
 import org.example.view.StationView;
 
-import javax.swing.SwingUtilities;
+import javax.swing.JFileChooser;
+import javax.swing.JOptionPane;
+import javax.swing.JScrollPane;
+import javax.swing.JTextArea;
+import javax.swing.SwingWorker;
+import javax.swing.filechooser.FileNameExtensionFilter;
 import java.awt.Color;
+import java.awt.Dimension;
 import java.awt.event.WindowEvent;
+import java.io.File;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
 
 
 /**
  * A class for creating events {@link org.example.model.Event} on the map.
  *
+ * <p>The event models are created by {@link EventFactory}, this class adds
+ * them to the map and to the event recap.
+ *
  * @author Arthur Lagarce
  * @author Aurélie Chamouleau
  * @author Alexis BONAMY
@@ -76,34 +95,10 @@ public class ActionMetroEvent {
    * Event window y offset.
    */
   private static final int EVENT_WINDOW_Y_OFFSET = 20;
-  /**
-   * Starting date index.
-   */
-  private static final int STARTING_DATE_INDEX = 0;
-  /**
-   * Starting time index for train hour.
-   */
-  private static final int STARTING_TIME_INDEX_TRAIN_HOUR = 0;
-  /**
-   * Ending time index for train hour.
-   */
-  private static final int ENDING_TIME_INDEX_TRAIN_HOUR = 1;
-  /**
-   * Starting time index.
-   */
-  private static final int STARTING_TIME_INDEX = 1;
-  /**
-   * Ending date index.
-   */
-  private static final int ENDING_DATE_INDEX = 2;
   /**
    * Train hour line index.
    */
   private static final int TRAIN_HOUR_LINE_INDEX = 2;
-  /**
-   * Ending time index.
-   */
-  private static final int ENDING_TIME_INDEX = 3;
   /**
    * Line closure line index.
    */
@@ -112,38 +107,14 @@ public class ActionMetroEvent {
    * Line closure type index.
    */
   private static final int LINE_CLOSURE_TYPE_INDEX = 5;
-  /** Peak date index. */
-  private static final int PEAK_DATE_INDEX = 4;
-  /** Peak time index. */
-  private static final int PEAK_TIME_INDEX = 5;
-  /** Peak width index. */
-  private static final int PEAK_WIDTH_INDEX = 8;
   /** Train hour train number index. */
   private static final int TRAIN_HOUR_TRAIN_NUMBER_INDEX = 3;
-  /**
-   * Starting station index.
-   */
-  private static final int STARTING_STATION_INDEX = 4;
-  /**
-   * Station concerned index.
-   */
-  private static final int STATION_CONCERNED_INDEX = 4;
-  /**
-   * Ending station index.
-   */
-  private static final int ENDING_STATION_INDEX = 5;
-  /**
-   * Size index.
-   */
-  private static final int PEAK_NUMBER_INDEX = 5;
-  /**
-   * Delay index.
-   */
-  private static final int DELAY_INDEX = 6;
-  /**
-   * Number of minutes in an hour.
-   */
-  private static final int MINUTES_IN_HOUR = 60;
+  /** Title of the import dialogs. */
+  private static final String IMPORT_TITLE = "Import events";
+  /** Width of the import report. */
+  private static final int REPORT_WIDTH = 500;
+  /** Height of the import report. */
+  private static final int REPORT_HEIGHT = 200;
   /**
    * Singleton instance.
    */
@@ -152,6 +123,11 @@ public class ActionMetroEvent {
    * Current event id.
    */
   private int currentId = 0;
+  /**
+   * Ids of the events whose stations or line are not in the network since
+   * the last change of the network.
+   */
+  private Set<Integer> outOfNetworkIds = new HashSet<>();
 
   /**
    * Create Singleton.
@@ -165,28 +141,6 @@ public class ActionMetroEvent {
     return instance;
   }
 
-  /**
-   * check if a station id between the starting and ending station.
-   *
-   * @param station      station to check
-   * @param stationStart starting station
-   * @param stationEnd   ending station
-   * @param line         line concerned
-   * @return true if the station is between the starting and ending station
-   */
-
-  private boolean isInDelta(final Station station, final Station stationStart,
-                            final Station stationEnd, final Line line) {
-    if (line.getStations().contains(station)) {
-      return line.getStations().indexOf(station) >= line.getStations()
-          .indexOf(stationStart)
-          && line.getStations().indexOf(station) <= line.getStations()
-          .indexOf(stationEnd);
-    } else {
-      return false;
-    }
-  }
-
   private int getCurrentId() {
     return currentId;
   }
@@ -205,6 +159,196 @@ public class ActionMetroEvent {
     EventWindow.getInstance().setVisible(true);
   }
 
+  /**
+   * Prompts the dialog to choose a CSV or JSON events file, read and
+   * validated in the background, then adds its events at once and reports
+   * the rejected rows.
+   */
+  public void showImportDialog() {
+    JFileChooser fileChooser = new JFileChooser(ActionFile.ARCHIVES_PATH);
+    fileChooser.setFileFilter(new FileNameExtensionFilter(
+        "CSV or JSON files", "csv", "json"));
+    if (fileChooser.showOpenDialog(MainWindow.getInstance())
+        != JFileChooser.APPROVE_OPTION) {
+      return;
+    }
+    File file = fileChooser.getSelectedFile();
+    new SwingWorker<EventImport, Void>() {
+      @Override
+      protected EventImport doInBackground() throws IOException {
+        return EventImport.read(file);
+      }
+
+      @Override
+      protected void done() {
+        try {
+          EventImport eventImport = this.get();
+          int added = ActionMetroEvent.this.addEvents(eventImport);
+          showImportReport(added, eventImport.getErrors());
+        } catch (ExecutionException e) {
+          e.getCause().printStackTrace();
+          JOptionPane.showMessageDialog(MainWindow.getInstance(),
+              "Import failed: " + e.getCause().getMessage(),
+              IMPORT_TITLE, JOptionPane.ERROR_MESSAGE);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+      }
+    }.execute();
+  }
+
+  /**
+   * Show the number of events imported and the rejected rows.
+   *
+   * @param added  number of events added
+   * @param errors errors of the rejected rows
+   */
+  private static void showImportReport(final int added,
+                                       final List<String> errors) {
+    String summary = added + " events imported";
+    if (errors.isEmpty()) {
+      JOptionPane.showMessageDialog(MainWindow.getInstance(), summary,
+          IMPORT_TITLE, JOptionPane.INFORMATION_MESSAGE);
+      return;
+    }
+    JTextArea report = new JTextArea(String.join("\n", errors));
+    report.setEditable(false);
+    JScrollPane scrollPane = new JScrollPane(report);
+    scrollPane.setPreferredSize(new Dimension(REPORT_WIDTH, REPORT_HEIGHT));
+    JOptionPane.showMessageDialog(MainWindow.getInstance(), new Object[]{
+        summary + ", " + errors.size() + " rows rejected:", scrollPane},
+        IMPORT_TITLE, JOptionPane.WARNING_MESSAGE);
+  }
+
+  /**
+   * Add the events of a file at once: the events whose stations or line are
+   * not in the network are rejected, the others are added as a batch (see
+   * {@link #addEvents(List)}).
+   *
+   * @param eventImport events read from a file
+   * @return int number of events added
+   */
+  public int addEvents(final EventImport eventImport) {
+    MainPanel mainPanel = MainWindow.getInstance().getMainPanel();
+    eventImport.checkNetwork(mainPanel.getStationIndex(),
+        mainPanel.getLineViews().size());
+    return this.addEvents(eventImport.getEvents());
+  }
+
+  /**
+   * Add events at once: they are numbered, added to the data and the
+   * timeline, their rows are added to the event recap in a single insertion
+   * and flagged in a single update, and the map is repainted once. Their
+   * stations and lines must be in the network.
+   *
+   * @param events events to add
+   * @return int number of events added
+   */
+  public int addEvents(final List<Event> events) {
+    MainPanel mainPanel = MainWindow.getInstance().getMainPanel();
+    StationIndex stationIndex = mainPanel.getStationIndex();
+    EventTimeline timeline = Data.getInstance().getEventTimeline();
+    for (Event event : events) {
+      event.setId(this.getCurrentId());
+      this.incrementCurrentId();
+      this.colorEvent(event, stationIndex, mainPanel.getLineViews());
+      timeline.add(event, NetworkCore.eventScope(event, stationIndex));
+    }
+    Data.getInstance().getEventList().addAll(events);
+    EventRecap eventRecap = EventRecap.getInstance();
+    eventRecap.addEvents(events, stationIndex);
+    // each event, and each event conflicting with it, is flagged once
+    Map<Integer, List<Event>> conflicts = new HashMap<>();
+    for (Event event : events) {
+      if (timeline.contains(event)) {
+        List<Event> eventConflicts = timeline.getConflicts(event);
+        conflicts.put(event.getId(), eventConflicts);
+        for (Event conflict : eventConflicts) {
+          if (!conflicts.containsKey(conflict.getId())) {
+            conflicts.put(conflict.getId(), timeline.getConflicts(conflict));
+          }
+        }
+      }
+    }
+    eventRecap.flagConflicts(conflicts);
+    mainPanel.repaint();
+    return events.size();
+  }
+
+  /**
+   * Update the events once the network of the main panel changed, by an
+   * edit, an undo or a redo, without repainting. The stations and lines of
+   * each event are computed again for the timeline, and the events whose
+   * conflicts changed are flagged again. The stations of the events are
+   * colored again, the events whose stations or line are no longer in the
+   * network being flagged in the event recap instead.
+   */
+  public void networkChanged() {
+    MainPanel mainPanel = MainPanel.getInstance();
+    StationIndex stationIndex = mainPanel.getStationIndex();
+    List<LineView> lineViews = mainPanel.getLineViews();
+    EventTimeline timeline = Data.getInstance().getEventTimeline();
+    Map<Integer, List<Event>> conflicts = new HashMap<>();
+    for (Event event : timeline.rescope(
+        event -> NetworkCore.eventScope(event, stationIndex))) {
+      conflicts.put(event.getId(), timeline.getConflicts(event));
+    }
+    Set<Integer> outOfNetwork = new HashSet<>();
+    Map<Integer, String> errors = new HashMap<>();
+    for (Event event : Data.getInstance().getEventList()) {
+      String error = EventImport.networkError(event, stationIndex,
+          lineViews.size());
+      if (error != null) {
+        outOfNetwork.add(event.getId());
+        errors.put(event.getId(), error);
+      } else {
+        this.colorEvent(event, stationIndex, lineViews);
+        if (this.outOfNetworkIds.contains(event.getId())) {
+          conflicts.put(event.getId(), timeline.getConflicts(event));
+        }
+      }
+    }
+    this.outOfNetworkIds = outOfNetwork;
+    EventRecap eventRecap = EventRecap.getInstance();
+    eventRecap.flagConflicts(conflicts);
+    eventRecap.flagNetworkErrors(errors);
+  }
+
+  /**
+   * Color the stations of an event checked against the network, without
+   * repainting.
+   *
+   * @param event        event to show
+   * @param stationIndex index of the stations of the network
+   * @param lineViews    lines of the network
+   */
+  private void colorEvent(final Event event, final StationIndex stationIndex,
+                          final List<LineView> lineViews) {
+    if (event instanceof EventBetween2Stations) {
+      EventBetween2Stations between = (EventBetween2Stations) event;
+      StationIndex.Entry[] entries = stationIndex.getEntriesOnSameLine(
+          between.getIdStationStart(), between.getIdStationEnd());
+      boolean delay = event.getEventName() == EventName.LINE_DELAYED;
+      this.colorStationViews(entries[0].getLineView(),
+          Math.min(entries[0].getPosition(), entries[1].getPosition()),
+          Math.max(entries[0].getPosition(), entries[1].getPosition()),
+          delay ? Color.ORANGE : Color.RED);
+    } else if (event instanceof EventPeak) {
+      for (StationIndex.Entry entry
+          : stationIndex.getEntries(((EventPeak) event).getIdStation())) {
+        entry.getStationView().setCenterCircleColor(Color.YELLOW);
+      }
+    } else if (event instanceof EventStationClosed) {
+      for (StationIndex.Entry entry : stationIndex.getEntries(
+          ((EventStationClosed) event).getIdStation())) {
+        entry.getStationView().setCenterCircleColor(Color.RED);
+      }
+    } else if (event instanceof EventLineClosed) {
+      this.colorStationViewsEntireLine(
+          lineViews.get(((EventLineClosed) event).getIdLine()), Color.RED);
+    }
+  }
+
   /**
    * Add a line delay event.
    *
@@ -213,37 +357,13 @@ public class ActionMetroEvent {
   public void addLineDelay(final String eventString) {
     MainWindow.getInstance().toFront();
     String[] eventStringTab = eventString.split(",");
-    String startTime =
-        eventStringTab[STARTING_DATE_INDEX] + "-"
-            + eventStringTab[STARTING_TIME_INDEX];
-    String endTime = eventStringTab[ENDING_DATE_INDEX] + "-"
-        + eventStringTab[ENDING_TIME_INDEX];
-    EventLineDelay eventLineDelay = new EventLineDelay(this.getCurrentId(),
-        startTime, endTime, Event.EventType.LINE);
-    int delay;
-    if (eventStringTab[DELAY_INDEX].contains(":")) {
-      delay = Integer.parseInt(eventStringTab[DELAY_INDEX].split(":")[0])
-          * MINUTES_IN_HOUR + Integer.parseInt(eventStringTab[DELAY_INDEX]
-          .split(":")[1]);
-    } else {
-      delay = Integer.parseInt(eventStringTab[DELAY_INDEX]);
-    }
-    eventLineDelay.setDelay(delay);
-    eventLineDelay.setIdStationStart(Integer.parseInt(eventStringTab[
-        STARTING_STATION_INDEX]));
-    eventLineDelay.setIdStationEnd(Integer.parseInt(eventStringTab[
-        ENDING_STATION_INDEX]));
-    eventLineDelay.setEventName(EventName.LINE_DELAYED);
+    EventLineDelay eventLineDelay = EventFactory.lineDelay(
+        this.getCurrentId(), eventString);
     Color eventColor = Color.ORANGE;
     this.addEventBetween2Stations(eventLineDelay, eventColor, eventStringTab);
+    this.trackEvent(eventLineDelay);
     MainWindow.getInstance().getEventRecapPanel().revalidate();
     this.incrementCurrentId();
-    try {
-      SwingUtilities.updateComponentTreeUI(MainWindow.getInstance());
-    } catch (Exception e) {
-      e.printStackTrace();
-    }
-    EventRecap.getInstance().eventsListRemoveBackground();
   }
 
   /**
@@ -254,30 +374,14 @@ public class ActionMetroEvent {
   public void addMultipleStationsClosed(final String eventString) {
     MainWindow.getInstance().toFront();
     String[] eventStringTab = eventString.split(",");
-    String startTime =
-        eventStringTab[STARTING_DATE_INDEX] + "-" + eventStringTab[
-            STARTING_TIME_INDEX];
-    String endTime =
-        eventStringTab[ENDING_DATE_INDEX] + "-" + eventStringTab[
-            ENDING_TIME_INDEX];
-    EventMultipleStationsClosed eventMultipleStationsClosed = new
-        EventMultipleStationsClosed(
-            this.getCurrentId(), startTime, endTime, Event.EventType.LINE);
-    eventMultipleStationsClosed.setIdStationStart(Integer.parseInt(
-        eventStringTab[STARTING_STATION_INDEX]));
-    eventMultipleStationsClosed.setIdStationEnd(Integer.parseInt(eventStringTab[
-        ENDING_STATION_INDEX]));
+    EventMultipleStationsClosed eventMultipleStationsClosed = EventFactory
+        .multipleStationsClosed(this.getCurrentId(), eventString);
     Color eventColor = Color.RED;
     this.addEventBetween2Stations(eventMultipleStationsClosed,
         eventColor, eventStringTab);
+    this.trackEvent(eventMultipleStationsClosed);
     MainWindow.getInstance().getEventRecapPanel().revalidate();
     this.incrementCurrentId();
-    try {
-      SwingUtilities.updateComponentTreeUI(MainWindow.getInstance());
-    } catch (Exception e) {
-      e.printStackTrace();
-    }
-    EventRecap.getInstance().eventsListRemoveBackground();
   }
 
   /**
@@ -292,29 +396,27 @@ public class ActionMetroEvent {
                                         final String[] eventStringTab) {
     assert event != null;
     Data.getInstance().getEventList().add(event);
-    Station stationStart = null;
-    Station stationEnd = null;
+    StationIndex.Entry[] entries = this.findStations(
+        event.getIdStationStart(), event.getIdStationEnd());
     LineView lineStart = null;
     LineView lineEnd = null;
-    for (LineView lineView : MainWindow.getInstance().getMainPanel()
-        .getLineViews()) {
-      for (StationView stationView : lineView.getStationViews()) {
-        if (stationView.getStation().getId() == event
-            .getIdStationStart()) {
-          lineStart = lineView;
-          stationStart = stationView.getStation();
-        } else if (stationView.getStation().getId() == event
-            .getIdStationEnd()) {
-          lineEnd = lineView;
-          stationEnd = stationView.getStation();
-        }
-      }
+    Station stationStart = null;
+    Station stationEnd = null;
+    if (entries[0] != null) {
+      lineStart = entries[0].getLineView();
+      stationStart = entries[0].getStationView().getStation();
+    }
+    if (entries[1] != null) {
+      lineEnd = entries[1].getLineView();
+      stationEnd = entries[1].getStationView().getStation();
     }
     Station[] stations = checkLinesAndStations(lineStart, lineEnd,
         stationStart, stationEnd);
     stationStart = stations[0];
     stationEnd = stations[1];
-    this.colorStationViews(lineStart, stationStart, stationEnd,
+    this.colorStationViews(lineStart,
+        Math.min(entries[0].getPosition(), entries[1].getPosition()),
+        Math.max(entries[0].getPosition(), entries[1].getPosition()),
         eventColor);
     EventWindow.getInstance().dispatchEvent(new WindowEvent(
         EventWindow.getInstance(), WindowEvent.WINDOW_CLOSING));
@@ -334,6 +436,20 @@ public class ActionMetroEvent {
     }
   }
 
+  /**
+   * Find the starting and ending stations in the station index, on a line
+   * containing both if there is one.
+   *
+   * @param idStationStart id of the start station
+   * @param idStationEnd   id of the end station
+   * @return the entries of the start and end stations, null if not found
+   */
+  private StationIndex.Entry[] findStations(final int idStationStart,
+                                            final int idStationEnd) {
+    return MainWindow.getInstance().getMainPanel().getStationIndex()
+        .getEntriesOnSameLine(idStationStart, idStationEnd);
+  }
+
   /**
    * Check if the lines and stations are not null, if the stations are on
    * the same line and inversed the station start and the station end
@@ -368,22 +484,41 @@ public class ActionMetroEvent {
   }
 
   /**
-   * Color the station views between the starting and ending station.
+   * Color the station views between two positions of a line.
    *
-   * @param line line concerned
-   * @param stationStart starting station
-   * @param stationEnd ending station
-   * @param eventColor color of the event
+   * @param line          line concerned
+   * @param startPosition position of the starting station
+   * @param endPosition   position of the ending station
+   * @param eventColor    color of the event
    */
   private void colorStationViews(final LineView line,
-                                 final Station stationStart,
-                                 final Station stationEnd,
+                                 final int startPosition,
+                                 final int endPosition,
                                  final Color eventColor) {
-    for (StationView stationView : line.getStationViews()) {
-      if (this.isInDelta(stationView.getStation(), stationStart, stationEnd,
-          line.getLine())) {
-        stationView.setCenterCircleColor(eventColor);
-      }
+    List<StationView> stationViews = line.getStationViews();
+    for (int i = startPosition; i <= endPosition; i++) {
+      stationViews.get(i).setCenterCircleColor(eventColor);
+    }
+  }
+
+  /**
+   * Add an event to the timeline and flag it, and the events it conflicts
+   * with, in the event recap.
+   *
+   * @param event event added
+   */
+  private void trackEvent(final Event event) {
+    EventTimeline timeline = Data.getInstance().getEventTimeline();
+    if (!timeline.add(event, NetworkCore.eventScope(event,
+        MainWindow.getInstance().getMainPanel().getStationIndex()))) {
+      return;
+    }
+    List<Event> conflicts = timeline.getConflicts(event);
+    EventRecap eventRecap = EventRecap.getInstance();
+    eventRecap.flagConflicts(event.getId(), conflicts);
+    for (Event conflict : conflicts) {
+      eventRecap.flagConflicts(conflict.getId(),
+          timeline.getConflicts(conflict));
     }
   }
 
@@ -407,45 +542,24 @@ public class ActionMetroEvent {
    */
   public void addGaussianPeak(final String eventString) {
     MainWindow.getInstance().toFront();
-    String[] eventStringTab = eventString.split(",");
-    String startTime = eventStringTab[STARTING_DATE_INDEX] + "-"
-            + eventStringTab[STARTING_TIME_INDEX];
-    startTime = startTime.replace(":00Z", "");
-    String endTime = eventStringTab[ENDING_DATE_INDEX] + "-"
-            + eventStringTab[ENDING_TIME_INDEX];
-    endTime = endTime.replace(":00Z", "");
-    String peakTime = eventStringTab[PEAK_DATE_INDEX] + "-"
-            + eventStringTab[PEAK_TIME_INDEX];
-    peakTime = peakTime.replace(":00Z", "");
-    String peakWidth = eventStringTab[PEAK_WIDTH_INDEX];
-
-    EventGaussianPeak eventGaussianPeak = new EventGaussianPeak(
-        this.getCurrentId(), startTime, endTime, Event.EventType.STATION);
-    eventGaussianPeak.setPeakTime(peakTime);
-    eventGaussianPeak.setIdStation(Integer.parseInt(eventStringTab[
-        STATION_CONCERNED_INDEX + 2]));
-    eventGaussianPeak.setSize(Integer.parseInt(eventStringTab[
-        PEAK_NUMBER_INDEX + 2]));
-    eventGaussianPeak.setPeakWidth(Integer.parseInt(peakWidth));
+    EventGaussianPeak eventGaussianPeak = EventFactory.gaussianPeak(
+        this.getCurrentId(), eventString);
     Data.getInstance().getEventList().add(eventGaussianPeak);
 
     Station stationConcerned = editStationConcernedPeak(
             eventGaussianPeak.getIdStation());
     if (stationConcerned != null) {
       MainWindow.getInstance().getEventRecapPanel().createEventGaussianPeak(
-          this.getCurrentId(), startTime, endTime, peakTime,
+          this.getCurrentId(), eventGaussianPeak.getStartTime(),
+          eventGaussianPeak.getEndTime(), eventGaussianPeak.getPeakTime(),
           Integer.toString(stationConcerned.getId()),
-          eventStringTab[PEAK_NUMBER_INDEX + 2], peakWidth);
+          Integer.toString(eventGaussianPeak.getSize()),
+          Integer.toString(eventGaussianPeak.getPeakWidth()));
     }
 
+    this.trackEvent(eventGaussianPeak);
     MainWindow.getInstance().getEventRecapPanel().revalidate();
     this.incrementCurrentId();
-    try {
-      SwingUtilities.updateComponentTreeUI(MainWindow.getInstance());
-    } catch (Exception e) {
-      e.printStackTrace();
-    }
-    EventRecap.getInstance().eventsListRemoveBackground();
   }
 
   /**
@@ -455,43 +569,23 @@ public class ActionMetroEvent {
    */
   public void addRampPeak(final String eventString) {
     MainWindow.getInstance().toFront();
-    String[] eventStringTab = eventString.split(",");
-    String startTime = eventStringTab[STARTING_DATE_INDEX] + "-"
-            + eventStringTab[STARTING_TIME_INDEX];
-    startTime = startTime.replace(":00Z", "");
-    String endTime = eventStringTab[ENDING_DATE_INDEX] + "-"
-            + eventStringTab[ENDING_TIME_INDEX];
-    endTime = endTime.replace(":00Z", "");
-    String peakTime = eventStringTab[PEAK_DATE_INDEX] + "-"
-            + eventStringTab[PEAK_TIME_INDEX];
-    peakTime = peakTime.replace(":00Z", "");
-
-    EventRampPeak eventRampPeak = new EventRampPeak(
-            this.getCurrentId(), startTime, endTime, Event.EventType.STATION);
-    eventRampPeak.setPeakTime(peakTime);
-    eventRampPeak.setIdStation(Integer.parseInt(eventStringTab[
-            STATION_CONCERNED_INDEX + 2]));
-    eventRampPeak.setSize(Integer.parseInt(eventStringTab[
-            PEAK_NUMBER_INDEX + 2]));
+    EventRampPeak eventRampPeak = EventFactory.rampPeak(this.getCurrentId(),
+        eventString);
     Data.getInstance().getEventList().add(eventRampPeak);
 
     Station stationConcerned = editStationConcernedPeak(
             eventRampPeak.getIdStation());
     if (stationConcerned != null) {
       MainWindow.getInstance().getEventRecapPanel().createEventRampPeak(
-              this.getCurrentId(), startTime, endTime, peakTime,
+              this.getCurrentId(), eventRampPeak.getStartTime(),
+              eventRampPeak.getEndTime(), eventRampPeak.getPeakTime(),
               Integer.toString(stationConcerned.getId()),
-              eventStringTab[PEAK_NUMBER_INDEX + 2]);
+              Integer.toString(eventRampPeak.getSize()));
     }
 
+    this.trackEvent(eventRampPeak);
     MainWindow.getInstance().getEventRecapPanel().revalidate();
     this.incrementCurrentId();
-    try {
-      SwingUtilities.updateComponentTreeUI(MainWindow.getInstance());
-    } catch (Exception e) {
-      e.printStackTrace();
-    }
-    EventRecap.getInstance().eventsListRemoveBackground();
   }
 
   /**
@@ -502,14 +596,10 @@ public class ActionMetroEvent {
    */
   public Station editStationConcernedPeak(final int idStation) {
     Station stationConcerned = null;
-    for (LineView lineView : MainWindow.getInstance().getMainPanel()
-            .getLineViews()) {
-      for (StationView stationView : lineView.getStationViews()) {
-        if (stationView.getStation().getId() == idStation) {
-          stationConcerned = stationView.getStation();
-          stationView.setCenterCircleColor(Color.YELLOW);
-        }
-      }
+    for (StationIndex.Entry entry : MainWindow.getInstance().getMainPanel()
+        .getStationIndex().getEntries(idStation)) {
+      stationConcerned = entry.getStationView().getStation();
+      entry.getStationView().setCenterCircleColor(Color.YELLOW);
     }
 
     EventWindow.getInstance().dispatchEvent(new WindowEvent(
@@ -527,29 +617,18 @@ public class ActionMetroEvent {
   public void addTrainHour(final String eventString) {
     MainWindow.getInstance().toFront();
     String[] eventStringTab = eventString.split(",");
-    String startTime = eventStringTab[STARTING_TIME_INDEX_TRAIN_HOUR];
-    String endTime = eventStringTab[ENDING_TIME_INDEX_TRAIN_HOUR];
-    EventHour eventHour = new EventHour(this.getCurrentId(), startTime,
-        endTime, Event.EventType.LINE);
-    eventHour.setIdLine(Integer.parseInt(eventStringTab[
-        TRAIN_HOUR_LINE_INDEX]));
-    eventHour.setTrainNumber(Integer.parseInt(eventStringTab[
-        TRAIN_HOUR_TRAIN_NUMBER_INDEX]));
+    EventHour eventHour = EventFactory.trainHour(this.getCurrentId(),
+        eventString);
     Data.getInstance().getEventList().add(eventHour);
     EventWindow.getInstance().dispatchEvent(new WindowEvent(
         EventWindow.getInstance(), WindowEvent.WINDOW_CLOSING));
     MainWindow.getInstance().getMainPanel().repaint();
     MainWindow.getInstance().getEventRecapPanel().createEventHour(
-        this.getCurrentId(), startTime, endTime, eventStringTab[2],
+        this.getCurrentId(), eventHour.getStartTime(), eventHour.getEndTime(),
+        eventStringTab[TRAIN_HOUR_LINE_INDEX],
         eventStringTab[TRAIN_HOUR_TRAIN_NUMBER_INDEX]);
     MainWindow.getInstance().getEventRecapPanel().revalidate();
     this.incrementCurrentId();
-    try {
-      SwingUtilities.updateComponentTreeUI(MainWindow.getInstance());
-    } catch (Exception e) {
-      e.printStackTrace();
-    }
-    EventRecap.getInstance().eventsListRemoveBackground();
   }
 
   /**
@@ -560,30 +639,17 @@ public class ActionMetroEvent {
   public void addStationClosed(final String eventString) {
     // Get the event string from the event window
     MainWindow.getInstance().toFront();
-    String[] eventStringTab = eventString.split(",");
-    String startTime = eventStringTab[STARTING_DATE_INDEX] + "-"
-        + eventStringTab[STARTING_TIME_INDEX];
-    String endTime = eventStringTab[ENDING_DATE_INDEX] + "-"
-        + eventStringTab[ENDING_TIME_INDEX];
-
     // Create the event and add it to the list of events in Data
-    EventStationClosed eventStationClosed = new EventStationClosed(
-        this.getCurrentId(), startTime, endTime, Event.EventType.STATION);
-    eventStationClosed.setIdStation(Integer.parseInt(eventStringTab[
-        STATION_CONCERNED_INDEX]));
+    EventStationClosed eventStationClosed = EventFactory.stationClosed(
+        this.getCurrentId(), eventString);
     Data.getInstance().getEventList().add(eventStationClosed);
 
     // Search for the station view concerned by the event and color it in red
     Station stationConcerned = null;
-    for (LineView lineView : MainWindow.getInstance().getMainPanel()
-        .getLineViews()) {
-      for (StationView stationView : lineView.getStationViews()) {
-        if (stationView.getStation().getId() == eventStationClosed
-            .getIdStation()) {
-          stationConcerned = stationView.getStation();
-          stationView.setCenterCircleColor(Color.RED);
-        }
-      }
+    for (StationIndex.Entry entry : MainWindow.getInstance().getMainPanel()
+        .getStationIndex().getEntries(eventStationClosed.getIdStation())) {
+      stationConcerned = entry.getStationView().getStation();
+      entry.getStationView().setCenterCircleColor(Color.RED);
     }
 
     // Add the event to the event recap panel (left panel with all the events)
@@ -592,17 +658,13 @@ public class ActionMetroEvent {
     MainWindow.getInstance().getMainPanel().repaint();
     if (stationConcerned != null) {
       MainWindow.getInstance().getEventRecapPanel().createEventStationClosed(
-          this.getCurrentId(), startTime, endTime,
+          this.getCurrentId(), eventStationClosed.getStartTime(),
+          eventStationClosed.getEndTime(),
           Integer.toString(stationConcerned.getId()));
     }
+    this.trackEvent(eventStationClosed);
     MainWindow.getInstance().getEventRecapPanel().revalidate();
     this.incrementCurrentId();
-    try {
-      SwingUtilities.updateComponentTreeUI(MainWindow.getInstance());
-    } catch (Exception e) {
-      e.printStackTrace();
-    }
-    EventRecap.getInstance().eventsListRemoveBackground();
   }
 
   /**
@@ -613,24 +675,8 @@ public class ActionMetroEvent {
   public void addLineClosed(final String eventString) {
     MainWindow.getInstance().toFront();
     String[] eventStringTab = eventString.split(",");
-    String startTime = eventStringTab[STARTING_DATE_INDEX] + "-"
-        + eventStringTab[STARTING_TIME_INDEX];
-    String endTime = eventStringTab[ENDING_DATE_INDEX] + "-"
-        + eventStringTab[ENDING_TIME_INDEX];
-    EventLineClosed eventLineClosed = new EventLineClosed(this.getCurrentId(),
-        startTime, endTime, Event.EventType.LINE);
-    eventLineClosed.setIdLine(Integer.parseInt(
-        eventStringTab[LINE_CLOSURE_LINE_INDEX]));
-    switch (eventStringTab[LINE_CLOSURE_TYPE_INDEX]) {
-      case "unexpected":
-        eventLineClosed.setClosureType(LineClosureType.UNEXPECTED);
-        break;
-      case "planned":
-        eventLineClosed.setClosureType(LineClosureType.PLANNED);
-        break;
-      default:
-        throw new IllegalArgumentException("Invalid line closure type.");
-    }
+    EventLineClosed eventLineClosed = EventFactory.lineClosed(
+        this.getCurrentId(), eventString);
 
     Data.getInstance().getEventList().add(eventLineClosed);
     this.colorStationViewsEntireLine(MainWindow.getInstance().getMainPanel()
@@ -640,17 +686,13 @@ public class ActionMetroEvent {
         EventWindow.getInstance(), WindowEvent.WINDOW_CLOSING));
     MainWindow.getInstance().getMainPanel().repaint();
     MainWindow.getInstance().getEventRecapPanel().createEventLineClosed(
-        this.getCurrentId(), startTime, endTime,
+        this.getCurrentId(), eventLineClosed.getStartTime(),
+        eventLineClosed.getEndTime(),
         eventStringTab[LINE_CLOSURE_LINE_INDEX],
         eventStringTab[LINE_CLOSURE_TYPE_INDEX]);
+    this.trackEvent(eventLineClosed);
     MainWindow.getInstance().getEventRecapPanel().revalidate();
     this.incrementCurrentId();
-    try {
-      SwingUtilities.updateComponentTreeUI(MainWindow.getInstance());
-    } catch (Exception e) {
-      e.printStackTrace();
-    }
-    EventRecap.getInstance().eventsListRemoveBackground();
   }
 }
 
@@ -0,0 +1,371 @@
+/*
+ * License : MIT License
+ *
+ * Copyright (c) 2023 Team PFE_2023_16
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.example.controller;
+
+import org.example.view.LineView;
+import org.example.view.MainPanel;
+import org.example.view.MainWindow;
+import org.example.view.MapLayers;
+import org.example.view.StationView;
+import org.openstreetmap.gui.jmapviewer.OfflineTileLoader;
+import org.openstreetmap.gui.jmapviewer.OsmTileLoader;
+import org.openstreetmap.gui.jmapviewer.TilePackage;
+import org.openstreetmap.gui.jmapviewer.TilePrefetcher;
+import org.openstreetmap.gui.jmapviewer.interfaces.TileSource;
+import org.openstreetmap.gui.jmapviewer.tilesources.OfflineTileSource;
+import org.openstreetmap.gui.jmapviewer.tilesources.OsmTileSource;
+
+import javax.swing.JFileChooser;
+import javax.swing.JLabel;
+import javax.swing.JOptionPane;
+import javax.swing.JPanel;
+import javax.swing.JSpinner;
+import javax.swing.ProgressMonitor;
+import javax.swing.SpinnerNumberModel;
+import javax.swing.SwingWorker;
+import javax.swing.Timer;
+import javax.swing.filechooser.FileNameExtensionFilter;
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.ExecutionException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * A class for performing actions related to the offline map tiles.
+ * Linked to menu items in {@link org.example.view.MenuBar}.
+ *
+ * <p>The tiles covering the network can be downloaded into a
+ * {@link TilePackage} file, which the map can then display without network
+ * access.
+ *
+ * @author Team PFE_2023_16
+ * @file ActionOfflineTiles.java
+ * @date 2026-10-17
+ * @since 3.0
+ */
+public final class ActionOfflineTiles {
+  /**
+   * Number of concurrent tile downloads. The OSM tile usage policy asks
+   * for at most 2 connections.
+   */
+  public static final int DOWNLOAD_THREADS = 2;
+  /**
+   * Default lowest zoom level of a prefetch.
+   */
+  private static final int DEFAULT_MIN_ZOOM = 10;
+  /**
+   * Default highest zoom level of a prefetch.
+   */
+  private static final int DEFAULT_MAX_ZOOM = 15;
+  /**
+   * Share of the network size added around it.
+   */
+  private static final double MARGIN = 0.1;
+  /**
+   * Minimum margin around the network, in degrees.
+   */
+  private static final double MIN_MARGIN = 0.01;
+  /**
+   * Delay between two checks of the cancel button, in milliseconds.
+   */
+  private static final int CANCEL_POLL_MILLIS = 200;
+  /**
+   * Logger of the class.
+   */
+  private static final Logger LOGGER =
+      Logger.getLogger(ActionOfflineTiles.class.getName());
+  /**
+   * Singleton instance of the class.
+   */
+  private static ActionOfflineTiles instance;
+
+  /**
+   * Package displayed by the map, null when the tiles are downloaded.
+   */
+  private TilePackage openPackage;
+
+  /**
+   * Constructor of the class.
+   */
+  private ActionOfflineTiles() {
+  }
+
+  /**
+   * Return Singleton.
+   *
+   * @return ActionOfflineTiles instance
+   */
+  public static ActionOfflineTiles getInstance() {
+    if (instance == null) {
+      instance = new ActionOfflineTiles();
+    }
+    return instance;
+  }
+
+  /**
+   * Bounding box of the stations of the network, with a margin.
+   *
+   * @return south, west, north and east, in degrees, or null if the network
+   *     has no station
+   */
+  public static double[] networkBounds() {
+    double minLat = Double.POSITIVE_INFINITY;
+    double minLon = Double.POSITIVE_INFINITY;
+    double maxLat = Double.NEGATIVE_INFINITY;
+    double maxLon = Double.NEGATIVE_INFINITY;
+    for (LineView lineView : MainPanel.getInstance().getLineViews()) {
+      for (StationView stationView : lineView.getStationViews()) {
+        minLat = Math.min(minLat, stationView.getStation().getLatitude());
+        maxLat = Math.max(maxLat, stationView.getStation().getLatitude());
+        minLon = Math.min(minLon, stationView.getStation().getLongitude());
+        maxLon = Math.max(maxLon, stationView.getStation().getLongitude());
+      }
+    }
+    if (minLat > maxLat) {
+      return null;
+    }
+    double latMargin = Math.max(MIN_MARGIN, (maxLat - minLat) * MARGIN);
+    double lonMargin = Math.max(MIN_MARGIN, (maxLon - minLon) * MARGIN);
+    return new double[] {minLat - latMargin, minLon - lonMargin,
+        maxLat + latMargin, maxLon + lonMargin};
+  }
+
+  /**
+   * Prompts for a zoom range and a package file, then downloads the tiles
+   * covering the network in the background.
+   */
+  public void showPrefetchDialog() {
+    MainWindow window = MainWindow.getInstance();
+    double[] bounds = networkBounds();
+    if (bounds == null) {
+      JOptionPane.showMessageDialog(window, "The network has no station.",
+          "Offline tiles", JOptionPane.WARNING_MESSAGE);
+      return;
+    }
+    TileSource source = new OsmTileSource.Mapnik();
+    SpinnerNumberModel minZoom = new SpinnerNumberModel(DEFAULT_MIN_ZOOM,
+        source.getMinZoom(), source.getMaxZoom(), 1);
+    SpinnerNumberModel maxZoom = new SpinnerNumberModel(DEFAULT_MAX_ZOOM,
+        source.getMinZoom(), source.getMaxZoom(), 1);
+    JPanel panel = new JPanel();
+    panel.add(new JLabel("Zoom from"));
+    panel.add(new JSpinner(minZoom));
+    panel.add(new JLabel("to"));
+    panel.add(new JSpinner(maxZoom));
+    if (JOptionPane.showConfirmDialog(window, panel, "Offline tiles",
+        JOptionPane.OK_CANCEL_OPTION) != JOptionPane.OK_OPTION) {
+      return;
+    }
+    int from = Math.min((Integer) minZoom.getValue(),
+        (Integer) maxZoom.getValue());
+    int to = Math.max((Integer) minZoom.getValue(),
+        (Integer) maxZoom.getValue());
+
+    TilePrefetcher prefetcher = new TilePrefetcher(source, DOWNLOAD_THREADS);
+    long count = prefetcher.countTiles(bounds[0], bounds[1], bounds[2],
+        bounds[3], from, to);
+    if (JOptionPane.showConfirmDialog(window, "Download " + count
+            + " tiles?", "Offline tiles", JOptionPane.OK_CANCEL_OPTION)
+        != JOptionPane.OK_OPTION) {
+      return;
+    }
+    JFileChooser fileChooser = new JFileChooser(ActionFile.ARCHIVES_PATH);
+    fileChooser.setFileFilter(new FileNameExtensionFilter("Tile packages",
+        TilePackage.EXTENSION.substring(1)));
+    fileChooser.setSelectedFile(new File("network" + TilePackage.EXTENSION));
+    if (fileChooser.showSaveDialog(window) != JFileChooser.APPROVE_OPTION) {
+      return;
+    }
+    File file = fileChooser.getSelectedFile();
+    if (!file.getName().endsWith(TilePackage.EXTENSION)) {
+      file = new File(file.getPath() + TilePackage.EXTENSION);
+    }
+    new PrefetchWorker(prefetcher, bounds, from, to, file).execute();
+  }
+
+  /**
+   * Prompts the open dialog to select a tile package file or directory,
+   * and displays its tiles instead of the downloaded ones.
+   */
+  public void showOpenDialog() {
+    JFileChooser fileChooser = new JFileChooser(ActionFile.ARCHIVES_PATH);
+    fileChooser.setFileSelectionMode(JFileChooser.FILES_AND_DIRECTORIES);
+    fileChooser.setFileFilter(new FileNameExtensionFilter("Tile packages",
+        TilePackage.EXTENSION.substring(1)));
+    if (fileChooser.showOpenDialog(MainWindow.getInstance())
+        != JFileChooser.APPROVE_OPTION) {
+      return;
+    }
+    try {
+      this.useOfflineTiles(TilePackage.open(fileChooser.getSelectedFile()));
+    } catch (IOException e) {
+      LOGGER.log(Level.SEVERE, "Error opening tile package", e);
+      JOptionPane.showMessageDialog(MainWindow.getInstance(),
+          "Unable to open the tiles: " + e.getMessage(), "Offline tiles",
+          JOptionPane.ERROR_MESSAGE);
+    }
+  }
+
+  /**
+   * Display the tiles of a package on the map.
+   *
+   * @param tilePackage the package
+   */
+  public void useOfflineTiles(final TilePackage tilePackage) {
+    MainPanel mainPanel = MainPanel.getInstance();
+    mainPanel.setTileLoader(new OfflineTileLoader(
+        mainPanel.getTileController().getTileLoaderListener()));
+    mainPanel.setTileSource(new OfflineTileSource(tilePackage));
+    this.closePackage();
+    this.openPackage = tilePackage;
+    mainPanel.repaintLayer(MapLayers.Layer.TILES);
+  }
+
+  /**
+   * Display the downloaded tiles on the map again.
+   */
+  public void useOnlineTiles() {
+    MainPanel mainPanel = MainPanel.getInstance();
+    mainPanel.setTileLoader(new OsmTileLoader(
+        mainPanel.getTileController().getTileLoaderListener()));
+    mainPanel.setTileSource(new OsmTileSource.Mapnik());
+    this.closePackage();
+    mainPanel.repaintLayer(MapLayers.Layer.TILES);
+  }
+
+  /**
+   * Close the package displayed, if any.
+   */
+  private void closePackage() {
+    if (this.openPackage != null) {
+      try {
+        this.openPackage.close();
+      } catch (IOException e) {
+        LOGGER.log(Level.WARNING, "Error closing tile package", e);
+      }
+      this.openPackage = null;
+    }
+  }
+
+  /**
+   * Downloads the tiles into a package on a worker thread, with a progress
+   * monitor that cancels the download.
+   */
+  private static final class PrefetchWorker extends SwingWorker<Integer, Void> {
+    /**
+     * Downloader of the tiles.
+     */
+    private final TilePrefetcher prefetcher;
+    /**
+     * South, west, north and east of the region.
+     */
+    private final double[] bounds;
+    /**
+     * Lowest zoom level.
+     */
+    private final int minZoom;
+    /**
+     * Highest zoom level.
+     */
+    private final int maxZoom;
+    /**
+     * Package file written.
+     */
+    private final File file;
+    /**
+     * Progress monitor, only used on the EDT.
+     */
+    private final ProgressMonitor monitor;
+    /**
+     * Timer checking the cancel button of the monitor, the progress being
+     * reported only when its percentage changes.
+     */
+    private final Timer cancelTimer;
+
+    /**
+     * Create the worker, must be called on the EDT.
+     *
+     * @param tilePrefetcher downloader of the tiles
+     * @param region         south, west, north and east of the region
+     * @param from           lowest zoom level
+     * @param to             highest zoom level
+     * @param packageFile    package file written
+     */
+    private PrefetchWorker(final TilePrefetcher tilePrefetcher,
+                           final double[] region, final int from,
+                           final int to, final File packageFile) {
+      this.prefetcher = tilePrefetcher;
+      this.bounds = region;
+      this.minZoom = from;
+      this.maxZoom = to;
+      this.file = packageFile;
+      this.monitor = new ProgressMonitor(MainWindow.getInstance(),
+          "Downloading tiles into " + packageFile.getName(), null, 0, 100);
+      this.addPropertyChangeListener(event -> {
+        if ("progress".equals(event.getPropertyName())
+            && !this.monitor.isCanceled()) {
+          this.monitor.setProgress((Integer) event.getNewValue());
+        }
+      });
+      this.cancelTimer = new Timer(CANCEL_POLL_MILLIS, event -> {
+        if (this.monitor.isCanceled()) {
+          this.prefetcher.cancel();
+          ((Timer) event.getSource()).stop();
+        }
+      });
+      this.cancelTimer.start();
+    }
+
+    @Override
+    protected Integer doInBackground() throws Exception {
+      try (TilePackage.Writer writer = TilePackage.create(this.file)) {
+        return this.prefetcher.prefetch(writer, this.bounds[0],
+            this.bounds[1], this.bounds[2], this.bounds[3], this.minZoom,
+            this.maxZoom, (done, total) ->
+                this.setProgress(done * 100 / Math.max(1, total)));
+      }
+    }
+
+    @Override
+    protected void done() {
+      this.cancelTimer.stop();
+      this.monitor.close();
+      try {
+        int added = this.get();
+        JOptionPane.showMessageDialog(MainWindow.getInstance(), added
+                + " tiles saved in " + this.file.getName() + ".",
+            "Offline tiles", JOptionPane.INFORMATION_MESSAGE);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      } catch (ExecutionException e) {
+        LOGGER.log(Level.SEVERE, "Error downloading tiles", e.getCause());
+        JOptionPane.showMessageDialog(MainWindow.getInstance(),
+            "Unable to download the tiles: " + e.getCause().getMessage(),
+            "Offline tiles", JOptionPane.ERROR_MESSAGE);
+      }
+    }
+  }
+}
@@ -24,16 +24,24 @@
 
 package org.example.controller;
 
-import java.io.BufferedReader;
+import org.example.model.NetworkSnapshot;
+
+import javax.xml.stream.XMLStreamException;
 import java.io.File;
 import java.io.IOException;
-import java.io.InputStreamReader;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
 
 /**
  * A class for running the simulation from the Java HMI.
  * Linked to buttons in {@link org.example.view.ToolBarPanel}.
  *
+ * <p>The simulator is started through a {@link SimulatorLauncher}, the call
+ * returns as soon as it is running and its output goes to the listener set
+ * with {@link #setListener(SimulatorLauncher.Listener)}.
+ *
  * @author Aurélie Chamouleau
  * @file ActionRunSimulation.java
  * @date 2023-10-02
@@ -44,6 +52,33 @@ public final class ActionRunSimulation {
    * String of the run simulation action name.
    */
   public static final String ACTION_NAME = "RUN_SIMULATION";
+  /**
+   * Name of the map file given to the simulator.
+   */
+  public static final String CONFIG_NAME = "runThisSimulation.xml";
+  /**
+   * Name of the folder of the go simulator, next to the editor.
+   */
+  private static final String GO_PROJECT_NAME = "network-journey-simulator";
+  /**
+   * Name of the folder of the editor.
+   */
+  private static final String EDITOR_PROJECT_NAME = "railway-editor";
+  /**
+   * Listener ignoring the simulator output.
+   */
+  private static final SimulatorLauncher.Listener NO_LISTENER =
+      new SimulatorLauncher.Listener() {
+        @Override
+        public void outputLine(final String line, final boolean error) {
+          // Output not displayed.
+        }
+
+        @Override
+        public void finished(final int exitValue) {
+          // Nothing to do.
+        }
+      };
   /**
    * Singleton instance of the class.
    */
@@ -51,6 +86,18 @@ public final class ActionRunSimulation {
 
   /** ActionFile instance. */
   private final ActionFile actionFile;
+  /** Launcher of the last run, null if none. */
+  private volatile SimulatorLauncher launcher;
+  /** Thread exporting the map and starting the last run, null if none. */
+  private volatile Thread starter;
+  /** Receives the output of the simulator. */
+  private SimulatorLauncher.Listener listener = NO_LISTENER;
+  /** Command of the simulator, null for the default one. */
+  private List<String> simulatorCommand;
+  /** Time after which a run is killed, 0 for no timeout. */
+  private long timeoutMillis;
+  /** Batch running, null if none. */
+  private volatile SimulationBatch batch;
 
   /**
    * Constructor of the class.
@@ -72,60 +119,198 @@ public final class ActionRunSimulation {
   }
 
   /**
-   * Run the simulation.
+   * Export the map and start the simulation, without waiting for its end.
+   * The map is captured now and exported on a worker thread, which then
+   * builds the simulator if needed and starts it; a failure is reported to
+   * the listener.
    *
-   * @return the exit value of the process
+   * @return 0 if the simulator is starting, -1 if a simulator is already
+   *     running
+   * @throws IOException if the simulator cannot be started
    */
   public int runSimulation() throws InterruptedException, IOException {
-    // Check if simulator.exe is already running
+    // Check if the simulator is already running
     if (this.isSimulatorRunning()) {
       // If yes, return -1 (did not run the simulation)
       return -1;
     }
-    String rootProjectPath = System.getProperty("user.dir");
-    rootProjectPath = rootProjectPath.replace("\\railway-editor", "");
-    String rootGoProjectPath = rootProjectPath + "\\network-journey-simulator";
-
-    File runThisSimulation = new File(
-        rootGoProjectPath + "\\src\\configs"
-            + "\\runThisSimulation.xml");
-    this.actionFile.export(runThisSimulation);
-
-    // create a new list of arguments for our process
-    String[] commands = {"cmd", "/C",
-        "start metro_simulator.exe -configname runThisSimulation.xml"};
-    // create the process builder
-    ProcessBuilder pb = new ProcessBuilder(commands);
-    // set the working directory of the process
-    pb.directory(new File(rootGoProjectPath));
-    Process process = pb.start();
-    // wait that the process finish
-    process.waitFor();
-    return process.exitValue();
+    NetworkSnapshot snapshot = NetworkHistory.getInstance().snapshot();
+    File goProject = goProjectFolder();
+    File configs = new File(new File(goProject, "src"), "configs");
+    File mapFile = new File(configs, CONFIG_NAME);
+
+    List<String> simulatorCommand = this.simulatorCommand;
+    SimulatorLauncher.Listener runListener = this.listener;
+    long timeout = this.timeoutMillis;
+    Thread thread = new Thread(() -> {
+      try {
+        this.actionFile.export(snapshot, mapFile);
+        List<String> command = simulatorCommand;
+        if (command == null) {
+          command = SimulatorLauncher.defaultCommand(goProject, CONFIG_NAME);
+        }
+        if (Thread.currentThread().isInterrupted()) {
+          runListener.finished(SimulatorLauncher.KILLED_EXIT_VALUE);
+          return;
+        }
+        SimulatorLauncher simulatorLauncher = new SimulatorLauncher(command,
+            goProject);
+        simulatorLauncher.start(runListener, timeout);
+        this.launcher = simulatorLauncher;
+        if (Thread.currentThread().isInterrupted()) {
+          simulatorLauncher.cancel();
+        }
+      } catch (IOException | XMLStreamException e) {
+        runListener.outputLine("Unable to start the simulator: "
+            + e.getMessage(), true);
+        runListener.finished(SimulatorLauncher.KILLED_EXIT_VALUE);
+      }
+    }, "simulator-starter");
+    thread.setDaemon(true);
+    this.starter = thread;
+    thread.start();
+    return 0;
   }
 
   /**
-   * Check if the process is running.
+   * Export a snapshot of the map once and run the simulator for every
+   * combination of a parameter grid, several runs at a time, in a new archive
+   * folder. Runs independently of the single simulation and waits for the
+   * end of the batch.
    *
-   * @return true if the process is running, false otherwise
+   * @param snapshot the snapshot of the map to simulate
+   * @param grid     the values of each configuration parameter
+   * @return the result of each run, in the order of the combinations
+   * @throws IOException          if the runs cannot be prepared or the
+   *                              simulator is not built
+   * @throws InterruptedException if interrupted while waiting for the runs
+   */
+  public List<SimulationBatch.RunResult> runBatch(
+      final NetworkSnapshot snapshot,
+      final Map<String, ? extends List<?>> grid)
+      throws IOException, InterruptedException {
+    File goProject = goProjectFolder();
+    List<String> command = this.simulatorCommand;
+    if (command == null) {
+      // Each run has its own folder, outside of the go module
+      File binary = SimulatorLauncher.binary(goProject);
+      if (binary == null) {
+        throw new IOException("Build the simulator first: go build -o "
+            + SimulatorLauncher.BINARY_NAME + " ./src/main");
+      }
+      command = Arrays.asList(binary.getAbsolutePath(), "-configname",
+          CONFIG_NAME);
+    }
+    File batchFolder = ActionArchive.createDatedFolder(
+        new File(ActionFile.ARCHIVES_PATH), "_batch");
+    File mapFile = new File(batchFolder, CONFIG_NAME);
+    try {
+      this.actionFile.export(snapshot, mapFile);
+    } catch (XMLStreamException e) {
+      throw new IOException("Unable to export the map", e);
+    }
+
+    SimulationBatch simulationBatch = new SimulationBatch(command,
+        new File(new File(goProject, "src"), "configs"));
+    simulationBatch.setTimeoutMillis(this.timeoutMillis);
+    this.batch = simulationBatch;
+    try {
+      return simulationBatch.run(mapFile, grid, batchFolder);
+    } finally {
+      this.batch = null;
+    }
+  }
+
+  /**
+   * Stop the running batch, if any.
+   */
+  public void cancelBatch() {
+    SimulationBatch simulationBatch = this.batch;
+    if (simulationBatch != null) {
+      simulationBatch.cancel();
+    }
+  }
+
+  /**
+   * Check if the simulator of the last run is starting or still running.
+   *
+   * @return true if the map is being exported or the process is running,
+   *     false otherwise
    */
   public boolean isSimulatorRunning() throws IOException {
-    String findProcess = "metro_simulator.exe";
-    String filenameFilter = "/nh /fi \"Imagename eq " + findProcess + "\"";
-    String tasksCmd = System.getenv("windir") + "/system32/tasklist.exe "
-        + filenameFilter;
-
-    Process p = Runtime.getRuntime().exec(tasksCmd);
-    BufferedReader input = new BufferedReader(new InputStreamReader(
-        p.getInputStream()));
-
-    ArrayList<String> processes = new ArrayList<>();
-    String line;
-    while ((line = input.readLine()) != null) {
-      processes.add(line);
+    Thread thread = this.starter;
+    SimulatorLauncher simulatorLauncher = this.launcher;
+    return (thread != null && thread.isAlive())
+        || (simulatorLauncher != null && simulatorLauncher.isRunning());
+  }
+
+  /**
+   * Send a line to the standard input of the running simulator, if any.
+   *
+   * @param line the line, without its line break
+   * @throws IOException if the simulator does not read its input anymore
+   */
+  public void sendInput(final String line) throws IOException {
+    SimulatorLauncher simulatorLauncher = this.launcher;
+    if (simulatorLauncher != null && simulatorLauncher.isRunning()) {
+      simulatorLauncher.sendInput(line);
+    }
+  }
+
+  /**
+   * Stop the running simulator, if any.
+   */
+  public void cancelSimulation() {
+    Thread thread = this.starter;
+    if (thread != null) {
+      // a run still exporting its map is not started
+      thread.interrupt();
     }
-    input.close();
+    SimulatorLauncher simulatorLauncher = this.launcher;
+    if (simulatorLauncher != null) {
+      simulatorLauncher.cancel();
+    }
+  }
+
+  /**
+   * Set the listener receiving the output of the next runs.
+   *
+   * @param outputListener the listener, null to ignore the output
+   */
+  public void setListener(final SimulatorLauncher.Listener outputListener) {
+    this.listener = outputListener == null ? NO_LISTENER : outputListener;
+  }
 
-    return processes.stream().anyMatch(row -> row.contains(findProcess));
+  /**
+   * Set the command of the simulator, run from the go project folder. Lets a
+   * stub stand in for the go simulator.
+   *
+   * @param command the command and its arguments, null for the default one
+   */
+  public void setSimulatorCommand(final List<String> command) {
+    this.simulatorCommand = command == null ? null : new ArrayList<>(command);
+  }
+
+  /**
+   * Set the time after which a run is killed.
+   *
+   * @param timeout the timeout in milliseconds, 0 for no timeout
+   */
+  public void setTimeoutMillis(final long timeout) {
+    this.timeoutMillis = timeout;
+  }
+
+  /**
+   * Folder of the go simulator, next to the editor folder.
+   *
+   * @return the go project folder
+   */
+  public static File goProjectFolder() {
+    File root = new File(System.getProperty("user.dir"));
+    if (EDITOR_PROJECT_NAME.equals(root.getName())
+        && root.getParentFile() != null) {
+      root = root.getParentFile();
+    }
+    return new File(root, GO_PROJECT_NAME);
   }
 }
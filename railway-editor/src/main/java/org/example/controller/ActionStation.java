@@ -26,7 +26,6 @@ package org.example.controller;
 
 import org.example.data.Data;
 import org.example.model.Station;
-import org.openstreetmap.gui.jmapviewer.Coordinate;
 import org.example.view.LineView;
 import org.example.view.MainWindow;
 import org.example.view.StationView;
@@ -129,17 +128,9 @@ public final class ActionStation {
     }
 
     // setup station name
-    int randomIndex = this.rand.nextInt(Data.getInstance()
-        .getAvailableStationNames().size());
-    String stationName = Data.getInstance().getAvailableStationNames().get(
-        randomIndex);
-    Data.getInstance().getAvailableStationNames().remove(randomIndex);
+    String stationName = Data.getInstance().takeStationName(this.rand);
     // create station (model)
     Station station = new Station(stationId, stationX, stationY, stationName);
-    Coordinate latLon = (Coordinate) MainWindow.getInstance().getMainPanel()
-        .getPosition(station.getPosX(), station.getPosY());
-    station.setLatitude(latLon.getLat());
-    station.setLongitude(latLon.getLon());
 
     // create stationView relative to this station
     StationView stationView = new StationView(station);
@@ -149,6 +140,7 @@ public final class ActionStation {
     StationController stationController = new StationController(station,
         stationView, lineToUpdateIndex);
     stationId += 1;
+    NetworkHistory.getInstance().commit();
     MainWindow.getInstance().getMainPanel().repaint();
   }
 
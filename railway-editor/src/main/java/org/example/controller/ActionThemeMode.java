@@ -27,7 +27,6 @@ package org.example.controller;
 import com.formdev.flatlaf.FlatLaf;
 import com.formdev.flatlaf.intellijthemes.FlatArcDarkIJTheme;
 import com.formdev.flatlaf.intellijthemes.FlatArcIJTheme;
-import org.example.view.EventRecap;
 import org.example.view.MainWindow;
 
 import javax.swing.JButton;
@@ -98,7 +97,6 @@ public final class ActionThemeMode {
     this.isDarkMode = !this.isDarkMode; // Toggle the state
     // Refresh the components to apply the new theme
     SwingUtilities.updateComponentTreeUI(MainWindow.getInstance());
-    EventRecap.getInstance().eventsListRemoveBackground();
     MainWindow.getInstance().requestFocusInWindow();
   }
 }
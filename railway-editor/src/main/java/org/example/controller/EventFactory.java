@@ -0,0 +1,436 @@
+/*
+ * License : MIT License
+ *
+ * Copyright (c) 2023 Team PFE_2023_16
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.example.controller;
+
+import org.example.model.Event;
+import org.example.model.EventGaussianPeak;
+import org.example.model.EventHour;
+import org.example.model.EventLineClosed;
+import org.example.model.EventLineDelay;
+import org.example.model.EventMultipleStationsClosed;
+import org.example.model.EventName;
+import org.example.model.EventRampPeak;
+import org.example.model.EventStationClosed;
+import org.example.model.LineClosureType;
+
+/**
+ * Creates the {@link Event} models from the event strings of the
+ * {@link org.example.view.EventWindow} (comma separated fields) or from the
+ * events read in a map file, without any window.
+ *
+ * <p>Used by {@link ActionMetroEvent}, which then displays the events, and
+ * by {@link NetworkCore}.</p>
+ *
+ * @author Team PFE_2023_16
+ * @file EventFactory.java
+ * @date 2026-10-17
+ * @since 3.0
+ */
+public final class EventFactory {
+  /**
+   * Starting date index.
+   */
+  private static final int STARTING_DATE_INDEX = 0;
+  /**
+   * Starting time index for train hour.
+   */
+  private static final int STARTING_TIME_INDEX_TRAIN_HOUR = 0;
+  /**
+   * Ending time index for train hour.
+   */
+  private static final int ENDING_TIME_INDEX_TRAIN_HOUR = 1;
+  /**
+   * Starting time index.
+   */
+  private static final int STARTING_TIME_INDEX = 1;
+  /**
+   * Ending date index.
+   */
+  private static final int ENDING_DATE_INDEX = 2;
+  /**
+   * Train hour line index.
+   */
+  private static final int TRAIN_HOUR_LINE_INDEX = 2;
+  /**
+   * Ending time index.
+   */
+  private static final int ENDING_TIME_INDEX = 3;
+  /**
+   * Line closure line index.
+   */
+  private static final int LINE_CLOSURE_LINE_INDEX = 4;
+  /**
+   * Line closure type index.
+   */
+  private static final int LINE_CLOSURE_TYPE_INDEX = 5;
+  /** Peak date index. */
+  private static final int PEAK_DATE_INDEX = 4;
+  /** Peak time index. */
+  private static final int PEAK_TIME_INDEX = 5;
+  /** Peak station index. */
+  private static final int PEAK_STATION_INDEX = 6;
+  /** Peak size index. */
+  private static final int PEAK_SIZE_INDEX = 7;
+  /** Peak width index. */
+  private static final int PEAK_WIDTH_INDEX = 8;
+  /** Train hour train number index. */
+  private static final int TRAIN_HOUR_TRAIN_NUMBER_INDEX = 3;
+  /**
+   * Starting station index.
+   */
+  private static final int STARTING_STATION_INDEX = 4;
+  /**
+   * Station concerned index.
+   */
+  private static final int STATION_CONCERNED_INDEX = 4;
+  /**
+   * Ending station index.
+   */
+  private static final int ENDING_STATION_INDEX = 5;
+  /**
+   * Delay index.
+   */
+  private static final int DELAY_INDEX = 6;
+  /**
+   * Number of minutes in an hour.
+   */
+  private static final int MINUTES_IN_HOUR = 60;
+  /**
+   * Seconds suffix of the peak times.
+   */
+  private static final String PEAK_SECONDS = ":00Z";
+
+  /**
+   * Private constructor, utility class.
+   */
+  private EventFactory() {
+  }
+
+  /**
+   * Create an event from its name and its event string.
+   *
+   * @param name        name of the event in the map files
+   *                    ({@link EventName#getString()})
+   * @param id          id of the event
+   * @param eventString event string
+   * @return Event the event created
+   * @throws IllegalArgumentException if the name or the string is invalid
+   */
+  public static Event create(final String name, final int id,
+                             final String eventString) {
+    try {
+      switch (name) {
+        case "lineDelay":
+          return lineDelay(id, eventString);
+        case "multipleStationsClosed":
+          return multipleStationsClosed(id, eventString);
+        case "gaussianPeak":
+          return gaussianPeak(id, eventString);
+        case "rampPeak":
+          return rampPeak(id, eventString);
+        case "stationClosed":
+          return stationClosed(id, eventString);
+        case "hour":
+          return trainHour(id, eventString);
+        case "lineClosed":
+          return lineClosed(id, eventString);
+        default:
+          throw new IllegalArgumentException("Unknown event: " + name);
+      }
+    } catch (ArrayIndexOutOfBoundsException e) {
+      throw new IllegalArgumentException("Missing fields in the " + name
+          + " event: " + eventString, e);
+    }
+  }
+
+  /**
+   * Create a line delay event.
+   *
+   * @param id          id of the event
+   * @param eventString start date, start time, end date, end time, first
+   *                    station id, last station id and delay (minutes or
+   *                    hh:mm)
+   * @return EventLineDelay the event
+   */
+  public static EventLineDelay lineDelay(final int id,
+                                         final String eventString) {
+    String[] eventStringTab = eventString.split(",");
+    EventLineDelay eventLineDelay = new EventLineDelay(id,
+        startTime(eventStringTab), endTime(eventStringTab),
+        Event.EventType.LINE);
+    int delay;
+    if (eventStringTab[DELAY_INDEX].contains(":")) {
+      delay = Integer.parseInt(eventStringTab[DELAY_INDEX].split(":")[0])
+          * MINUTES_IN_HOUR + Integer.parseInt(eventStringTab[DELAY_INDEX]
+          .split(":")[1]);
+    } else {
+      delay = Integer.parseInt(eventStringTab[DELAY_INDEX]);
+    }
+    eventLineDelay.setDelay(delay);
+    eventLineDelay.setIdStationStart(Integer.parseInt(eventStringTab[
+        STARTING_STATION_INDEX]));
+    eventLineDelay.setIdStationEnd(Integer.parseInt(eventStringTab[
+        ENDING_STATION_INDEX]));
+    eventLineDelay.setEventName(EventName.LINE_DELAYED);
+    return eventLineDelay;
+  }
+
+  /**
+   * Create a multiple stations closed event.
+   *
+   * @param id          id of the event
+   * @param eventString start date, start time, end date, end time, first
+   *                    station id and last station id
+   * @return EventMultipleStationsClosed the event
+   */
+  public static EventMultipleStationsClosed multipleStationsClosed(
+      final int id, final String eventString) {
+    String[] eventStringTab = eventString.split(",");
+    EventMultipleStationsClosed event = new EventMultipleStationsClosed(id,
+        startTime(eventStringTab), endTime(eventStringTab),
+        Event.EventType.LINE);
+    event.setIdStationStart(Integer.parseInt(
+        eventStringTab[STARTING_STATION_INDEX]));
+    event.setIdStationEnd(Integer.parseInt(eventStringTab[
+        ENDING_STATION_INDEX]));
+    return event;
+  }
+
+  /**
+   * Create a gaussian peak event.
+   *
+   * @param id          id of the event
+   * @param eventString start date, start time, end date, end time, peak
+   *                    date, peak time, station id, size and width
+   * @return EventGaussianPeak the event
+   */
+  public static EventGaussianPeak gaussianPeak(final int id,
+                                               final String eventString) {
+    String[] eventStringTab = eventString.split(",");
+    EventGaussianPeak eventGaussianPeak = new EventGaussianPeak(id,
+        startTime(eventStringTab).replace(PEAK_SECONDS, ""),
+        endTime(eventStringTab).replace(PEAK_SECONDS, ""),
+        Event.EventType.STATION);
+    eventGaussianPeak.setPeakTime(peakTime(eventStringTab));
+    eventGaussianPeak.setIdStation(Integer.parseInt(eventStringTab[
+        PEAK_STATION_INDEX]));
+    eventGaussianPeak.setSize(Integer.parseInt(eventStringTab[
+        PEAK_SIZE_INDEX]));
+    eventGaussianPeak.setPeakWidth(Integer.parseInt(eventStringTab[
+        PEAK_WIDTH_INDEX]));
+    return eventGaussianPeak;
+  }
+
+  /**
+   * Create a ramp peak event.
+   *
+   * @param id          id of the event
+   * @param eventString start date, start time, end date, end time, peak
+   *                    date, peak time, station id and size
+   * @return EventRampPeak the event
+   */
+  public static EventRampPeak rampPeak(final int id,
+                                       final String eventString) {
+    String[] eventStringTab = eventString.split(",");
+    EventRampPeak eventRampPeak = new EventRampPeak(id,
+        startTime(eventStringTab).replace(PEAK_SECONDS, ""),
+        endTime(eventStringTab).replace(PEAK_SECONDS, ""),
+        Event.EventType.STATION);
+    eventRampPeak.setPeakTime(peakTime(eventStringTab));
+    eventRampPeak.setIdStation(Integer.parseInt(eventStringTab[
+        PEAK_STATION_INDEX]));
+    eventRampPeak.setSize(Integer.parseInt(eventStringTab[
+        PEAK_SIZE_INDEX]));
+    return eventRampPeak;
+  }
+
+  /**
+   * Create a train hour event.
+   *
+   * @param id          id of the event
+   * @param eventString start time, end time, line id and number of trains
+   * @return EventHour the event
+   */
+  public static EventHour trainHour(final int id, final String eventString) {
+    String[] eventStringTab = eventString.split(",");
+    EventHour eventHour = new EventHour(id,
+        eventStringTab[STARTING_TIME_INDEX_TRAIN_HOUR],
+        eventStringTab[ENDING_TIME_INDEX_TRAIN_HOUR], Event.EventType.LINE);
+    eventHour.setIdLine(Integer.parseInt(eventStringTab[
+        TRAIN_HOUR_LINE_INDEX]));
+    eventHour.setTrainNumber(Integer.parseInt(eventStringTab[
+        TRAIN_HOUR_TRAIN_NUMBER_INDEX]));
+    return eventHour;
+  }
+
+  /**
+   * Create a station closed event.
+   *
+   * @param id          id of the event
+   * @param eventString start date, start time, end date, end time and
+   *                    station id
+   * @return EventStationClosed the event
+   */
+  public static EventStationClosed stationClosed(final int id,
+                                                 final String eventString) {
+    String[] eventStringTab = eventString.split(",");
+    EventStationClosed eventStationClosed = new EventStationClosed(id,
+        startTime(eventStringTab), endTime(eventStringTab),
+        Event.EventType.STATION);
+    eventStationClosed.setIdStation(Integer.parseInt(eventStringTab[
+        STATION_CONCERNED_INDEX]));
+    return eventStationClosed;
+  }
+
+  /**
+   * Create a line closed event.
+   *
+   * @param id          id of the event
+   * @param eventString start date, start time, end date, end time, line id
+   *                    and closure type (unexpected or planned)
+   * @return EventLineClosed the event
+   */
+  public static EventLineClosed lineClosed(final int id,
+                                           final String eventString) {
+    String[] eventStringTab = eventString.split(",");
+    EventLineClosed eventLineClosed = new EventLineClosed(id,
+        startTime(eventStringTab), endTime(eventStringTab),
+        Event.EventType.LINE);
+    eventLineClosed.setIdLine(Integer.parseInt(
+        eventStringTab[LINE_CLOSURE_LINE_INDEX]));
+    switch (eventStringTab[LINE_CLOSURE_TYPE_INDEX]) {
+      case "unexpected":
+        eventLineClosed.setClosureType(LineClosureType.UNEXPECTED);
+        break;
+      case "planned":
+        eventLineClosed.setClosureType(LineClosureType.PLANNED);
+        break;
+      default:
+        throw new IllegalArgumentException("Invalid line closure type.");
+    }
+    return eventLineClosed;
+  }
+
+  /**
+   * Build the event string of an event read from a map file.
+   *
+   * @param event the event read
+   * @return String the event string, null if the event is unknown
+   */
+  static String eventString(final MapXmlReader.ImportedEvent event) {
+    String startTime = event.get("start");
+    String endTime = event.get("end");
+    if ("hour".equals(event.getName())) {
+      // times of the day only
+      return startTime.replace(ActionFile.END_TIME_STRING, "") + ","
+          + endTime.replace(ActionFile.END_TIME_STRING, "") + ","
+          + event.get(ActionFile.LINE_ID) + ","
+          + event.get("trainNumber");
+    }
+    String[] startTimeSplit = formatDate(startTime);
+    String[] endTimeSplit = formatDate(endTime);
+    String period = startTimeSplit[0] + "," + startTimeSplit[1] + ","
+        + endTimeSplit[0] + "," + endTimeSplit[1];
+    switch (event.getName()) {
+      case "lineDelay":
+        return period + "," + event.get(ActionFile.STATION_ID_START) + ","
+            + event.get(ActionFile.STATION_ID_END) + ","
+            + event.get("delay");
+      case "multipleStationsClosed":
+        return period + "," + event.get(ActionFile.STATION_ID_START) + ","
+            + event.get(ActionFile.STATION_ID_END);
+      case "gaussianPeak":
+        String[] gaussianPeakTimeSplit = formatDate(
+            event.get(ActionFile.PEAK_TIME));
+        return period + "," + gaussianPeakTimeSplit[0] + ","
+            + gaussianPeakTimeSplit[1] + ","
+            + event.get(ActionFile.STATION_ID) + ","
+            + event.get(ActionFile.PEAK_SIZE) + ","
+            + event.get("peakWidth");
+      case "rampPeak":
+        String[] rampPeakTimeSplit = formatDate(
+            event.get(ActionFile.PEAK_TIME));
+        return period + "," + rampPeakTimeSplit[0] + ","
+            + rampPeakTimeSplit[1] + ","
+            + event.get(ActionFile.STATION_ID) + ","
+            + event.get(ActionFile.PEAK_SIZE);
+      case "stationClosed":
+        return period + "," + event.get("idStation");
+      case "lineClosed":
+        return period + "," + event.get(ActionFile.LINE_ID) + ","
+            + event.get("closureType");
+      default:
+        return null;
+    }
+  }
+
+  /**
+   * Format the date of the xml to be able to use it in the HMI.
+   *
+   * @param date the date from the xml file to format
+   *
+   * @return the formatted date
+   */
+  private static String[] formatDate(final String date) {
+    String result = date;
+    result = result.replace(ActionFile.END_TIME_STRING, "");
+    result = result.replace("-", "/");
+    result = result.replace("T", "-");
+    return result.split("-");
+  }
+
+  /**
+   * Start date and time of an event string.
+   *
+   * @param eventStringTab fields of the event string
+   * @return String start time
+   */
+  private static String startTime(final String[] eventStringTab) {
+    return eventStringTab[STARTING_DATE_INDEX] + "-"
+        + eventStringTab[STARTING_TIME_INDEX];
+  }
+
+  /**
+   * End date and time of an event string.
+   *
+   * @param eventStringTab fields of the event string
+   * @return String end time
+   */
+  private static String endTime(final String[] eventStringTab) {
+    return eventStringTab[ENDING_DATE_INDEX] + "-"
+        + eventStringTab[ENDING_TIME_INDEX];
+  }
+
+  /**
+   * Peak date and time of an event string.
+   *
+   * @param eventStringTab fields of the event string
+   * @return String peak time
+   */
+  private static String peakTime(final String[] eventStringTab) {
+    return (eventStringTab[PEAK_DATE_INDEX] + "-"
+        + eventStringTab[PEAK_TIME_INDEX]).replace(PEAK_SECONDS, "");
+  }
+}
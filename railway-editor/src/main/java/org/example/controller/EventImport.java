@@ -0,0 +1,269 @@
+/*
+ * License : MIT License
+ *
+ * Copyright (c) 2023 Team PFE_2023_16
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.example.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.model.Event;
+import org.example.model.EventBetween2Stations;
+import org.example.model.EventHour;
+import org.example.model.EventLineClosed;
+import org.example.model.EventPeak;
+import org.example.model.EventStationClosed;
+import org.example.view.StationIndex;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.IntStream;
+
+/**
+ * Events read from a CSV or JSON file, to be added to the network at once.
+ *
+ * <p>A CSV file has one event per line: its name in the map files and its
+ * event string (see {@link EventFactory}), for example
+ * {@code stationClosed,2018/10/12,08:00,2018/10/12,10:00,12}. Blank lines,
+ * lines starting with {@code #} and a {@code name,...} header are skipped.
+ * A JSON file is an array of objects with the same two values, for example
+ * {@code [{"name": "stationClosed", "event": "2018/10/12,08:00,..."}]}.</p>
+ *
+ * <p>The events are created and validated in parallel once the file is
+ * read. An invalid row is rejected with its error, the other events are
+ * kept, numbered by their row until they are added.</p>
+ *
+ * @author Team PFE_2023_16
+ * @file EventImport.java
+ * @date 2026-10-17
+ * @since 3.0
+ */
+public final class EventImport {
+  /** Valid events, in the order of the file. */
+  private final List<Event> events;
+  /** Labels of the rows of the file ("line 12", "entry 3"). */
+  private final List<String> rowLabels;
+  /** Errors of the rejected rows, by row. */
+  private final Map<Integer, String> errors;
+  /** Name of the file read. */
+  private final String fileName;
+
+  private EventImport(final String file, final List<String> labels) {
+    this.fileName = file;
+    this.rowLabels = labels;
+    this.events = new ArrayList<>();
+    this.errors = new TreeMap<>();
+  }
+
+  /**
+   * Read and validate the events of a file, in JSON if its name ends with
+   * {@code .json}, in CSV otherwise.
+   *
+   * @param file the events file
+   * @return EventImport the events of the file and the rejected rows
+   * @throws IOException if the file cannot be read or is not valid JSON
+   */
+  public static EventImport read(final File file) throws IOException {
+    List<String> names = new ArrayList<>();
+    List<String> eventStrings = new ArrayList<>();
+    List<String> labels = new ArrayList<>();
+    if (file.getName().toLowerCase().endsWith(".json")) {
+      readJson(file, names, eventStrings, labels);
+    } else {
+      readCsv(file, names, eventStrings, labels);
+    }
+    EventImport eventImport = new EventImport(file.getName(), labels);
+    Event[] created = new Event[names.size()];
+    String[] messages = new String[names.size()];
+    // each row is independent, the id of an event is its row
+    IntStream.range(0, created.length).parallel().forEach(row -> {
+      if (names.get(row) == null || eventStrings.get(row) == null) {
+        messages[row] = "name or event string missing";
+        return;
+      }
+      try {
+        created[row] = EventFactory.create(names.get(row), row,
+            eventStrings.get(row));
+      } catch (IllegalArgumentException e) {
+        messages[row] = e.getMessage();
+      }
+    });
+    for (int row = 0; row < created.length; row++) {
+      if (created[row] != null) {
+        eventImport.events.add(created[row]);
+      } else {
+        eventImport.errors.put(row, messages[row]);
+      }
+    }
+    return eventImport;
+  }
+
+  private static void readCsv(final File file, final List<String> names,
+                              final List<String> eventStrings,
+                              final List<String> labels) throws IOException {
+    int lineNumber = 0;
+    try (BufferedReader reader = Files.newBufferedReader(file.toPath(),
+        StandardCharsets.UTF_8)) {
+      String line;
+      while ((line = reader.readLine()) != null) {
+        lineNumber++;
+        String trimmed = line.trim();
+        if (trimmed.isEmpty() || trimmed.startsWith("#")
+            || (names.isEmpty() && trimmed.toLowerCase().startsWith("name,"))) {
+          continue;
+        }
+        int comma = trimmed.indexOf(',');
+        names.add(comma < 0 ? trimmed : trimmed.substring(0, comma).trim());
+        eventStrings.add(comma < 0 ? null
+            : trimmed.substring(comma + 1).replace(" ", ""));
+        labels.add("line " + lineNumber);
+      }
+    }
+  }
+
+  private static void readJson(final File file, final List<String> names,
+                               final List<String> eventStrings,
+                               final List<String> labels)
+      throws IOException {
+    JsonNode root = new ObjectMapper().readTree(file);
+    if (root == null || !root.isArray()) {
+      throw new IOException(file.getName() + ": an array of events is "
+          + "expected");
+    }
+    int entry = 0;
+    for (JsonNode node : root) {
+      entry++;
+      JsonNode name = node.get("name");
+      JsonNode eventString = node.get("event");
+      names.add(name == null || !name.isTextual() ? null : name.asText());
+      eventStrings.add(eventString == null || !eventString.isTextual()
+          ? null : eventString.asText().replace(" ", ""));
+      labels.add("entry " + entry);
+    }
+  }
+
+  /**
+   * Reject the events whose stations or line are not in the network.
+   *
+   * @param stationIndex index of the stations of the network, up to date
+   * @param lineCount    number of lines of the network
+   */
+  public void checkNetwork(final StationIndex stationIndex,
+                           final int lineCount) {
+    List<Event> valid = new ArrayList<>(events.size());
+    for (Event event : events) {
+      String error = networkError(event, stationIndex, lineCount);
+      if (error == null) {
+        valid.add(event);
+      } else {
+        errors.put(event.getId(), error);
+      }
+    }
+    events.clear();
+    events.addAll(valid);
+  }
+
+  /**
+   * Check that the stations or the line of an event are in the network.
+   *
+   * @param event        event to check
+   * @param stationIndex index of the stations of the network, up to date
+   * @param lineCount    number of lines of the network
+   * @return String the reason the event is rejected, null if it is valid
+   */
+  static String networkError(final Event event,
+                             final StationIndex stationIndex,
+                             final int lineCount) {
+    if (event instanceof EventBetween2Stations) {
+      EventBetween2Stations between = (EventBetween2Stations) event;
+      StationIndex.Entry[] entries = stationIndex.getEntriesOnSameLine(
+          between.getIdStationStart(), between.getIdStationEnd());
+      if (entries[0] == null || entries[1] == null
+          || entries[0].getLineView() != entries[1].getLineView()) {
+        return "stations " + between.getIdStationStart() + " and "
+            + between.getIdStationEnd() + " are not on the same line";
+      }
+    } else if (event instanceof EventPeak) {
+      return stationError(((EventPeak) event).getIdStation(), stationIndex);
+    } else if (event instanceof EventStationClosed) {
+      return stationError(((EventStationClosed) event).getIdStation(),
+          stationIndex);
+    } else if (event instanceof EventLineClosed) {
+      return lineError(((EventLineClosed) event).getIdLine(), lineCount);
+    } else if (event instanceof EventHour) {
+      return lineError(((EventHour) event).getIdLine(), lineCount);
+    }
+    return null;
+  }
+
+  private static String stationError(final int stationId,
+                                     final StationIndex stationIndex) {
+    return stationIndex.getEntries(stationId).isEmpty()
+        ? "unknown station " + stationId : null;
+  }
+
+  private static String lineError(final int lineId, final int lineCount) {
+    return lineId < 0 || lineId >= lineCount ? "unknown line " + lineId
+        : null;
+  }
+
+  /**
+   * Get the valid events, numbered by their row until they are added.
+   *
+   * @return List of events, in the order of the file
+   */
+  public List<Event> getEvents() {
+    return Collections.unmodifiableList(events);
+  }
+
+  /**
+   * Get the errors of the rejected rows, one per row, for example
+   * {@code events.csv, line 12: Unknown event: stationClose}.
+   *
+   * @return List of errors, in the order of the file
+   */
+  public List<String> getErrors() {
+    List<String> report = new ArrayList<>(errors.size());
+    for (Map.Entry<Integer, String> error : errors.entrySet()) {
+      report.add(fileName + ", " + rowLabels.get(error.getKey()) + ": "
+          + error.getValue());
+    }
+    return report;
+  }
+
+  /**
+   * Get the number of rows read, valid or not.
+   *
+   * @return int number of rows
+   */
+  public int getRowCount() {
+    return rowLabels.size();
+  }
+}
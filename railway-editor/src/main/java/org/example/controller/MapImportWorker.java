@@ -0,0 +1,247 @@
+/*
+ * License : MIT License
+ *
+ * Copyright (c) 2023 Team PFE_2023_16
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.example.controller;
+
+import javax.swing.JOptionPane;
+import javax.swing.ProgressMonitor;
+import javax.swing.SwingWorker;
+import javax.swing.Timer;
+import javax.xml.stream.XMLStreamException;
+import java.awt.Component;
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.concurrent.ExecutionException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Imports a map xml file on a worker thread.
+ *
+ * <p>The file is read into a detached {@link MapXmlReader} while a progress
+ * monitor shows how much of it has been read. Once the file is read, the map
+ * is handed to {@link ActionFile} on the EDT to replace the current one in a
+ * single step. Cancelling the monitor, or the worker, stops the import and
+ * leaves the current map untouched.
+ *
+ * @author Team PFE_2023_16
+ * @file MapImportWorker.java
+ * @date 2026-10-17
+ * @see ActionFile#importMapInBackground(File)
+ * @since 3.0
+ */
+final class MapImportWorker extends SwingWorker<MapXmlReader, Void> {
+  /**
+   * Logger of the class.
+   */
+  private static final Logger LOGGER =
+      Logger.getLogger(MapImportWorker.class.getName());
+  /**
+   * Maximum progress, the reading of the file.
+   */
+  private static final int MAX_PROGRESS = 100;
+  /**
+   * Delay before deciding to show the progress monitor, in milliseconds.
+   */
+  private static final int MILLIS_TO_DECIDE_TO_POPUP = 200;
+  /**
+   * Minimum expected import time to show the progress monitor, in
+   * milliseconds.
+   */
+  private static final int MILLIS_TO_POPUP = 500;
+  /**
+   * Delay between two checks of the cancel button, in milliseconds.
+   */
+  private static final int CANCEL_POLL_MILLIS = 200;
+
+  /**
+   * File to import.
+   */
+  private final File file;
+  /**
+   * Component the dialogs are shown over.
+   */
+  private final Component parent;
+  /**
+   * Progress monitor of the import, only used on the EDT.
+   */
+  private final ProgressMonitor monitor;
+  /**
+   * Timer checking the cancel button of the monitor, the progress being
+   * reported only when its percentage changes.
+   */
+  private final Timer cancelTimer;
+
+  /**
+   * Create the worker, must be called on the EDT.
+   *
+   * @param fileToLoad      the xml file to load
+   * @param parentComponent the component the dialogs are shown over
+   */
+  MapImportWorker(final File fileToLoad, final Component parentComponent) {
+    this.file = fileToLoad;
+    this.parent = parentComponent;
+    this.monitor = new ProgressMonitor(parentComponent,
+        "Importing " + fileToLoad.getName(), null, 0, MAX_PROGRESS);
+    this.monitor.setMillisToDecideToPopup(MILLIS_TO_DECIDE_TO_POPUP);
+    this.monitor.setMillisToPopup(MILLIS_TO_POPUP);
+    this.addPropertyChangeListener(event -> {
+      if ("progress".equals(event.getPropertyName())
+          && !this.monitor.isCanceled()) {
+        this.monitor.setProgress((Integer) event.getNewValue());
+      }
+    });
+    this.cancelTimer = new Timer(CANCEL_POLL_MILLIS, event -> {
+      if (this.monitor.isCanceled()) {
+        this.cancel(true);
+        ((Timer) event.getSource()).stop();
+      }
+    });
+    this.cancelTimer.start();
+  }
+
+  /**
+   * Read the file, build its lines and create its events, on the worker
+   * thread. The cancellation is checked while reading and between the
+   * steps.
+   *
+   * @return the map read
+   * @throws Exception if the file cannot be read
+   */
+  @Override
+  protected MapXmlReader doInBackground() throws Exception {
+    this.checkCancelled();
+    long length = Math.max(1L, this.file.length());
+    MapXmlReader map;
+    try (InputStream in = new BufferedInputStream(new ProgressInputStream(
+        new FileInputStream(this.file), length), MapXmlReader.BUFFER_SIZE)) {
+      map = MapXmlReader.parse(in);
+    } catch (XMLStreamException e) {
+      // the parser wraps the exception of a cancelled read
+      this.checkCancelled();
+      throw e;
+    }
+    this.checkCancelled();
+    map.buildLines();
+    this.checkCancelled();
+    map.createEvents();
+    this.checkCancelled();
+    return map;
+  }
+
+  /**
+   * Stop the import if the worker has been cancelled.
+   *
+   * @throws InterruptedIOException if the worker is cancelled
+   */
+  private void checkCancelled() throws InterruptedIOException {
+    if (this.isCancelled()) {
+      throw new InterruptedIOException("Import cancelled");
+    }
+  }
+
+  /**
+   * Hand the map read to {@link ActionFile}, on the EDT.
+   */
+  @Override
+  protected void done() {
+    this.cancelTimer.stop();
+    this.monitor.close();
+    MapXmlReader map = null;
+    if (!this.isCancelled()) {
+      try {
+        map = this.get();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      } catch (ExecutionException e) {
+        LOGGER.log(Level.SEVERE, e.getCause(),
+            () -> "Error importing file: " + this.file.getName());
+        JOptionPane.showMessageDialog(this.parent,
+            "Unable to import " + this.file.getName() + ":\n"
+                + e.getCause().getMessage(),
+            "Import failed", JOptionPane.ERROR_MESSAGE);
+      }
+    }
+    ActionFile.getInstance().importFinished(this, map);
+  }
+
+  /**
+   * Stream publishing the share of the file read as the worker progress,
+   * and stopping the reading once the worker is cancelled.
+   */
+  private final class ProgressInputStream extends FilterInputStream {
+    /**
+     * Length of the file.
+     */
+    private final long length;
+    /**
+     * Number of bytes read.
+     */
+    private long bytesRead;
+
+    /**
+     * Create the stream.
+     *
+     * @param in         the file stream
+     * @param fileLength the length of the file
+     */
+    private ProgressInputStream(final InputStream in, final long fileLength) {
+      super(in);
+      this.length = fileLength;
+    }
+
+    @Override
+    public int read() throws IOException {
+      int value = super.read();
+      this.progress(value < 0 ? 0 : 1);
+      return value;
+    }
+
+    @Override
+    public int read(final byte[] b, final int off, final int len)
+        throws IOException {
+      int count = super.read(b, off, len);
+      this.progress(Math.max(count, 0));
+      return count;
+    }
+
+    /**
+     * Count the bytes read and publish the progress.
+     *
+     * @param count number of bytes just read
+     * @throws InterruptedIOException if the worker is cancelled
+     */
+    private void progress(final int count) throws InterruptedIOException {
+      MapImportWorker.this.checkCancelled();
+      this.bytesRead += count;
+      MapImportWorker.this.setProgress((int) Math.min(MAX_PROGRESS,
+          this.bytesRead * MAX_PROGRESS / this.length));
+    }
+  }
+}
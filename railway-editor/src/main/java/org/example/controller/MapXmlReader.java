@@ -0,0 +1,677 @@
+/*
+ * License : MIT License
+ *
+ * Copyright (c) 2023 Team PFE_2023_16
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.example.controller;
+
+import org.example.model.Area;
+import org.example.model.Event;
+import org.example.model.Line;
+import org.example.model.Station;
+import org.example.view.AreaView;
+import org.example.view.LineView;
+import org.example.view.StationView;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Streaming reader of the map xml file.
+ *
+ * <p>Reads the file in a single pass through a {@link XMLStreamReader}
+ * without building a DOM tree. Stations are kept by id while reading, so
+ * linking the stations of the lines section costs one lookup per station.
+ * The views built here are detached: nothing is added to the main panel or
+ * to the events until {@link ActionFile#importMap(File)} installs them.
+ *
+ * @author Team PFE_2023_16
+ * @file MapXmlReader.java
+ * @date 2026-10-17
+ * @see ActionFile#importMap(File)
+ * @since 3.0
+ */
+final class MapXmlReader {
+  /**
+   * Size of the input buffer.
+   */
+  static final int BUFFER_SIZE = 64 * 1024;
+  /**
+   * Stations read, by id.
+   */
+  private final Map<Integer, Station> stations = new HashMap<>();
+  /**
+   * Station ids of each line, in the order of the file.
+   */
+  private final Map<Integer, List<Integer>> lineStationIds =
+      new LinkedHashMap<>();
+  /**
+   * Views of the lines, built once the whole file is read.
+   */
+  private final List<LineView> lineViews = new ArrayList<>();
+  /**
+   * Views of the areas.
+   */
+  private final List<AreaView> areaViews = new ArrayList<>();
+  /**
+   * Events, in the order of the file.
+   */
+  private final List<ImportedEvent> events = new ArrayList<>();
+  /**
+   * Events created from the events read, null until
+   * {@link #createEvents()} is called.
+   */
+  private List<Event> createdEvents;
+  /**
+   * Highest line id referenced by a station, -1 if none.
+   */
+  private int maxLineId = -1;
+  /**
+   * Id of the last line of the lines section, null if none.
+   */
+  private String lastLineId;
+  /**
+   * Latitude of the center of the map, null if no location.
+   */
+  private Double latitude;
+  /**
+   * Longitude of the center of the map.
+   */
+  private double longitude;
+  /**
+   * Zoom of the map.
+   */
+  private int zoom;
+
+  /**
+   * Reader, use {@link #read(File)}.
+   */
+  private MapXmlReader() {
+  }
+
+  /**
+   * Read a map xml file.
+   *
+   * @param fileToLoad the xml file to load
+   * @return the reader holding the content of the file
+   * @throws IOException        if the file cannot be read
+   * @throws XMLStreamException if the file is not valid xml
+   */
+  static MapXmlReader read(final File fileToLoad)
+      throws IOException, XMLStreamException {
+    try (InputStream in = new BufferedInputStream(
+        new FileInputStream(fileToLoad), BUFFER_SIZE)) {
+      return read(in);
+    }
+  }
+
+  /**
+   * Read a map xml stream. The stream is not closed.
+   *
+   * @param in the xml stream, buffered by the caller
+   * @return the reader holding the content of the stream
+   * @throws XMLStreamException if the stream is not valid xml
+   */
+  static MapXmlReader read(final InputStream in) throws XMLStreamException {
+    MapXmlReader mapReader = parse(in);
+    mapReader.buildLines();
+    return mapReader;
+  }
+
+  /**
+   * Read a map xml stream without building its lines, which is left to
+   * {@link #buildLines()}. The stream is not closed.
+   *
+   * @param in the xml stream, buffered by the caller
+   * @return the reader holding the content of the stream
+   * @throws XMLStreamException if the stream is not valid xml
+   */
+  static MapXmlReader parse(final InputStream in) throws XMLStreamException {
+    XMLInputFactory factory = XMLInputFactory.newInstance();
+    // Disable DTDs and external entities
+    factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+    factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES,
+        false);
+    MapXmlReader mapReader = new MapXmlReader();
+    XMLStreamReader reader = factory.createXMLStreamReader(in);
+    try {
+      mapReader.readMap(reader);
+    } finally {
+      reader.close();
+    }
+    return mapReader;
+  }
+
+  /**
+   * Whether the file has a location.
+   *
+   * @return true if the file has a location
+   */
+  boolean hasLocation() {
+    return this.latitude != null;
+  }
+
+  /**
+   * get the latitude of the center of the map.
+   *
+   * @return latitude
+   */
+  double getLatitude() {
+    return this.latitude;
+  }
+
+  /**
+   * get the longitude of the center of the map.
+   *
+   * @return longitude
+   */
+  double getLongitude() {
+    return this.longitude;
+  }
+
+  /**
+   * get the zoom of the map.
+   *
+   * @return zoom
+   */
+  int getZoom() {
+    return this.zoom;
+  }
+
+  /**
+   * get the line views, ordered by line id.
+   *
+   * @return line views
+   */
+  List<LineView> getLineViews() {
+    return this.lineViews;
+  }
+
+  /**
+   * get the area views.
+   *
+   * @return area views
+   */
+  List<AreaView> getAreaViews() {
+    return this.areaViews;
+  }
+
+  /**
+   * get the events.
+   *
+   * @return events, in the order of the file
+   */
+  List<ImportedEvent> getEvents() {
+    return this.events;
+  }
+
+  /**
+   * Create the events read, once: the event strings are parsed here, so a
+   * background import does it on the worker thread. The unknown events are
+   * skipped, the events are numbered in the order of the file until they
+   * are added.
+   *
+   * @return events created, in the order of the file
+   * @throws IllegalArgumentException if an event is invalid
+   */
+  List<Event> createEvents() {
+    if (this.createdEvents == null) {
+      List<Event> created = new ArrayList<>(this.events.size());
+      for (ImportedEvent event : this.events) {
+        String eventString = EventFactory.eventString(event);
+        if (eventString != null) {
+          created.add(EventFactory.create(event.getName(), created.size(),
+              eventString));
+        }
+      }
+      this.createdEvents = created;
+    }
+    return this.createdEvents;
+  }
+
+  /**
+   * get the id of the last line of the lines section.
+   *
+   * @return line id, null if the file has no line
+   */
+  String getLastLineId() {
+    return this.lastLineId;
+  }
+
+  /**
+   * Read the sections of the map.
+   *
+   * @param reader the stax reader
+   * @throws XMLStreamException if the file is not valid xml
+   */
+  private void readMap(final XMLStreamReader reader)
+      throws XMLStreamException {
+    while (reader.hasNext()) {
+      if (reader.next() != XMLStreamConstants.START_ELEMENT) {
+        continue;
+      }
+      switch (reader.getLocalName()) {
+        case "location":
+          this.readLocation(reader);
+          break;
+        case ActionFile.STATIONS:
+          this.readStations(reader);
+          break;
+        case ActionFile.LINES:
+          this.readLines(reader);
+          break;
+        case "areas":
+          this.readAreas(reader);
+          break;
+        case "events":
+          this.readEvents(reader);
+          break;
+        default:
+          // Root element, its sections are read by the next iterations.
+          break;
+      }
+    }
+  }
+
+  /**
+   * Read the location section.
+   *
+   * @param reader the stax reader, on the location element
+   * @throws XMLStreamException if the file is not valid xml
+   */
+  private void readLocation(final XMLStreamReader reader)
+      throws XMLStreamException {
+    Map<String, String> location = readTextChildren(reader);
+    this.latitude = Double.parseDouble(location.get(ActionFile.LATITUDE));
+    this.longitude = Double.parseDouble(location.get(ActionFile.LONGITUDE));
+    this.zoom = Integer.parseInt(location.get("zoom").trim());
+  }
+
+  /**
+   * Read the stations section.
+   *
+   * @param reader the stax reader, on the stations element
+   * @throws XMLStreamException if the file is not valid xml
+   */
+  private void readStations(final XMLStreamReader reader)
+      throws XMLStreamException {
+    while (nextChild(reader)) {
+      if (ActionFile.STATION.equals(reader.getLocalName())) {
+        this.readStation(reader);
+      } else {
+        skip(reader);
+      }
+    }
+  }
+
+  /**
+   * Read a station of the stations section. Only its first line is used,
+   * to know how many lines to create.
+   *
+   * @param reader the stax reader, on the station element
+   * @throws XMLStreamException if the file is not valid xml
+   */
+  private void readStation(final XMLStreamReader reader)
+      throws XMLStreamException {
+    String id = null;
+    String name = null;
+    Map<String, String> position = null;
+    String lineId = null;
+    while (nextChild(reader)) {
+      switch (reader.getLocalName()) {
+        case "id":
+          id = reader.getElementText();
+          break;
+        case "name":
+          name = reader.getElementText();
+          break;
+        case ActionFile.POSITION:
+          position = readTextChildren(reader);
+          break;
+        case ActionFile.LINES:
+          lineId = readFirstLineId(reader);
+          break;
+        default:
+          skip(reader);
+          break;
+      }
+    }
+    if (id == null || position == null) {
+      throw new XMLStreamException("Station without id or position",
+          reader.getLocation());
+    }
+    Station station = new Station(Integer.parseInt(id.trim()),
+        Double.parseDouble(position.get(ActionFile.LATITUDE)),
+        Double.parseDouble(position.get(ActionFile.LONGITUDE)), name);
+    this.stations.put(station.getId(), station);
+    if (lineId != null) {
+      this.maxLineId = Math.max(this.maxLineId,
+          Integer.parseInt(lineId.trim()));
+    }
+  }
+
+  /**
+   * Read the lines of a station and return the first one.
+   *
+   * @param reader the stax reader, on the lines element of a station
+   * @return the id of the first line, null if none
+   * @throws XMLStreamException if the file is not valid xml
+   */
+  private static String readFirstLineId(final XMLStreamReader reader)
+      throws XMLStreamException {
+    String lineId = null;
+    while (nextChild(reader)) {
+      if (lineId == null && "line".equals(reader.getLocalName())) {
+        lineId = reader.getAttributeValue(null, "id");
+      }
+      skip(reader);
+    }
+    return lineId;
+  }
+
+  /**
+   * Read the lines section.
+   *
+   * @param reader the stax reader, on the lines element
+   * @throws XMLStreamException if the file is not valid xml
+   */
+  private void readLines(final XMLStreamReader reader)
+      throws XMLStreamException {
+    while (nextChild(reader)) {
+      if (!"line".equals(reader.getLocalName())) {
+        skip(reader);
+        continue;
+      }
+      String lineId = null;
+      List<Integer> stationIds = new ArrayList<>();
+      while (nextChild(reader)) {
+        if ("id".equals(reader.getLocalName())) {
+          lineId = reader.getElementText();
+        } else if (ActionFile.STATIONS.equals(reader.getLocalName())) {
+          while (nextChild(reader)) {
+            String stationId = reader.getAttributeValue(null, "id");
+            if (ActionFile.STATION.equals(reader.getLocalName())
+                && stationId != null) {
+              stationIds.add(Integer.parseInt(stationId.trim()));
+            }
+            skip(reader);
+          }
+        } else {
+          skip(reader);
+        }
+      }
+      if (lineId == null) {
+        throw new XMLStreamException("Line without id",
+            reader.getLocation());
+      }
+      this.lastLineId = lineId;
+      List<Integer> ids = this.lineStationIds.get(
+          Integer.parseInt(lineId.trim()));
+      if (ids == null) {
+        this.lineStationIds.put(Integer.parseInt(lineId.trim()), stationIds);
+      } else {
+        ids.addAll(stationIds);
+      }
+    }
+  }
+
+  /**
+   * Read the areas section.
+   *
+   * @param reader the stax reader, on the areas element
+   * @throws XMLStreamException if the file is not valid xml
+   */
+  private void readAreas(final XMLStreamReader reader)
+      throws XMLStreamException {
+    while (nextChild(reader)) {
+      if (!"area".equals(reader.getLocalName())) {
+        skip(reader);
+        continue;
+      }
+      Area area = null;
+      Map<String, Integer> population = null;
+      Map<String, Integer> destination = null;
+      while (nextChild(reader)) {
+        switch (reader.getLocalName()) {
+          case ActionFile.POSITION:
+            area = new Area(
+                Double.parseDouble(reader.getAttributeValue(null,
+                    "latitudeTop")),
+                Double.parseDouble(reader.getAttributeValue(null,
+                    "longitudeTop")),
+                Double.parseDouble(reader.getAttributeValue(null,
+                    "latitudeBot")),
+                Double.parseDouble(reader.getAttributeValue(null,
+                    "longitudeBot")));
+            break;
+          case "populationDistribution":
+            population = readDistribution(reader,
+                ActionFile.POPULATION_ELEMENTS);
+            break;
+          case "destinationDistribution":
+            destination = readDistribution(reader,
+                ActionFile.DESTINATION_ELEMENTS);
+            break;
+          default:
+            break;
+        }
+        skip(reader);
+      }
+      if (area == null) {
+        throw new XMLStreamException("Area without position",
+            reader.getLocation());
+      }
+      if (population != null) {
+        for (Map.Entry<String, Integer> part : population.entrySet()) {
+          area.setNewPopulationPart(part.getKey(), part.getValue());
+        }
+      }
+      if (destination != null) {
+        for (Map.Entry<String, Integer> part : destination.entrySet()) {
+          area.setNewDestinationPart(part.getKey(), part.getValue());
+        }
+      }
+      this.areaViews.add(new AreaView(area));
+    }
+  }
+
+  /**
+   * Read the attributes of a distribution element, a missing or empty
+   * attribute counts as 0.
+   *
+   * @param reader   the stax reader, on the distribution element
+   * @param elements the distribution elements to read
+   * @return the parts, by distribution element
+   */
+  private static Map<String, Integer> readDistribution(
+      final XMLStreamReader reader, final List<String> elements) {
+    Map<String, Integer> parts = new LinkedHashMap<>();
+    for (String element : elements) {
+      String value = reader.getAttributeValue(null, element.toLowerCase());
+      if (value == null || value.isEmpty()) {
+        parts.put(element, 0);
+      } else {
+        parts.put(element, Integer.parseInt(value.trim()));
+      }
+    }
+    return parts;
+  }
+
+  /**
+   * Read the events section.
+   *
+   * @param reader the stax reader, on the events element
+   * @throws XMLStreamException if the file is not valid xml
+   */
+  private void readEvents(final XMLStreamReader reader)
+      throws XMLStreamException {
+    while (nextChild(reader)) {
+      String name = reader.getLocalName();
+      this.events.add(new ImportedEvent(name, readTextChildren(reader)));
+    }
+  }
+
+  /**
+   * Create the lines from the station ids of the lines section. Lines are
+   * created up to the highest line id, so the index of a line in the list
+   * is its id.
+   */
+  void buildLines() {
+    List<Line> lines = new ArrayList<>();
+    for (int i = 0; i <= this.maxLineId; i++) {
+      lines.add(new Line(i, new ArrayList<>()));
+    }
+    for (Map.Entry<Integer, List<Integer>> entry
+        : this.lineStationIds.entrySet()) {
+      int lineId = entry.getKey();
+      for (int stationId : entry.getValue()) {
+        Station station = this.stations.get(stationId);
+        if (station != null) {
+          while (lines.size() <= lineId) {
+            lines.add(new Line(lines.size(), new ArrayList<>()));
+          }
+          lines.get(lineId).addStation(station);
+        }
+      }
+    }
+    for (Line line : lines) {
+      List<StationView> stationViews = new ArrayList<>();
+      for (Station station : line.getStations()) {
+        stationViews.add(new StationView(station));
+      }
+      this.lineViews.add(new LineView(line, stationViews));
+    }
+  }
+
+  /**
+   * Move to the next child element of the current element.
+   *
+   * @param reader the stax reader
+   * @return true if on a child element, false if on the end of the current
+   *     element
+   * @throws XMLStreamException if the file is not valid xml
+   */
+  private static boolean nextChild(final XMLStreamReader reader)
+      throws XMLStreamException {
+    return reader.nextTag() == XMLStreamConstants.START_ELEMENT;
+  }
+
+  /**
+   * Move to the end of the current element, skipping its content.
+   *
+   * @param reader the stax reader, on a start element
+   * @throws XMLStreamException if the file is not valid xml
+   */
+  private static void skip(final XMLStreamReader reader)
+      throws XMLStreamException {
+    int depth = 1;
+    while (depth > 0) {
+      int event = reader.next();
+      if (event == XMLStreamConstants.START_ELEMENT) {
+        depth++;
+      } else if (event == XMLStreamConstants.END_ELEMENT) {
+        depth--;
+      }
+    }
+  }
+
+  /**
+   * Read the children of an element holding only text elements.
+   *
+   * @param reader the stax reader, on the parent element
+   * @return the text of the children, by element name
+   * @throws XMLStreamException if the file is not valid xml
+   */
+  private static Map<String, String> readTextChildren(
+      final XMLStreamReader reader) throws XMLStreamException {
+    Map<String, String> children = new HashMap<>();
+    while (nextChild(reader)) {
+      String name = reader.getLocalName();
+      children.put(name, reader.getElementText());
+    }
+    return children;
+  }
+
+  /**
+   * Event read from the events section, applied to the map after the
+   * network is installed.
+   */
+  static final class ImportedEvent {
+    /**
+     * Event name, the tag of the event.
+     */
+    private final String name;
+    /**
+     * Text of the event fields, by tag.
+     */
+    private final Map<String, String> fields;
+
+    /**
+     * Event constructor.
+     *
+     * @param eventName   event name
+     * @param eventFields text of the event fields
+     */
+    ImportedEvent(final String eventName,
+                  final Map<String, String> eventFields) {
+      this.name = eventName;
+      this.fields = eventFields;
+    }
+
+    /**
+     * get the event name.
+     *
+     * @return event name
+     */
+    String getName() {
+      return this.name;
+    }
+
+    /**
+     * get the text of a field of the event.
+     *
+     * @param field the field tag
+     * @return the field text
+     * @throws IllegalArgumentException if the event has no such field
+     */
+    String get(final String field) {
+      String value = this.fields.get(field);
+      if (value == null) {
+        throw new IllegalArgumentException("Event " + this.name
+            + " has no " + field);
+      }
+      return value;
+    }
+  }
+}
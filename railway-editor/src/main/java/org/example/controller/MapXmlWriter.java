@@ -0,0 +1,507 @@
+/*
+ * License : MIT License
+ *
+ * Copyright (c) 2023 Team PFE_2023_16
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.example.controller;
+
+import org.example.model.Area;
+import org.example.model.Event;
+import org.example.model.EventGaussianPeak;
+import org.example.model.EventHour;
+import org.example.model.EventLineClosed;
+import org.example.model.EventLineDelay;
+import org.example.model.EventMultipleStationsClosed;
+import org.example.model.EventRampPeak;
+import org.example.model.EventStationClosed;
+import org.example.model.Line;
+import org.example.model.Station;
+import org.example.view.AreaView;
+import org.example.view.LineView;
+import org.openstreetmap.gui.jmapviewer.interfaces.ICoordinate;
+
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Streaming writer of the map xml file.
+ *
+ * <p>Writes the location, stations, lines, areas and events in a single pass
+ * through a {@link XMLStreamWriter} instead of building a DOM tree first. The
+ * lines of each station are gathered once before writing, so exporting a
+ * station no longer scans every line of the network.
+ *
+ * @author Team PFE_2023_16
+ * @file MapXmlWriter.java
+ * @date 2026-10-17
+ * @see ActionFile#export(File)
+ * @since 3.0
+ */
+final class MapXmlWriter {
+  /**
+   * Size of the output buffer.
+   */
+  private static final int BUFFER_SIZE = 64 * 1024;
+  /**
+   * Indentation of one nesting level.
+   */
+  private static final String INDENT = "    ";
+  /**
+   * Number of trains written for each line.
+   */
+  private static final String NUMBER_OF_TRAIN = "30";
+  /**
+   * Underlying stax writer.
+   */
+  private final XMLStreamWriter writer;
+  /**
+   * Current nesting depth, used for the indentation.
+   */
+  private int depth;
+  /**
+   * Whether the element being closed has child elements.
+   */
+  private boolean hasChildren;
+
+  /**
+   * Create a writer on the given stream.
+   *
+   * @param out the output stream, buffered by the caller
+   * @throws XMLStreamException if the stax writer cannot be created
+   */
+  private MapXmlWriter(final OutputStream out) throws XMLStreamException {
+    this.writer = XMLOutputFactory.newInstance().createXMLStreamWriter(out,
+        StandardCharsets.UTF_8.name());
+  }
+
+  /**
+   * Export a map and its events to a file.
+   *
+   * @param fileToSave the xml file to save
+   * @param center     the center of the map
+   * @param zoom       the zoom of the map
+   * @param lineViews  the lines of the map
+   * @param areaViews  the areas of the map
+   * @param events     the events to export
+   * @throws IOException        if the file cannot be written
+   * @throws XMLStreamException if the xml cannot be written
+   */
+  static void write(final File fileToSave, final ICoordinate center,
+                    final int zoom, final List<LineView> lineViews,
+                    final List<AreaView> areaViews, final List<Event> events)
+      throws IOException, XMLStreamException {
+    try (OutputStream out = new BufferedOutputStream(
+        new FileOutputStream(fileToSave), BUFFER_SIZE)) {
+      MapXmlWriter mapWriter = new MapXmlWriter(out);
+      mapWriter.writeMap(center, zoom, lineViews, areaViews, events);
+      out.flush();
+    }
+  }
+
+  /**
+   * Population distribution attributes of an area, or the default ones for a
+   * station without area.
+   *
+   * @param areaView the area view, null if it's for a station
+   * @return the attribute values keyed by attribute name, in export order
+   */
+  static Map<String, String> populationDistribution(final AreaView areaView) {
+    Map<String, String> attributes = new LinkedHashMap<>();
+    for (String element : ActionFile.POPULATION_ELEMENTS) {
+      int value;
+      if (areaView != null) {
+        value = areaView.getArea().getDistributionPopulation().get(element);
+      } else {
+        value = Area.getDefaultPopulationDistribution(element);
+      }
+      attributes.put(element.toLowerCase(), Integer.toString(value));
+    }
+    return attributes;
+  }
+
+  /**
+   * Destination distribution attributes of an area, or the default ones for a
+   * station without area.
+   *
+   * @param areaView the area view, null if it's for a station
+   * @return the attribute values keyed by attribute name, in export order
+   */
+  static Map<String, String> destinationDistribution(final AreaView areaView) {
+    Map<String, String> attributes = new LinkedHashMap<>();
+    for (String element : ActionFile.DESTINATION_ELEMENTS) {
+      int value;
+      if (areaView != null) {
+        value = areaView.getArea().getDistributionDestination().get(element);
+      } else {
+        value = Area.getDefaultDestinationDistribution(element);
+      }
+      attributes.put(element.toLowerCase(), Integer.toString(value));
+    }
+    return attributes;
+  }
+
+  /**
+   * Convert an editor date ("yyyy/MM/dd-HH:mm") to the xml format.
+   *
+   * @param time the editor date
+   * @return the xml date
+   */
+  static String toXmlTime(final String time) {
+    return time.replace("-", "T").replace("/", "-")
+        + ActionFile.END_TIME_STRING;
+  }
+
+  /**
+   * Write the whole document.
+   *
+   * @param center    the center of the map
+   * @param zoom      the zoom of the map
+   * @param lineViews the lines of the map
+   * @param areaViews the areas of the map
+   * @param events    the events to export
+   * @throws XMLStreamException if the xml cannot be written
+   */
+  private void writeMap(final ICoordinate center, final int zoom,
+                        final List<LineView> lineViews,
+                        final List<AreaView> areaViews,
+                        final List<Event> events)
+      throws XMLStreamException {
+    this.writer.writeStartDocument(StandardCharsets.UTF_8.name(), "1.0");
+    this.start("map");
+
+    this.start("location");
+    this.text(ActionFile.LATITUDE, Double.toString(center.getLat()));
+    this.text(ActionFile.LONGITUDE, Double.toString(center.getLon()));
+    this.text("zoom", Integer.toString(zoom));
+    this.end();
+
+    this.writeStations(lineViews);
+    this.writeLines(lineViews);
+    this.writeAreas(areaViews);
+    this.writeEvents(events);
+
+    this.end();
+    this.writer.writeEndDocument();
+    this.writer.flush();
+    this.writer.close();
+  }
+
+  /**
+   * Write the stations section. Each station is written once, in the order of
+   * its first appearance in the lines.
+   *
+   * @param lineViews the lines of the map
+   * @throws XMLStreamException if the xml cannot be written
+   */
+  private void writeStations(final List<LineView> lineViews)
+      throws XMLStreamException {
+    // Lines of every station, gathered in one pass over the network.
+    Map<Station, List<Line>> stationLines = new IdentityHashMap<>();
+    Map<Integer, Station> stations = new LinkedHashMap<>();
+    for (LineView lineView : lineViews) {
+      Line line = lineView.getLine();
+      for (Station station : line.getStations()) {
+        List<Line> lines = stationLines.get(station);
+        if (lines == null) {
+          lines = new ArrayList<>();
+          stationLines.put(station, lines);
+        }
+        if (lines.isEmpty() || lines.get(lines.size() - 1) != line) {
+          lines.add(line);
+        }
+        if (!stations.containsKey(station.getId())) {
+          stations.put(station.getId(), station);
+        }
+      }
+    }
+
+    this.start(ActionFile.STATIONS);
+    for (Station station : stations.values()) {
+      this.start(ActionFile.STATION);
+      this.text("id", Integer.toString(station.getId()));
+      this.text("name", station.getName());
+
+      this.start(ActionFile.POSITION);
+      this.text(ActionFile.LATITUDE, Double.toString(station.getLatitude()));
+      this.text(ActionFile.LONGITUDE, Double.toString(station.getLongitude()));
+      this.end();
+
+      this.start(ActionFile.LINES);
+      for (Line line : stationLines.get(station)) {
+        this.empty("line");
+        this.writer.writeAttribute("id", Integer.toString(line.getId()));
+        this.writer.writeAttribute("platform", "");
+      }
+      this.end();
+
+      if (station.getArea() != null) {
+        this.text("idArea", Integer.toString(station.getArea().getId()));
+      } else {
+        this.writeDistributions(null);
+      }
+      this.end();
+    }
+    this.end();
+  }
+
+  /**
+   * Write the lines section.
+   *
+   * @param lineViews the lines of the map
+   * @throws XMLStreamException if the xml cannot be written
+   */
+  private void writeLines(final List<LineView> lineViews)
+      throws XMLStreamException {
+    this.start(ActionFile.LINES);
+    for (LineView lineView : lineViews) {
+      Line line = lineView.getLine();
+      this.start("line");
+      this.text("id", Integer.toString(line.getId()));
+      this.text("name", line.getName());
+      this.text("numberOfTrain", NUMBER_OF_TRAIN);
+
+      this.start(ActionFile.STATIONS);
+      int order = 0;
+      for (Station station : line.getStations()) {
+        this.empty(ActionFile.STATION);
+        this.writer.writeAttribute("id", Integer.toString(station.getId()));
+        this.writer.writeAttribute("order", Integer.toString(order));
+        order++;
+      }
+      this.end();
+      this.end();
+    }
+    this.end();
+  }
+
+  /**
+   * Write the areas section.
+   *
+   * @param areaViews the areas of the map
+   * @throws XMLStreamException if the xml cannot be written
+   */
+  private void writeAreas(final List<AreaView> areaViews)
+      throws XMLStreamException {
+    this.start("areas");
+    for (AreaView areaView : areaViews) {
+      Area area = areaView.getArea();
+      this.start("area");
+      this.text("id", Integer.toString(area.getId()));
+
+      this.empty(ActionFile.POSITION);
+      this.writer.writeAttribute("latitudeTop",
+          Double.toString(area.getLatitudeTop()));
+      this.writer.writeAttribute("longitudeTop",
+          Double.toString(area.getLongitudeTop()));
+      this.writer.writeAttribute("latitudeBot",
+          Double.toString(area.getLatitudeBot()));
+      this.writer.writeAttribute("longitudeBot",
+          Double.toString(area.getLongitudeBot()));
+
+      this.writeDistributions(areaView);
+      this.end();
+    }
+    this.end();
+  }
+
+  /**
+   * Write the distributions elements of an area or of a station that doesn't
+   * have an area.
+   *
+   * @param areaView the area view, null if it's for a station
+   * @throws XMLStreamException if the xml cannot be written
+   */
+  private void writeDistributions(final AreaView areaView)
+      throws XMLStreamException {
+    this.empty("populationDistribution");
+    for (Map.Entry<String, String> attribute
+        : populationDistribution(areaView).entrySet()) {
+      this.writer.writeAttribute(attribute.getKey(), attribute.getValue());
+    }
+    this.empty("destinationDistribution");
+    for (Map.Entry<String, String> attribute
+        : destinationDistribution(areaView).entrySet()) {
+      this.writer.writeAttribute(attribute.getKey(), attribute.getValue());
+    }
+  }
+
+  /**
+   * Write the events section.
+   *
+   * @param events the events to export
+   * @throws XMLStreamException if the xml cannot be written
+   */
+  private void writeEvents(final List<Event> events)
+      throws XMLStreamException {
+    this.start("events");
+    for (Event event : events) {
+      String eventName = event.getEventName().getString();
+      this.start(eventName);
+      this.text("start", toXmlTime(event.getStartTime()));
+      this.text("end", toXmlTime(event.getEndTime()));
+
+      switch (eventName) {
+        case "lineDelay":
+          EventLineDelay lineDelay = (EventLineDelay) event;
+          this.text(ActionFile.STATION_ID_START,
+              Integer.toString(lineDelay.getIdStationStart()));
+          this.text(ActionFile.STATION_ID_END,
+              Integer.toString(lineDelay.getIdStationEnd()));
+          this.text("delay", Integer.toString(lineDelay.getDelay()));
+          break;
+
+        case "multipleStationsClosed":
+          EventMultipleStationsClosed stationsClosed =
+              (EventMultipleStationsClosed) event;
+          this.text(ActionFile.STATION_ID_START,
+              Integer.toString(stationsClosed.getIdStationStart()));
+          this.text(ActionFile.STATION_ID_END,
+              Integer.toString(stationsClosed.getIdStationEnd()));
+          break;
+
+        case "gaussianPeak":
+          EventGaussianPeak gaussianPeak = (EventGaussianPeak) event;
+          this.text(ActionFile.PEAK_TIME,
+              toXmlTime(gaussianPeak.getPeakTime()));
+          this.text(ActionFile.STATION_ID,
+              Integer.toString(gaussianPeak.getIdStation()));
+          this.text(ActionFile.PEAK_SIZE,
+              Integer.toString(gaussianPeak.getSize()));
+          this.text("peakWidth",
+              Integer.toString(gaussianPeak.getPeakWidth()));
+          break;
+
+        case "rampPeak":
+          EventRampPeak rampPeak = (EventRampPeak) event;
+          this.text(ActionFile.PEAK_TIME, toXmlTime(rampPeak.getPeakTime()));
+          this.text(ActionFile.STATION_ID,
+              Integer.toString(rampPeak.getIdStation()));
+          this.text(ActionFile.PEAK_SIZE,
+              Integer.toString(rampPeak.getSize()));
+          break;
+
+        case "stationClosed":
+          EventStationClosed stationClosed = (EventStationClosed) event;
+          this.text("idStation",
+              Integer.toString(stationClosed.getIdStation()));
+          break;
+
+        case "hour":
+          EventHour hour = (EventHour) event;
+          this.text(ActionFile.LINE_ID, Integer.toString(hour.getIdLine()));
+          this.text("trainNumber", Integer.toString(hour.getTrainNumber()));
+          break;
+
+        case "lineClosed":
+          EventLineClosed lineClosed = (EventLineClosed) event;
+          this.text(ActionFile.LINE_ID,
+              Integer.toString(lineClosed.getIdLine()));
+          this.text("closureType", lineClosed.getClosureType().getValue());
+          break;
+
+        default:
+          break;
+      }
+      this.end();
+    }
+    this.end();
+  }
+
+  /**
+   * Start an element that will have child elements.
+   *
+   * @param name the element name
+   * @throws XMLStreamException if the xml cannot be written
+   */
+  private void start(final String name) throws XMLStreamException {
+    this.newLine();
+    this.writer.writeStartElement(name);
+    this.depth++;
+    this.hasChildren = false;
+  }
+
+  /**
+   * Write an empty element, its attributes are written right after.
+   *
+   * @param name the element name
+   * @throws XMLStreamException if the xml cannot be written
+   */
+  private void empty(final String name) throws XMLStreamException {
+    this.newLine();
+    this.writer.writeEmptyElement(name);
+    this.hasChildren = true;
+  }
+
+  /**
+   * Write an element holding only text.
+   *
+   * @param name  the element name
+   * @param value the text of the element
+   * @throws XMLStreamException if the xml cannot be written
+   */
+  private void text(final String name, final String value)
+      throws XMLStreamException {
+    this.newLine();
+    this.writer.writeStartElement(name);
+    this.writer.writeCharacters(value);
+    this.writer.writeEndElement();
+    this.hasChildren = true;
+  }
+
+  /**
+   * Close the last element opened with {@link #start(String)}.
+   *
+   * @throws XMLStreamException if the xml cannot be written
+   */
+  private void end() throws XMLStreamException {
+    this.depth--;
+    if (this.hasChildren) {
+      this.newLine();
+    }
+    this.writer.writeEndElement();
+    this.hasChildren = true;
+  }
+
+  /**
+   * Break the line and indent to the current depth.
+   *
+   * @throws XMLStreamException if the xml cannot be written
+   */
+  private void newLine() throws XMLStreamException {
+    this.writer.writeCharacters("\n");
+    for (int i = 0; i < this.depth; i++) {
+      this.writer.writeCharacters(INDENT);
+    }
+  }
+}
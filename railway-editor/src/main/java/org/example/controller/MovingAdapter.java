@@ -30,16 +30,17 @@ import org.example.model.Station;
 import org.example.view.AreaSetDistribution;
 import org.example.view.AreaView;
 import org.example.view.LineView;
+import org.example.view.MainPanel;
 import org.example.view.MainWindow;
+import org.example.view.MapLayers;
 import org.example.view.Popup;
+import org.example.view.SpatialIndex;
+import org.example.view.StationIndex;
 import org.example.view.StationView;
 
 import java.awt.Cursor;
-import java.awt.Point;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
-import java.awt.event.MouseWheelEvent;
-import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -102,10 +103,6 @@ public class MovingAdapter extends MouseAdapter {
    * boolean to know if an area is being extended on the bottom side.
    */
   private boolean extendBotSide;
-  /**
-   * boolean to know if the right button of the mouse is pressed.
-   */
-  private boolean rightPressed;
   /**
    * station being dragged.
    */
@@ -135,9 +132,6 @@ public class MovingAdapter extends MouseAdapter {
   public void mousePressed(final MouseEvent e) {
     coordX = e.getX();
     coordY = e.getY();
-
-    rightPressed = (e.getButton() == MouseEvent.BUTTON3);
-
   }
 
   /**
@@ -158,36 +152,53 @@ public class MovingAdapter extends MouseAdapter {
       dy = e.getY() - coordY;
     }
 
-    if (rightPressed) {
-      moveAllStations(dx, dy);
-      moveAllAreas(dx, dy);
-    }
-
-    StationView clickedStation = this.getClickedStation(coordX, coordY);
-    AreaView clickedArea = this.getClickedArea(coordX, coordY);
-    AreaView clickedTopAreaBorder = this.onTopAreaBorder(coordX, coordY);
-    AreaView clickedBotAreaBorder = this.onBotAreaBorder(coordX, coordY);
-    AreaView clickedLeftAreaBorder = this.onLeftAreaBorder(coordX, coordY);
-    AreaView clickedRightAreaBorder = this.onRightAreaBorder(coordX, coordY);
     if (stationDrag) {
       draggedStation.moveStation(dx, dy);
-      MainWindow.getInstance().getMainPanel().repaint();
+      SpatialIndex spatialIndex = MainWindow.getInstance().getMainPanel()
+          .getSpatialIndex();
+      spatialIndex.stationMoved(draggedStation);
+      for (LineView lineView : spatialIndex.getLineViews(draggedStation)) {
+        lineView.invalidateGeometry();
+      }
+      // only the dragged station and its segments are drawn again
+      MainWindow.getInstance().getMainPanel().repaintOverlay();
     } else if (areaDrag) {
       draggedArea.moveArea(dx, dy);
-      MainWindow.getInstance().getMainPanel().repaint();
+      this.areaMoved(draggedArea);
     } else if (extendBotSide) {
       extendedArea.extendBotSide(dy);
-      MainWindow.getInstance().getMainPanel().repaint();
+      this.areaMoved(extendedArea);
     } else if (extendTopSide) {
       extendedArea.extendTopSide(dy);
-      MainWindow.getInstance().getMainPanel().repaint();
+      this.areaMoved(extendedArea);
     } else if (extendLeftSide) {
       extendedArea.extendLeftSide(dx);
-      MainWindow.getInstance().getMainPanel().repaint();
+      this.areaMoved(extendedArea);
     } else if (extendRightSide) {
       extendedArea.extendRightSide(dx);
-      MainWindow.getInstance().getMainPanel().repaint();
-    } else if (clickedStation != null) {
+      this.areaMoved(extendedArea);
+    } else {
+      // hit-tests are only needed to start a new drag
+      this.startDrag();
+    }
+
+    coordX += dx;
+    coordY += dy;
+
+  }
+
+  /**
+   * Start dragging or extending the element under the last cursor position,
+   * if any.
+   */
+  private void startDrag() {
+    StationView clickedStation = this.getClickedStation(coordX, coordY);
+    AreaView clickedArea = this.getClickedArea(coordX, coordY);
+    AreaView clickedTopAreaBorder = this.onTopAreaBorder(coordX, coordY);
+    AreaView clickedBotAreaBorder = this.onBotAreaBorder(coordX, coordY);
+    AreaView clickedLeftAreaBorder = this.onLeftAreaBorder(coordX, coordY);
+    AreaView clickedRightAreaBorder = this.onRightAreaBorder(coordX, coordY);
+    if (clickedStation != null) {
       this.stationDrag = true;
       int stationSize = ActionStation.STATION_SIZE;
       int centerStationSize = ActionStation.CENTER_STATION_SIZE;
@@ -195,6 +206,8 @@ public class MovingAdapter extends MouseAdapter {
       clickedStation.setStationSize(stationSize);
       clickedStation.setCenterStationSize(centerStationSize);
       draggedStation = clickedStation.getStation();
+      MainWindow.getInstance().getMainPanel().setDraggedStation(
+          draggedStation);
 
     } else if (clickedArea != null) {
       this.areaDrag = true;
@@ -212,10 +225,18 @@ public class MovingAdapter extends MouseAdapter {
       this.extendRightSide = true;
       this.extendedArea = clickedRightAreaBorder.getArea();
     }
+  }
 
-    coordX += dx;
-    coordY += dy;
-
+  /**
+   * Update the spatial index after an area has been moved or resized and
+   * repaint the map.
+   *
+   * @param area area moved
+   */
+  private void areaMoved(final Area area) {
+    MainWindow.getInstance().getMainPanel().getSpatialIndex().areaMoved(area);
+    MainWindow.getInstance().getMainPanel().repaintLayer(
+        MapLayers.Layer.AREAS);
   }
 
   /**
@@ -229,12 +250,12 @@ public class MovingAdapter extends MouseAdapter {
       this.stationsToMergeView[1] = this.getClickedStation(e.getX(), e.getY());
       this.lineStationToMergeViews[1] = this.selectedStationLineView;
       this.mergeStation(stationsToMergeView);
+      NetworkHistory.getInstance().commit();
       MainWindow.getInstance().getMainPanel().repaint();
       this.selectSecStation = false;
     }
     this.getClickedArea(e.getX(), e.getY());
     if (e.getClickCount() == 2) {
-      stationZoomUpdatePos();
       StationView clickedStation = this.getClickedStation(e.getX(), e.getY());
       AreaView clickedArea = this.getClickedArea(e.getX(), e.getY());
       if (clickedStation != null) {
@@ -272,6 +293,7 @@ public class MovingAdapter extends MouseAdapter {
         AreaSetDistribution form =
             new AreaSetDistribution(clickedArea.getArea());
         form.pop();
+        NetworkHistory.getInstance().commit();
       }
     }
 
@@ -280,6 +302,7 @@ public class MovingAdapter extends MouseAdapter {
     if (e.getButton() == MouseEvent.BUTTON3 && !selectSecStation
         && clickedStation != null) {
       deleteStation(clickedStation);
+      NetworkHistory.getInstance().commit();
       MainWindow.getInstance().getMainPanel().repaint();
     }
   }
@@ -291,7 +314,16 @@ public class MovingAdapter extends MouseAdapter {
    */
   @Override
   public void mouseReleased(final MouseEvent e) {
+    if (this.draggedStation != null || this.areaDrag
+        || this.extendedArea != null) {
+      // the move ends here, a drag is a single edit
+      NetworkHistory.getInstance().commit();
+    }
     // reset
+    if (this.draggedStation != null) {
+      // put the station back in the network layer
+      MainWindow.getInstance().getMainPanel().setDraggedStation(null);
+    }
     this.draggedStation = null;
     this.stationDrag = false;
     this.draggedArea = null;
@@ -301,18 +333,6 @@ public class MovingAdapter extends MouseAdapter {
     this.extendLeftSide = false;
     this.extendRightSide = false;
     this.extendedArea = null;
-    this.rightPressed = false;
-  }
-
-  /**
-   * Action when the mousewheel is moved.
-   *
-   * @see MouseAdapter#mouseWheelMoved(MouseWheelEvent)
-   */
-  @Override
-  public void mouseWheelMoved(final MouseWheelEvent e) {
-    stationZoomUpdatePos();
-    areaZoomUpdatePos();
   }
 
   /**
@@ -334,7 +354,7 @@ public class MovingAdapter extends MouseAdapter {
       MainWindow.getInstance().getMainPanel().setCursor(new Cursor(
           Cursor.DEFAULT_CURSOR));
     }
-    Station station;
+    Station station = null;
     StationView clickedStationView = this.getClickedStation(e.getX(), e.getY());
     if (clickedStationView != null) {
       Station clickedStation = clickedStationView.getStation();
@@ -343,13 +363,14 @@ public class MovingAdapter extends MouseAdapter {
       } else {
         station = clickedStation;
       }
+    }
+    // the HUD is the only layer depending on the hovered station
+    if (MainWindow.getInstance().getMainPanel().getMainPanelHud()
+        .getStation() != station) {
       MainWindow.getInstance().getMainPanel().getMainPanelHud().setStation(
           station);
-      MainWindow.getInstance().getMainPanel().repaint();
-    } else {
-      MainWindow.getInstance().getMainPanel().getMainPanelHud().setStation(
-          null);
-      MainWindow.getInstance().getMainPanel().repaint();
+      MainWindow.getInstance().getMainPanel().repaintLayer(
+          MapLayers.Layer.HUD);
     }
   }
 
@@ -398,23 +419,24 @@ public class MovingAdapter extends MouseAdapter {
    */
   protected StationView getClickedStation(final int clickedCoordX,
                                         final int clickedCoordY) {
-    List<LineView> lineViews = MainWindow.getInstance().getMainPanel()
-        .getLineViews();
-    StationView returnedStation = null;
-    List<StationView> stationviews;
-    for (LineView lineview : lineViews) {
-      stationviews = lineview.getStationViews();
-
-      for (StationView stationView : stationviews) {
-        if (contains(clickedCoordX, clickedCoordY,
-            stationView.getStation().getPosX(),
-            stationView.getStation().getPosY(), stationView.getStationSize())) {
-          returnedStation = stationView;
-          this.selectedStationLineView = lineview;
-        }
+    SpatialIndex.StationEntry returnedEntry = null;
+    for (SpatialIndex.StationEntry entry : MainPanel.getInstance()
+        .getSpatialIndex().getStationCandidates(clickedCoordX,
+            clickedCoordY)) {
+      StationView stationView = entry.getStationView();
+      // the last station of the lines list wins, as when drawn on top
+      if ((returnedEntry == null || entry.getOrder() > returnedEntry.getOrder())
+          && contains(clickedCoordX, clickedCoordY,
+          stationView.getStation().getPosX(),
+          stationView.getStation().getPosY(), stationView.getStationSize())) {
+        returnedEntry = entry;
       }
     }
-    return returnedStation;
+    if (returnedEntry == null) {
+      return null;
+    }
+    this.selectedStationLineView = returnedEntry.getLineView();
+    return returnedEntry.getStationView();
   }
 
   /**
@@ -426,19 +448,43 @@ public class MovingAdapter extends MouseAdapter {
    */
   protected AreaView getClickedArea(final int clickedCoordX,
                                   final int clickedCoordY) {
-
-    List<AreaView> areaViews = MainWindow.getInstance().getMainPanel()
-        .getAreaViews();
-    AreaView returnedArea = null;
-    for (AreaView areaView : areaViews) {
-
-      if (containsArea(clickedCoordX, clickedCoordY,
-          areaView.getArea().getPosX(), areaView.getArea().getPosY(),
-          areaView.getArea().getWidth(), areaView.getArea().getHeight())) {
-        returnedArea = areaView;
+    SpatialIndex.AreaEntry returnedEntry = null;
+    for (SpatialIndex.AreaEntry entry : getAreaCandidates(clickedCoordX,
+        clickedCoordY)) {
+      Area area = entry.getAreaView().getArea();
+      if (isAfter(entry, returnedEntry) && containsArea(clickedCoordX,
+          clickedCoordY, area.getPosX(), area.getPosY(), area.getWidth(),
+          area.getHeight())) {
+        returnedEntry = entry;
       }
     }
-    return returnedArea;
+    return returnedEntry == null ? null : returnedEntry.getAreaView();
+  }
+
+  /**
+   * Get the areas which may contain a point or have a border on it.
+   *
+   * @param otherCoordX x coordinate of the point
+   * @param otherCoordY y coordinate of the point
+   * @return the candidate area entries
+   */
+  private List<SpatialIndex.AreaEntry> getAreaCandidates(
+      final int otherCoordX, final int otherCoordY) {
+    return MainPanel.getInstance().getSpatialIndex()
+        .getAreaCandidates(otherCoordX, otherCoordY);
+  }
+
+  /**
+   * Checks if an area comes after the current match in the area views list
+   * (the last matching area wins, as when drawn on top).
+   *
+   * @param entry   candidate entry
+   * @param current current match, null if none
+   * @return true if the candidate comes after the current match
+   */
+  private boolean isAfter(final SpatialIndex.AreaEntry entry,
+                          final SpatialIndex.AreaEntry current) {
+    return current == null || entry.getOrder() > current.getOrder();
   }
 
   /**
@@ -459,6 +505,12 @@ public class MovingAdapter extends MouseAdapter {
     // replace station to merge in stationView list
     this.lineStationToMergeViews[1].getStationViews().set(stationViewIndex,
         stationToMergeViews[0]);
+    MainWindow.getInstance().getMainPanel().getSpatialIndex().replaceStation(
+        stationToMergeViews[1], stationToMergeViews[0],
+        this.lineStationToMergeViews[1]);
+    MainWindow.getInstance().getMainPanel().getStationIndex().lineChanged(
+        this.lineStationToMergeViews[1]);
+    this.lineStationToMergeViews[1].invalidateGeometry();
   }
 
   /**
@@ -467,6 +519,10 @@ public class MovingAdapter extends MouseAdapter {
    * @param stationToDeleteView station to delete
    */
   private void deleteStation(final StationView stationToDeleteView) {
+    SpatialIndex spatialIndex = MainWindow.getInstance().getMainPanel()
+        .getSpatialIndex();
+    StationIndex stationIdIndex = MainWindow.getInstance().getMainPanel()
+        .getStationIndex();
     int stationIndex = this.selectedStationLineView.getLine().getStations()
         .indexOf(stationToDeleteView.getStation());
     int stationViewIndex = this.selectedStationLineView.getStationViews()
@@ -475,6 +531,10 @@ public class MovingAdapter extends MouseAdapter {
     this.selectedStationLineView.getLine().getStations().remove(stationIndex);
     // remove in stationView list
     this.selectedStationLineView.getStationViews().remove(stationViewIndex);
+    spatialIndex.removeStation(stationToDeleteView,
+        this.selectedStationLineView);
+    stationIdIndex.lineChanged(this.selectedStationLineView);
+    this.selectedStationLineView.invalidateGeometry();
   }
 
   /**
@@ -508,20 +568,20 @@ public class MovingAdapter extends MouseAdapter {
    */
   private AreaView onLeftAreaBorder(final int otherCoordX,
                                     final int otherCoordY) {
-    List<AreaView> areaViews = MainWindow.getInstance().getMainPanel()
-        .getAreaViews();
-    AreaView returnedArea = null;
-    for (AreaView areaView : areaViews) {
-
-      if ((otherCoordX >= areaView.getArea().getPosX() - 2
+    SpatialIndex.AreaEntry returnedEntry = null;
+    for (SpatialIndex.AreaEntry entry : getAreaCandidates(otherCoordX,
+        otherCoordY)) {
+      AreaView areaView = entry.getAreaView();
+      if (isAfter(entry, returnedEntry)
+          && (otherCoordX >= areaView.getArea().getPosX() - 2
           && otherCoordX <= areaView.getArea().getPosX() + 2)
           && otherCoordY >= areaView.getArea().getPosY()
           && otherCoordY < areaView.getArea().getPosY()
           + areaView.getArea().getHeight()) {
-        returnedArea = areaView;
+        returnedEntry = entry;
       }
     }
-    return returnedArea;
+    return returnedEntry == null ? null : returnedEntry.getAreaView();
   }
 
   /**
@@ -533,19 +593,20 @@ public class MovingAdapter extends MouseAdapter {
    */
   private AreaView onTopAreaBorder(final int otherCoordX,
                                    final int otherCoordY) {
-    List<AreaView> areaViews = MainWindow.getInstance().getMainPanel()
-        .getAreaViews();
-    AreaView returnedArea = null;
-    for (AreaView areaView : areaViews) {
-      if ((otherCoordY >= areaView.getArea().getPosY() - 2
+    SpatialIndex.AreaEntry returnedEntry = null;
+    for (SpatialIndex.AreaEntry entry : getAreaCandidates(otherCoordX,
+        otherCoordY)) {
+      AreaView areaView = entry.getAreaView();
+      if (isAfter(entry, returnedEntry)
+          && (otherCoordY >= areaView.getArea().getPosY() - 2
           && otherCoordY <= areaView.getArea().getPosY() + 2)
           && otherCoordX >= areaView.getArea().getPosX()
           && otherCoordX < areaView.getArea().getPosX()
           + areaView.getArea().getWidth()) {
-        returnedArea = areaView;
+        returnedEntry = entry;
       }
     }
-    return returnedArea;
+    return returnedEntry == null ? null : returnedEntry.getAreaView();
   }
 
   /**
@@ -557,22 +618,22 @@ public class MovingAdapter extends MouseAdapter {
    */
   private AreaView onRightAreaBorder(final int otherCoordX,
                                      final int otherCoordY) {
-    List<AreaView> areaViews = MainWindow.getInstance().getMainPanel()
-        .getAreaViews();
-    AreaView returnedArea = null;
-    for (AreaView areaView : areaViews) {
-
-      if (((otherCoordX >= areaView.getArea().getPosX()
+    SpatialIndex.AreaEntry returnedEntry = null;
+    for (SpatialIndex.AreaEntry entry : getAreaCandidates(otherCoordX,
+        otherCoordY)) {
+      AreaView areaView = entry.getAreaView();
+      if (isAfter(entry, returnedEntry)
+          && ((otherCoordX >= areaView.getArea().getPosX()
           + areaView.getArea().getWidth() - 2)
           && otherCoordX <= areaView.getArea().getPosX()
           + areaView.getArea().getWidth() + 2)
           && otherCoordY >= areaView.getArea().getPosY()
           && otherCoordY < areaView.getArea().getPosY()
           + areaView.getArea().getHeight()) {
-        returnedArea = areaView;
+        returnedEntry = entry;
       }
     }
-    return returnedArea;
+    return returnedEntry == null ? null : returnedEntry.getAreaView();
   }
 
   /**
@@ -584,100 +645,22 @@ public class MovingAdapter extends MouseAdapter {
    */
   private AreaView onBotAreaBorder(final int otherCoordX,
                                    final int otherCoordY) {
-    List<AreaView> areaViews = MainWindow.getInstance().getMainPanel()
-        .getAreaViews();
-    AreaView returnedArea = null;
-    for (AreaView areaView : areaViews) {
-      if ((otherCoordY >= areaView.getArea().getPosY()
+    SpatialIndex.AreaEntry returnedEntry = null;
+    for (SpatialIndex.AreaEntry entry : getAreaCandidates(otherCoordX,
+        otherCoordY)) {
+      AreaView areaView = entry.getAreaView();
+      if (isAfter(entry, returnedEntry)
+          && (otherCoordY >= areaView.getArea().getPosY()
           + areaView.getArea().getHeight() - 2
           && otherCoordY <= areaView.getArea().getPosY()
           + areaView.getArea().getHeight() + 2)
           && otherCoordX >= areaView.getArea().getPosX()
           && otherCoordX < areaView.getArea().getPosX()
           + areaView.getArea().getWidth()) {
-        returnedArea = areaView;
+        returnedEntry = entry;
       }
     }
-    return returnedArea;
-  }
-
-  /**
-   * move all the stations in the same direction.
-   *
-   * @param dx x direction
-   * @param dy y direction
-   */
-  private void moveAllStations(final int dx, final int dy) {
-    List<Integer> idStations;
-    idStations = new ArrayList<>();
-    for (LineView lineView : MainWindow.getInstance().getMainPanel()
-        .getLineViews()) {
-      for (StationView stationView : lineView.getStationViews()) {
-        if (!idStations.contains(stationView.getStation().getId())) {
-          stationView.getStation().moveStation(dx, dy);
-          idStations.add(stationView.getStation().getId());
-        }
-      }
-    }
-    MainWindow.getInstance().getMainPanel().repaint();
-  }
-
-  /**
-   * Moves all the areas in the same direction.
-   *
-   * @param dx x direction
-   * @param dy y direction
-   */
-  private void moveAllAreas(final int dx, final int dy) {
-    for (AreaView areaView : MainWindow.getInstance().getMainPanel()
-        .getAreaViews()) {
-      areaView.getArea().moveArea(dx, dy);
-    }
-    MainWindow.getInstance().getMainPanel().repaint();
-  }
-
-  /**
-   * update the stations positions on the screen to fit with their latitude
-   * and longitude param.
-   */
-  private void stationZoomUpdatePos() {
-    for (LineView lineView : MainWindow.getInstance().getMainPanel()
-        .getLineViews()) {
-      for (StationView stationView : lineView.getStationViews()) {
-        Point pos = MainWindow.getInstance().getMainPanel().getMapPosition(
-            stationView.getStation().getLatitude(), stationView.getStation()
-                .getLongitude(), false);
-        stationView.getStation().setPosX((int) pos.getX());
-        stationView.getStation().setPosY((int) pos.getY());
-      }
-    }
-    MainWindow.getInstance().getMainPanel().repaint();
-
-  }
-
-  /**
-   * update the areas positions on the screen to fit with their latitude
-   * and longitude param.
-   */
-  private void areaZoomUpdatePos() {
-    for (AreaView areaView : MainWindow.getInstance().getMainPanel()
-        .getAreaViews()) {
-      Point pos1 = MainWindow.getInstance().getMainPanel().getMapPosition(
-          areaView.getArea().getLatitudeTop(), areaView.getArea()
-              .getLongitudeTop(), false);
-
-      Point pos2 = MainWindow.getInstance().getMainPanel().getMapPosition(
-          areaView.getArea().getLatitudeBot(), areaView.getArea()
-              .getLongitudeBot(), false);
-      areaView.getArea().setPosX((int) pos1.getX());
-      areaView.getArea().setPosY((int) pos1.getY());
-      areaView.getArea().setWidth(Math.abs(pos2.x - pos1.x));
-      areaView.getArea().setHeight(Math.abs(pos2.y - pos1.y));
-
-    }
-
-    MainWindow.getInstance().getMainPanel().repaint();
-
+    return returnedEntry == null ? null : returnedEntry.getAreaView();
   }
 
   /**
@@ -0,0 +1,522 @@
+/*
+ * License : MIT License
+ *
+ * Copyright (c) 2023 Team PFE_2023_16
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.example.controller;
+
+import org.example.model.Area;
+import org.example.model.AreaIndex;
+import org.example.model.Event;
+import org.example.model.EventBetween2Stations;
+import org.example.model.EventHour;
+import org.example.model.EventLineClosed;
+import org.example.model.EventPeak;
+import org.example.model.EventStationClosed;
+import org.example.model.EventTimeline;
+import org.example.model.Line;
+import org.example.model.Station;
+import org.example.view.AreaView;
+import org.example.view.LineView;
+import org.example.view.StationIndex;
+import org.example.view.StationView;
+import org.openstreetmap.gui.jmapviewer.Coordinate;
+
+import javax.xml.stream.XMLStreamException;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Network edited without the editor window: loading, editing, area
+ * assignment, event creation, export and simulator launch, for the batch
+ * jobs and the tests.
+ *
+ * <p>The positions are given in latitude and longitude, the pixel positions
+ * of the models being those of the headless viewport of
+ * {@link org.example.model.Projection}. The operations shared with the
+ * editor ({@link #assignAreaToStations(List, List)}, {@link EventFactory},
+ * {@link MapXmlWriter}) are the ones the editor uses on its own map.</p>
+ *
+ * @author Team PFE_2023_16
+ * @file NetworkCore.java
+ * @date 2026-10-17
+ * @since 3.0
+ */
+public final class NetworkCore {
+  /**
+   * Zoom of the map when it has no location.
+   */
+  public static final int DEFAULT_ZOOM = 12;
+
+  /** Lines of the network. */
+  private final List<LineView> lineViews = new ArrayList<>();
+  /** Areas of the network. */
+  private final List<AreaView> areaViews = new ArrayList<>();
+  /** Events of the network. */
+  private final List<Event> events = new ArrayList<>();
+  /** Timeline of the events, to check them. */
+  private final EventTimeline eventTimeline = new EventTimeline();
+  /** Index of the stations by id, to find the scope of the events. */
+  private final StationIndex stationIndex = new StationIndex();
+  /** Latitude of the center of the map. */
+  private double latitude;
+  /** Longitude of the center of the map. */
+  private double longitude;
+  /** Zoom of the map. */
+  private int zoom = DEFAULT_ZOOM;
+  /** Id of the next event. */
+  private int nextEventId;
+  /** Id of the next station. */
+  private int nextStationId;
+
+  /**
+   * Create an empty network.
+   */
+  public NetworkCore() {
+    // Nothing to do.
+  }
+
+  /**
+   * Load a map file.
+   *
+   * @param file the xml file to load
+   * @return NetworkCore the network of the file
+   * @throws IOException        if the file cannot be read
+   * @throws XMLStreamException if the file is not a valid map
+   */
+  public static NetworkCore load(final File file)
+      throws IOException, XMLStreamException {
+    MapXmlReader map = MapXmlReader.read(file);
+    NetworkCore network = new NetworkCore();
+    if (map.hasLocation()) {
+      network.setCenter(map.getLatitude(), map.getLongitude(), map.getZoom());
+    }
+    network.lineViews.addAll(map.getLineViews());
+    network.areaViews.addAll(map.getAreaViews());
+    for (LineView lineView : network.lineViews) {
+      for (Station station : lineView.getLine().getStations()) {
+        network.nextStationId = Math.max(network.nextStationId,
+            station.getId() + 1);
+      }
+    }
+    for (MapXmlReader.ImportedEvent event : map.getEvents()) {
+      String eventString = EventFactory.eventString(event);
+      if (eventString != null) {
+        network.addEvent(event.getName(), eventString);
+      }
+    }
+    return network;
+  }
+
+  /**
+   * get the lines of the network.
+   *
+   * @return List of lineViews
+   */
+  public List<LineView> getLineViews() {
+    return lineViews;
+  }
+
+  /**
+   * get the areas of the network.
+   *
+   * @return List of areaViews
+   */
+  public List<AreaView> getAreaViews() {
+    return areaViews;
+  }
+
+  /**
+   * get the events of the network.
+   *
+   * @return List of events
+   */
+  public List<Event> getEvents() {
+    return events;
+  }
+
+  /**
+   * get the timeline of the events of the network.
+   *
+   * @return EventTimeline eventTimeline
+   */
+  public EventTimeline getEventTimeline() {
+    return eventTimeline;
+  }
+
+  /**
+   * get the stations and lines concerned by an event: the stations between
+   * the two stations of an event on a line, the station of a peak or of a
+   * closure with its lines, or the whole line of a line event.
+   *
+   * @param event        the event
+   * @param stationIndex index of the stations of the network
+   * @return EventTimeline.Scope the scope of the event
+   */
+  public static EventTimeline.Scope eventScope(final Event event,
+      final StationIndex stationIndex) {
+    List<Integer> stations = new ArrayList<>();
+    Set<Integer> lines = new HashSet<>();
+    if (event instanceof EventBetween2Stations) {
+      EventBetween2Stations between = (EventBetween2Stations) event;
+      StationIndex.Entry[] entries = stationIndex.getEntriesOnSameLine(
+          between.getIdStationStart(), between.getIdStationEnd());
+      if (entries[0] != null && entries[1] != null
+          && entries[0].getLineView() == entries[1].getLineView()) {
+        LineView lineView = entries[0].getLineView();
+        int first = Math.min(entries[0].getPosition(),
+            entries[1].getPosition());
+        int last = Math.max(entries[0].getPosition(),
+            entries[1].getPosition());
+        for (int i = first; i <= last; i++) {
+          stations.add(lineView.getStationViews().get(i).getStation()
+              .getId());
+        }
+        lines.add(lineView.getLine().getId());
+      } else {
+        addStationScope(between.getIdStationStart(), stationIndex, stations,
+            lines);
+        addStationScope(between.getIdStationEnd(), stationIndex, stations,
+            lines);
+      }
+    } else if (event instanceof EventPeak) {
+      addStationScope(((EventPeak) event).getIdStation(), stationIndex,
+          stations, lines);
+    } else if (event instanceof EventStationClosed) {
+      addStationScope(((EventStationClosed) event).getIdStation(),
+          stationIndex, stations, lines);
+    } else if (event instanceof EventLineClosed) {
+      lines.add(((EventLineClosed) event).getIdLine());
+    } else if (event instanceof EventHour) {
+      lines.add(((EventHour) event).getIdLine());
+    }
+    return new EventTimeline.Scope(stations, lines);
+  }
+
+  private static void addStationScope(final int stationId,
+                                      final StationIndex stationIndex,
+                                      final List<Integer> stations,
+                                      final Set<Integer> lines) {
+    stations.add(stationId);
+    for (StationIndex.Entry entry : stationIndex.getEntries(stationId)) {
+      lines.add(entry.getLineView().getLine().getId());
+    }
+  }
+
+  /**
+   * Add the events to the timeline, with their scope in the network.
+   *
+   * @param added the events to add
+   */
+  private void indexEvents(final List<Event> added) {
+    stationIndex.validate(lineViews);
+    for (Event event : added) {
+      eventTimeline.add(event, eventScope(event, stationIndex));
+    }
+  }
+
+  /**
+   * get the number of stations, an interchange being counted once.
+   *
+   * @return int number of stations
+   */
+  public int getStationCount() {
+    Set<Integer> ids = new HashSet<>();
+    for (LineView lineView : lineViews) {
+      for (Station station : lineView.getLine().getStations()) {
+        ids.add(station.getId());
+      }
+    }
+    return ids.size();
+  }
+
+  /**
+   * get the latitude of the center of the map.
+   *
+   * @return double latitude
+   */
+  public double getLatitude() {
+    return latitude;
+  }
+
+  /**
+   * get the longitude of the center of the map.
+   *
+   * @return double longitude
+   */
+  public double getLongitude() {
+    return longitude;
+  }
+
+  /**
+   * get the zoom of the map.
+   *
+   * @return int zoom
+   */
+  public int getZoom() {
+    return zoom;
+  }
+
+  /**
+   * set the location of the map, written in the exported file.
+   *
+   * @param centerLatitude  latitude of the center
+   * @param centerLongitude longitude of the center
+   * @param mapZoom         zoom of the map
+   */
+  public void setCenter(final double centerLatitude,
+                        final double centerLongitude, final int mapZoom) {
+    this.latitude = centerLatitude;
+    this.longitude = centerLongitude;
+    this.zoom = mapZoom;
+  }
+
+  /**
+   * Add an empty line, its id being its index.
+   *
+   * @return LineView the new line
+   */
+  public LineView addLine() {
+    Line line = new Line(lineViews.size(), new ArrayList<>());
+    LineView lineView = new LineView(line, new ArrayList<>());
+    lineViews.add(lineView);
+    return lineView;
+  }
+
+  /**
+   * Add a new station at the end of a line.
+   *
+   * @param lineIndex         index of the line
+   * @param stationLatitude   latitude of the station
+   * @param stationLongitude  longitude of the station
+   * @param stationName       name of the station
+   * @return Station the new station
+   * @throws IndexOutOfBoundsException if the line does not exist
+   */
+  public Station addStation(final int lineIndex,
+                            final double stationLatitude,
+                            final double stationLongitude,
+                            final String stationName) {
+    LineView lineView = lineViews.get(lineIndex);
+    Station station = new Station(nextStationId++, stationLatitude,
+        stationLongitude, stationName);
+    lineView.getStationViews().add(new StationView(station));
+    lineView.getLine().addStation(station);
+    return station;
+  }
+
+  /**
+   * Add an area.
+   *
+   * @param latitudeTop  latitude of the top left corner
+   * @param longitudeTop longitude of the top left corner
+   * @param latitudeBot  latitude of the bottom right corner
+   * @param longitudeBot longitude of the bottom right corner
+   * @return AreaView the new area
+   */
+  public AreaView addArea(final double latitudeTop, final double longitudeTop,
+                          final double latitudeBot,
+                          final double longitudeBot) {
+    Area area = new Area(latitudeTop, longitudeTop, latitudeBot,
+        longitudeBot);
+    area.setId(areaViews.size());
+    AreaView areaView = new AreaView(area);
+    areaViews.add(areaView);
+    return areaView;
+  }
+
+  /**
+   * Create an event from its event string and add it.
+   *
+   * @param name        name of the event in the map files
+   * @param eventString event string (see {@link EventFactory})
+   * @return Event the new event
+   * @throws IllegalArgumentException if the event is invalid
+   */
+  public Event addEvent(final String name, final String eventString) {
+    Event event = EventFactory.create(name, nextEventId, eventString);
+    nextEventId++;
+    events.add(event);
+    indexEvents(Collections.singletonList(event));
+    return event;
+  }
+
+  /**
+   * Add the events of a text file, one event per line: its name in the map
+   * files, a space and its event string, for example
+   * {@code stationClosed 2018/10/12,08:00,2018/10/12,10:00,12}. Blank lines
+   * and lines starting with {@code #} are skipped. If a line is invalid, no
+   * event of the file is added.
+   *
+   * @param file the events file
+   * @return int number of events added
+   * @throws IOException if the file cannot be read or has an invalid line
+   * @see EventImport for the CSV and JSON files, read when the name of the
+   *     file ends with {@code .csv} or {@code .json}
+   */
+  public int addEvents(final File file) throws IOException {
+    String fileName = file.getName().toLowerCase();
+    if (fileName.endsWith(".csv") || fileName.endsWith(".json")) {
+      return addEvents(EventImport.read(file));
+    }
+    List<Event> added = new ArrayList<>();
+    int lineNumber = 0;
+    try (BufferedReader reader = Files.newBufferedReader(file.toPath(),
+        StandardCharsets.UTF_8)) {
+      String line;
+      while ((line = reader.readLine()) != null) {
+        lineNumber++;
+        String trimmed = line.trim();
+        if (trimmed.isEmpty() || trimmed.startsWith("#")) {
+          continue;
+        }
+        String[] fields = trimmed.split("\\s+", 2);
+        if (fields.length < 2) {
+          throw new IOException(file + ":" + lineNumber
+              + ": event string missing");
+        }
+        try {
+          added.add(EventFactory.create(fields[0],
+              nextEventId + added.size(), fields[1]));
+        } catch (IllegalArgumentException e) {
+          throw new IOException(file + ":" + lineNumber + ": "
+              + e.getMessage(), e);
+        }
+      }
+    }
+    nextEventId += added.size();
+    events.addAll(added);
+    indexEvents(added);
+    return added.size();
+  }
+
+  /**
+   * Add the events read from a CSV or JSON file. If a row is invalid or
+   * refers to a station or a line missing from the network, no event of
+   * the file is added.
+   *
+   * @param eventImport the events read
+   * @return int number of events added
+   * @throws IOException listing the rejected rows
+   */
+  private int addEvents(final EventImport eventImport) throws IOException {
+    stationIndex.validate(lineViews);
+    eventImport.checkNetwork(stationIndex, lineViews.size());
+    List<String> errors = eventImport.getErrors();
+    if (!errors.isEmpty()) {
+      throw new IOException(String.join(System.lineSeparator(), errors));
+    }
+    List<Event> added = eventImport.getEvents();
+    for (Event event : added) {
+      event.setId(nextEventId++);
+    }
+    events.addAll(added);
+    indexEvents(added);
+    return added.size();
+  }
+
+  /**
+   * Assign its area to each station of the network.
+   */
+  public void assignAreaToStations() {
+    assignAreaToStations(lineViews, areaViews);
+  }
+
+  /**
+   * Assign its area to each station of a network, from an
+   * {@link AreaIndex} of the areas. A station in several areas gets the last
+   * one, a station outside every area gets none.
+   *
+   * @param lines the lines of the network
+   * @param areas the areas of the network
+   */
+  public static void assignAreaToStations(final List<LineView> lines,
+                                          final List<AreaView> areas) {
+    List<Area> areaModels = new ArrayList<>(areas.size());
+    for (AreaView areaView : areas) {
+      areaModels.add(areaView.getArea());
+    }
+    AreaIndex index = new AreaIndex(areaModels);
+    for (LineView lineView : lines) {
+      for (StationView stationView : lineView.getStationViews()) {
+        Station station = stationView.getStation();
+        int area = index.find(station);
+        station.setAreas(area < 0 ? null : areaModels.get(area));
+      }
+    }
+  }
+
+  /**
+   * Assign the areas to the stations and write the network to a map file.
+   *
+   * @param file the xml file to write
+   * @throws IOException        if the file cannot be written
+   * @throws XMLStreamException if the xml cannot be written
+   */
+  public void export(final File file) throws IOException, XMLStreamException {
+    this.assignAreaToStations();
+    MapXmlWriter.write(file, new Coordinate(latitude, longitude), zoom,
+        lineViews, areaViews, events);
+  }
+
+  /**
+   * Export the network in the configs folder of the go project and start
+   * the simulator on it, without waiting for its end.
+   *
+   * @param goProject     the go project folder
+   * @param command       the command of the simulator, null for the default
+   *                      one
+   * @param listener      receives the output and the end of the run
+   * @param timeoutMillis time after which the simulator is killed, 0 for no
+   *                      timeout
+   * @return SimulatorLauncher the launcher of the running simulator
+   * @throws IOException        if the map cannot be written or the simulator
+   *                            cannot be started
+   * @throws XMLStreamException if the xml cannot be written
+   */
+  public SimulatorLauncher runSimulation(final File goProject,
+                                         final List<String> command,
+                                         final SimulatorLauncher.Listener
+                                             listener,
+                                         final long timeoutMillis)
+      throws IOException, XMLStreamException {
+    File configs = new File(new File(goProject, "src"), "configs");
+    this.export(new File(configs, ActionRunSimulation.CONFIG_NAME));
+    List<String> simulatorCommand = command;
+    if (simulatorCommand == null) {
+      simulatorCommand = SimulatorLauncher.defaultCommand(goProject,
+          ActionRunSimulation.CONFIG_NAME);
+    }
+    SimulatorLauncher launcher = new SimulatorLauncher(simulatorCommand,
+        goProject);
+    launcher.start(listener, timeoutMillis);
+    return launcher;
+  }
+}
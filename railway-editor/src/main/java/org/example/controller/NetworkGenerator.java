@@ -0,0 +1,817 @@
+/*
+ * License : MIT License
+ *
+ * Copyright (c) 2023 Team PFE_2023_16
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.example.controller;
+
+import org.example.data.Data;
+import org.example.model.Area;
+import org.example.model.Event;
+import org.example.model.EventBetween2Stations;
+import org.example.model.EventGaussianPeak;
+import org.example.model.EventHour;
+import org.example.model.EventLineClosed;
+import org.example.model.EventLineDelay;
+import org.example.model.EventMultipleStationsClosed;
+import org.example.model.EventPeak;
+import org.example.model.EventRampPeak;
+import org.example.model.EventStationClosed;
+import org.example.model.Line;
+import org.example.model.LineClosureType;
+import org.example.model.Station;
+import org.example.view.AreaView;
+import org.example.view.LineView;
+import org.example.view.StationView;
+import org.openstreetmap.gui.jmapviewer.Coordinate;
+
+import javax.xml.stream.XMLStreamException;
+import java.io.File;
+import java.io.IOException;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Generator of synthetic metro networks, to test the editor and the
+ * simulator at the scale of a metro region.
+ *
+ * <p>Each line crosses the city through its centre, in its own direction,
+ * as a random walk of one station every {@link #setSpacing(double) spacing}.
+ * A line reaching a station of another line stops there, which makes the
+ * interchanges. Areas are laid around random stations, with population and
+ * destination distributions depending on their distance to the centre
+ * (offices and businessmen downtown, homes and children in the suburbs),
+ * and events of every kind are spread over the day.
+ *
+ * <p>The generator does not need a display: the network is written with
+ * {@link MapXmlWriter} in the schema read by {@link ActionFile#importMap}.
+ * The same parameters and seed always give the same network.
+ *
+ * @author Team PFE_2023_16
+ * @file NetworkGenerator.java
+ * @date 2026-10-17
+ * @see ActionFile#importMap(File)
+ * @since 3.0
+ */
+public final class NetworkGenerator {
+  /**
+   * Default distance between two stations of a line, in meters.
+   */
+  public static final double DEFAULT_SPACING = 700;
+  /**
+   * Default number of stations for an area.
+   */
+  public static final int STATIONS_PER_AREA = 20;
+  /**
+   * Default day of the events, the first day of the default simulation.
+   */
+  public static final String DEFAULT_EVENT_DAY = "2018/10/12";
+  /**
+   * Meters in a degree of latitude.
+   */
+  private static final double METERS_PER_DEGREE = 111_320;
+  /**
+   * Distance under which a line reuses the station of another line, as a
+   * fraction of the spacing.
+   */
+  private static final double INTERCHANGE_RADIUS = 0.45;
+  /**
+   * Largest turn of a line between two stations, in radians.
+   */
+  private static final double MAX_TURN = Math.toRadians(12);
+  /**
+   * Share of the distance from the centre the lines may pass by.
+   */
+  private static final double CENTER_OFFSET = 0.15;
+  /**
+   * First and last minute of the day of the events (06:00 and 23:00).
+   */
+  private static final int FIRST_MINUTE = 6 * 60;
+  /**
+   * Last minute of the day of the events.
+   */
+  private static final int LAST_MINUTE = 23 * 60;
+  /**
+   * Number of kinds of events generated.
+   */
+  private static final int EVENT_KINDS = 7;
+  /**
+   * Distribution weights of the population of the downtown areas.
+   */
+  private static final Map<String, Integer> POPULATION_CENTER =
+      weights(Data.AREA_TOURIST, 4, Data.AREA_STUDENT, 2,
+          Data.AREA_BUSINESSMAN, 4, Data.AREA_WORKER, 4, Data.AREA_CHILD, 1,
+          Data.AREA_RETIRED, 1, Data.AREA_UNEMPLOYED, 1);
+  /**
+   * Distribution weights of the population of the suburb areas.
+   */
+  private static final Map<String, Integer> POPULATION_SUBURB =
+      weights(Data.AREA_TOURIST, 1, Data.AREA_STUDENT, 2,
+          Data.AREA_BUSINESSMAN, 1, Data.AREA_WORKER, 4, Data.AREA_CHILD, 3,
+          Data.AREA_RETIRED, 3, Data.AREA_UNEMPLOYED, 2);
+  /**
+   * Distribution weights of the destinations of the downtown areas.
+   */
+  private static final Map<String, Integer> DESTINATION_CENTER =
+      weights(Data.AREA_RESIDENTIAL, 1, Data.AREA_COMMERCIAL, 4,
+          Data.AREA_OFFICE, 5, Data.AREA_INDUSTRIAL, 1, Data.AREA_TOURISTIC, 3,
+          Data.AREA_LEISURE, 3, Data.AREA_EDUCATIONAL, 2);
+  /**
+   * Distribution weights of the destinations of the suburb areas.
+   */
+  private static final Map<String, Integer> DESTINATION_SUBURB =
+      weights(Data.AREA_RESIDENTIAL, 5, Data.AREA_COMMERCIAL, 2,
+          Data.AREA_OFFICE, 1, Data.AREA_INDUSTRIAL, 3, Data.AREA_TOURISTIC, 1,
+          Data.AREA_LEISURE, 2, Data.AREA_EDUCATIONAL, 3);
+
+  /**
+   * Number of lines.
+   */
+  private final int lineCount;
+  /**
+   * Number of stations.
+   */
+  private final int stationCount;
+  /**
+   * Latitude of the city centre.
+   */
+  private final double centerLatitude;
+  /**
+   * Longitude of the city centre.
+   */
+  private final double centerLongitude;
+  /**
+   * Distance between two stations of a line, in meters.
+   */
+  private double spacing = DEFAULT_SPACING;
+  /**
+   * Number of areas, negative for one every {@value #STATIONS_PER_AREA}
+   * stations.
+   */
+  private int areaCount = -1;
+  /**
+   * Number of events.
+   */
+  private int eventCount;
+  /**
+   * Day of the events, "yyyy/MM/dd".
+   */
+  private String eventDay = DEFAULT_EVENT_DAY;
+  /**
+   * Zoom of the map written.
+   */
+  private int zoom = 12;
+  /**
+   * Seed of the random generator.
+   */
+  private long seed;
+
+  /**
+   * Create a generator.
+   *
+   * @param lines           number of lines
+   * @param stations        number of stations, at least two per line
+   * @param latitude        latitude of the city centre
+   * @param longitude       longitude of the city centre
+   * @throws IllegalArgumentException if a line would have less than two
+   *                                  stations
+   */
+  public NetworkGenerator(final int lines, final int stations,
+                          final double latitude, final double longitude) {
+    if (lines < 1 || stations < 2 * lines) {
+      throw new IllegalArgumentException("At least one line of two stations"
+          + " each is needed: " + lines + " lines, " + stations
+          + " stations");
+    }
+    this.lineCount = lines;
+    this.stationCount = stations;
+    this.centerLatitude = latitude;
+    this.centerLongitude = longitude;
+  }
+
+  /**
+   * set the distance between two stations of a line.
+   *
+   * @param meters distance in meters
+   */
+  public void setSpacing(final double meters) {
+    if (meters <= 0) {
+      throw new IllegalArgumentException("Spacing must be positive: "
+          + meters);
+    }
+    this.spacing = meters;
+  }
+
+  /**
+   * set the number of areas.
+   *
+   * @param areas number of areas, negative for one every
+   *              {@value #STATIONS_PER_AREA} stations
+   */
+  public void setAreaCount(final int areas) {
+    this.areaCount = areas;
+  }
+
+  /**
+   * set the number of events.
+   *
+   * @param events number of events
+   */
+  public void setEventCount(final int events) {
+    this.eventCount = Math.max(0, events);
+  }
+
+  /**
+   * set the day of the events.
+   *
+   * @param day day, "yyyy/MM/dd"
+   */
+  public void setEventDay(final String day) {
+    this.eventDay = day;
+  }
+
+  /**
+   * set the zoom of the map written.
+   *
+   * @param mapZoom zoom
+   */
+  public void setZoom(final int mapZoom) {
+    this.zoom = mapZoom;
+  }
+
+  /**
+   * set the seed of the random generator.
+   *
+   * @param randomSeed seed
+   */
+  public void setSeed(final long randomSeed) {
+    this.seed = randomSeed;
+  }
+
+  /**
+   * Generate the network.
+   *
+   * @return the network
+   */
+  public Network generate() {
+    Random random = new Random(this.seed);
+    Grid grid = new Grid(this.spacing);
+    List<List<Node>> lines = new ArrayList<>();
+    int nextId = 0;
+    for (int i = 0; i < this.lineCount; i++) {
+      int quota = this.stationCount / this.lineCount
+          + (i < this.stationCount % this.lineCount ? 1 : 0);
+      List<Node> line = this.walk(i, quota, nextId, grid, random);
+      nextId += quota;
+      lines.add(line);
+    }
+
+    List<LineView> lineViews = new ArrayList<>();
+    List<Station> stations = new ArrayList<>();
+    int interchanges = 0;
+    for (int i = 0; i < lines.size(); i++) {
+      List<Station> lineStations = new ArrayList<>();
+      List<StationView> stationViews = new ArrayList<>();
+      for (Node node : lines.get(i)) {
+        lineStations.add(node.station);
+        stationViews.add(node.view);
+      }
+      lineViews.add(new LineView(new Line(i, lineStations), stationViews));
+    }
+    for (Node node : grid.nodes) {
+      stations.add(node.station);
+      if (node.lines > 1) {
+        interchanges++;
+      }
+    }
+
+    List<AreaView> areaViews = this.areas(grid, random);
+    List<Event> events = this.events(lines, stations, random);
+    return new Network(new Coordinate(this.centerLatitude,
+        this.centerLongitude), this.zoom, lineViews, areaViews, events,
+        stations.size(), interchanges);
+  }
+
+  /**
+   * Generate a network file without the editor.
+   *
+   * <p>Arguments: lines, stations, latitude and longitude of the centre, the
+   * xml file to write, then optionally the number of events and the seed.
+   *
+   * @param args command line arguments
+   * @throws IOException if the file cannot be written
+   */
+  public static void main(final String[] args) throws IOException {
+    if (args.length < 5) {
+      System.err.println("Usage: NetworkGenerator <lines> <stations>"
+          + " <latitude> <longitude> <file.xml> [events] [seed]");
+      System.exit(2);
+    }
+    System.setProperty("java.awt.headless", "true");
+    NetworkGenerator generator = new NetworkGenerator(
+        Integer.parseInt(args[0]), Integer.parseInt(args[1]),
+        Double.parseDouble(args[2]), Double.parseDouble(args[3]));
+    if (args.length > 5) {
+      generator.setEventCount(Integer.parseInt(args[5]));
+    }
+    if (args.length > 6) {
+      generator.setSeed(Long.parseLong(args[6]));
+    }
+    Network network = generator.generate();
+    network.write(new File(args[4]));
+    System.out.println(network.getStationCount() + " stations, "
+        + network.getInterchangeCount() + " interchanges, "
+        + network.getLineViews().size() + " lines, "
+        + network.getAreaViews().size() + " areas, "
+        + network.getEvents().size() + " events written to " + args[4]);
+  }
+
+  /**
+   * Lay the stations of a line.
+   *
+   * @param index  index of the line
+   * @param quota  number of new stations of the line
+   * @param firstId id of the first new station
+   * @param grid   stations already laid
+   * @param random random generator
+   * @return the stations of the line, in order
+   */
+  private List<Node> walk(final int index, final int quota, final int firstId,
+                          final Grid grid, final Random random) {
+    // the directions of the lines are spread over a half turn
+    double direction = Math.PI * (index + random.nextDouble() * 0.5)
+        / this.lineCount;
+    double half = quota * this.spacing / 2;
+    double offset = (random.nextDouble() * 2 - 1) * CENTER_OFFSET * half;
+    double x = -Math.cos(direction) * half - Math.sin(direction) * offset;
+    double y = -Math.sin(direction) * half + Math.cos(direction) * offset;
+    double heading = direction;
+
+    List<Node> line = new ArrayList<>();
+    Set<Node> onLine = new HashSet<>();
+    int created = 0;
+    while (created < quota) {
+      Node node = grid.nearest(x, y, this.spacing * INTERCHANGE_RADIUS);
+      if (node == null || onLine.contains(node)) {
+        int id = firstId + created;
+        node = new Node(new Station(id, this.latitude(y), this.longitude(x),
+            Data.getStationName(id)), x, y);
+        grid.add(node);
+        created++;
+      }
+      if (onLine.add(node)) {
+        node.lines++;
+        line.add(node);
+      }
+      // a turn, pulled back towards the direction of the line
+      heading += (random.nextDouble() * 2 - 1) * MAX_TURN
+          + (direction - heading) / 4;
+      double step = this.spacing * (0.8 + random.nextDouble() * 0.4);
+      x += Math.cos(heading) * step;
+      y += Math.sin(heading) * step;
+    }
+    return line;
+  }
+
+  /**
+   * Lay the areas around random stations and put the stations they cover
+   * in them.
+   *
+   * @param grid   stations laid
+   * @param random random generator
+   * @return the areas
+   */
+  private List<AreaView> areas(final Grid grid, final Random random) {
+    int count = this.areaCount >= 0 ? this.areaCount
+        : Math.max(1, grid.nodes.size() / STATIONS_PER_AREA);
+    double radius = 1;
+    for (Node node : grid.nodes) {
+      radius = Math.max(radius, Math.hypot(node.x, node.y));
+    }
+    List<AreaView> areaViews = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      Node seedNode = grid.nodes.get(random.nextInt(grid.nodes.size()));
+      double width = this.spacing * (1 + random.nextDouble() * 1.5);
+      double height = this.spacing * (1 + random.nextDouble() * 1.5);
+      double west = seedNode.x - width * random.nextDouble();
+      double south = seedNode.y - height * random.nextDouble();
+      Area area = new Area(this.latitude(south + height),
+          this.longitude(west), this.latitude(south), this.longitude(west
+          + width));
+      area.setId(i);
+
+      // 1 downtown, 0 at the edge of the network
+      double urban = 1 - Math.hypot(west + width / 2, south + height / 2)
+          / radius;
+      distribute(area.getDistributionPopulation(), POPULATION_CENTER,
+          POPULATION_SUBURB, urban, random);
+      distribute(area.getDistributionDestination(), DESTINATION_CENTER,
+          DESTINATION_SUBURB, urban, random);
+      for (Node node : grid.within(west, south, west + width,
+          south + height)) {
+        node.station.setAreas(area);
+      }
+      areaViews.add(new AreaView(area));
+    }
+    return areaViews;
+  }
+
+  /**
+   * Generate the events, the kinds taking turns.
+   *
+   * @param lines    stations of every line
+   * @param stations all the stations
+   * @param random   random generator
+   * @return the events
+   */
+  private List<Event> events(final List<List<Node>> lines,
+                             final List<Station> stations,
+                             final Random random) {
+    List<Event> events = new ArrayList<>();
+    for (int id = 0; id < this.eventCount; id++) {
+      int start = FIRST_MINUTE + random.nextInt(LAST_MINUTE - FIRST_MINUTE
+          - 15);
+      int end = Math.min(LAST_MINUTE, start + 15 + random.nextInt(120));
+      String startTime = this.eventDay + "-" + clock(start);
+      String endTime = this.eventDay + "-" + clock(end);
+      int lineIndex = random.nextInt(lines.size());
+      List<Node> line = lines.get(lineIndex);
+      Station station = stations.get(random.nextInt(stations.size()));
+      switch (id % EVENT_KINDS) {
+        case 0:
+          EventLineDelay delay = new EventLineDelay(id, startTime, endTime,
+              Event.EventType.LINE);
+          between(delay, line, random);
+          delay.setDelay(1 + random.nextInt(30));
+          events.add(delay);
+          break;
+        case 1:
+          EventGaussianPeak gaussianPeak = new EventGaussianPeak(id,
+              startTime, endTime, Event.EventType.STATION);
+          this.peak(gaussianPeak, station, start, end, random);
+          gaussianPeak.setPeakWidth(2 + random.nextInt(14));
+          events.add(gaussianPeak);
+          break;
+        case 2:
+          EventStationClosed stationClosed = new EventStationClosed(id,
+              startTime, endTime, Event.EventType.STATION);
+          stationClosed.setIdStation(station.getId());
+          events.add(stationClosed);
+          break;
+        case 3:
+          EventRampPeak rampPeak = new EventRampPeak(id, startTime, endTime,
+              Event.EventType.STATION);
+          this.peak(rampPeak, station, start, end, random);
+          events.add(rampPeak);
+          break;
+        case 4:
+          EventHour hour = new EventHour(id, clock(start), clock(end),
+              Event.EventType.LINE);
+          hour.setIdLine(lineIndex);
+          hour.setTrainNumber(5 + random.nextInt(36));
+          events.add(hour);
+          break;
+        case 5:
+          EventMultipleStationsClosed closed =
+              new EventMultipleStationsClosed(id, startTime, endTime,
+                  Event.EventType.LINE);
+          between(closed, line, random);
+          events.add(closed);
+          break;
+        default:
+          EventLineClosed lineClosed = new EventLineClosed(id, startTime,
+              endTime, Event.EventType.LINE);
+          lineClosed.setIdLine(lineIndex);
+          LineClosureType[] types = LineClosureType.values();
+          lineClosed.setClosureType(types[random.nextInt(types.length)]);
+          events.add(lineClosed);
+          break;
+      }
+    }
+    return events;
+  }
+
+  /**
+   * Set the stations of an event on a few stations in a row of a line.
+   *
+   * @param event  the event
+   * @param line   stations of the line
+   * @param random random generator
+   */
+  private static void between(final EventBetween2Stations event,
+                              final List<Node> line, final Random random) {
+    int first = random.nextInt(line.size() - 1);
+    int last = Math.min(line.size() - 1, first + 1 + random.nextInt(4));
+    event.setIdStationStart(line.get(first).station.getId());
+    event.setIdStationEnd(line.get(last).station.getId());
+  }
+
+  /**
+   * Set the station, peak time and size of a peak event.
+   *
+   * @param event   the event
+   * @param station the station of the peak
+   * @param start   first minute of the event
+   * @param end     last minute of the event
+   * @param random  random generator
+   */
+  private void peak(final EventPeak event, final Station station,
+                    final int start, final int end, final Random random) {
+    event.setIdStation(station.getId());
+    event.setPeakTime(this.eventDay + "-"
+        + clock(start + random.nextInt(end - start + 1)));
+    event.setSize(100 + random.nextInt(900));
+  }
+
+  /**
+   * Set a distribution between its downtown and suburb weights, with some
+   * noise, the parts adding up to 100.
+   *
+   * @param distribution the distribution to set
+   * @param center       weights downtown
+   * @param suburb       weights in the suburbs
+   * @param urban        1 downtown, 0 in the suburbs
+   * @param random       random generator
+   */
+  private static void distribute(final Map<String, Integer> distribution,
+                                 final Map<String, Integer> center,
+                                 final Map<String, Integer> suburb,
+                                 final double urban, final Random random) {
+    Map<String, Double> weights = new LinkedHashMap<>();
+    double total = 0;
+    for (Map.Entry<String, Integer> entry : center.entrySet()) {
+      double weight = (urban * entry.getValue()
+          + (1 - urban) * suburb.get(entry.getKey()))
+          * (0.75 + random.nextDouble() / 2);
+      weights.put(entry.getKey(), weight);
+      total += weight;
+    }
+    // largest remainders, for a total of exactly 100
+    int given = 0;
+    List<Map.Entry<String, Double>> remainders = new ArrayList<>();
+    for (Map.Entry<String, Double> entry : weights.entrySet()) {
+      double part = entry.getValue() * 100 / total;
+      distribution.put(entry.getKey(), (int) part);
+      given += (int) part;
+      remainders.add(new AbstractMap.SimpleEntry<>(entry.getKey(),
+          part - (int) part));
+    }
+    remainders.sort(Collections.reverseOrder(Map.Entry.comparingByValue()));
+    for (int i = 0; i < 100 - given; i++) {
+      String key = remainders.get(i).getKey();
+      distribution.put(key, distribution.get(key) + 1);
+    }
+  }
+
+  /**
+   * Build a map of weights.
+   *
+   * @param keysAndWeights keys each followed by its weight
+   * @return the weights, in the order given
+   */
+  private static Map<String, Integer> weights(
+      final Object... keysAndWeights) {
+    Map<String, Integer> weights = new LinkedHashMap<>();
+    for (int i = 0; i < keysAndWeights.length; i += 2) {
+      weights.put((String) keysAndWeights[i],
+          (Integer) keysAndWeights[i + 1]);
+    }
+    return weights;
+  }
+
+  /**
+   * Format a minute of the day.
+   *
+   * @param minute minute of the day
+   * @return "HH:mm"
+   */
+  private static String clock(final int minute) {
+    return String.format(Locale.ROOT, "%02d:%02d", minute / 60, minute % 60);
+  }
+
+  /**
+   * Latitude of a point north of the centre.
+   *
+   * @param y distance to the north of the centre, in meters
+   * @return latitude
+   */
+  private double latitude(final double y) {
+    return this.centerLatitude + y / METERS_PER_DEGREE;
+  }
+
+  /**
+   * Longitude of a point east of the centre.
+   *
+   * @param x distance to the east of the centre, in meters
+   * @return longitude
+   */
+  private double longitude(final double x) {
+    return this.centerLongitude + x / (METERS_PER_DEGREE
+        * Math.cos(Math.toRadians(this.centerLatitude)));
+  }
+
+  /**
+   * A generated network.
+   */
+  public static final class Network {
+    /** Center of the map. */
+    private final Coordinate center;
+    /** Zoom of the map. */
+    private final int zoom;
+    /** Lines of the network. */
+    private final List<LineView> lineViews;
+    /** Areas of the network. */
+    private final List<AreaView> areaViews;
+    /** Events of the network. */
+    private final List<Event> events;
+    /** Number of stations. */
+    private final int stationCount;
+    /** Number of stations on several lines. */
+    private final int interchangeCount;
+
+    private Network(final Coordinate mapCenter, final int mapZoom,
+                    final List<LineView> lines, final List<AreaView> areas,
+                    final List<Event> networkEvents, final int stations,
+                    final int interchanges) {
+      this.center = mapCenter;
+      this.zoom = mapZoom;
+      this.lineViews = lines;
+      this.areaViews = areas;
+      this.events = networkEvents;
+      this.stationCount = stations;
+      this.interchangeCount = interchanges;
+    }
+
+    /**
+     * get the lines of the network.
+     *
+     * @return List of lineViews
+     */
+    public List<LineView> getLineViews() {
+      return lineViews;
+    }
+
+    /**
+     * get the areas of the network.
+     *
+     * @return List of areaViews
+     */
+    public List<AreaView> getAreaViews() {
+      return areaViews;
+    }
+
+    /**
+     * get the events of the network.
+     *
+     * @return List of events
+     */
+    public List<Event> getEvents() {
+      return events;
+    }
+
+    /**
+     * get the number of stations.
+     *
+     * @return int stationCount
+     */
+    public int getStationCount() {
+      return stationCount;
+    }
+
+    /**
+     * get the number of stations served by several lines.
+     *
+     * @return int interchangeCount
+     */
+    public int getInterchangeCount() {
+      return interchangeCount;
+    }
+
+    /**
+     * Write the network as a map file.
+     *
+     * @param file the xml file to write
+     * @throws IOException if the file cannot be written
+     */
+    public void write(final File file) throws IOException {
+      try {
+        MapXmlWriter.write(file, center, zoom, lineViews, areaViews, events);
+      } catch (XMLStreamException e) {
+        throw new IOException(e);
+      }
+    }
+  }
+
+  /**
+   * A station laid, with its position in meters from the centre.
+   */
+  private static final class Node {
+    /** The station. */
+    private final Station station;
+    /** Its view. */
+    private final StationView view;
+    /** Meters east of the centre. */
+    private final double x;
+    /** Meters north of the centre. */
+    private final double y;
+    /** Number of lines serving it. */
+    private int lines;
+
+    Node(final Station nodeStation, final double nodeX, final double nodeY) {
+      this.station = nodeStation;
+      this.view = new StationView(nodeStation);
+      this.x = nodeX;
+      this.y = nodeY;
+    }
+  }
+
+  /**
+   * Stations laid, hashed by cells of the spacing size.
+   */
+  private static final class Grid {
+    /** Size of a cell, in meters. */
+    private final double cell;
+    /** Stations of each cell. */
+    private final Map<Long, List<Node>> cells = new HashMap<>();
+    /** All the stations, in the order they were laid. */
+    private final List<Node> nodes = new ArrayList<>();
+
+    Grid(final double cellSize) {
+      this.cell = cellSize;
+    }
+
+    private long key(final long cx, final long cy) {
+      return (cx << 32) ^ (cy & 0xffffffffL);
+    }
+
+    void add(final Node node) {
+      this.cells.computeIfAbsent(this.key((long) Math.floor(node.x / cell),
+          (long) Math.floor(node.y / cell)), k -> new ArrayList<>()).add(node);
+      this.nodes.add(node);
+    }
+
+    Node nearest(final double x, final double y, final double radius) {
+      Node nearest = null;
+      double best = radius;
+      for (Node node : this.within(x - radius, y - radius, x + radius,
+          y + radius)) {
+        double distance = Math.hypot(node.x - x, node.y - y);
+        if (distance <= best) {
+          best = distance;
+          nearest = node;
+        }
+      }
+      return nearest;
+    }
+
+    List<Node> within(final double west, final double south,
+                      final double east, final double north) {
+      List<Node> found = new ArrayList<>();
+      for (long cx = (long) Math.floor(west / cell);
+           cx <= (long) Math.floor(east / cell); cx++) {
+        for (long cy = (long) Math.floor(south / cell);
+             cy <= (long) Math.floor(north / cell); cy++) {
+          List<Node> nodesOfCell = this.cells.get(this.key(cx, cy));
+          if (nodesOfCell == null) {
+            continue;
+          }
+          for (Node node : nodesOfCell) {
+            if (node.x >= west && node.x <= east && node.y >= south
+                && node.y <= north) {
+              found.add(node);
+            }
+          }
+        }
+      }
+      return found;
+    }
+  }
+}
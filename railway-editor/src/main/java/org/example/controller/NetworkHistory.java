@@ -0,0 +1,304 @@
+/*
+ * License : MIT License
+ *
+ * Copyright (c) 2023 Team PFE_2023_16
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.example.controller;
+
+import org.example.data.Data;
+import org.example.model.Area;
+import org.example.model.Line;
+import org.example.model.NetworkSnapshot;
+import org.example.model.Station;
+import org.example.view.AreaView;
+import org.example.view.LineView;
+import org.example.view.MainPanel;
+import org.example.view.MainWindow;
+import org.example.view.StationView;
+import org.openstreetmap.gui.jmapviewer.interfaces.ICoordinate;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * History of the network edited in the main panel, kept as
+ * {@link NetworkSnapshot}s.
+ *
+ * <p>A snapshot is committed after each edit; the snapshots of the previous
+ * and undone edits give the undo and redo. A snapshot taken by
+ * {@link #snapshot()}, without recording an edit, is also the consistent
+ * copy of the network that the export and the simulator launch read on
+ * their own threads. The history only covers the lines and areas:
+ * the events are managed in the event recap and are kept as they are on
+ * undo.</p>
+ *
+ * <p>Must be used on the EDT, like the models it captures.</p>
+ *
+ * @author Team PFE_2023_16
+ * @file NetworkHistory.java
+ * @date 2026-10-17
+ * @since 3.0
+ */
+public final class NetworkHistory {
+  /**
+   * Number of edits that can be undone.
+   */
+  public static final int MAX_HISTORY = 100;
+  /**
+   * Singleton instance of the class.
+   */
+  private static NetworkHistory instance;
+
+  /** Snapshots of the previous edits, the latest first. */
+  private final Deque<NetworkSnapshot> undoStack = new ArrayDeque<>();
+  /** Snapshots of the undone edits, the latest undone first. */
+  private final Deque<NetworkSnapshot> redoStack = new ArrayDeque<>();
+  /** Snapshot of the network as it is now. */
+  private NetworkSnapshot current = NetworkSnapshot.EMPTY;
+
+  /**
+   * Constructor of the class.
+   */
+  private NetworkHistory() {
+    // Nothing to do.
+  }
+
+  /**
+   * Return Singleton.
+   *
+   * @return NetworkHistory instance
+   */
+  public static NetworkHistory getInstance() {
+    if (instance == null) {
+      instance = new NetworkHistory();
+    }
+    return instance;
+  }
+
+  /**
+   * Capture the network after an edit. If its lines or areas changed, the
+   * previous snapshot can then be restored by {@link #undo()}, the undone
+   * edits are forgotten and the events are updated to the new network.
+   *
+   * @return NetworkSnapshot the snapshot of the network as it is now
+   */
+  public NetworkSnapshot commit() {
+    NetworkSnapshot snapshot = this.capture();
+    if (!snapshot.sameNetwork(this.current)) {
+      this.undoStack.push(this.current);
+      if (this.undoStack.size() > MAX_HISTORY) {
+        this.undoStack.removeLast();
+      }
+      this.redoStack.clear();
+      this.current = snapshot;
+      ActionMetroEvent.getInstance().networkChanged();
+      return snapshot;
+    }
+    this.current = snapshot;
+    return snapshot;
+  }
+
+  /**
+   * Capture the network as it is now without recording it in the history,
+   * for the exports: an edit not committed yet is still committed, and
+   * undone, as one step.
+   *
+   * @return NetworkSnapshot the snapshot of the network as it is now
+   */
+  public NetworkSnapshot snapshot() {
+    return this.capture();
+  }
+
+  /**
+   * Forget the history, the network as it is now becoming the first
+   * snapshot. Called when another map is loaded.
+   */
+  public void reset() {
+    this.undoStack.clear();
+    this.redoStack.clear();
+    this.current = this.capture();
+  }
+
+  /**
+   * Check if an edit can be undone.
+   *
+   * @return true if there is an edit to undo
+   */
+  public boolean canUndo() {
+    return !this.undoStack.isEmpty();
+  }
+
+  /**
+   * Check if an undone edit can be redone.
+   *
+   * @return true if there is an edit to redo
+   */
+  public boolean canRedo() {
+    return !this.redoStack.isEmpty();
+  }
+
+  /**
+   * Restore the lines and areas of the main panel as they were before the
+   * last edit.
+   *
+   * @return true if an edit was undone
+   */
+  public boolean undo() {
+    this.commit();
+    if (this.undoStack.isEmpty()) {
+      return false;
+    }
+    this.redoStack.push(this.current);
+    this.current = this.undoStack.pop();
+    this.restore(this.current);
+    return true;
+  }
+
+  /**
+   * Restore the lines and areas of the main panel as they were before the
+   * last undo.
+   *
+   * @return true if an edit was redone
+   */
+  public boolean redo() {
+    this.commit();
+    if (this.redoStack.isEmpty()) {
+      return false;
+    }
+    this.undoStack.push(this.current);
+    this.current = this.redoStack.pop();
+    this.restore(this.current);
+    return true;
+  }
+
+  /**
+   * Undo the last edit and refresh the editor window.
+   */
+  public void undoEdit() {
+    if (this.undo()) {
+      this.refreshWindow();
+    }
+  }
+
+  /**
+   * Redo the last undone edit and refresh the editor window.
+   */
+  public void redoEdit() {
+    if (this.redo()) {
+      this.refreshWindow();
+    }
+  }
+
+  /**
+   * Create the line views of a snapshot, on new models, each station having
+   * its area as kept by the snapshot.
+   *
+   * @param snapshot  the snapshot
+   * @param areaViews the area views created by
+   *                  {@link #areaViews(NetworkSnapshot)}
+   * @return List the new line views
+   */
+  static List<LineView> lineViews(final NetworkSnapshot snapshot,
+                                  final List<AreaView> areaViews) {
+    List<Area> areas = new ArrayList<>(areaViews.size());
+    for (AreaView areaView : areaViews) {
+      areas.add(areaView.getArea());
+    }
+    List<LineView> lineViews = new ArrayList<>(snapshot.getLineCount());
+    for (Line line : snapshot.toLines(areas)) {
+      List<StationView> stationViews = new ArrayList<>(
+          line.getStations().size());
+      for (Station station : line.getStations()) {
+        stationViews.add(new StationView(station));
+      }
+      lineViews.add(new LineView(line, stationViews));
+    }
+    return lineViews;
+  }
+
+  /**
+   * Create the area views of a snapshot, on new models.
+   *
+   * @param snapshot the snapshot
+   * @return List the new area views
+   */
+  static List<AreaView> areaViews(final NetworkSnapshot snapshot) {
+    List<AreaView> areaViews = new ArrayList<>(snapshot.getAreaCount());
+    for (Area area : snapshot.toAreas()) {
+      areaViews.add(new AreaView(area));
+    }
+    return areaViews;
+  }
+
+  /**
+   * Capture the network of the main panel, sharing what did not change with
+   * the current snapshot.
+   */
+  private NetworkSnapshot capture() {
+    MainPanel mainPanel = MainPanel.getInstance();
+    List<Line> lines = new ArrayList<>(mainPanel.getLineViews().size());
+    for (LineView lineView : mainPanel.getLineViews()) {
+      lines.add(lineView.getLine());
+    }
+    List<Area> areas = new ArrayList<>(mainPanel.getAreaViews().size());
+    for (AreaView areaView : mainPanel.getAreaViews()) {
+      areas.add(areaView.getArea());
+    }
+    ICoordinate center = mainPanel.getPosition();
+    return NetworkSnapshot.capture(this.current, lines, areas,
+        Data.getInstance().getEventList(), center.getLat(), center.getLon(),
+        mainPanel.getZoom());
+  }
+
+  /**
+   * Replace the lines and areas of the main panel with the ones of a
+   * snapshot, the current events being updated to the restored network.
+   */
+  private void restore(final NetworkSnapshot snapshot) {
+    MainPanel mainPanel = MainPanel.getInstance();
+    List<AreaView> areaViews = areaViews(snapshot);
+    mainPanel.setLineViews(lineViews(snapshot, areaViews));
+    mainPanel.setAreaViews(areaViews);
+    ActionMetroEvent.getInstance().networkChanged();
+    List<Area> areas = Data.getInstance().getAreaList();
+    areas.clear();
+    for (AreaView areaView : areaViews) {
+      areas.add(areaView.getArea());
+    }
+    ActionLine actionLine = ActionLine.getInstance();
+    if (actionLine.getLineToUpdateIndex() >= snapshot.getLineCount()) {
+      actionLine.setLineToUpdateIndex(Math.max(0,
+          snapshot.getLineCount() - 1));
+    }
+  }
+
+  /**
+   * Show the restored network in the editor window.
+   */
+  private void refreshWindow() {
+    MainWindow.getInstance().getToolBarPanel().getLineId().setText(
+        Integer.toString(ActionLine.getInstance().getLineToUpdateIndex()));
+    MainWindow.getInstance().getMainPanel().repaint();
+  }
+}
@@ -0,0 +1,452 @@
+/*
+ * License : MIT License
+ *
+ * Copyright (c) 2023 Team PFE_2023_16
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.example.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Runs the simulator once per combination of a grid of configuration
+ * parameters, several runs at a time.
+ *
+ * <p>Each run gets its own folder with the layout the simulator expects: a
+ * {@code src/configs} folder holding the map, the {@code config.json} with
+ * the parameters of the run and the name lists. Runs are spread over a
+ * bounded pool, sized to the number of cores by default, and each one
+ * writes its output to {@code output.log} in its folder. A
+ * {@code summary.csv} listing every run is written in the batch folder.
+ *
+ * @author Team PFE_2023_16
+ * @file SimulationBatch.java
+ * @date 2026-10-17
+ * @see ActionRunSimulation#runBatch(org.example.model.NetworkSnapshot, Map)
+ * @since 3.0
+ */
+public final class SimulationBatch {
+  /**
+   * Name of the configuration file of the simulator.
+   */
+  public static final String CONFIG_FILE = "config.json";
+  /**
+   * Name of the output file of a run.
+   */
+  public static final String OUTPUT_FILE = "output.log";
+  /**
+   * Name of the summary file of the batch.
+   */
+  public static final String SUMMARY_FILE = "summary.csv";
+  /**
+   * Files copied from the configs folder into each run.
+   */
+  private static final String[] SHARED_FILES = {
+      "nameStationList.json", "nameLineList.json"
+  };
+  /**
+   * Answer to the day type question of the simulator: working day.
+   */
+  private static final String DEFAULT_DAY_TYPE = "1";
+  /**
+   * Logger of the class.
+   */
+  private static final Logger LOGGER =
+      Logger.getLogger(SimulationBatch.class.getName());
+
+  /**
+   * Command of the simulator, run from the folder of each run.
+   */
+  private final List<String> command;
+  /**
+   * Configs folder of the go project, source of the base configuration.
+   */
+  private final File configsFolder;
+  /**
+   * Maximum number of simulators running at the same time.
+   */
+  private int poolSize = Runtime.getRuntime().availableProcessors();
+  /**
+   * Answer sent to the day type question of the simulator.
+   */
+  private String dayType = DEFAULT_DAY_TYPE;
+  /**
+   * Time after which a run is killed, 0 for no timeout.
+   */
+  private long timeoutMillis;
+  /**
+   * Launchers of the runs started, to cancel them.
+   */
+  private final List<SimulatorLauncher> launchers =
+      Collections.synchronizedList(new ArrayList<>());
+  /**
+   * Whether the batch was cancelled.
+   */
+  private volatile boolean cancelled;
+
+  /**
+   * Create a batch.
+   *
+   * @param simulatorCommand the command of the simulator, run from the folder
+   *                         of each run
+   * @param configs          the configs folder of the go project
+   */
+  public SimulationBatch(final List<String> simulatorCommand,
+                         final File configs) {
+    this.command = new ArrayList<>(simulatorCommand);
+    this.configsFolder = configs;
+  }
+
+  /**
+   * Set the maximum number of simulators running at the same time.
+   *
+   * @param size the pool size, at least 1
+   */
+  public void setPoolSize(final int size) {
+    if (size < 1) {
+      throw new IllegalArgumentException("Pool size must be at least 1");
+    }
+    this.poolSize = size;
+  }
+
+  /**
+   * Set the answer sent to the day type question of the simulator.
+   *
+   * @param type the day type number
+   */
+  public void setDayType(final String type) {
+    this.dayType = type;
+  }
+
+  /**
+   * Set the time after which a run is killed.
+   *
+   * @param timeout the timeout in milliseconds, 0 for no timeout
+   */
+  public void setTimeoutMillis(final long timeout) {
+    this.timeoutMillis = timeout;
+  }
+
+  /**
+   * Every combination of the values of a parameter grid, the first parameter
+   * varying the slowest.
+   *
+   * @param grid the values of each parameter
+   * @return the combinations, in order
+   */
+  public static List<Map<String, Object>> combinations(
+      final Map<String, ? extends List<?>> grid) {
+    List<Map<String, Object>> combinations = new ArrayList<>();
+    combinations.add(new LinkedHashMap<>());
+    for (Map.Entry<String, ? extends List<?>> parameter : grid.entrySet()) {
+      List<Map<String, Object>> next = new ArrayList<>();
+      for (Map<String, Object> combination : combinations) {
+        for (Object value : parameter.getValue()) {
+          Map<String, Object> extended = new LinkedHashMap<>(combination);
+          extended.put(parameter.getKey(), value);
+          next.add(extended);
+        }
+      }
+      combinations = next;
+    }
+    return combinations;
+  }
+
+  /**
+   * Run the simulator for every combination of the grid and wait for the
+   * end of all the runs.
+   *
+   * @param mapFile     the exported map, copied into each run
+   * @param grid        the values of each configuration parameter
+   * @param batchFolder the folder in which the run folders are created
+   * @return the result of each run, in the order of the combinations
+   * @throws IOException          if the run folders cannot be written
+   * @throws InterruptedException if interrupted while waiting for the runs
+   */
+  public List<RunResult> run(final File mapFile,
+                             final Map<String, ? extends List<?>> grid,
+                             final File batchFolder)
+      throws IOException, InterruptedException {
+    ObjectMapper mapper = new ObjectMapper();
+    @SuppressWarnings("unchecked")
+    Map<String, Object> baseConfig = mapper.readValue(
+        new File(this.configsFolder, CONFIG_FILE), LinkedHashMap.class);
+    List<Map<String, Object>> combinations = combinations(grid);
+
+    // Prepare every folder before starting, a failure starts nothing.
+    List<File> runFolders = new ArrayList<>();
+    for (int i = 0; i < combinations.size(); i++) {
+      File runFolder = new File(batchFolder,
+          String.format(Locale.ROOT, "run-%03d", i + 1));
+      this.prepare(runFolder, mapFile, baseConfig, combinations.get(i),
+          mapper);
+      runFolders.add(runFolder);
+    }
+
+    ExecutorService pool = Executors.newFixedThreadPool(
+        Math.max(1, Math.min(this.poolSize, combinations.size())));
+    List<RunResult> results = new ArrayList<>();
+    try {
+      List<Future<RunResult>> futures = new ArrayList<>();
+      for (int i = 0; i < combinations.size(); i++) {
+        Map<String, Object> parameters = combinations.get(i);
+        File runFolder = runFolders.get(i);
+        futures.add(pool.submit(() -> this.runOne(parameters, runFolder)));
+      }
+      for (Future<RunResult> future : futures) {
+        try {
+          results.add(future.get());
+        } catch (ExecutionException e) {
+          throw new IOException("Simulation run failed", e.getCause());
+        }
+      }
+    } finally {
+      pool.shutdownNow();
+      if (Thread.currentThread().isInterrupted() || this.cancelled) {
+        this.cancel();
+      }
+    }
+    this.writeSummary(new File(batchFolder, SUMMARY_FILE), results);
+    return results;
+  }
+
+  /**
+   * Stop the running simulators and skip the runs not started yet.
+   */
+  public void cancel() {
+    this.cancelled = true;
+    synchronized (this.launchers) {
+      for (SimulatorLauncher launcher : this.launchers) {
+        launcher.cancel();
+      }
+    }
+  }
+
+  /**
+   * Write the folder of a run.
+   *
+   * @param runFolder  the folder of the run
+   * @param mapFile    the exported map
+   * @param baseConfig the configuration of the go project
+   * @param parameters the parameters of the run
+   * @param mapper     the json writer
+   * @throws IOException if the folder cannot be written
+   */
+  private void prepare(final File runFolder, final File mapFile,
+                       final Map<String, Object> baseConfig,
+                       final Map<String, Object> parameters,
+                       final ObjectMapper mapper) throws IOException {
+    File configs = new File(new File(runFolder, "src"), "configs");
+    if (!configs.isDirectory() && !configs.mkdirs()) {
+      throw new IOException("Unable to create " + configs);
+    }
+    Files.copy(mapFile.toPath(),
+        new File(configs, ActionRunSimulation.CONFIG_NAME).toPath(),
+        StandardCopyOption.REPLACE_EXISTING);
+    for (String shared : SHARED_FILES) {
+      File source = new File(this.configsFolder, shared);
+      if (source.isFile()) {
+        Files.copy(source.toPath(), new File(configs, shared).toPath(),
+            StandardCopyOption.REPLACE_EXISTING);
+      }
+    }
+    Map<String, Object> config = new LinkedHashMap<>(baseConfig);
+    config.putAll(parameters);
+    mapper.writer(SerializationFeature.INDENT_OUTPUT)
+        .writeValue(new File(configs, CONFIG_FILE), config);
+  }
+
+  /**
+   * Run the simulator in the folder of a run and wait for its end.
+   *
+   * @param parameters the parameters of the run
+   * @param runFolder  the folder of the run
+   * @return the result of the run
+   * @throws IOException          if the simulator cannot be started
+   * @throws InterruptedException if interrupted while waiting
+   */
+  private RunResult runOne(final Map<String, Object> parameters,
+                           final File runFolder)
+      throws IOException, InterruptedException {
+    if (this.cancelled) {
+      return new RunResult(parameters, runFolder,
+          SimulatorLauncher.KILLED_EXIT_VALUE);
+    }
+    CountDownLatch done = new CountDownLatch(1);
+    int[] exitValue = new int[1];
+    try (Writer output = Files.newBufferedWriter(
+        new File(runFolder, OUTPUT_FILE).toPath(), StandardCharsets.UTF_8)) {
+      SimulatorLauncher launcher = new SimulatorLauncher(this.command,
+          runFolder);
+      launcher.start(new SimulatorLauncher.Listener() {
+        @Override
+        public void outputLine(final String line, final boolean error) {
+          synchronized (output) {
+            try {
+              output.write(line);
+              output.write(System.lineSeparator());
+            } catch (IOException e) {
+              LOGGER.log(Level.WARNING, "Error writing run output", e);
+            }
+          }
+        }
+
+        @Override
+        public void finished(final int value) {
+          exitValue[0] = value;
+          done.countDown();
+        }
+      }, this.timeoutMillis);
+      this.launchers.add(launcher);
+      if (this.cancelled) {
+        launcher.cancel();
+      }
+      try {
+        launcher.sendInput(this.dayType);
+      } catch (IOException e) {
+        // The simulator stopped before reading its input.
+        LOGGER.log(Level.FINE, "Simulator input not sent", e);
+      }
+      try {
+        done.await();
+      } finally {
+        launcher.cancel();
+        this.launchers.remove(launcher);
+      }
+    }
+    return new RunResult(parameters, runFolder, exitValue[0]);
+  }
+
+  /**
+   * Write the summary of the batch, one line per run.
+   *
+   * @param summary the summary file
+   * @param results the results of the runs
+   * @throws IOException if the file cannot be written
+   */
+  private void writeSummary(final File summary, final List<RunResult> results)
+      throws IOException {
+    try (BufferedWriter writer = Files.newBufferedWriter(summary.toPath(),
+        StandardCharsets.UTF_8)) {
+      writer.write("run,exit value,parameters");
+      writer.newLine();
+      for (RunResult result : results) {
+        writer.write(result.getFolder().getName() + ","
+            + result.getExitValue() + ",\""
+            + result.getParameters().toString().replace("\"", "\"\"")
+            + "\"");
+        writer.newLine();
+      }
+    }
+  }
+
+  /**
+   * Result of one run of a batch.
+   */
+  public static final class RunResult {
+    /**
+     * Parameters of the run.
+     */
+    private final Map<String, Object> parameters;
+    /**
+     * Folder of the run.
+     */
+    private final File folder;
+    /**
+     * Exit value of the simulator.
+     */
+    private final int exitValue;
+
+    /**
+     * Result constructor.
+     *
+     * @param runParameters parameters of the run
+     * @param runFolder     folder of the run
+     * @param runExitValue  exit value of the simulator
+     */
+    RunResult(final Map<String, Object> runParameters, final File runFolder,
+              final int runExitValue) {
+      this.parameters = Collections.unmodifiableMap(runParameters);
+      this.folder = runFolder;
+      this.exitValue = runExitValue;
+    }
+
+    /**
+     * get the parameters of the run.
+     *
+     * @return parameters, by configuration key
+     */
+    public Map<String, Object> getParameters() {
+      return this.parameters;
+    }
+
+    /**
+     * get the folder of the run, holding its configuration and output.
+     *
+     * @return folder
+     */
+    public File getFolder() {
+      return this.folder;
+    }
+
+    /**
+     * get the exit value of the simulator.
+     *
+     * @return exit value, {@link SimulatorLauncher#KILLED_EXIT_VALUE} if it
+     *     was cancelled or timed out
+     */
+    public int getExitValue() {
+      return this.exitValue;
+    }
+
+    /**
+     * Whether the simulator ended normally.
+     *
+     * @return true if the exit value is 0
+     */
+    public boolean isSuccess() {
+      return this.exitValue == 0;
+    }
+  }
+}
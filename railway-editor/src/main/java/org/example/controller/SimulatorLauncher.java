@@ -0,0 +1,395 @@
+/*
+ * License : MIT License
+ *
+ * Copyright (c) 2023 Team PFE_2023_16
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.example.controller;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Runs the go simulator as a child process without blocking the caller.
+ *
+ * <p>The standard and error outputs of the simulator are read by two daemon
+ * threads and handed line by line to a {@link Listener}, a third one waits
+ * for the end of the process, kills it if it runs past its timeout and
+ * reports its exit value. Once the process is killed, its outputs are read
+ * for a short delay only, since a child process it started can keep them
+ * open.
+ *
+ * @author Team PFE_2023_16
+ * @file SimulatorLauncher.java
+ * @date 2026-10-17
+ * @see ActionRunSimulation
+ * @since 3.0
+ */
+public final class SimulatorLauncher {
+  /**
+   * Name of the simulator binary, without extension.
+   */
+  public static final String BINARY_NAME = "metro_simulator";
+  /**
+   * Exit value reported when the process was cancelled or timed out.
+   */
+  public static final int KILLED_EXIT_VALUE = -1;
+  /**
+   * Time left to the simulator to stop before being killed, in milliseconds.
+   */
+  private static final long STOP_GRACE_MILLIS = 2000;
+  /**
+   * Time left to the output threads to read the end of the outputs of a
+   * killed simulator, in milliseconds.
+   */
+  private static final long PUMP_JOIN_MILLIS = 1000;
+  /**
+   * Logger of the class.
+   */
+  private static final Logger LOGGER =
+      Logger.getLogger(SimulatorLauncher.class.getName());
+
+  /**
+   * Receives the output and the end of a simulator run. Called from the
+   * threads of the launcher, not from the EDT.
+   */
+  public interface Listener {
+    /**
+     * A line written by the simulator.
+     *
+     * @param line  the line, without its line break
+     * @param error true if written on the error output
+     */
+    void outputLine(String line, boolean error);
+
+    /**
+     * The simulator stopped.
+     *
+     * @param exitValue the exit value, {@link #KILLED_EXIT_VALUE} if it was
+     *                  cancelled or timed out
+     */
+    void finished(int exitValue);
+  }
+
+  /**
+   * Command of the simulator.
+   */
+  private final List<String> command;
+  /**
+   * Working directory of the simulator.
+   */
+  private final File directory;
+  /**
+   * Running process, null before {@link #start(Listener, long)}.
+   */
+  private volatile Process process;
+  /**
+   * Whether the process was stopped by {@link #cancel()} or its timeout.
+   */
+  private volatile boolean killed;
+
+  /**
+   * Create a launcher.
+   *
+   * @param simulatorCommand the command and its arguments
+   * @param workingDirectory the working directory of the simulator
+   */
+  public SimulatorLauncher(final List<String> simulatorCommand,
+                           final File workingDirectory) {
+    this.command = Collections.unmodifiableList(
+        new ArrayList<>(simulatorCommand));
+    this.directory = workingDirectory;
+  }
+
+  /**
+   * Command running the native simulator of a go project, built first with
+   * {@code go build} if the project folder has no binary. The simulator is
+   * not run through {@code go run}, whose compiled simulator would survive
+   * a kill of the {@code go} process. Blocks while building.
+   *
+   * @param goProject  the go project folder
+   * @param configName the name of the map file, in the configs folder
+   * @return the command and its arguments
+   * @throws IOException if the simulator cannot be built
+   */
+  public static List<String> defaultCommand(final File goProject,
+                                            final String configName)
+      throws IOException {
+    File binary = binary(goProject);
+    if (binary == null) {
+      binary = build(goProject);
+    }
+    return new ArrayList<>(Arrays.asList(binary.getAbsolutePath(),
+        "-configname", configName));
+  }
+
+  /**
+   * Native simulator binary built in a go project folder.
+   *
+   * @param goProject the go project folder
+   * @return the binary, null if it has not been built
+   */
+  public static File binary(final File goProject) {
+    File binary = binaryFile(goProject);
+    return binary.isFile() ? binary : null;
+  }
+
+  /**
+   * Build the native simulator of a go project in its folder, waiting for
+   * the end of the build.
+   *
+   * @param goProject the go project folder
+   * @return the binary built
+   * @throws IOException if go cannot be run or the build fails
+   */
+  public static File build(final File goProject) throws IOException {
+    File binary = binaryFile(goProject);
+    ProcessBuilder builder = new ProcessBuilder("go", "build", "-o",
+        binary.getName(), "." + File.separator + "src" + File.separator
+        + "main");
+    builder.directory(goProject);
+    builder.redirectErrorStream(true);
+    Process building = builder.start();
+    StringBuilder output = new StringBuilder();
+    try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+        building.getInputStream(), StandardCharsets.UTF_8))) {
+      String line;
+      while ((line = reader.readLine()) != null) {
+        output.append(System.lineSeparator()).append(line);
+      }
+    }
+    try {
+      if (building.waitFor() != 0 || !binary.isFile()) {
+        throw new IOException("Unable to build the simulator:" + output);
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      building.destroyForcibly();
+      throw new InterruptedIOException("Simulator build interrupted");
+    }
+    return binary;
+  }
+
+  /**
+   * File of the native simulator binary in a go project folder.
+   *
+   * @param goProject the go project folder
+   * @return the binary file, which may not exist
+   */
+  private static File binaryFile(final File goProject) {
+    boolean windows = System.getProperty("os.name").toLowerCase()
+        .startsWith("windows");
+    return new File(goProject, windows ? BINARY_NAME + ".exe"
+        : BINARY_NAME);
+  }
+
+  /**
+   * Start the simulator.
+   *
+   * @param listener      receives the output and the end of the run
+   * @param timeoutMillis time after which the simulator is killed, 0 for no
+   *                      timeout
+   * @throws IOException           if the process cannot be started
+   * @throws IllegalStateException if the launcher was already started
+   */
+  public synchronized void start(final Listener listener,
+                                 final long timeoutMillis)
+      throws IOException {
+    if (this.process != null) {
+      throw new IllegalStateException("Simulator already started");
+    }
+    ProcessBuilder builder = new ProcessBuilder(this.command);
+    builder.directory(this.directory);
+    Process started = builder.start();
+    this.process = started;
+
+    Thread out = this.pump(started.getInputStream(), listener, false);
+    Thread err = this.pump(started.getErrorStream(), listener, true);
+    Thread waiter = new Thread(() -> {
+      int exitValue = this.await(started, timeoutMillis);
+      if (this.killed) {
+        // A child of the simulator may survive it and keep the outputs
+        // open: stop waiting for them after a delay.
+        join(out, PUMP_JOIN_MILLIS);
+        join(err, PUMP_JOIN_MILLIS);
+        closeQuietly(started.getInputStream());
+        closeQuietly(started.getErrorStream());
+      } else {
+        join(out, 0);
+        join(err, 0);
+      }
+      listener.finished(this.killed ? KILLED_EXIT_VALUE : exitValue);
+    }, "simulator-waiter");
+    waiter.setDaemon(true);
+    waiter.start();
+  }
+
+  /**
+   * Send a line to the standard input of the simulator, which asks for
+   * example for the type of day to simulate.
+   *
+   * @param line the line, without its line break
+   * @throws IOException           if the simulator does not read its input
+   *                               anymore
+   * @throws IllegalStateException if the launcher was not started
+   */
+  public void sendInput(final String line) throws IOException {
+    Process running = this.process;
+    if (running == null) {
+      throw new IllegalStateException("Simulator not started");
+    }
+    OutputStream in = running.getOutputStream();
+    in.write((line + System.lineSeparator()).getBytes(
+        StandardCharsets.UTF_8));
+    in.flush();
+  }
+
+  /**
+   * Whether the simulator is running.
+   *
+   * @return true if the process is alive
+   */
+  public boolean isRunning() {
+    Process running = this.process;
+    return running != null && running.isAlive();
+  }
+
+  /**
+   * Stop the simulator, killing it if it does not stop in time.
+   */
+  public void cancel() {
+    Process running = this.process;
+    if (running != null && running.isAlive()) {
+      this.killed = true;
+      stop(running);
+    }
+  }
+
+  /**
+   * Wait for the end of the process, killing it at the timeout.
+   *
+   * @param running       the process
+   * @param timeoutMillis the timeout, 0 for none
+   * @return the exit value
+   */
+  private int await(final Process running, final long timeoutMillis) {
+    try {
+      if (timeoutMillis > 0
+          && !running.waitFor(timeoutMillis, TimeUnit.MILLISECONDS)) {
+        LOGGER.warning(() -> "Simulator timed out after " + timeoutMillis
+            + " ms");
+        this.killed = true;
+        stop(running);
+      }
+      return running.waitFor();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      this.killed = true;
+      running.destroyForcibly();
+      return KILLED_EXIT_VALUE;
+    }
+  }
+
+  /**
+   * Ask the process to stop, then kill it after a grace delay.
+   *
+   * @param running the process
+   */
+  private static void stop(final Process running) {
+    running.destroy();
+    try {
+      if (!running.waitFor(STOP_GRACE_MILLIS, TimeUnit.MILLISECONDS)) {
+        running.destroyForcibly();
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      running.destroyForcibly();
+    }
+  }
+
+  /**
+   * Wait for an output thread.
+   *
+   * @param pump   the output thread
+   * @param millis the longest time to wait, 0 to wait for its end
+   */
+  private static void join(final Thread pump, final long millis) {
+    try {
+      pump.join(millis);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /**
+   * Close an output of the process, ignoring the errors.
+   *
+   * @param stream the output of the process
+   */
+  private static void closeQuietly(final InputStream stream) {
+    try {
+      stream.close();
+    } catch (IOException e) {
+      LOGGER.log(Level.FINE, "Error closing simulator output", e);
+    }
+  }
+
+  /**
+   * Start a thread reading an output of the process line by line.
+   *
+   * @param stream   the output of the process
+   * @param listener receives the lines
+   * @param error    true for the error output
+   * @return the started thread
+   */
+  private Thread pump(final InputStream stream, final Listener listener,
+                      final boolean error) {
+    Thread thread = new Thread(() -> {
+      try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+          stream, StandardCharsets.UTF_8))) {
+        String line;
+        while ((line = reader.readLine()) != null) {
+          listener.outputLine(line, error);
+        }
+      } catch (IOException e) {
+        if (!this.killed) {
+          LOGGER.log(Level.WARNING, "Error reading simulator output", e);
+        }
+      }
+    }, error ? "simulator-stderr" : "simulator-stdout");
+    thread.setDaemon(true);
+    thread.start();
+    return thread;
+  }
+}
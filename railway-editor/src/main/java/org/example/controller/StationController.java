@@ -25,7 +25,10 @@
 package org.example.controller;
 
 import org.example.model.Station;
+import org.example.view.LineView;
 import org.example.view.MainWindow;
+import org.example.view.SpatialIndex;
+import org.example.view.StationIndex;
 import org.example.view.StationView;
 
 /**
@@ -50,9 +53,15 @@ public class StationController {
   public StationController(final Station station, final StationView stationView,
                            final int lineIndex) {
     super();
-    MainWindow.getInstance().getMainPanel().getLineViews().get(lineIndex)
-        .getStationViews().add(stationView);
-    MainWindow.getInstance().getMainPanel().getLineViews().get(lineIndex)
-        .getLine().addStation(station);
+    SpatialIndex spatialIndex = MainWindow.getInstance().getMainPanel()
+        .getSpatialIndex();
+    StationIndex stationIndex = MainWindow.getInstance().getMainPanel()
+        .getStationIndex();
+    LineView lineView = MainWindow.getInstance().getMainPanel().getLineViews()
+        .get(lineIndex);
+    lineView.getStationViews().add(stationView);
+    lineView.getLine().addStation(station);
+    spatialIndex.addStation(stationView, lineView);
+    stationIndex.addStation(stationView, lineView);
   }
 }
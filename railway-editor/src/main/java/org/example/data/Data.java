@@ -26,13 +26,16 @@ package org.example.data;
 
 import org.example.model.Area;
 import org.example.model.Event;
+import org.example.model.EventTimeline;
 
 import java.awt.Color;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Random;
+import java.util.Set;
 import java.util.function.Consumer;
 
 /**
@@ -155,6 +158,8 @@ public final class Data {
   private int areaId;
   /** List of all available stations names. */
   private List<String> availableStationNames;
+  /** Number of times the available stations names have been refilled. */
+  private int stationNamesRound;
   /** String for tourist label. */
   public static final String AREA_TOURIST = "Tourist";
   /** String for student label. */
@@ -211,6 +216,8 @@ public final class Data {
   //event attributes
   /** List of all event created. */
   private List<Event> eventList;
+  /** Timeline of the dated events of the list, to check them. */
+  private final EventTimeline eventTimeline = new EventTimeline();
   /**
    * String for event starting station.
    */
@@ -338,6 +345,39 @@ public final class Data {
     return STATIONS_NAMES;
   }
 
+  /**
+   * get the station name of an index, unique for any index: once all the
+   * names have been given, they are given again followed by their round
+   * number ("Bleuet 2", then "Bleuet 3"...).
+   *
+   * @param index index of the name, from 0
+   * @return String stationName
+   */
+  public static String getStationName(final int index) {
+    String name = STATIONS_NAMES[index % STATIONS_NAMES.length];
+    int round = index / STATIONS_NAMES.length;
+    return round == 0 ? name : name + " " + (round + 1);
+  }
+
+  /**
+   * take a random name from the available stations names, which are
+   * refilled with the names of the next round once all have been taken.
+   *
+   * @param random random generator choosing the name
+   * @return String stationName
+   */
+  public String takeStationName(final Random random) {
+    if (this.availableStationNames.isEmpty()) {
+      this.stationNamesRound++;
+      for (int i = 0; i < STATIONS_NAMES.length; i++) {
+        this.availableStationNames.add(getStationName(
+            this.stationNamesRound * STATIONS_NAMES.length + i));
+      }
+    }
+    return this.availableStationNames.remove(
+        random.nextInt(this.availableStationNames.size()));
+  }
+
   /**
    * generate a new area Id.
    *
@@ -434,12 +474,60 @@ public final class Data {
   }
 
   /**
-   * set the list of all event created.
+   * set the list of all event created, the events of the previous list
+   * being removed from the timeline.
    *
    * @param eventListToSet list of events
    */
   public void setEventList(final List<Event> eventListToSet) {
     this.eventList = eventListToSet;
+    this.eventTimeline.clear();
+  }
+
+  /**
+   * get the timeline of the events, where the events are added with the
+   * stations and lines they concern.
+   *
+   * @return EventTimeline eventTimeline
+   */
+  public EventTimeline getEventTimeline() {
+    return eventTimeline;
+  }
+
+  /**
+   * remove events from the list and from the timeline, in a single pass
+   * over the list.
+   *
+   * @param ids ids of the events
+   * @return List of the remaining events which conflicted with the removed
+   *     events
+   */
+  public List<Event> removeEvents(final Set<Integer> ids) {
+    List<Event> removed = new ArrayList<>();
+    this.eventList.removeIf(event -> {
+      if (ids.contains(event.getId())) {
+        removed.add(event);
+        return true;
+      }
+      return false;
+    });
+    Set<Event> conflicts = new LinkedHashSet<>();
+    for (Event event : removed) {
+      conflicts.addAll(this.eventTimeline.getConflicts(event));
+    }
+    for (Event event : removed) {
+      this.eventTimeline.remove(event);
+      conflicts.remove(event);
+    }
+    return new ArrayList<>(conflicts);
+  }
+
+  /**
+   * remove all the events from the list and from the timeline.
+   */
+  public void clearEvents() {
+    this.eventList.clear();
+    this.eventTimeline.clear();
   }
 
   /**
@@ -0,0 +1,357 @@
+/*
+ * License : MIT License
+ *
+ * Copyright (c) 2023 Team PFE_2023_16
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.example.main;
+
+import org.example.controller.ActionConfiguration;
+import org.example.controller.ActionRunSimulation;
+import org.example.controller.NetworkCore;
+import org.example.controller.SimulationBatch;
+import org.example.controller.SimulatorLauncher;
+import org.example.model.Event;
+import org.example.model.EventTimeline;
+
+import javax.xml.stream.XMLStreamException;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Command line entry point preparing scenarios without the editor window:
+ * imports a map, adds events from files, overrides configuration
+ * parameters, exports the map and optionally runs the simulator on it.
+ *
+ * <p>Neither FlatLaf nor any Swing component is initialized, the network
+ * is edited through {@link NetworkCore}.</p>
+ *
+ * @author Team PFE_2023_16
+ * @file RailwayBatch.java
+ * @date 2026-10-17
+ * @since 3.0
+ */
+public final class RailwayBatch {
+  /** Exit value of a successful run. */
+  static final int EXIT_OK = 0;
+  /** Exit value when the scenario cannot be prepared. */
+  static final int EXIT_FAILURE = 1;
+  /** Exit value of invalid arguments. */
+  static final int EXIT_USAGE = 2;
+  /** Answer to the day type question of the simulator: working day. */
+  private static final String DEFAULT_DAY_TYPE = "1";
+  /** Milliseconds in a second. */
+  private static final long MILLIS_IN_SECOND = 1000;
+  /** Usage of the command. */
+  private static final String USAGE = String.join(System.lineSeparator(),
+      "Usage: RailwayBatch --map <map.xml> [options]",
+      "  --events <file>        add the events of a file, one per line:",
+      "                         <name> <event string> (repeatable),",
+      "                         or a .csv or .json events file",
+      "  --set <key>=<value>    override a configuration parameter"
+          + " (repeatable)",
+      "  --config <file>        configuration to start from"
+          + " (default: the one of the go project)",
+      "  --config-out <file>    where the configuration is written"
+          + " (default: --config)",
+      "  --export <file.xml>    write the map",
+      "  --run                  run the simulator on the map and wait",
+      "  --go-project <folder>  folder of the go simulator",
+      "  --day-type <answer>    answer to the day type question"
+          + " (default: 1)",
+      "  --timeout <seconds>    kill the simulator after this time");
+
+  // Private constructor to prevent instantiation
+  private RailwayBatch() {
+    // throw an exception if this ever *is* called
+    throw new AssertionError("Instantiating utility class.");
+  }
+
+  /**
+   * Main function.
+   *
+   * @param args arguments, see the usage
+   */
+  public static void main(final String[] args) {
+    System.setProperty("java.awt.headless", "true");
+    System.exit(run(args, System.out, System.err));
+  }
+
+  /**
+   * Prepare a scenario and run it if asked.
+   *
+   * @param args arguments, see the usage
+   * @param out  receives the progress and the simulator output
+   * @param err  receives the errors
+   * @return 0 on success, 1 if a step failed, 2 for invalid arguments, the
+   *     exit value of the simulator if it was run
+   */
+  static int run(final String[] args, final PrintStream out,
+                 final PrintStream err) {
+    Options options;
+    try {
+      options = Options.parse(args);
+    } catch (IllegalArgumentException e) {
+      err.println(e.getMessage());
+      err.println(USAGE);
+      return EXIT_USAGE;
+    }
+    try {
+      NetworkCore network = NetworkCore.load(options.map);
+      out.println("Loaded " + options.map + ": "
+          + network.getLineViews().size() + " lines, "
+          + network.getStationCount() + " stations, "
+          + network.getEvents().size() + " events");
+      for (File events : options.eventFiles) {
+        out.println("Added " + network.addEvents(events) + " events from "
+            + events);
+      }
+      reportConflicts(network, err);
+      if (!options.overrides.isEmpty()) {
+        File config = options.config;
+        if (config == null) {
+          config = new File(new File(new File(options.goProject(), "src"),
+              "configs"), SimulationBatch.CONFIG_FILE);
+        }
+        File configOut = options.configOut == null ? config
+            : options.configOut;
+        ActionConfiguration.writeOverrides(config, options.overrides,
+            configOut);
+        out.println("Configuration written to " + configOut);
+      }
+      if (options.export != null) {
+        network.export(options.export);
+        out.println("Map written to " + options.export);
+      }
+      if (options.run) {
+        return simulate(network, options, out, err);
+      }
+      return EXIT_OK;
+    } catch (IOException | XMLStreamException | IllegalArgumentException e) {
+      err.println("Error: " + e.getMessage());
+      return EXIT_FAILURE;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      err.println("Interrupted");
+      return EXIT_FAILURE;
+    }
+  }
+
+  /**
+   * Warn about the closures conflicting with other events, the scenario
+   * being prepared anyway.
+   *
+   * @param network the network
+   * @param err     receives the warnings
+   */
+  private static void reportConflicts(final NetworkCore network,
+                                      final PrintStream err) {
+    EventTimeline timeline = network.getEventTimeline();
+    for (Event event : network.getEvents()) {
+      if (!EventTimeline.isClosure(event)) {
+        continue;
+      }
+      List<Event> conflicts = timeline.getConflicts(event);
+      if (!conflicts.isEmpty()) {
+        StringBuilder ids = new StringBuilder();
+        for (Event conflict : conflicts) {
+          ids.append(ids.length() == 0 ? "" : ", ").append(conflict.getId());
+        }
+        err.println("Warning: event " + event.getId() + " ("
+            + event.getEventName().getString() + ") conflicts with events "
+            + ids);
+      }
+    }
+  }
+
+  /**
+   * Run the simulator on the network and wait for its end.
+   *
+   * @param network the network
+   * @param options the options of the command
+   * @param out     receives the simulator output
+   * @param err     receives the simulator errors
+   * @return the exit value of the simulator
+   * @throws IOException          if the simulator cannot be started
+   * @throws XMLStreamException   if the map cannot be written
+   * @throws InterruptedException if interrupted while waiting
+   */
+  private static int simulate(final NetworkCore network,
+                              final Options options, final PrintStream out,
+                              final PrintStream err)
+      throws IOException, XMLStreamException, InterruptedException {
+    CountDownLatch done = new CountDownLatch(1);
+    int[] exitValue = new int[1];
+    SimulatorLauncher launcher = network.runSimulation(options.goProject(),
+        null, new SimulatorLauncher.Listener() {
+          @Override
+          public void outputLine(final String line, final boolean error) {
+            (error ? err : out).println(line);
+          }
+
+          @Override
+          public void finished(final int value) {
+            exitValue[0] = value;
+            done.countDown();
+          }
+        }, options.timeoutMillis);
+    try {
+      launcher.sendInput(options.dayType);
+    } catch (IOException e) {
+      // The simulator stopped before reading its input.
+      err.println("Simulator input not sent: " + e.getMessage());
+    }
+    try {
+      done.await();
+    } finally {
+      launcher.cancel();
+    }
+    out.println("Simulator finished with exit value " + exitValue[0]);
+    return exitValue[0];
+  }
+
+  /**
+   * Options of the command line.
+   */
+  private static final class Options {
+    /** Map to load. */
+    private File map;
+    /** Event files to add. */
+    private final List<File> eventFiles = new ArrayList<>();
+    /** Configuration overrides, in order. */
+    private final Map<String, String> overrides = new LinkedHashMap<>();
+    /** Configuration to start from, null for the go project one. */
+    private File config;
+    /** Configuration written, null for the one started from. */
+    private File configOut;
+    /** Map written, null for none. */
+    private File export;
+    /** Whether the simulator is run. */
+    private boolean run;
+    /** Go project folder, null for the default one. */
+    private File goProject;
+    /** Answer to the day type question. */
+    private String dayType = DEFAULT_DAY_TYPE;
+    /** Simulator timeout, 0 for none. */
+    private long timeoutMillis;
+
+    /**
+     * Parse the arguments.
+     *
+     * @param args the arguments
+     * @return Options the options
+     * @throws IllegalArgumentException if the arguments are invalid
+     */
+    static Options parse(final String[] args) {
+      Options options = new Options();
+      for (int i = 0; i < args.length; i++) {
+        String arg = args[i];
+        switch (arg) {
+          case "--run":
+            options.run = true;
+            break;
+          case "--map":
+            options.map = new File(value(args, ++i, arg));
+            break;
+          case "--events":
+            options.eventFiles.add(new File(value(args, ++i, arg)));
+            break;
+          case "--set":
+            String override = value(args, ++i, arg);
+            int equals = override.indexOf('=');
+            if (equals <= 0) {
+              throw new IllegalArgumentException("Expected <key>=<value>: "
+                  + override);
+            }
+            options.overrides.put(override.substring(0, equals),
+                override.substring(equals + 1));
+            break;
+          case "--config":
+            options.config = new File(value(args, ++i, arg));
+            break;
+          case "--config-out":
+            options.configOut = new File(value(args, ++i, arg));
+            break;
+          case "--export":
+            options.export = new File(value(args, ++i, arg));
+            break;
+          case "--go-project":
+            options.goProject = new File(value(args, ++i, arg));
+            break;
+          case "--day-type":
+            options.dayType = value(args, ++i, arg);
+            break;
+          case "--timeout":
+            try {
+              options.timeoutMillis = Long.parseLong(value(args, ++i, arg))
+                  * MILLIS_IN_SECOND;
+            } catch (NumberFormatException e) {
+              throw new IllegalArgumentException("Invalid timeout: "
+                  + args[i], e);
+            }
+            break;
+          default:
+            throw new IllegalArgumentException("Unknown option: " + arg);
+        }
+      }
+      if (options.map == null) {
+        throw new IllegalArgumentException("--map is required");
+      }
+      if (options.configOut != null && options.overrides.isEmpty()) {
+        throw new IllegalArgumentException("--config-out needs --set");
+      }
+      return options;
+    }
+
+    /**
+     * get the value of an option.
+     *
+     * @param args   the arguments
+     * @param index  index of the value
+     * @param option the option
+     * @return String the value
+     * @throws IllegalArgumentException if the value is missing
+     */
+    private static String value(final String[] args, final int index,
+                                final String option) {
+      if (index >= args.length) {
+        throw new IllegalArgumentException(option + " needs a value");
+      }
+      return args[index];
+    }
+
+    /**
+     * get the go project folder.
+     *
+     * @return File the folder given or the default one
+     */
+    File goProject() {
+      return goProject == null ? ActionRunSimulation.goProjectFolder()
+          : goProject;
+    }
+  }
+}
@@ -25,13 +25,8 @@
 package org.example.model;
 
 import org.example.data.Data;
-import org.example.view.MainPanel;
-import org.example.view.MainWindow;
-import org.openstreetmap.gui.jmapviewer.Coordinate;
-import org.openstreetmap.gui.jmapviewer.interfaces.ICoordinate;
 
 import java.awt.Color;
-import java.awt.Point;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Random;
@@ -39,6 +34,10 @@ import java.util.Random;
 /**
  * Model Class to describe an Area.
  *
+ * <p>The corners are stored once in projected world coordinates (see
+ * {@link MercatorProjection}), the pixel position and size on the map are
+ * computed from the current zoom and map position when requested.</p>
+ *
  * @author Arthur Lagarce
  * @author Aurélie Chamouleau
  * @file Area.java
@@ -48,16 +47,16 @@ import java.util.Random;
 public class Area {
   /** Area opacity. */
   public static final float AREA_OPACITY = 0.5f;
-  /** Area X position. */
-  private int posX;
-  /** Area Y position. */
-  private int posY;
+  /** Area left side x position in world pixels at zoom 0. */
+  private double worldLeft;
+  /** Area top side y position in world pixels at zoom 0. */
+  private double worldTop;
+  /** Area right side x position in world pixels at zoom 0. */
+  private double worldRight;
+  /** Area bottom side y position in world pixels at zoom 0. */
+  private double worldBot;
   /** Area id. */
   private int id;
-  /** Area width. */
-  private int width;
-  /** Area height. */
-  private int height;
 
   /** Area population distribution. */
   private HashMap<String, Integer> distributionPopulation;
@@ -125,18 +124,10 @@ public class Area {
   public Area(final int areaPosX, final int areaPosY,
               final int areaWidth, final int areaHeight) {
     this.id = Data.getInstance().getNewAreaId();
-    this.posX = areaPosX;
-    this.posY = areaPosY;
-    this.width = areaWidth;
-    this.height = areaHeight;
-    ICoordinate geoPosTopLeft = MainPanel.getInstance().getPosition(this.posX,
-        this.posY);
-    ICoordinate geoPosBotRight = MainPanel.getInstance().getPosition(this.posX
-        + this.width, this.posY + this.height);
-    this.latitudeTop = geoPosTopLeft.getLat();
-    this.longitudeTop = geoPosTopLeft.getLon();
-    this.latitudeBot = geoPosBotRight.getLat();
-    this.longitudeBot = geoPosBotRight.getLon();
+    this.setPosX(areaPosX);
+    this.setPosY(areaPosY);
+    this.setWidth(areaWidth);
+    this.setHeight(areaHeight);
     this.initDistributions();
     this.initColor();
   }
@@ -154,21 +145,38 @@ public class Area {
     this.id = Data.getInstance().getNewAreaId();
     this.initDistributions();
     this.initColor();
-    this.latitudeBot = latitudeBotToSet;
-    this.latitudeTop = latitudeTopToSet;
-    this.longitudeBot = longitudeBotToSet;
-    this.longitudeTop = longitudeTopToSet;
-    Point posTopLeft = MainPanel.getInstance().getMapPosition(latitudeTop,
-        longitudeTop);
-    Point posBotRight = MainPanel.getInstance().getMapPosition(latitudeBot,
-        longitudeBot);
-    if (posTopLeft == null || posBotRight == null) {
-      return;
-    }
-    this.posX = posTopLeft.x;
-    this.posY = posTopLeft.y;
-    this.width = posBotRight.x - posTopLeft.x;
-    this.height = posBotRight.y - posTopLeft.y;
+    this.setLatitudeBot(latitudeBotToSet);
+    this.setLatitudeTop(latitudeTopToSet);
+    this.setLongitudeBot(longitudeBotToSet);
+    this.setLongitudeTop(longitudeTopToSet);
+  }
+
+  /**
+   * Area constructor when restoring a {@link NetworkSnapshot}, keeping the id,
+   * the color and the distributions of the captured area.
+   *
+   * @param idToSet           id of the area
+   * @param latitudeTopToSet  latitude of the top left corner
+   * @param longitudeTopToSet longitude of the top left corner
+   * @param latitudeBotToSet  latitude of the bottom right corner
+   * @param longitudeBotToSet longitude of the bottom right corner
+   * @param areaColor         area color
+   * @param population        population distribution, copied
+   * @param destination       destination distribution, copied
+   */
+  Area(final int idToSet, final double latitudeTopToSet,
+       final double longitudeTopToSet, final double latitudeBotToSet,
+       final double longitudeBotToSet, final Color areaColor,
+       final Map<String, Integer> population,
+       final Map<String, Integer> destination) {
+    this.id = idToSet;
+    this.color = areaColor;
+    this.distributionPopulation = new HashMap<>(population);
+    this.distributionDestination = new HashMap<>(destination);
+    this.setLatitudeBot(latitudeBotToSet);
+    this.setLatitudeTop(latitudeTopToSet);
+    this.setLongitudeBot(longitudeBotToSet);
+    this.setLongitudeTop(longitudeTopToSet);
   }
 
 
@@ -196,16 +204,19 @@ public class Area {
    * @return top left corner X position
    */
   public int getPosX() {
-    return posX;
+    return toScreenX(worldLeft);
   }
 
   /**
-   * setter of posX.
+   * setter of posX, the width is kept.
    *
    * @param areaPosX area positionX
    */
   public void setPosX(final int areaPosX) {
-    this.posX = areaPosX;
+    int areaWidth = this.getWidth();
+    this.worldLeft = toWorldX(areaPosX);
+    this.worldRight = toWorldX(areaPosX + areaWidth);
+    this.updateLongitudes();
   }
 
   /**
@@ -214,16 +225,19 @@ public class Area {
    * @return top left corner Y position
    */
   public int getPosY() {
-    return posY;
+    return toScreenY(worldTop);
   }
 
   /**
-   * setter of posY.
+   * setter of posY, the height is kept.
    *
    * @param areaPosY area positionY
    */
   public void setPosY(final int areaPosY) {
-    this.posY = areaPosY;
+    int areaHeight = this.getHeight();
+    this.worldTop = toWorldY(areaPosY);
+    this.worldBot = toWorldY(areaPosY + areaHeight);
+    this.updateLatitudes();
   }
 
 
@@ -233,7 +247,7 @@ public class Area {
    * @return with of the area rectangle
    */
   public int getWidth() {
-    return width;
+    return toScreenX(worldRight) - toScreenX(worldLeft);
   }
 
 
@@ -243,7 +257,8 @@ public class Area {
    * @param areaWidth area width
    */
   public void setWidth(final int areaWidth) {
-    this.width = areaWidth;
+    this.worldRight = toWorldX(this.getPosX() + areaWidth);
+    this.updateLongitudes();
   }
 
 
@@ -253,7 +268,7 @@ public class Area {
    * @return height of the area rectangle
    */
   public int getHeight() {
-    return height;
+    return toScreenY(worldBot) - toScreenY(worldTop);
   }
 
 
@@ -263,7 +278,8 @@ public class Area {
    * @param areaHeight area height
    */
   public void setHeight(final int areaHeight) {
-    this.height = areaHeight;
+    this.worldBot = toWorldY(this.getPosY() + areaHeight);
+    this.updateLatitudes();
   }
 
 
@@ -322,6 +338,7 @@ public class Area {
    */
   public void setLatitudeTop(final double areaLatitudeTop) {
     this.latitudeTop = areaLatitudeTop;
+    this.worldTop = MercatorProjection.latToWorldY(areaLatitudeTop);
   }
 
   /**
@@ -340,6 +357,7 @@ public class Area {
    */
   public void setLongitudeTop(final double areaLongitudeTop) {
     this.longitudeTop = areaLongitudeTop;
+    this.worldLeft = MercatorProjection.lonToWorldX(areaLongitudeTop);
   }
 
   /**
@@ -359,6 +377,7 @@ public class Area {
    */
   public void setLatitudeBot(final double areaLatitudeBot) {
     this.latitudeBot = areaLatitudeBot;
+    this.worldBot = MercatorProjection.latToWorldY(areaLatitudeBot);
   }
 
   /**
@@ -377,6 +396,7 @@ public class Area {
    */
   public void setLongitudeBot(final double areaLongitudeBot) {
     this.longitudeBot = areaLongitudeBot;
+    this.worldRight = MercatorProjection.lonToWorldX(areaLongitudeBot);
   }
 
   /**
@@ -473,22 +493,8 @@ public class Area {
    * @param dy deltaY
    */
   public void moveArea(final int dx, final int dy) {
-    this.posX += dx;
-    this.posY += dy;
-    this.setPosX(this.posX);
-    this.setPosY(this.posY);
-
-    Coordinate latLonTop = (Coordinate) MainWindow.getInstance().getMainPanel()
-        .getPosition(this.posX, this.posY);
-    this.setLatitudeTop(latLonTop.getLat());
-    this.setLongitudeTop(latLonTop.getLon());
-
-    Coordinate latLonBot = (Coordinate) MainWindow.getInstance().getMainPanel()
-        .getPosition(this.posX + this.width,
-            this.posY + this.height);
-    this.setLatitudeBot(latLonBot.getLat());
-    this.setLongitudeBot(latLonBot.getLon());
-
+    this.setPosX(this.getPosX() + dx);
+    this.setPosY(this.getPosY() + dy);
   }
 
   /**
@@ -497,9 +503,9 @@ public class Area {
    * @param dx deltaX
    */
   public void extendLeftSide(final int dx) {
-    int rightX = this.posX + this.width;
-    this.setPosX(this.posX + dx);
-    this.setWidth(rightX - this.posX);
+    int rightX = this.getPosX() + this.getWidth();
+    this.setPosX(this.getPosX() + dx);
+    this.setWidth(rightX - this.getPosX());
   }
 
   /**
@@ -508,7 +514,7 @@ public class Area {
    * @param dx deltaX
    */
   public void extendRightSide(final int dx) {
-    this.setWidth(this.width + dx);
+    this.setWidth(this.getWidth() + dx);
   }
 
   /**
@@ -517,9 +523,9 @@ public class Area {
    * @param dy deltaY
    */
   public void extendTopSide(final int dy) {
-    int botY = this.posY + this.height;
-    this.setPosY(this.posY + dy);
-    this.setHeight(botY - this.posY);
+    int botY = this.getPosY() + this.getHeight();
+    this.setPosY(this.getPosY() + dy);
+    this.setHeight(botY - this.getPosY());
   }
 
   /**
@@ -528,6 +534,111 @@ public class Area {
    * @param dy delta y
    */
   public void extendBotSide(final int dy) {
-    this.setHeight(this.height + dy);
+    this.setHeight(this.getHeight() + dy);
+  }
+
+  /**
+   * get the left side x position in world pixels at zoom 0.
+   *
+   * @return double worldLeft
+   */
+  public double getWorldLeft() {
+    return worldLeft;
+  }
+
+  /**
+   * get the top side y position in world pixels at zoom 0.
+   *
+   * @return double worldTop
+   */
+  public double getWorldTop() {
+    return worldTop;
+  }
+
+  /**
+   * get the right side x position in world pixels at zoom 0.
+   *
+   * @return double worldRight
+   */
+  public double getWorldRight() {
+    return worldRight;
+  }
+
+  /**
+   * get the bottom side y position in world pixels at zoom 0.
+   *
+   * @return double worldBot
+   */
+  public double getWorldBot() {
+    return worldBot;
+  }
+
+  /**
+   * check if a station is inside the area, from the world coordinates so
+   * that the result does not depend on the zoom of the map.
+   *
+   * @param station station to check
+   * @return true if the station is strictly inside the area
+   */
+  public boolean contains(final Station station) {
+    double x = station.getWorldX();
+    double y = station.getWorldY();
+    return x > worldLeft && x < worldRight && y > worldTop && y < worldBot;
+  }
+
+  /**
+   * Convert a world x coordinate to a pixel position on the map.
+   *
+   * @param worldX world x coordinate at zoom 0
+   * @return int x position on the map
+   */
+  private static int toScreenX(final double worldX) {
+    return Projection.getInstance().toScreenX(worldX);
+  }
+
+  /**
+   * Convert a world y coordinate to a pixel position on the map.
+   *
+   * @param worldY world y coordinate at zoom 0
+   * @return int y position on the map
+   */
+  private static int toScreenY(final double worldY) {
+    return Projection.getInstance().toScreenY(worldY);
+  }
+
+  /**
+   * Convert a pixel x position on the map to a world coordinate.
+   *
+   * @param screenX x position on the map
+   * @return double world x coordinate at zoom 0
+   */
+  private static double toWorldX(final int screenX) {
+    return Projection.getInstance().toWorldX(screenX);
+  }
+
+  /**
+   * Convert a pixel y position on the map to a world coordinate.
+   *
+   * @param screenY y position on the map
+   * @return double world y coordinate at zoom 0
+   */
+  private static double toWorldY(final int screenY) {
+    return Projection.getInstance().toWorldY(screenY);
+  }
+
+  /**
+   * Update the corners longitudes from the world coordinates.
+   */
+  private void updateLongitudes() {
+    this.longitudeTop = MercatorProjection.worldXToLon(worldLeft);
+    this.longitudeBot = MercatorProjection.worldXToLon(worldRight);
+  }
+
+  /**
+   * Update the corners latitudes from the world coordinates.
+   */
+  private void updateLatitudes() {
+    this.latitudeTop = MercatorProjection.worldYToLat(worldTop);
+    this.latitudeBot = MercatorProjection.worldYToLat(worldBot);
   }
 }
@@ -0,0 +1,275 @@
+/*
+ * License : MIT License
+ *
+ * Copyright (c) 2023 Team PFE_2023_16
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.example.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Immutable R-tree of the bounds of a list of {@link Area}s, in world
+ * coordinates (see {@link MercatorProjection}), to find the area of a
+ * station without testing every area.
+ *
+ * <p>The tree is bulk loaded with the Sort-Tile-Recursive packing: the
+ * entries of a level are sorted by the x of their center, cut in vertical
+ * slices, each slice is sorted by the y of their center and cut in nodes of
+ * {@link #NODE_CAPACITY} entries, which are the entries of the level above.
+ * Building costs O(m log m) for m areas and a query O(log m) plus the areas
+ * containing the point, so the areas of n stations are found in
+ * O((n + m) log m) instead of O(n m).</p>
+ *
+ * <p>Areas can overlap: like {@link Area#contains(Station)} tested on each
+ * area in turn, a point gets the last area of the list containing it.</p>
+ *
+ * @author Team PFE_2023_16
+ * @file AreaIndex.java
+ * @date 2026-10-17
+ * @since 3.0
+ */
+public final class AreaIndex {
+  /** Maximum number of entries of a node. */
+  static final int NODE_CAPACITY = 8;
+  /** Number of bounds of an entry: left, top, right and bottom. */
+  static final int BOUNDS = 4;
+
+  /**
+   * Bounds of the entries of each level, {@link #BOUNDS} values per entry,
+   * the leaves being the areas at level 0.
+   */
+  private final List<double[]> levelBounds = new ArrayList<>();
+  /**
+   * Position in the areas list of the leaves at level 0, and index of the
+   * first child in the level below of the nodes of the other levels.
+   */
+  private final List<int[]> levelChildren = new ArrayList<>();
+
+  /**
+   * AreaIndex constructor.
+   *
+   * @param areas the areas to index, in the order of the network
+   */
+  public AreaIndex(final List<Area> areas) {
+    this(worldBounds(areas));
+  }
+
+  /**
+   * AreaIndex constructor from the bounds of the areas.
+   *
+   * @param areaBounds left, top, right and bottom of each area in world
+   *                   coordinates, in the order of the network
+   */
+  AreaIndex(final double[] areaBounds) {
+    int count = areaBounds.length / BOUNDS;
+    int[] children = new int[count];
+    for (int i = 0; i < count; i++) {
+      children[i] = i;
+    }
+    double[] bounds = areaBounds;
+    while (true) {
+      int[] order = tileOrder(bounds, count);
+      bounds = permute(bounds, order);
+      children = permuteChildren(children, order);
+      levelBounds.add(bounds);
+      levelChildren.add(children);
+      if (count <= NODE_CAPACITY) {
+        break;
+      }
+      int nodeCount = (count + NODE_CAPACITY - 1) / NODE_CAPACITY;
+      double[] nodeBounds = new double[nodeCount * BOUNDS];
+      int[] nodeChildren = new int[nodeCount];
+      for (int node = 0; node < nodeCount; node++) {
+        int first = node * NODE_CAPACITY;
+        nodeChildren[node] = first;
+        union(bounds, first, Math.min(count, first + NODE_CAPACITY),
+            nodeBounds, node);
+      }
+      bounds = nodeBounds;
+      children = nodeChildren;
+      count = nodeCount;
+    }
+  }
+
+  /**
+   * get the number of indexed areas.
+   *
+   * @return int number of areas
+   */
+  public int size() {
+    return levelChildren.get(0).length;
+  }
+
+  /**
+   * Find the area of a station.
+   *
+   * @param station the station
+   * @return the position in the areas list of the last area strictly
+   *     containing the station, -1 if there is none
+   */
+  public int find(final Station station) {
+    return find(station.getWorldX(), station.getWorldY());
+  }
+
+  /**
+   * Find the area of a point.
+   *
+   * @param worldX x of the point in world coordinates
+   * @param worldY y of the point in world coordinates
+   * @return the position in the areas list of the last area strictly
+   *     containing the point, -1 if there is none
+   */
+  public int find(final double worldX, final double worldY) {
+    int top = levelBounds.size() - 1;
+    return find(top, 0, levelChildren.get(top).length, worldX, worldY);
+  }
+
+  private int find(final int level, final int from, final int to,
+                   final double worldX, final double worldY) {
+    double[] bounds = levelBounds.get(level);
+    int[] children = levelChildren.get(level);
+    int found = -1;
+    for (int i = from; i < to; i++) {
+      if (!contains(bounds, i, worldX, worldY)) {
+        continue;
+      }
+      if (level == 0) {
+        found = Math.max(found, children[i]);
+      } else {
+        int below = levelChildren.get(level - 1).length;
+        found = Math.max(found, find(level - 1, children[i],
+            Math.min(below, children[i] + NODE_CAPACITY), worldX, worldY));
+      }
+    }
+    return found;
+  }
+
+  /**
+   * Get the bounds of areas in world coordinates.
+   *
+   * @param areas the areas
+   * @return left, top, right and bottom of each area
+   */
+  static double[] worldBounds(final List<Area> areas) {
+    double[] bounds = new double[areas.size() * BOUNDS];
+    for (int i = 0; i < areas.size(); i++) {
+      Area area = areas.get(i);
+      bounds[i * BOUNDS] = area.getWorldLeft();
+      bounds[i * BOUNDS + 1] = area.getWorldTop();
+      bounds[i * BOUNDS + 2] = area.getWorldRight();
+      bounds[i * BOUNDS + 3] = area.getWorldBot();
+    }
+    return bounds;
+  }
+
+  /**
+   * Check if a point is strictly inside bounds.
+   *
+   * @param bounds bounds of the entries
+   * @param entry  index of the entry
+   * @param worldX x of the point
+   * @param worldY y of the point
+   * @return true if the point is strictly inside the bounds of the entry
+   */
+  static boolean contains(final double[] bounds, final int entry,
+                          final double worldX, final double worldY) {
+    int i = entry * BOUNDS;
+    return worldX > bounds[i] && worldX < bounds[i + 2]
+        && worldY > bounds[i + 1] && worldY < bounds[i + 3];
+  }
+
+  /**
+   * Sort-Tile-Recursive order of the entries of a level, so that the
+   * consecutive groups of {@link #NODE_CAPACITY} entries are close together.
+   *
+   * @param bounds bounds of the entries
+   * @param count  number of entries
+   * @return the indexes of the entries in their new order
+   */
+  private static int[] tileOrder(final double[] bounds, final int count) {
+    Integer[] order = new Integer[count];
+    for (int i = 0; i < count; i++) {
+      order[i] = i;
+    }
+    int nodeCount = (count + NODE_CAPACITY - 1) / NODE_CAPACITY;
+    int sliceSize = (int) Math.ceil(Math.sqrt(nodeCount)) * NODE_CAPACITY;
+    Arrays.sort(order, Comparator.comparingDouble(
+        i -> bounds[i * BOUNDS] + bounds[i * BOUNDS + 2]));
+    for (int from = 0; from < count; from += sliceSize) {
+      Arrays.sort(order, from, Math.min(count, from + sliceSize),
+          Comparator.comparingDouble(
+              i -> bounds[i * BOUNDS + 1] + bounds[i * BOUNDS + 3]));
+    }
+    int[] result = new int[count];
+    for (int i = 0; i < count; i++) {
+      result[i] = order[i];
+    }
+    return result;
+  }
+
+  private static double[] permute(final double[] bounds, final int[] order) {
+    double[] result = new double[order.length * BOUNDS];
+    for (int i = 0; i < order.length; i++) {
+      System.arraycopy(bounds, order[i] * BOUNDS, result, i * BOUNDS,
+          BOUNDS);
+    }
+    return result;
+  }
+
+  private static int[] permuteChildren(final int[] children,
+                                       final int[] order) {
+    int[] result = new int[order.length];
+    for (int i = 0; i < order.length; i++) {
+      result[i] = children[order[i]];
+    }
+    return result;
+  }
+
+  /**
+   * Compute the bounds of a node from the bounds of its entries.
+   *
+   * @param bounds     bounds of the entries
+   * @param from       first entry of the node
+   * @param to         entry after the last one of the node
+   * @param nodeBounds bounds of the nodes
+   * @param node       index of the node
+   */
+  private static void union(final double[] bounds, final int from,
+                            final int to, final double[] nodeBounds,
+                            final int node) {
+    int n = node * BOUNDS;
+    nodeBounds[n] = Double.POSITIVE_INFINITY;
+    nodeBounds[n + 1] = Double.POSITIVE_INFINITY;
+    nodeBounds[n + 2] = Double.NEGATIVE_INFINITY;
+    nodeBounds[n + 3] = Double.NEGATIVE_INFINITY;
+    for (int i = from; i < to; i++) {
+      int e = i * BOUNDS;
+      nodeBounds[n] = Math.min(nodeBounds[n], bounds[e]);
+      nodeBounds[n + 1] = Math.min(nodeBounds[n + 1], bounds[e + 1]);
+      nodeBounds[n + 2] = Math.max(nodeBounds[n + 2], bounds[e + 2]);
+      nodeBounds[n + 3] = Math.max(nodeBounds[n + 3], bounds[e + 3]);
+    }
+  }
+}
@@ -28,6 +28,8 @@ import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
 
 
 /**
@@ -41,6 +43,16 @@ import java.time.format.DateTimeParseException;
  * @since 2.0
  */
 public abstract class Event {
+  /**
+   * Format of the event dates.
+   */
+  private static final DateTimeFormatter DATE_FORMATTER =
+      DateTimeFormatter.ofPattern("yyyy/MM/dd-HH:mm");
+  /**
+   * Format of the train hour times.
+   */
+  private static final DateTimeFormatter TIME_FORMATTER =
+      DateTimeFormatter.ofPattern("HH:mm");
   /**
    * Event starting time.
    */
@@ -49,6 +61,14 @@ public abstract class Event {
    * Event ending time.
    */
   private String endTime;
+  /**
+   * Event starting date, parsed once, null for a train hour.
+   */
+  private LocalDateTime start;
+  /**
+   * Event ending date, parsed once, null for a train hour.
+   */
+  private LocalDateTime end;
   /**
    * Event id.
    */
@@ -67,6 +87,11 @@ public abstract class Event {
    * Event name.
    */
   private EventName eventName;
+  /**
+   * Timelines indexing the event, moved to its new dates when they change,
+   * null if it is not indexed.
+   */
+  private List<EventTimeline> timelines;
 
 
   /**
@@ -81,10 +106,15 @@ public abstract class Event {
   protected Event(final int eventId, final String eventStartTime,
                   final String eventEndTime, final EventType eventType,
                   final EventName name) {
-    if (isTimeValid(eventStartTime, name) && isTimeValid(eventEndTime,
-        name) && isStartTimeAfterEndTime(eventStartTime, eventEndTime)) {
+    LocalDateTime parsedStart = parseDate(eventStartTime);
+    LocalDateTime parsedEnd = parseDate(eventEndTime);
+    if (isTimeValid(eventStartTime, parsedStart, name)
+        && isTimeValid(eventEndTime, parsedEnd, name)
+        && isStartTimeAfterEndTime(parsedStart, parsedEnd)) {
       this.startTime = eventStartTime;
       this.endTime = eventEndTime;
+      this.start = parsedStart;
+      this.end = parsedEnd;
       this.type = eventType;
       this.id = eventId;
       this.eventName = name;
@@ -112,9 +142,12 @@ public abstract class Event {
    *                                  endTime
    */
   public void setStartTime(final String startTimeToSet) {
-    if (isTimeValid(startTimeToSet, eventName)
-        && isStartTimeAfterEndTime(startTimeToSet, this.endTime)) {
+    LocalDateTime parsedStart = parseDate(startTimeToSet);
+    if (isTimeValid(startTimeToSet, parsedStart, eventName)
+        && isStartTimeAfterEndTime(parsedStart, this.end)) {
       this.startTime = startTimeToSet;
+      this.start = parsedStart;
+      this.datesChanged();
     } else {
       throw new IllegalArgumentException("Invalid start time.");
     }
@@ -139,15 +172,56 @@ public abstract class Event {
    *                                  or before startTime
    */
   public void setEndTime(final String endTimeToSet) {
-    if (isTimeValid(endTimeToSet, eventName)
-        && isStartTimeAfterEndTime(this.startTime, endTimeToSet)) {
+    LocalDateTime parsedEnd = parseDate(endTimeToSet);
+    if (isTimeValid(endTimeToSet, parsedEnd, eventName)
+        && isStartTimeAfterEndTime(this.start, parsedEnd)) {
       this.endTime = endTimeToSet;
+      this.end = parsedEnd;
+      this.datesChanged();
     } else {
       throw new IllegalArgumentException("Invalid end time.");
     }
   }
 
 
+  /**
+   * Register a timeline indexing the event.
+   *
+   * @param timeline timeline
+   */
+  void addTimeline(final EventTimeline timeline) {
+    if (timelines == null) {
+      timelines = new ArrayList<>(1);
+    }
+    timelines.add(timeline);
+  }
+
+  /**
+   * Unregister a timeline no longer indexing the event.
+   *
+   * @param timeline timeline
+   */
+  void removeTimeline(final EventTimeline timeline) {
+    if (timelines != null) {
+      timelines.remove(timeline);
+      if (timelines.isEmpty()) {
+        timelines = null;
+      }
+    }
+  }
+
+  /**
+   * Move the event in the timelines indexing it to its new dates.
+   */
+  private void datesChanged() {
+    if (timelines != null) {
+      for (EventTimeline timeline : timelines) {
+        timeline.datesChanged(this);
+      }
+    }
+  }
+
+
   /**
    * get the type of event.
    *
@@ -204,6 +278,24 @@ public abstract class Event {
     return eventName;
   }
 
+  /**
+   * get the starting date of the event, parsed from its start time.
+   *
+   * @return LocalDateTime start, null for a train hour which has no date
+   */
+  public LocalDateTime getStart() {
+    return start;
+  }
+
+  /**
+   * get the ending date of the event, parsed from its end time.
+   *
+   * @return LocalDateTime end, null for a train hour which has no date
+   */
+  public LocalDateTime getEnd() {
+    return end;
+  }
+
   /**
    * Parses a given string to a LocalDateTime using the custom format
    * "yyyy/MM/dd_HH:mm".
@@ -212,21 +304,23 @@ public abstract class Event {
    * @return LocalDateTime representation of the provided string or null if
    *         parsing fails.
    */
-  private LocalDateTime parseDate(final String date) {
-    DateTimeFormatter formatter =
-        DateTimeFormatter.ofPattern("yyyy/MM/dd-HH:mm");
+  private static LocalDateTime parseDate(final String date) {
+    if (date == null) {
+      return null;
+    }
     try {
-      return LocalDateTime.parse(date, formatter);
+      return LocalDateTime.parse(date, DATE_FORMATTER);
     } catch (DateTimeParseException e) {
       return null;
     }
   }
 
-  private LocalTime parseTime(final String time) {
-    DateTimeFormatter formatter =
-        DateTimeFormatter.ofPattern("HH:mm");
+  private static LocalTime parseTime(final String time) {
+    if (time == null) {
+      return null;
+    }
     try {
-      return LocalTime.parse(time, formatter);
+      return LocalTime.parse(time, TIME_FORMATTER);
     } catch (DateTimeParseException e) {
       return null;
     }
@@ -236,15 +330,18 @@ public abstract class Event {
    * Checks if the provided date-time string is valid according to the custom
    * format "yyyy/MM/dd_HH:mm".
    *
-   * @param time The date-time string to be validated.
-   * @param name The name of the event to be validated.
+   * @param time   The date-time string to be validated.
+   * @param parsed The date-time already parsed from the string, or null.
+   * @param name   The name of the event to be validated.
    * @return true if the string is a valid date-time, false otherwise.
    */
-  private boolean isTimeValid(final String time, final EventName name) {
+  private static boolean isTimeValid(final String time,
+                                     final LocalDateTime parsed,
+                                     final EventName name) {
     if (name == EventName.TRAIN_HOUR) {
       return parseTime(time) != null;
     } else {
-      return parseDate(time) != null;
+      return parsed != null;
     }
   }
 
@@ -252,16 +349,15 @@ public abstract class Event {
    * Checks if the provided startTime is after the provided endTime using
    * the custom format "yyyy/MM/dd_HH:mm".
    *
-   * @param startTimeToCheck The start date-time string to be compared.
-   * @param endTimeToCheck   The end date-time string to be compared.
+   * @param startToCheck The start date-time to be compared.
+   * @param endToCheck   The end date-time to be compared.
    * @return true if the startTime is after endTime, false otherwise or if
    *         either time is invalid.
    */
-  private boolean isStartTimeAfterEndTime(final String startTimeToCheck,
-                                          final String endTimeToCheck) {
-    LocalDateTime start = parseDate(startTimeToCheck);
-    LocalDateTime end = parseDate(endTimeToCheck);
-    return start == null || end == null || !start.isAfter(end);
+  private static boolean isStartTimeAfterEndTime(
+      final LocalDateTime startToCheck, final LocalDateTime endToCheck) {
+    return startToCheck == null || endToCheck == null
+        || !startToCheck.isAfter(endToCheck);
   }
 
 
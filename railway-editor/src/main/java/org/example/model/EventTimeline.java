@@ -0,0 +1,439 @@
+/*
+ * License : MIT License
+ *
+ * Copyright (c) 2023 Team PFE_2023_16
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.example.model;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Index of the dated events by time, answering which events are active at
+ * a date and which ones overlap a time window on a station or on a line,
+ * and finding the closures conflicting with an event.
+ *
+ * <p>Each event is added with its {@link Scope}, the stations and lines it
+ * concerns, and is kept in interval trees over its start and end, in
+ * minutes: one for all the events, one per station and, per line, one for
+ * the events concerning the whole line and one for the events of its
+ * stations. Queries are logarithmic in the number of events, plus the
+ * number of events found. The intervals are closed, an event ending when
+ * another one starts overlaps it.</p>
+ *
+ * <p>A closure (station, stations or line closed) conflicts with a peak or
+ * a delay overlapping it in time on a common station, or on any station of
+ * a closed line. The train hours are changes of the time of day, without
+ * date, and are not indexed.</p>
+ *
+ * @author Team PFE_2023_16
+ * @file EventTimeline.java
+ * @date 2026-10-17
+ * @since 3.0
+ */
+public final class EventTimeline {
+  /** Number of seconds in a minute. */
+  private static final int SECONDS_IN_MINUTE = 60;
+  /** Trees of the events by station id. */
+  private final Map<Integer, IntervalTree<Event>> byStation;
+  /** Trees of the events concerning a whole line, by line id. */
+  private final Map<Integer, IntervalTree<Event>> wholeLine;
+  /** Trees of the events concerning stations of a line, by line id. */
+  private final Map<Integer, IntervalTree<Event>> touchingLine;
+  /** Tree of all the events. */
+  private final IntervalTree<Event> all;
+  /** Scope of each indexed event. */
+  private final Map<Event, Scope> scopes;
+
+  /**
+   * EventTimeline constructor.
+   */
+  public EventTimeline() {
+    this.byStation = new HashMap<>();
+    this.wholeLine = new HashMap<>();
+    this.touchingLine = new HashMap<>();
+    this.all = new IntervalTree<>();
+    this.scopes = new IdentityHashMap<>();
+  }
+
+  /**
+   * Stations and lines concerned by an event. An event without station
+   * concerns its whole lines.
+   */
+  public static final class Scope {
+    /** Ids of the stations concerned. */
+    private final Set<Integer> stations;
+    /** Ids of the lines concerned. */
+    private final Set<Integer> lines;
+
+    /**
+     * Scope constructor.
+     *
+     * @param stationIds ids of the stations concerned, empty for a whole
+     *                   line
+     * @param lineIds    ids of the lines concerned
+     */
+    public Scope(final Collection<Integer> stationIds,
+                 final Collection<Integer> lineIds) {
+      this.stations = Collections.unmodifiableSet(
+          new LinkedHashSet<>(stationIds));
+      this.lines = Collections.unmodifiableSet(new LinkedHashSet<>(lineIds));
+    }
+
+    /**
+     * Get the ids of the stations concerned.
+     *
+     * @return Set of station ids, empty for a whole line
+     */
+    public Set<Integer> getStations() {
+      return stations;
+    }
+
+    /**
+     * Get the ids of the lines concerned.
+     *
+     * @return Set of line ids
+     */
+    public Set<Integer> getLines() {
+      return lines;
+    }
+
+    /**
+     * Check if the scope concerns whole lines.
+     *
+     * @return true if the scope has no station
+     */
+    public boolean isWholeLine() {
+      return stations.isEmpty();
+    }
+
+    @Override
+    public boolean equals(final Object other) {
+      if (this == other) {
+        return true;
+      }
+      if (!(other instanceof Scope)) {
+        return false;
+      }
+      Scope scope = (Scope) other;
+      return stations.equals(scope.stations) && lines.equals(scope.lines);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(stations, lines);
+    }
+  }
+
+  /**
+   * Check if an event is a closure.
+   *
+   * @param event event to check
+   * @return true for the station, stations and line closures
+   */
+  public static boolean isClosure(final Event event) {
+    EventName name = event.getEventName();
+    return name == EventName.STATION_CLOSED
+        || name == EventName.MULTIPLE_STATIONS_CLOSED
+        || name == EventName.LINE_CLOSED;
+  }
+
+  /**
+   * Index an event. Replaces the scope of an event already indexed.
+   *
+   * @param event event to index
+   * @param scope stations and lines concerned by the event
+   * @return true if the event was indexed, false if it has no date
+   */
+  public boolean add(final Event event, final Scope scope) {
+    if (event.getStart() == null || event.getEnd() == null) {
+      return false;
+    }
+    remove(event);
+    scopes.put(event, scope);
+    event.addTimeline(this);
+    addToTrees(event, scope);
+    return true;
+  }
+
+  /**
+   * Remove an event from the index.
+   *
+   * @param event event to remove
+   * @return true if the event was indexed
+   */
+  public boolean remove(final Event event) {
+    Scope scope = scopes.remove(event);
+    if (scope == null) {
+      return false;
+    }
+    event.removeTimeline(this);
+    removeFromTrees(event, scope);
+    return true;
+  }
+
+  /**
+   * Remove all the events.
+   */
+  public void clear() {
+    byStation.clear();
+    wholeLine.clear();
+    touchingLine.clear();
+    all.clear();
+    for (Event event : scopes.keySet()) {
+      event.removeTimeline(this);
+    }
+    scopes.clear();
+  }
+
+  /**
+   * Move an indexed event to its new dates, called by the event when its
+   * start or end time is changed.
+   *
+   * @param event event whose dates changed
+   */
+  void datesChanged(final Event event) {
+    Scope scope = scopes.get(event);
+    if (scope != null) {
+      removeFromTrees(event, scope);
+      addToTrees(event, scope);
+    }
+  }
+
+  /**
+   * Recompute the scope of the indexed events once the network changed
+   * (stations inserted, deleted or merged, lines edited, undo or redo),
+   * only the events whose scope changed being moved in the trees.
+   *
+   * @param scopeOf computes the scope of an event on the current network
+   * @return the events whose conflicts may have changed: the events moved
+   *     and the events they conflicted with before or after the move
+   */
+  public Set<Event> rescope(final Function<Event, Scope> scopeOf) {
+    Map<Event, Scope> changed = new IdentityHashMap<>();
+    for (Map.Entry<Event, Scope> entry : scopes.entrySet()) {
+      Scope scope = scopeOf.apply(entry.getKey());
+      if (!scope.equals(entry.getValue())) {
+        changed.put(entry.getKey(), scope);
+      }
+    }
+    Set<Event> affected = Collections.newSetFromMap(new IdentityHashMap<>());
+    for (Event event : changed.keySet()) {
+      affected.add(event);
+      affected.addAll(getConflicts(event));
+    }
+    for (Map.Entry<Event, Scope> entry : changed.entrySet()) {
+      Event event = entry.getKey();
+      removeFromTrees(event, scopes.get(event));
+      scopes.put(event, entry.getValue());
+      addToTrees(event, entry.getValue());
+    }
+    for (Event event : changed.keySet()) {
+      affected.addAll(getConflicts(event));
+    }
+    return affected;
+  }
+
+  /**
+   * Get the number of indexed events.
+   *
+   * @return int size
+   */
+  public int size() {
+    return scopes.size();
+  }
+
+  /**
+   * Check if an event is indexed.
+   *
+   * @param event event to check
+   * @return true if the event is indexed
+   */
+  public boolean contains(final Event event) {
+    return scopes.containsKey(event);
+  }
+
+  /**
+   * Get the events active at a date.
+   *
+   * @param date date
+   * @return List of events, ordered by start
+   */
+  public List<Event> activeAt(final LocalDateTime date) {
+    long time = minutes(date);
+    List<Event> result = new ArrayList<>();
+    all.overlapping(time, time, result);
+    return result;
+  }
+
+  /**
+   * Get the events concerning a station and overlapping a time window,
+   * without the events of its whole lines.
+   *
+   * @param stationId id of the station
+   * @param from      start of the window
+   * @param to        end of the window
+   * @return List of events, ordered by start
+   */
+  public List<Event> overlappingStation(final int stationId,
+                                        final LocalDateTime from,
+                                        final LocalDateTime to) {
+    List<Event> result = new ArrayList<>();
+    IntervalTree<Event> tree = byStation.get(stationId);
+    if (tree != null) {
+      tree.overlapping(minutes(from), minutes(to), result);
+    }
+    return result;
+  }
+
+  /**
+   * Get the events concerning a line or some of its stations and
+   * overlapping a time window.
+   *
+   * @param lineId id of the line
+   * @param from   start of the window
+   * @param to     end of the window
+   * @return List of events, the whole line events first
+   */
+  public List<Event> overlappingLine(final int lineId,
+                                     final LocalDateTime from,
+                                     final LocalDateTime to) {
+    List<Event> result = new ArrayList<>();
+    long start = minutes(from);
+    long end = minutes(to);
+    IntervalTree<Event> tree = wholeLine.get(lineId);
+    if (tree != null) {
+      tree.overlapping(start, end, result);
+    }
+    tree = touchingLine.get(lineId);
+    if (tree != null) {
+      tree.overlapping(start, end, result);
+    }
+    return result;
+  }
+
+  /**
+   * Get the events conflicting with an indexed event: the peaks and delays
+   * overlapping a closure, or the closures overlapping a peak or a delay,
+   * on a common station or on a closed line.
+   *
+   * @param event indexed event
+   * @return List of conflicting events, empty if the event is not indexed
+   */
+  public List<Event> getConflicts(final Event event) {
+    Scope scope = scopes.get(event);
+    if (scope == null) {
+      return Collections.emptyList();
+    }
+    long start = minutes(event.getStart());
+    long end = minutes(event.getEnd());
+    List<Event> candidates = new ArrayList<>();
+    for (int station : scope.getStations()) {
+      IntervalTree<Event> tree = byStation.get(station);
+      if (tree != null) {
+        tree.overlapping(start, end, candidates);
+      }
+    }
+    for (int line : scope.getLines()) {
+      IntervalTree<Event> tree = wholeLine.get(line);
+      if (tree != null) {
+        tree.overlapping(start, end, candidates);
+      }
+      tree = touchingLine.get(line);
+      if (scope.isWholeLine() && tree != null) {
+        tree.overlapping(start, end, candidates);
+      }
+    }
+    boolean closure = isClosure(event);
+    Set<Event> conflicts = Collections.newSetFromMap(new IdentityHashMap<>());
+    List<Event> result = new ArrayList<>();
+    for (Event candidate : candidates) {
+      if (isClosure(candidate) != closure && conflicts.add(candidate)) {
+        result.add(candidate);
+      }
+    }
+    return result;
+  }
+
+  private void addToTrees(final Event event, final Scope scope) {
+    long start = minutes(event.getStart());
+    long end = minutes(event.getEnd());
+    all.add(start, end, event);
+    for (int station : scope.getStations()) {
+      tree(byStation, station).add(start, end, event);
+    }
+    Map<Integer, IntervalTree<Event>> lineTrees = scope.isWholeLine()
+        ? wholeLine : touchingLine;
+    for (int line : scope.getLines()) {
+      tree(lineTrees, line).add(start, end, event);
+    }
+  }
+
+  private void removeFromTrees(final Event event, final Scope scope) {
+    all.remove(event);
+    for (int station : scope.getStations()) {
+      removeFrom(byStation, station, event);
+    }
+    Map<Integer, IntervalTree<Event>> lineTrees = scope.isWholeLine()
+        ? wholeLine : touchingLine;
+    for (int line : scope.getLines()) {
+      removeFrom(lineTrees, line, event);
+    }
+  }
+
+  private static IntervalTree<Event> tree(
+      final Map<Integer, IntervalTree<Event>> trees, final int key) {
+    IntervalTree<Event> tree = trees.get(key);
+    if (tree == null) {
+      tree = new IntervalTree<>();
+      trees.put(key, tree);
+    }
+    return tree;
+  }
+
+  private static void removeFrom(
+      final Map<Integer, IntervalTree<Event>> trees, final int key,
+      final Event event) {
+    IntervalTree<Event> tree = trees.get(key);
+    if (tree != null) {
+      tree.remove(event);
+      if (tree.size() == 0) {
+        trees.remove(key);
+      }
+    }
+  }
+
+  private static long minutes(final LocalDateTime date) {
+    return date.toEpochSecond(ZoneOffset.UTC) / SECONDS_IN_MINUTE;
+  }
+}
@@ -0,0 +1,257 @@
+/*
+ * License : MIT License
+ *
+ * Copyright (c) 2023 Team PFE_2023_16
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.example.model;
+
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Self-balancing (AVL) binary search tree of closed intervals ordered by
+ * start, each node keeping the greatest end of its subtree, so the values
+ * of the intervals overlapping a window are found in logarithmic time plus
+ * the number of values found.
+ *
+ * <p>A value is added at most once and is removed by identity.</p>
+ *
+ * @param <T> type of the values of the intervals
+ *
+ * @author Team PFE_2023_16
+ * @file IntervalTree.java
+ * @date 2026-10-17
+ * @since 3.0
+ */
+final class IntervalTree<T> {
+  /** Root of the tree, null if the tree is empty. */
+  private Node<T> root;
+  /** Key of the node of each value, to remove it. */
+  private final Map<T, long[]> keys = new IdentityHashMap<>();
+  /** Sequence number of the next value, ordering the equal starts. */
+  private long nextSequence;
+
+  /**
+   * Node of the tree.
+   *
+   * @param <T> type of the value
+   */
+  private static final class Node<T> {
+    /** Start of the interval. */
+    private long start;
+    /** End of the interval. */
+    private long end;
+    /** Sequence number of the value. */
+    private long sequence;
+    /** Value of the interval. */
+    private T value;
+    /** Greatest end of the subtree. */
+    private long maxEnd;
+    /** Height of the subtree. */
+    private int height = 1;
+    /** Left subtree, with the lower keys. */
+    private Node<T> left;
+    /** Right subtree, with the greater keys. */
+    private Node<T> right;
+
+    private Node(final long intervalStart, final long intervalEnd,
+                 final long valueSequence, final T intervalValue) {
+      this.start = intervalStart;
+      this.end = intervalEnd;
+      this.sequence = valueSequence;
+      this.value = intervalValue;
+      this.maxEnd = intervalEnd;
+    }
+  }
+
+  /**
+   * Get the number of intervals.
+   *
+   * @return int size
+   */
+  int size() {
+    return keys.size();
+  }
+
+  /**
+   * Add an interval.
+   *
+   * @param start start of the interval
+   * @param end   end of the interval, not before its start
+   * @param value value of the interval, not already in the tree
+   */
+  void add(final long start, final long end, final T value) {
+    long sequence = nextSequence++;
+    keys.put(value, new long[]{start, sequence});
+    root = insert(root, new Node<>(start, end, sequence, value));
+  }
+
+  /**
+   * Remove the interval of a value.
+   *
+   * @param value value to remove
+   * @return true if the value was in the tree
+   */
+  boolean remove(final T value) {
+    long[] key = keys.remove(value);
+    if (key == null) {
+      return false;
+    }
+    root = delete(root, key[0], key[1]);
+    return true;
+  }
+
+  /**
+   * Remove all the intervals.
+   */
+  void clear() {
+    root = null;
+    keys.clear();
+  }
+
+  /**
+   * Add the values of the intervals overlapping a window, bounds included,
+   * ordered by start.
+   *
+   * @param from   start of the window
+   * @param to     end of the window
+   * @param result list the values are added to
+   */
+  void overlapping(final long from, final long to, final List<T> result) {
+    overlapping(root, from, to, result);
+  }
+
+  private static <T> void overlapping(final Node<T> node, final long from,
+                                      final long to, final List<T> result) {
+    // no interval of the subtree ends after the window starts
+    if (node == null || node.maxEnd < from) {
+      return;
+    }
+    overlapping(node.left, from, to, result);
+    if (node.start <= to) {
+      if (node.end >= from) {
+        result.add(node.value);
+      }
+      overlapping(node.right, from, to, result);
+    }
+  }
+
+  private static int compare(final long start, final long sequence,
+                             final Node<?> node) {
+    int order = Long.compare(start, node.start);
+    return order != 0 ? order : Long.compare(sequence, node.sequence);
+  }
+
+  private static <T> Node<T> insert(final Node<T> node, final Node<T> added) {
+    if (node == null) {
+      return added;
+    }
+    if (compare(added.start, added.sequence, node) < 0) {
+      node.left = insert(node.left, added);
+    } else {
+      node.right = insert(node.right, added);
+    }
+    return balance(node);
+  }
+
+  private static <T> Node<T> delete(final Node<T> node, final long start,
+                                    final long sequence) {
+    if (node == null) {
+      return null;
+    }
+    int order = compare(start, sequence, node);
+    if (order < 0) {
+      node.left = delete(node.left, start, sequence);
+    } else if (order > 0) {
+      node.right = delete(node.right, start, sequence);
+    } else if (node.left == null) {
+      return node.right;
+    } else if (node.right == null) {
+      return node.left;
+    } else {
+      // the successor takes the place of the deleted node
+      Node<T> successor = node.right;
+      while (successor.left != null) {
+        successor = successor.left;
+      }
+      node.start = successor.start;
+      node.end = successor.end;
+      node.sequence = successor.sequence;
+      node.value = successor.value;
+      node.right = delete(node.right, successor.start, successor.sequence);
+    }
+    return balance(node);
+  }
+
+  private static int height(final Node<?> node) {
+    return node == null ? 0 : node.height;
+  }
+
+  private static void update(final Node<?> node) {
+    node.height = 1 + Math.max(height(node.left), height(node.right));
+    long maxEnd = node.end;
+    if (node.left != null) {
+      maxEnd = Math.max(maxEnd, node.left.maxEnd);
+    }
+    if (node.right != null) {
+      maxEnd = Math.max(maxEnd, node.right.maxEnd);
+    }
+    node.maxEnd = maxEnd;
+  }
+
+  private static <T> Node<T> balance(final Node<T> node) {
+    update(node);
+    int factor = height(node.left) - height(node.right);
+    if (factor > 1) {
+      if (height(node.left.left) < height(node.left.right)) {
+        node.left = rotateLeft(node.left);
+      }
+      return rotateRight(node);
+    }
+    if (factor < -1) {
+      if (height(node.right.right) < height(node.right.left)) {
+        node.right = rotateRight(node.right);
+      }
+      return rotateLeft(node);
+    }
+    return node;
+  }
+
+  private static <T> Node<T> rotateLeft(final Node<T> node) {
+    Node<T> pivot = node.right;
+    node.right = pivot.left;
+    pivot.left = node;
+    update(node);
+    update(pivot);
+    return pivot;
+  }
+
+  private static <T> Node<T> rotateRight(final Node<T> node) {
+    Node<T> pivot = node.left;
+    node.left = pivot.right;
+    pivot.right = node;
+    update(node);
+    update(pivot);
+    return pivot;
+  }
+}
@@ -59,7 +59,9 @@ public class Line {
   public Line(final int lineId, final List<Station> lineStations) {
     super();
     this.id = lineId;
-    this.color = Data.getInstance().getLinesColors()[id];
+    // colors are reused past the last one, for the networks of many lines
+    Color[] colors = Data.getInstance().getLinesColors();
+    this.color = colors[Math.floorMod(id, colors.length)];
     this.stations = lineStations;
     this.name = ActionFile.toAlphabetic(this.id);
   }
@@ -0,0 +1,136 @@
+/*
+ * License : MIT License
+ *
+ * Copyright (c) 2023 Team PFE_2023_16
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.example.model;
+
+/**
+ * Spherical Mercator projection used to store the {@link Station} and
+ * {@link Area} positions once, as world pixels at zoom 0 (a 256 pixels wide
+ * world, same projection as the OSM tiles).
+ *
+ * <p>Screen positions are obtained with an affine transform of these world
+ * coordinates (scale by 2^zoom and translation by the top left corner of the
+ * displayed map), so that zooming or panning never has to update the
+ * models.</p>
+ *
+ * @author Team PFE_2023_16
+ * @file MercatorProjection.java
+ * @date 2026-10-17
+ * @since 3.0
+ */
+public final class MercatorProjection {
+  /**
+   * Size of the world in pixels at zoom 0.
+   */
+  public static final double WORLD_SIZE = 256;
+  /**
+   * Maximum latitude of the projection.
+   */
+  public static final double MAX_LAT = 85.05112877980659;
+  /**
+   * Half a turn in degrees.
+   */
+  private static final double HALF_TURN = 180;
+  /**
+   * Full turn in degrees.
+   */
+  private static final double FULL_TURN = 360;
+
+  /**
+   * Private constructor, utility class.
+   */
+  private MercatorProjection() {
+  }
+
+  /**
+   * Project a longitude.
+   *
+   * @param longitude longitude in degrees
+   * @return double world x coordinate at zoom 0
+   */
+  public static double lonToWorldX(final double longitude) {
+    return WORLD_SIZE * (longitude + HALF_TURN) / FULL_TURN;
+  }
+
+  /**
+   * Project a latitude.
+   *
+   * @param latitude latitude in degrees
+   * @return double world y coordinate at zoom 0
+   */
+  public static double latToWorldY(final double latitude) {
+    double lat = Math.max(-MAX_LAT, Math.min(MAX_LAT, latitude));
+    double sinLat = Math.sin(Math.toRadians(lat));
+    double log = Math.log((1.0 + sinLat) / (1.0 - sinLat));
+    return WORLD_SIZE * (0.5 - log / (4.0 * Math.PI));
+  }
+
+  /**
+   * Get the longitude of a world x coordinate.
+   *
+   * @param worldX world x coordinate at zoom 0
+   * @return double longitude in degrees
+   */
+  public static double worldXToLon(final double worldX) {
+    return FULL_TURN * worldX / WORLD_SIZE - HALF_TURN;
+  }
+
+  /**
+   * Get the latitude of a world y coordinate.
+   *
+   * @param worldY world y coordinate at zoom 0
+   * @return double latitude in degrees
+   */
+  public static double worldYToLat(final double worldY) {
+    double n = Math.PI - 2.0 * Math.PI * worldY / WORLD_SIZE;
+    return Math.toDegrees(Math.atan(Math.sinh(n)));
+  }
+
+  /**
+   * Convert a world coordinate to a screen coordinate, rounded the same way
+   * as the tile sources do.
+   *
+   * @param world  world coordinate at zoom 0
+   * @param zoom   zoom level of the map
+   * @param origin world pixel (at this zoom) of the screen top left corner
+   * @return int screen coordinate
+   */
+  public static int toScreen(final double world, final int zoom,
+                             final int origin) {
+    return (int) Math.round(world * (1L << zoom)) - origin;
+  }
+
+  /**
+   * Convert a screen coordinate to a world coordinate.
+   *
+   * @param screen screen coordinate
+   * @param zoom   zoom level of the map
+   * @param origin world pixel (at this zoom) of the screen top left corner
+   * @return double world coordinate at zoom 0
+   */
+  public static double toWorld(final int screen, final int zoom,
+                               final int origin) {
+    return ((double) screen + origin) / (1L << zoom);
+  }
+}
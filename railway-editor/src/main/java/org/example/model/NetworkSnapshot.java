@@ -0,0 +1,538 @@
+/*
+ * License : MIT License
+ *
+ * Copyright (c) 2023 Team PFE_2023_16
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.example.model;
+
+import java.awt.Color;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Immutable state of a network: its lines, areas, events and location.
+ *
+ * <p>A snapshot is captured from the models after each edit, on the thread
+ * editing them, and can then be read from any thread, to export the network
+ * or to launch the simulator while the edition goes on. The lines, stations
+ * and areas left unchanged since the previous snapshot are shared with it,
+ * so capturing allocates only for what changed and a history of snapshots
+ * costs little more than the edits themselves.</p>
+ *
+ * <p>A station shared by several lines is captured once, so the lines of the
+ * restored network share it again.</p>
+ *
+ * <p>The area of each station is kept with the lines, from an
+ * {@link AreaIndex} of the areas. It is found again only for the stations
+ * of the changed lines, or for the stations inside the old or new bounds of
+ * the changed areas, so restoring the network for the export does not join
+ * the stations and the areas again.</p>
+ *
+ * @author Team PFE_2023_16
+ * @file NetworkSnapshot.java
+ * @date 2026-10-17
+ * @since 3.0
+ */
+public final class NetworkSnapshot {
+  /** Snapshot of a network without lines, areas nor events. */
+  public static final NetworkSnapshot EMPTY = new NetworkSnapshot(
+      Collections.emptyList(), Collections.emptyList(),
+      Collections.emptyList(), Collections.emptyList(),
+      new AreaIndex(new double[0]), 0, 0, 0);
+
+  /** Lines of the network. */
+  private final List<LineSnapshot> lines;
+  /** Areas of the network. */
+  private final List<AreaSnapshot> areas;
+  /**
+   * Position in the areas list of the area of each station of each line, -1
+   * for a station outside every area. Shared with the previous snapshot
+   * for the lines whose areas did not change.
+   */
+  private final List<int[]> stationAreas;
+  /** Index of the bounds of the areas. */
+  private final AreaIndex areaIndex;
+  /** Events of the network. */
+  private final List<Event> events;
+  /** Latitude of the center of the map. */
+  private final double latitude;
+  /** Longitude of the center of the map. */
+  private final double longitude;
+  /** Zoom of the map. */
+  private final int zoom;
+
+  private NetworkSnapshot(final List<LineSnapshot> snapshotLines,
+                          final List<AreaSnapshot> snapshotAreas,
+                          final List<Event> snapshotEvents,
+                          final List<int[]> snapshotStationAreas,
+                          final AreaIndex snapshotAreaIndex,
+                          final double centerLatitude,
+                          final double centerLongitude,
+                          final int mapZoom) {
+    this.lines = snapshotLines;
+    this.areas = snapshotAreas;
+    this.stationAreas = snapshotStationAreas;
+    this.areaIndex = snapshotAreaIndex;
+    this.events = snapshotEvents;
+    this.latitude = centerLatitude;
+    this.longitude = centerLongitude;
+    this.zoom = mapZoom;
+  }
+
+  /**
+   * Capture the state of a network, sharing what did not change with the
+   * previous snapshot. Must be called on the thread editing the models.
+   *
+   * @param previous        the previous snapshot of the network
+   * @param liveLines       the lines of the network
+   * @param liveAreas       the areas of the network
+   * @param liveEvents      the events of the network, which are not modified
+   *                        once created
+   * @param centerLatitude  latitude of the center of the map
+   * @param centerLongitude longitude of the center of the map
+   * @param mapZoom         zoom of the map
+   * @return the previous snapshot itself if nothing changed, a new one
+   *     otherwise
+   */
+  public static NetworkSnapshot capture(final NetworkSnapshot previous,
+                                        final List<Line> liveLines,
+                                        final List<Area> liveAreas,
+                                        final List<Event> liveEvents,
+                                        final double centerLatitude,
+                                        final double centerLongitude,
+                                        final int mapZoom) {
+    // The stations of the unchanged lines are registered first, so that a
+    // changed line shares them too.
+    Map<Station, StationSnapshot> stations = new IdentityHashMap<>();
+    LineSnapshot[] captured = new LineSnapshot[liveLines.size()];
+    for (int i = 0; i < captured.length; i++) {
+      LineSnapshot old = i < previous.lines.size() ? previous.lines.get(i)
+          : null;
+      if (old != null && old.matches(liveLines.get(i))) {
+        captured[i] = old;
+        List<Station> live = liveLines.get(i).getStations();
+        for (int j = 0; j < live.size(); j++) {
+          stations.putIfAbsent(live.get(j), old.stations.get(j));
+        }
+      }
+    }
+    List<LineSnapshot> lines = new ArrayList<>(captured.length);
+    for (int i = 0; i < captured.length; i++) {
+      lines.add(captured[i] != null ? captured[i]
+          : new LineSnapshot(liveLines.get(i), stations));
+    }
+
+    List<AreaSnapshot> areas = new ArrayList<>(liveAreas.size());
+    for (int i = 0; i < liveAreas.size(); i++) {
+      AreaSnapshot old = i < previous.areas.size() ? previous.areas.get(i)
+          : null;
+      Area area = liveAreas.get(i);
+      areas.add(old != null && old.matches(area) ? old
+          : new AreaSnapshot(area));
+    }
+
+    List<LineSnapshot> sharedLines = sameElements(previous.lines, lines)
+        ? previous.lines : Collections.unmodifiableList(lines);
+    List<AreaSnapshot> sharedAreas = sameElements(previous.areas, areas)
+        ? previous.areas : Collections.unmodifiableList(areas);
+    List<Event> sharedEvents = sameElements(previous.events, liveEvents)
+        ? previous.events
+        : Collections.unmodifiableList(new ArrayList<>(liveEvents));
+    if (sharedLines == previous.lines && sharedAreas == previous.areas
+        && sharedEvents == previous.events
+        && centerLatitude == previous.latitude
+        && centerLongitude == previous.longitude
+        && mapZoom == previous.zoom) {
+      return previous;
+    }
+    AreaIndex index = sharedAreas == previous.areas ? previous.areaIndex
+        : new AreaIndex(worldBounds(sharedAreas));
+    List<int[]> stationAreas = sharedLines == previous.lines
+        && sharedAreas == previous.areas ? previous.stationAreas
+        : assignAreas(previous, sharedLines, sharedAreas, index);
+    return new NetworkSnapshot(sharedLines, sharedAreas, sharedEvents,
+        stationAreas, index, centerLatitude, centerLongitude, mapZoom);
+  }
+
+  /**
+   * Find the area of the stations of each line, reusing the areas of the
+   * previous snapshot for its lines whose stations are outside the changed
+   * areas.
+   *
+   * @param previous the previous snapshot
+   * @param lines    the lines of the new snapshot
+   * @param areas    the areas of the new snapshot
+   * @param index    the index of the areas of the new snapshot
+   * @return the area of each station of each line
+   */
+  private static List<int[]> assignAreas(final NetworkSnapshot previous,
+                                         final List<LineSnapshot> lines,
+                                         final List<AreaSnapshot> areas,
+                                         final AreaIndex index) {
+    // Removing an area moves the following ones in the list: every station
+    // is looked up again.
+    boolean allChanged = areas.size() != previous.areas.size();
+    double[] changedBounds = allChanged ? null
+        : changedBounds(previous.areas, areas);
+    List<int[]> result = new ArrayList<>(lines.size());
+    for (int i = 0; i < lines.size(); i++) {
+      LineSnapshot line = lines.get(i);
+      int[] old = i < previous.lines.size() && previous.lines.get(i) == line
+          ? previous.stationAreas.get(i) : null;
+      int[] assigned = old;
+      for (int j = 0; j < line.stations.size(); j++) {
+        StationSnapshot station = line.stations.get(j);
+        if (old != null && !allChanged
+            && !inside(changedBounds, station.worldX, station.worldY)) {
+          continue;
+        }
+        if (assigned == old) {
+          assigned = old == null ? new int[line.stations.size()]
+              : old.clone();
+        }
+        assigned[j] = index.find(station.worldX, station.worldY);
+      }
+      result.add(assigned != null ? assigned : new int[0]);
+    }
+    return Collections.unmodifiableList(result);
+  }
+
+  /**
+   * Get the old and new bounds of the areas changed between two lists of
+   * the same size.
+   *
+   * @param previous the areas of the previous snapshot
+   * @param current  the areas of the new snapshot
+   * @return the bounds of the changed areas, before and after the change
+   */
+  private static double[] changedBounds(final List<AreaSnapshot> previous,
+                                        final List<AreaSnapshot> current) {
+    List<AreaSnapshot> changed = new ArrayList<>();
+    for (int i = 0; i < current.size(); i++) {
+      if (previous.get(i) != current.get(i)) {
+        changed.add(previous.get(i));
+        changed.add(current.get(i));
+      }
+    }
+    return worldBounds(changed);
+  }
+
+  private static boolean inside(final double[] bounds, final double worldX,
+                                final double worldY) {
+    for (int i = 0; i < bounds.length / AreaIndex.BOUNDS; i++) {
+      if (AreaIndex.contains(bounds, i, worldX, worldY)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static double[] worldBounds(final List<AreaSnapshot> areas) {
+    double[] bounds = new double[areas.size() * AreaIndex.BOUNDS];
+    for (int i = 0; i < areas.size(); i++) {
+      AreaSnapshot area = areas.get(i);
+      bounds[i * AreaIndex.BOUNDS] = area.worldLeft;
+      bounds[i * AreaIndex.BOUNDS + 1] = area.worldTop;
+      bounds[i * AreaIndex.BOUNDS + 2] = area.worldRight;
+      bounds[i * AreaIndex.BOUNDS + 3] = area.worldBot;
+    }
+    return bounds;
+  }
+
+  private static boolean sameElements(final List<?> previous,
+                                      final List<?> current) {
+    if (previous.size() != current.size()) {
+      return false;
+    }
+    for (int i = 0; i < previous.size(); i++) {
+      if (previous.get(i) != current.get(i)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Check if the lines and areas of the network are the ones of another
+   * snapshot, whatever its events and location.
+   *
+   * @param other the other snapshot
+   * @return true if both snapshots share their lines and areas
+   */
+  public boolean sameNetwork(final NetworkSnapshot other) {
+    return this.lines == other.lines && this.areas == other.areas;
+  }
+
+  /**
+   * Create new line models from the snapshot, the stations shared by several
+   * lines being shared by the new lines too.
+   *
+   * @return the new lines
+   */
+  public List<Line> toLines() {
+    return toLines(null);
+  }
+
+  /**
+   * Create new line models from the snapshot, the stations shared by several
+   * lines being shared by the new lines too, and give each station its area
+   * among new area models of the snapshot.
+   *
+   * @param areaModels the areas created by {@link #toAreas()}, null to leave
+   *                   the stations without area
+   * @return the new lines
+   */
+  public List<Line> toLines(final List<Area> areaModels) {
+    Map<StationSnapshot, Station> stations = new IdentityHashMap<>();
+    List<Line> result = new ArrayList<>(this.lines.size());
+    for (int i = 0; i < this.lines.size(); i++) {
+      LineSnapshot line = this.lines.get(i);
+      int[] assigned = this.stationAreas.get(i);
+      List<Station> lineStations = new ArrayList<>(line.stations.size());
+      for (int j = 0; j < line.stations.size(); j++) {
+        StationSnapshot station = line.stations.get(j);
+        Station model = stations.get(station);
+        if (model == null) {
+          model = new Station(station.id, station.latitude, station.longitude,
+              station.name);
+          if (areaModels != null && assigned[j] >= 0) {
+            model.setAreas(areaModels.get(assigned[j]));
+          }
+          stations.put(station, model);
+        }
+        lineStations.add(model);
+      }
+      Line model = new Line(line.id, lineStations);
+      model.setColor(line.color);
+      result.add(model);
+    }
+    return result;
+  }
+
+  /**
+   * Create new area models from the snapshot.
+   *
+   * @return the new areas
+   */
+  public List<Area> toAreas() {
+    List<Area> result = new ArrayList<>(this.areas.size());
+    for (AreaSnapshot area : this.areas) {
+      result.add(new Area(area.id, area.latitudeTop, area.longitudeTop,
+          area.latitudeBot, area.longitudeBot, area.color, area.population,
+          area.destination));
+    }
+    return result;
+  }
+
+  /**
+   * get the events of the network.
+   *
+   * @return List unmodifiable list of the events
+   */
+  public List<Event> getEvents() {
+    return events;
+  }
+
+  /**
+   * get the number of lines of the network.
+   *
+   * @return int number of lines
+   */
+  public int getLineCount() {
+    return lines.size();
+  }
+
+  /**
+   * get the number of areas of the network.
+   *
+   * @return int number of areas
+   */
+  public int getAreaCount() {
+    return areas.size();
+  }
+
+  /**
+   * get the latitude of the center of the map.
+   *
+   * @return double latitude
+   */
+  public double getLatitude() {
+    return latitude;
+  }
+
+  /**
+   * get the longitude of the center of the map.
+   *
+   * @return double longitude
+   */
+  public double getLongitude() {
+    return longitude;
+  }
+
+  /**
+   * get the zoom of the map.
+   *
+   * @return int zoom
+   */
+  public int getZoom() {
+    return zoom;
+  }
+
+  /**
+   * Captured station.
+   */
+  private static final class StationSnapshot {
+    /** Station id. */
+    private final int id;
+    /** Station name. */
+    private final String name;
+    /** Station latitude. */
+    private final double latitude;
+    /** Station longitude. */
+    private final double longitude;
+    /** Station x in world pixels at zoom 0. */
+    private final double worldX;
+    /** Station y in world pixels at zoom 0. */
+    private final double worldY;
+
+    StationSnapshot(final Station station) {
+      this.id = station.getId();
+      this.name = station.getName();
+      this.latitude = station.getLatitude();
+      this.longitude = station.getLongitude();
+      this.worldX = station.getWorldX();
+      this.worldY = station.getWorldY();
+    }
+
+    boolean matches(final Station station) {
+      return this.id == station.getId()
+          && this.latitude == station.getLatitude()
+          && this.longitude == station.getLongitude()
+          && Objects.equals(this.name, station.getName());
+    }
+  }
+
+  /**
+   * Captured line.
+   */
+  private static final class LineSnapshot {
+    /** Line id. */
+    private final int id;
+    /** Line color. */
+    private final Color color;
+    /** Stations of the line, in order. */
+    private final List<StationSnapshot> stations;
+
+    LineSnapshot(final Line line, final Map<Station, StationSnapshot> shared) {
+      this.id = line.getId();
+      this.color = line.getColor();
+      List<StationSnapshot> lineStations = new ArrayList<>(
+          line.getStations().size());
+      for (Station station : line.getStations()) {
+        StationSnapshot snapshot = shared.get(station);
+        if (snapshot == null) {
+          snapshot = new StationSnapshot(station);
+          shared.put(station, snapshot);
+        }
+        lineStations.add(snapshot);
+      }
+      this.stations = Collections.unmodifiableList(lineStations);
+    }
+
+    boolean matches(final Line line) {
+      List<Station> live = line.getStations();
+      if (this.id != line.getId() || !this.color.equals(line.getColor())
+          || this.stations.size() != live.size()) {
+        return false;
+      }
+      for (int i = 0; i < live.size(); i++) {
+        if (!this.stations.get(i).matches(live.get(i))) {
+          return false;
+        }
+      }
+      return true;
+    }
+  }
+
+  /**
+   * Captured area.
+   */
+  private static final class AreaSnapshot {
+    /** Area id. */
+    private final int id;
+    /** Latitude of the top left corner. */
+    private final double latitudeTop;
+    /** Longitude of the top left corner. */
+    private final double longitudeTop;
+    /** Latitude of the bottom right corner. */
+    private final double latitudeBot;
+    /** Longitude of the bottom right corner. */
+    private final double longitudeBot;
+    /** Left side x in world pixels at zoom 0. */
+    private final double worldLeft;
+    /** Top side y in world pixels at zoom 0. */
+    private final double worldTop;
+    /** Right side x in world pixels at zoom 0. */
+    private final double worldRight;
+    /** Bottom side y in world pixels at zoom 0. */
+    private final double worldBot;
+    /** Area color. */
+    private final Color color;
+    /** Population distribution. */
+    private final Map<String, Integer> population;
+    /** Destination distribution. */
+    private final Map<String, Integer> destination;
+
+    AreaSnapshot(final Area area) {
+      this.id = area.getId();
+      this.latitudeTop = area.getLatitudeTop();
+      this.longitudeTop = area.getLongitudeTop();
+      this.latitudeBot = area.getLatitudeBot();
+      this.longitudeBot = area.getLongitudeBot();
+      this.worldLeft = area.getWorldLeft();
+      this.worldTop = area.getWorldTop();
+      this.worldRight = area.getWorldRight();
+      this.worldBot = area.getWorldBot();
+      this.color = area.getColor();
+      this.population = Collections.unmodifiableMap(
+          new HashMap<>(area.getDistributionPopulation()));
+      this.destination = Collections.unmodifiableMap(
+          new HashMap<>(area.getDistributionDestination()));
+    }
+
+    boolean matches(final Area area) {
+      return this.id == area.getId()
+          && this.latitudeTop == area.getLatitudeTop()
+          && this.longitudeTop == area.getLongitudeTop()
+          && this.latitudeBot == area.getLatitudeBot()
+          && this.longitudeBot == area.getLongitudeBot()
+          && this.color.equals(area.getColor())
+          && this.population.equals(area.getDistributionPopulation())
+          && this.destination.equals(area.getDistributionDestination());
+    }
+  }
+}
@@ -0,0 +1,202 @@
+/*
+ * License : MIT License
+ *
+ * Copyright (c) 2023 Team PFE_2023_16
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.example.model;
+
+/**
+ * Projection service of the models: converts the world coordinates of the
+ * {@link Station} and {@link Area} models to pixel positions on the current
+ * {@link Viewport} and back.
+ *
+ * <p>Until the map panel of the editor registers itself, the viewport is a
+ * {@link FixedViewport}, so the models can be loaded, edited and exported
+ * without any window (batch jobs, tests).</p>
+ *
+ * @author Team PFE_2023_16
+ * @file Projection.java
+ * @date 2026-10-17
+ * @since 3.0
+ */
+public final class Projection {
+  /**
+   * Zoom of the viewport used without the editor, precise to about a meter
+   * per pixel at the latitudes of Europe.
+   */
+  public static final int HEADLESS_ZOOM = 17;
+  /** Singleton instance. */
+  private static Projection instance;
+
+  /** Current viewport. */
+  private volatile Viewport viewport;
+
+  /**
+   * Private constructor, the viewport is a fixed one at first.
+   */
+  private Projection() {
+    this.viewport = new FixedViewport(HEADLESS_ZOOM, 0, 0);
+  }
+
+  /**
+   * Create Projection Singleton.
+   *
+   * @return Projection instance
+   */
+  public static synchronized Projection getInstance() {
+    if (instance == null) {
+      instance = new Projection();
+    }
+    return instance;
+  }
+
+  /**
+   * get the current viewport.
+   *
+   * @return Viewport viewport
+   */
+  public Viewport getViewport() {
+    return viewport;
+  }
+
+  /**
+   * set the viewport the pixel positions are relative to.
+   *
+   * @param viewportToSet the new viewport
+   */
+  public void setViewport(final Viewport viewportToSet) {
+    if (viewportToSet == null) {
+      throw new IllegalArgumentException("The viewport cannot be null");
+    }
+    this.viewport = viewportToSet;
+  }
+
+  /**
+   * Convert a world x coordinate to a pixel position on the viewport.
+   *
+   * @param worldX world x coordinate at zoom 0
+   * @return int x position on the map
+   */
+  public int toScreenX(final double worldX) {
+    Viewport current = viewport;
+    return MercatorProjection.toScreen(worldX, current.getZoom(),
+        current.getOriginX());
+  }
+
+  /**
+   * Convert a world y coordinate to a pixel position on the viewport.
+   *
+   * @param worldY world y coordinate at zoom 0
+   * @return int y position on the map
+   */
+  public int toScreenY(final double worldY) {
+    Viewport current = viewport;
+    return MercatorProjection.toScreen(worldY, current.getZoom(),
+        current.getOriginY());
+  }
+
+  /**
+   * Convert a pixel x position on the viewport to a world coordinate.
+   *
+   * @param screenX x position on the map
+   * @return double world x coordinate at zoom 0
+   */
+  public double toWorldX(final int screenX) {
+    Viewport current = viewport;
+    return MercatorProjection.toWorld(screenX, current.getZoom(),
+        current.getOriginX());
+  }
+
+  /**
+   * Convert a pixel y position on the viewport to a world coordinate.
+   *
+   * @param screenY y position on the map
+   * @return double world y coordinate at zoom 0
+   */
+  public double toWorldY(final int screenY) {
+    Viewport current = viewport;
+    return MercatorProjection.toWorld(screenY, current.getZoom(),
+        current.getOriginY());
+  }
+
+  /**
+   * Viewport which never moves, used without the editor.
+   */
+  public static final class FixedViewport implements Viewport {
+    /** Zoom level. */
+    private final int zoom;
+    /** World pixel x of the top left corner. */
+    private final int originX;
+    /** World pixel y of the top left corner. */
+    private final int originY;
+
+    /**
+     * Constructor of a fixed viewport.
+     *
+     * @param viewportZoom    zoom level
+     * @param viewportOriginX world pixel x of the top left corner
+     * @param viewportOriginY world pixel y of the top left corner
+     */
+    public FixedViewport(final int viewportZoom, final int viewportOriginX,
+                         final int viewportOriginY) {
+      this.zoom = viewportZoom;
+      this.originX = viewportOriginX;
+      this.originY = viewportOriginY;
+    }
+
+    /**
+     * Fixed viewport of a given size centered on a position.
+     *
+     * @param latitude  latitude of the center
+     * @param longitude longitude of the center
+     * @param zoom      zoom level
+     * @param width     width in pixels
+     * @param height    height in pixels
+     * @return FixedViewport viewport
+     */
+    public static FixedViewport centeredOn(final double latitude,
+                                           final double longitude,
+                                           final int zoom, final int width,
+                                           final int height) {
+      return new FixedViewport(zoom,
+          MercatorProjection.toScreen(MercatorProjection.lonToWorldX(
+              longitude), zoom, 0) - width / 2,
+          MercatorProjection.toScreen(MercatorProjection.latToWorldY(
+              latitude), zoom, 0) - height / 2);
+    }
+
+    @Override
+    public int getZoom() {
+      return zoom;
+    }
+
+    @Override
+    public int getOriginX() {
+      return originX;
+    }
+
+    @Override
+    public int getOriginY() {
+      return originY;
+    }
+  }
+}
@@ -25,16 +25,15 @@
 package org.example.model;
 
 import org.example.data.Data;
-import org.example.view.MainPanel;
-import org.openstreetmap.gui.jmapviewer.Coordinate;
-import org.example.view.MainWindow;
-import org.openstreetmap.gui.jmapviewer.interfaces.ICoordinate;
-
-import java.awt.Point;
 
 /**
  * Model class to describe a station.
  *
+ * <p>The position is stored once in projected world coordinates (see
+ * {@link MercatorProjection}), the pixel position on the map is computed
+ * from the current {@link Viewport} when requested (see
+ * {@link Projection}).</p>
+ *
  * @author Arthur Lagarce
  * @author Aurélie Chamouleau
  * @file Station.java
@@ -44,10 +43,10 @@ import java.awt.Point;
 public class Station {
 
   //attributes
-  /** Station posX in pixel. */
-  private int posX;
-  /** Station posY in pixel. */
-  private int posY;
+  /** Station x position in world pixels at zoom 0. */
+  private double worldX;
+  /** Station y position in world pixels at zoom 0. */
+  private double worldY;
   /** Station name. */
   private String name;
   /** Station id. */
@@ -64,8 +63,8 @@ public class Station {
    * Constructor for a station.
    */
   public Station() {
-    this.posX = 0;
-    this.posY = 0;
+    this.worldX = 0;
+    this.worldY = 0;
     this.name = Data.getStationsNames()[0];
   }
 
@@ -81,13 +80,9 @@ public class Station {
                  final int stationPosY, final String stationName) {
     super();
     this.id = stationId;
-    this.posX = stationPosX;
-    this.posY = stationPosY;
     this.name = stationName;
-    ICoordinate latLon = MainWindow.getInstance().getMainPanel()
-        .getPosition(this.posX, this.posY);
-    this.latitude = latLon.getLat();
-    this.longitude = latLon.getLon();
+    this.setPosX(stationPosX);
+    this.setPosY(stationPosY);
   }
 
   /**
@@ -102,56 +97,52 @@ public class Station {
                  final double posLongitude, final String stationName) {
     super();
     this.id = stationId;
-    this.latitude = posLatitude;
-    this.longitude = posLongitude;
     this.name = stationName;
-    Point stationPosition =
-        MainPanel.getInstance().getMapPosition(this.latitude, this.longitude);
-    if (stationPosition != null) {
-      this.posX = stationPosition.x;
-      this.posY = stationPosition.y;
-    }
+    this.setLatitude(posLatitude);
+    this.setLongitude(posLongitude);
   }
 
   //accessors
 
   /**
-   * get station posX in pixel.
+   * get station posX in pixel on the map.
    *
    * @return posX
    */
   public int getPosX() {
-    return posX;
+    return Projection.getInstance().toScreenX(worldX);
   }
 
 
   /**
-   * set station posX in pixel.
+   * set station posX in pixel on the map and update its longitude.
    *
    * @param stationPosX station positionX
    */
   public void setPosX(final int stationPosX) {
-    this.posX = stationPosX;
+    this.worldX = Projection.getInstance().toWorldX(stationPosX);
+    this.longitude = MercatorProjection.worldXToLon(worldX);
   }
 
 
   /**
-   * get station posY in pixel.
+   * get station posY in pixel on the map.
    *
    * @return posY
    */
   public int getPosY() {
-    return posY;
+    return Projection.getInstance().toScreenY(worldY);
   }
 
 
   /**
-   * set stationPosY in pixel.
+   * set stationPosY in pixel on the map and update its latitude.
    *
    * @param stationPosY station positionY
    */
   public void setPosY(final int stationPosY) {
-    this.posY = stationPosY;
+    this.worldY = Projection.getInstance().toWorldY(stationPosY);
+    this.latitude = MercatorProjection.worldYToLat(worldY);
   }
 
 
@@ -171,6 +162,7 @@ public class Station {
    */
   public void setLatitude(final double stationLatitude) {
     this.latitude = stationLatitude;
+    this.worldY = MercatorProjection.latToWorldY(stationLatitude);
   }
 
   /**
@@ -189,6 +181,7 @@ public class Station {
    */
   public void setLongitude(final double stationLongitude) {
     this.longitude = stationLongitude;
+    this.worldX = MercatorProjection.lonToWorldX(stationLongitude);
   }
 
   /**
@@ -257,13 +250,25 @@ public class Station {
    * @param dy deltaY
    */
   public void moveStation(final int dx, final int dy) {
-    this.posX += dx;
-    this.posY += dy;
-    this.setPosX(this.posX);
-    this.setPosY(this.posY);
-    Coordinate latLon = (Coordinate) MainWindow.getInstance().getMainPanel()
-        .getPosition(this.posX, this.posY);
-    this.setLatitude(latLon.getLat());
-    this.setLongitude(latLon.getLon());
+    this.setPosX(this.getPosX() + dx);
+    this.setPosY(this.getPosY() + dy);
+  }
+
+  /**
+   * get station x position in world pixels at zoom 0.
+   *
+   * @return double worldX
+   */
+  public double getWorldX() {
+    return worldX;
+  }
+
+  /**
+   * get station y position in world pixels at zoom 0.
+   *
+   * @return double worldY
+   */
+  public double getWorldY() {
+    return worldY;
   }
 }
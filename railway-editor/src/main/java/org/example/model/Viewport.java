@@ -0,0 +1,62 @@
+/*
+ * License : MIT License
+ *
+ * Copyright (c) 2023 Team PFE_2023_16
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.example.model;
+
+/**
+ * Part of the world displayed on the map, used to convert the world
+ * coordinates of the {@link Station} and {@link Area} models to pixel
+ * positions and back (see {@link Projection}).
+ *
+ * <p>The map panel of the editor is the viewport when the editor is
+ * displayed, a {@link Projection.FixedViewport} is used otherwise.</p>
+ *
+ * @author Team PFE_2023_16
+ * @file Viewport.java
+ * @date 2026-10-17
+ * @since 3.0
+ */
+public interface Viewport {
+
+  /**
+   * get the zoom level of the map.
+   *
+   * @return int zoom
+   */
+  int getZoom();
+
+  /**
+   * get the world pixel x (at the zoom of the map) of the top left corner.
+   *
+   * @return int originX
+   */
+  int getOriginX();
+
+  /**
+   * get the world pixel y (at the zoom of the map) of the top left corner.
+   *
+   * @return int originY
+   */
+  int getOriginY();
+}
@@ -24,31 +24,74 @@
 
 package org.example.view;
 
+import org.example.controller.NetworkCore;
 import org.example.data.Data;
-import org.jdesktop.swingx.JXLabel;
-import org.jdesktop.swingx.JXTaskPane;
-import org.jdesktop.swingx.JXTaskPaneContainer;
+import org.example.model.Event;
+import org.example.model.EventBetween2Stations;
+import org.example.model.EventGaussianPeak;
+import org.example.model.EventHour;
+import org.example.model.EventLineClosed;
+import org.example.model.EventLineDelay;
+import org.example.model.EventPeak;
+import org.example.model.EventStationClosed;
+import org.example.model.EventTimeline;
+import org.example.model.Station;
 
 import javax.swing.AbstractAction;
+import javax.swing.JButton;
+import javax.swing.JComboBox;
+import javax.swing.JComponent;
+import javax.swing.JLabel;
+import javax.swing.JPanel;
 import javax.swing.JScrollPane;
-import javax.swing.SwingConstants;
+import javax.swing.JTable;
+import javax.swing.JTextField;
+import javax.swing.KeyStroke;
+import javax.swing.ListSelectionModel;
+import javax.swing.RowFilter;
 import javax.swing.border.TitledBorder;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import javax.swing.table.AbstractTableModel;
+import javax.swing.table.DefaultTableCellRenderer;
+import javax.swing.table.TableRowSorter;
+import java.awt.BorderLayout;
+import java.awt.Color;
+import java.awt.Component;
 import java.awt.Dimension;
-import java.awt.Font;
+import java.awt.GridLayout;
 import java.awt.event.ActionEvent;
+import java.awt.event.KeyEvent;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * Panel which contains a short description of created events.
  *
+ * <p>The events are the rows of a table, painted by a renderer for the
+ * visible rows only, so the list stays light with many events. The rows
+ * can be sorted by any column and filtered by type, line id, station id and
+ * time window. The events conflicting with others (see
+ * {@link org.example.model.EventTimeline}) are shown in red.</p>
+ *
  * @author Arthur Lagarce
  * @author Aurélie Chamouleau
  * @author Alexis BONAMY
  * @author Marie Bordet
- * @file ClockView.java
+ * @file EventRecap.java
  * @date N/A
  * @since 2.0
  */
-public final class EventRecap extends JScrollPane {
+public final class EventRecap extends JPanel {
   /**
    * EventRecap serial version UID.
    */
@@ -58,40 +101,112 @@ public final class EventRecap extends JScrollPane {
   public static final int DEFAULT_WIDTH = 220;
   /** default height of the panel. */
   public static final int DEFAULT_HEIGHT = 600;
-  /** default font of the panel. */
-  private static final String SEGEOE_UI = "Segoe UI";
-  /** string of the for the starting date. */
-  private static final String START_DATE = "Start date: ";
-  /** string of the for the ending date. */
-  private static final String END_DATE = "End date: ";
-  /** string of the for the line. */
-  private static final String LINE = "Line: ";
-  /** string of the for the remove action. */
-  private static final String REMOVE = "remove";
-  /** Main font size. */
-  private static final int MAIN_FONT_SIZE = 12;
-  /** Details font size. */
-  private static final int DETAILS_FONT_SIZE = 11;
+  /** string of the for the station. */
+  private static final String STATION = "Station: ";
+  /** Type filter item showing all the events. */
+  private static final String ALL_EVENTS = "All events";
+  /** Titles of the event types, as in the type filter. */
+  private static final String[] TYPES = {ALL_EVENTS, "Line Delayed",
+      "Multiple Stations Closed", "Gaussian Peak", "Ramp Peak",
+      "Station Closed", "Train Hour", "Line Closed"};
+  /** Format of the dates of the time window filter. */
+  private static final DateTimeFormatter DATE_FORMATTER =
+      DateTimeFormatter.ofPattern("yyyy/MM/dd-HH:mm");
+  /** Width of the id column. */
+  private static final int ID_WIDTH = 30;
+  /** Width of the other columns. */
+  private static final int COLUMN_WIDTH = 110;
   /**
    * Number of minutes in an hour.
    */
   private static final int MINUTES_IN_HOUR = 60;
   /** Singleton instance of the class. */
   private static EventRecap instance;
-  /** task pane container. */
-  private final JXTaskPaneContainer taskPaneContainer;
+  /** rows of the events. */
+  private final EventTableModel tableModel;
+  /** table of the events. */
+  private final JTable table;
+  /** sorter and filter of the table. */
+  private final TableRowSorter<EventTableModel> sorter;
+  /** event type filter. */
+  private final JComboBox<String> typeFilter;
+  /** line filter. */
+  private final JTextField lineFilter;
+  /** station filter. */
+  private final JTextField stationFilter;
+  /** start of the time window filter. */
+  private final JTextField fromFilter;
+  /** end of the time window filter. */
+  private final JTextField toFilter;
+  /** number of events shown. */
+  private final JLabel countLabel;
 
 
   /**
    * Constructor of the class.
    */
   private EventRecap() {
+    super(new BorderLayout());
     this.setPreferredSize(new Dimension(DEFAULT_WIDTH,
         DEFAULT_HEIGHT));
     TitledBorder eventRecapBorder = new TitledBorder("Events List");
     this.setBorder(eventRecapBorder);
-    this.taskPaneContainer = new JXTaskPaneContainer();
-    this.eventsListRemoveBackground();
+
+    this.tableModel = new EventTableModel();
+    this.table = new JTable(this.tableModel);
+    this.sorter = new TableRowSorter<>(this.tableModel);
+    this.table.setRowSorter(this.sorter);
+    this.table.setAutoResizeMode(JTable.AUTO_RESIZE_OFF);
+    this.table.setSelectionMode(
+        ListSelectionModel.MULTIPLE_INTERVAL_SELECTION);
+    this.table.setDefaultRenderer(Object.class, new EventRenderer());
+    this.table.setDefaultRenderer(Integer.class, new EventRenderer());
+    for (int i = 0; i < this.tableModel.getColumnCount(); i++) {
+      this.table.getColumnModel().getColumn(i).setPreferredWidth(
+          i == 0 ? ID_WIDTH : COLUMN_WIDTH);
+    }
+    AbstractAction removeAction = new AbstractAction("Remove") {
+      /**
+       * Remove action serial version UID.
+       */
+      private static final long serialVersionUID = 1L;
+
+      public void actionPerformed(final ActionEvent e) {
+        removeSelectedEvents();
+      }
+    };
+    this.table.getInputMap(JComponent.WHEN_FOCUSED).put(
+        KeyStroke.getKeyStroke(KeyEvent.VK_DELETE, 0), "remove");
+    this.table.getActionMap().put("remove", removeAction);
+
+    this.typeFilter = new JComboBox<>(TYPES);
+    this.typeFilter.addActionListener(e -> this.applyFilter());
+    this.lineFilter = this.filterField();
+    this.lineFilter.setToolTipText("Line id");
+    this.stationFilter = this.filterField();
+    this.stationFilter.setToolTipText("Station id");
+    this.fromFilter = this.filterField();
+    this.fromFilter.setToolTipText("yyyy/MM/dd-HH:mm");
+    this.toFilter = this.filterField();
+    this.toFilter.setToolTipText("yyyy/MM/dd-HH:mm");
+    this.countLabel = new JLabel();
+
+    JPanel filters = new JPanel(new GridLayout(0, 2));
+    filters.add(new JLabel("Type"));
+    filters.add(this.typeFilter);
+    filters.add(new JLabel("Line"));
+    filters.add(this.lineFilter);
+    filters.add(new JLabel("Station"));
+    filters.add(this.stationFilter);
+    filters.add(new JLabel("From"));
+    filters.add(this.fromFilter);
+    filters.add(new JLabel("To"));
+    filters.add(this.toFilter);
+    filters.add(this.countLabel);
+    filters.add(new JButton(removeAction));
+    this.add(filters, BorderLayout.NORTH);
+    this.add(new JScrollPane(this.table), BorderLayout.CENTER);
+    this.updateCount();
   }
 
   /**
@@ -107,12 +222,29 @@ public final class EventRecap extends JScrollPane {
   }
 
   /**
-   * Function to remove the native background of the task pane container.
+   * Create a text field applying the filters when edited.
+   *
+   * @return JTextField the field
    */
-  public void eventsListRemoveBackground() {
-    this.taskPaneContainer.setBackgroundPainter(null);
-    this.taskPaneContainer.repaint();
-    this.taskPaneContainer.revalidate();
+  private JTextField filterField() {
+    JTextField field = new JTextField();
+    field.getDocument().addDocumentListener(new DocumentListener() {
+      @Override
+      public void insertUpdate(final DocumentEvent e) {
+        applyFilter();
+      }
+
+      @Override
+      public void removeUpdate(final DocumentEvent e) {
+        applyFilter();
+      }
+
+      @Override
+      public void changedUpdate(final DocumentEvent e) {
+        applyFilter();
+      }
+    });
+    return field;
   }
 
   /**
@@ -130,28 +262,16 @@ public final class EventRecap extends JScrollPane {
                                      final String locationsStr,
                                      final String delayStr,
                                      final String lineStr) {
-    JXTaskPane taskpane = new JXTaskPane();
-    // create a taskpane, and set it's title and icon
-    taskpane.setTitle("Line Delayed");
+    this.addRow(lineDelayedRow(id, startDateStr, endDateStr, locationsStr,
+        delayStr, lineStr));
+  }
+
+  private static Row lineDelayedRow(final int id, final String startDateStr,
+                                    final String endDateStr,
+                                    final String locationsStr,
+                                    final String delayStr,
+                                    final String lineStr) {
     String newDelayStr = delayStr;
-    JXLabel startDate = new JXLabel();
-    startDate.setFont(new Font(SEGEOE_UI, Font.ITALIC, MAIN_FONT_SIZE));
-    startDate.setText(START_DATE + startDateStr);
-    startDate.setHorizontalAlignment(SwingConstants.LEFT);
-    JXLabel endDate = new JXLabel();
-    endDate.setFont(new Font(SEGEOE_UI, Font.ITALIC, MAIN_FONT_SIZE));
-    endDate.setText(END_DATE + endDateStr);
-    endDate.setHorizontalAlignment(SwingConstants.LEFT);
-    JXLabel locations = new JXLabel();
-    locations.setFont(new Font(SEGEOE_UI, Font.ITALIC, DETAILS_FONT_SIZE));
-    locations.setText(locationsStr);
-    locations.setHorizontalAlignment(SwingConstants.LEFT);
-    JXLabel line = new JXLabel();
-    line.setFont(new Font(SEGEOE_UI, Font.ITALIC, DETAILS_FONT_SIZE));
-    line.setText(LINE + lineStr);
-    line.setHorizontalAlignment(SwingConstants.LEFT);
-    JXLabel delay = new JXLabel();
-    delay.setFont(new Font(SEGEOE_UI, Font.ITALIC, MAIN_FONT_SIZE));
     if (!delayStr.contains(":")) {
       // if for example delay = 186, then delay should be 3:06
       int delayInt = Integer.parseInt(delayStr);
@@ -160,34 +280,8 @@ public final class EventRecap extends JScrollPane {
       newDelayStr = delayHours + ":" + delayMinutes;
       newDelayStr = formatTime(newDelayStr);
     }
-    delay.setText("Delay: " + newDelayStr);
-    delay.setHorizontalAlignment(SwingConstants.LEFT);
-
-    // add various actions and components to the taskpane
-
-    taskpane.add(startDate);
-    taskpane.add(endDate);
-    taskpane.add(locations);
-    taskpane.add(line);
-    taskpane.add(delay);
-    taskpane.add(new AbstractAction(REMOVE) {
-      /**
-       * Remove action serial version UID.
-       */
-      private static final long serialVersionUID = 1L;
-
-      public void actionPerformed(final ActionEvent e) {
-        taskPaneContainer.remove(taskpane);
-        Data.getInstance().getEventList().removeIf(event -> event.getId()
-            == id);
-        taskPaneContainer.revalidate();
-      }
-    });
-
-    // add the task pane to the taskPaneContainer
-    this.taskPaneContainer.add(taskpane);
-    this.setViewportView(taskPaneContainer);
-    taskPaneContainer.revalidate();
+    return new Row(id, TYPES[1], startDateStr, endDateStr, lineStr,
+        locationsStr, "Delay: " + newDelayStr);
   }
 
   /**
@@ -212,11 +306,11 @@ public final class EventRecap extends JScrollPane {
   }
 
   /**
-   * create a recap for event line closed.
+   * Create a recap for event multiple stations closed.
    *
    * @param id           event id
-   * @param startDateStr event start date
-   * @param endDateStr   event end date
+   * @param startDateStr event startDate
+   * @param endDateStr   event endDate
    * @param locationsStr stations concerned
    * @param lineStr      line concerned
    */
@@ -225,360 +319,282 @@ public final class EventRecap extends JScrollPane {
                                                 final String endDateStr,
                                                 final String locationsStr,
                                                 final String lineStr) {
-    JXTaskPane taskpane = new JXTaskPane();
-    // create a taskpane, and set it's title and icon
-    taskpane.setTitle("Multiple Stations Closed");
-
-    JXLabel startDate = new JXLabel();
-    startDate.setFont(new Font(SEGEOE_UI, Font.ITALIC, MAIN_FONT_SIZE));
-    startDate.setText(START_DATE + startDateStr);
-    startDate.setHorizontalAlignment(SwingConstants.LEFT);
-    JXLabel endDate = new JXLabel();
-    endDate.setFont(new Font(SEGEOE_UI, Font.ITALIC, MAIN_FONT_SIZE));
-    endDate.setText(END_DATE + endDateStr);
-    endDate.setHorizontalAlignment(SwingConstants.LEFT);
-    JXLabel locations = new JXLabel();
-    locations.setFont(new Font(SEGEOE_UI, Font.ITALIC, DETAILS_FONT_SIZE));
-    locations.setText(locationsStr);
-    locations.setHorizontalAlignment(SwingConstants.LEFT);
-    JXLabel line = new JXLabel();
-    line.setFont(new Font(SEGEOE_UI, Font.ITALIC, DETAILS_FONT_SIZE));
-    line.setText(LINE + lineStr);
-    line.setHorizontalAlignment(SwingConstants.LEFT);
-
-
-    // add various actions and components to the taskpane
-
-    taskpane.add(startDate);
-    taskpane.add(endDate);
-    taskpane.add(locations);
-    taskpane.add(line);
-    taskpane.add(new AbstractAction(REMOVE
-    ) {
-      /**
-       * Remove action serial version UID.
-       */
-      private static final long serialVersionUID = 1L;
-
-      public void actionPerformed(final ActionEvent e) {
-        taskPaneContainer.remove(taskpane);
-        Data.getInstance().getEventList().removeIf(event -> event.getId()
-            == id);
-        taskPaneContainer.revalidate();
-      }
-    });
-
-    // add the task pane to the taskPaneContainer
-    this.taskPaneContainer.add(taskpane);
-    this.setViewportView(taskPaneContainer);
+    this.addRow(new Row(id, TYPES[2], startDateStr, endDateStr, lineStr,
+        locationsStr, ""));
   }
 
   /**
-   * create a recap for event peak.
-   *
-   * @param taskpane     taskpane to add the recap to
-   * @param startDateStr event start date
-   * @param endDateStr   event end date
-   * @param peakDateStr peak time
-   * @param stationStr   station concerned
-   * @param peakStr      peak amount
-   */
-  public void createEventPeak(JXTaskPane taskpane,
-                              String startDateStr, String endDateStr,
-                              String peakDateStr, String stationStr,
-                              String peakStr) {
-    JXLabel startDate = new JXLabel();
-    startDate.setFont(new Font(SEGEOE_UI, Font.ITALIC, MAIN_FONT_SIZE));
-    startDate.setText(START_DATE + startDateStr);
-    startDate.setHorizontalAlignment(SwingConstants.LEFT);
-    JXLabel endDate = new JXLabel();
-    endDate.setFont(new Font(SEGEOE_UI, Font.ITALIC, MAIN_FONT_SIZE));
-    endDate.setText(END_DATE + endDateStr);
-    endDate.setHorizontalAlignment(SwingConstants.LEFT);
-    JXLabel peakTime = new JXLabel();
-    peakTime.setFont(new Font(SEGEOE_UI, Font.ITALIC, DETAILS_FONT_SIZE));
-    peakTime.setText("Peak time: " + peakDateStr);
-    peakTime.setHorizontalAlignment(SwingConstants.LEFT);
-    JXLabel station = new JXLabel();
-    station.setFont(new Font(SEGEOE_UI, Font.ITALIC, DETAILS_FONT_SIZE));
-    station.setText("Station: " + stationStr);
-    station.setHorizontalAlignment(SwingConstants.LEFT);
-    JXLabel peak = new JXLabel();
-    peak.setFont(new Font(SEGEOE_UI, Font.ITALIC, DETAILS_FONT_SIZE));
-    peak.setText("Peak amount: " + peakStr);
-    peak.setHorizontalAlignment(SwingConstants.LEFT);
-
-    // add various actions and components to the taskpane
-    taskpane.add(startDate);
-    taskpane.add(endDate);
-    taskpane.add(peakTime);
-    taskpane.add(station);
-    taskpane.add(peak);
-  }
-
-  /**
-   * create a recap for event gaussianPeak.
+   * Create a recap for event gaussian peak.
    *
    * @param id           event id
-   * @param startDateStr event start date
-   * @param endDateStr   event end date
-   * @param peakDateStr peak time
+   * @param startDateStr event startDate
+   * @param endDateStr   event endDate
+   * @param peakDateStr  event peakDate
    * @param stationStr   station concerned
-   * @param peakStr      peak amount
-   * @param peakWidthStr peak width
+   * @param peakStr      event peak
+   * @param peakWidthStr event peak width
    */
   public void createEventGaussianPeak(final int id, final String startDateStr,
-                                        final String endDateStr,
-                                        final String peakDateStr,
-                                        final String stationStr,
-                                        final String peakStr,
-                                        final String peakWidthStr) {
-    JXTaskPane taskpane = new JXTaskPane();
-
-    // create a taskpane, and set it's title and icon
-    taskpane.setTitle("Gaussian Peak");
-
-    createEventPeak(taskpane, startDateStr, endDateStr, peakDateStr,
-            stationStr, peakStr);
-    JXLabel peakWidth = new JXLabel();
-    peakWidth.setFont(new Font(SEGEOE_UI, Font.ITALIC, DETAILS_FONT_SIZE));
-    peakWidth.setText("Peak width: " + peakWidthStr);
-    peakWidth.setHorizontalAlignment(SwingConstants.LEFT);
-
-    // add various actions and components to the taskpane
-    taskpane.add(peakWidth);
-    taskpane.add(new AbstractAction(REMOVE) {
-      /**
-       * Remove action serial version UID.
-       */
-      private static final long serialVersionUID = 1L;
-
-      public void actionPerformed(final ActionEvent e) {
-        taskPaneContainer.remove(taskpane);
-        Data.getInstance().getEventList().removeIf(event -> event.getId()
-            == id);
-        taskPaneContainer.revalidate();
-      }
-    });
+                                      final String endDateStr,
+                                      final String peakDateStr,
+                                      final String stationStr,
+                                      final String peakStr,
+                                      final String peakWidthStr) {
+    this.addRow(gaussianPeakRow(id, startDateStr, endDateStr, peakDateStr,
+        stationStr, peakStr, peakWidthStr));
+  }
 
-    // add the task pane to the taskPaneContainer
-    this.taskPaneContainer.add(taskpane);
-    this.setViewportView(taskPaneContainer);
-    taskPaneContainer.revalidate();
+  private static Row gaussianPeakRow(final int id, final String startDateStr,
+                                     final String endDateStr,
+                                     final String peakDateStr,
+                                     final String stationStr,
+                                     final String peakStr,
+                                     final String peakWidthStr) {
+    return new Row(id, TYPES[3], startDateStr, endDateStr, "",
+        STATION + stationStr, "Peak time: " + peakDateStr
+        + ", amount: " + peakStr + ", width: " + peakWidthStr);
   }
 
   /**
-   * create a recap for event rampPeak.
+   * Create a recap for event ramp peak.
    *
    * @param id           event id
-   * @param startDateStr event start date
-   * @param endDateStr   event end date
-   * @param peakDateStr peak time
+   * @param startDateStr event startDate
+   * @param endDateStr   event endDate
+   * @param peakDateStr  event peakDate
    * @param stationStr   station concerned
-   * @param peakStr      peak amount
+   * @param peakStr      event peak
    */
   public void createEventRampPeak(final int id, final String startDateStr,
-                                      final String endDateStr,
-                                      final String peakDateStr,
-                                      final String stationStr,
-                                      final String peakStr) {
-    JXTaskPane taskpane = new JXTaskPane();
-
-    // create a taskpane, and set it's title and icon
-    taskpane.setTitle("Ramp Peak");
-
-    createEventPeak(taskpane, startDateStr, endDateStr, peakDateStr,
-            stationStr, peakStr);
-
-    taskpane.add(new AbstractAction(REMOVE) {
-      /**
-       * Remove action serial version UID.
-       */
-      private static final long serialVersionUID = 1L;
-
-      public void actionPerformed(final ActionEvent e) {
-        taskPaneContainer.remove(taskpane);
-        Data.getInstance().getEventList().removeIf(event -> event.getId()
-                == id);
-        taskPaneContainer.revalidate();
-      }
-    });
+                                  final String endDateStr,
+                                  final String peakDateStr,
+                                  final String stationStr,
+                                  final String peakStr) {
+    this.addRow(rampPeakRow(id, startDateStr, endDateStr, peakDateStr,
+        stationStr, peakStr));
+  }
 
-    // add the task pane to the taskPaneContainer
-    this.taskPaneContainer.add(taskpane);
-    this.setViewportView(taskPaneContainer);
-    taskPaneContainer.revalidate();
+  private static Row rampPeakRow(final int id, final String startDateStr,
+                                 final String endDateStr,
+                                 final String peakDateStr,
+                                 final String stationStr,
+                                 final String peakStr) {
+    return new Row(id, TYPES[4], startDateStr, endDateStr, "",
+        STATION + stationStr, "Peak time: " + peakDateStr
+        + ", amount: " + peakStr);
   }
 
   /**
-   * create a recap for event stationClosed.
+   * Create a recap for event station closed.
    *
    * @param id           event id
-   * @param startDateStr event start date
-   * @param endDateStr   event end date
+   * @param startDateStr event startDate
+   * @param endDateStr   event endDate
    * @param stationStr   station concerned
-   *                     // * @param peakStr peak amount
    */
   public void createEventStationClosed(final int id, final String startDateStr,
                                        final String endDateStr,
                                        final String stationStr) {
-    JXTaskPane taskpane = new JXTaskPane();
-    // create a taskpane, and set it's title and icon
-    taskpane.setTitle("Station Closed");
-
-    JXLabel startDate = new JXLabel();
-    startDate.setFont(new Font(SEGEOE_UI, Font.ITALIC, MAIN_FONT_SIZE));
-    startDate.setText(START_DATE + startDateStr);
-    startDate.setHorizontalAlignment(SwingConstants.LEFT);
-    JXLabel endDate = new JXLabel();
-    endDate.setFont(new Font(SEGEOE_UI, Font.ITALIC, MAIN_FONT_SIZE));
-    endDate.setText(END_DATE + endDateStr);
-    endDate.setHorizontalAlignment(SwingConstants.LEFT);
-    JXLabel station = new JXLabel();
-    station.setFont(new Font(SEGEOE_UI, Font.ITALIC, DETAILS_FONT_SIZE));
-    station.setText("Station: " + stationStr);
-    station.setHorizontalAlignment(SwingConstants.LEFT);
-
-    // add various actions and components to the taskpane
-
-    taskpane.add(startDate);
-    taskpane.add(endDate);
-    taskpane.add(station);
-    taskpane.add(new AbstractAction(REMOVE
-    ) {
-      /**
-       * Remove action serial version UID.
-       */
-      private static final long serialVersionUID = 1L;
-      public void actionPerformed(final ActionEvent e) {
-        taskPaneContainer.remove(taskpane);
-        Data.getInstance().getEventList().removeIf(event -> event.getId()
-            == id);
-        taskPaneContainer.revalidate();
-      }
-    });
-    // add the task pane to the taskPaneContainer
-    this.taskPaneContainer.add(taskpane);
-    this.setViewportView(taskPaneContainer);
-    taskPaneContainer.revalidate();
+    this.addRow(new Row(id, TYPES[5], startDateStr, endDateStr, "",
+        STATION + stationStr, ""));
   }
 
   /**
-   * create a recap for event hour.
+   * Create a recap for event train hour.
    *
    * @param id           event id
-   * @param startTimeStr event startDate
-   * @param endTimeStr   event endDate
+   * @param startTimeStr event startTime
+   * @param endTimeStr   event endTime
    * @param lineStr      line concerned
-   * @param trainNbStr   trainNumber amount
+   * @param trainNbStr   train amount
    */
   public void createEventHour(final int id, final String startTimeStr,
                               final String endTimeStr, final String lineStr,
                               final String trainNbStr) {
-    JXTaskPane taskpane = new JXTaskPane();
-    // create a taskpane, and set it's title and icon
-    taskpane.setTitle("Train Hour");
-
-    JXLabel startTime = new JXLabel();
-    startTime.setFont(new Font(SEGEOE_UI, Font.ITALIC, MAIN_FONT_SIZE));
-    startTime.setText("Start Time: " + startTimeStr);
-    startTime.setHorizontalAlignment(SwingConstants.LEFT);
-    JXLabel endTime = new JXLabel();
-    endTime.setFont(new Font(SEGEOE_UI, Font.ITALIC, MAIN_FONT_SIZE));
-    endTime.setText("End Time: " + endTimeStr);
-    endTime.setHorizontalAlignment(SwingConstants.LEFT);
-    JXLabel line = new JXLabel();
-    line.setFont(new Font(SEGEOE_UI, Font.ITALIC, DETAILS_FONT_SIZE));
-    line.setText(LINE + lineStr);
-    line.setHorizontalAlignment(SwingConstants.LEFT);
-    JXLabel trainNb = new JXLabel();
-    trainNb.setFont(new Font(SEGEOE_UI, Font.ITALIC, DETAILS_FONT_SIZE));
-    trainNb.setText("Train amount: " + trainNbStr);
-    trainNb.setHorizontalAlignment(SwingConstants.LEFT);
-
-    // add various actions and components to the taskpane
-    taskpane.add(startTime);
-    taskpane.add(endTime);
-    taskpane.add(line);
-    taskpane.add(trainNb);
-    taskpane.add(new AbstractAction(REMOVE) {
-      /**
-       * Remove action serial version UID.
-       */
-      private static final long serialVersionUID = 1L;
-
-      public void actionPerformed(final ActionEvent e) {
-        taskPaneContainer.remove(taskpane);
-        Data.getInstance().getEventList().removeIf(event -> event.getId()
-            == id);
-        taskPaneContainer.revalidate();
-      }
-    });
-
-    // add the task pane to the taskPaneContainer
-    this.taskPaneContainer.add(taskpane);
-    this.setViewportView(taskPaneContainer);
-    taskPaneContainer.revalidate();
+    this.addRow(new Row(id, TYPES[6], startTimeStr, endTimeStr, lineStr, "",
+        "Train amount: " + trainNbStr));
   }
 
   /**
-   * create a recap for event lineClosed.
+   * Create a recap for event line closed.
    *
-   * @param id              event id
-   * @param startTimeStr    event startDate
-   * @param endTimeStr      event endDate
-   * @param lineStr         line concerned
-   * @param closureTypeStr  closure type
+   * @param id             event id
+   * @param startTimeStr   event startTime
+   * @param endTimeStr     event endTime
+   * @param lineStr        line concerned
+   * @param closureTypeStr closure type
    */
   public void createEventLineClosed(final int id, final String startTimeStr,
                                     final String endTimeStr,
                                     final String lineStr,
                                     final String closureTypeStr) {
-    JXTaskPane taskpane = new JXTaskPane();
-    // create a taskpane, and set it's title and icon
-    taskpane.setTitle("Line Closed");
-
-    JXLabel startTime = new JXLabel();
-    startTime.setFont(new Font(SEGEOE_UI, Font.ITALIC, MAIN_FONT_SIZE));
-    startTime.setText("Start Time: " + startTimeStr);
-    startTime.setHorizontalAlignment(SwingConstants.LEFT);
-    JXLabel endTime = new JXLabel();
-    endTime.setFont(new Font(SEGEOE_UI, Font.ITALIC, MAIN_FONT_SIZE));
-    endTime.setText("End Time: " + endTimeStr);
-    endTime.setHorizontalAlignment(SwingConstants.LEFT);
-    JXLabel line = new JXLabel();
-    line.setFont(new Font(SEGEOE_UI, Font.ITALIC, DETAILS_FONT_SIZE));
-    line.setText(LINE + lineStr);
-    line.setHorizontalAlignment(SwingConstants.LEFT);
-    JXLabel closureType = new JXLabel();
-    closureType.setFont(new Font(SEGEOE_UI, Font.ITALIC, DETAILS_FONT_SIZE));
-    closureType.setText("Closure type: " + closureTypeStr);
-    closureType.setHorizontalAlignment(SwingConstants.LEFT);
-
-    // add various actions and components to the taskpane
-    taskpane.add(startTime);
-    taskpane.add(endTime);
-    taskpane.add(line);
-    taskpane.add(closureType);
-
-    taskpane.add(new AbstractAction(REMOVE) {
-      /**
-       * Remove action serial version UID.
-       */
-      private static final long serialVersionUID = 1L;
+    this.addRow(new Row(id, TYPES[7], startTimeStr, endTimeStr, lineStr, "",
+        "Closure type: " + closureTypeStr));
+  }
 
-      public void actionPerformed(final ActionEvent e) {
-        taskPaneContainer.remove(taskpane);
-        Data.getInstance().getEventList().removeIf(event -> event.getId()
-            == id);
-        taskPaneContainer.revalidate();
+  /**
+   * Add the row of an event.
+   *
+   * @param row row to add
+   */
+  private void addRow(final Row row) {
+    this.tableModel.add(row);
+    this.refilterLocations();
+    this.updateCount();
+  }
+
+  /**
+   * Add the rows of several events at once, the table being notified of a
+   * single insertion. The stations and lines of the events must be in the
+   * network.
+   *
+   * @param events       events to add
+   * @param stationIndex index of the stations of the network, up to date
+   */
+  public void addEvents(final List<Event> events,
+                        final StationIndex stationIndex) {
+    List<Row> rows = new ArrayList<>(events.size());
+    for (Event event : events) {
+      rows.add(row(event, stationIndex));
+    }
+    this.tableModel.addAll(rows);
+    this.refilterLocations();
+    this.updateCount();
+  }
+
+  /**
+   * Create the row of an event, as the createEvent methods do.
+   *
+   * @param event        event
+   * @param stationIndex index of the stations of the network
+   * @return Row the row of the event
+   */
+  private static Row row(final Event event, final StationIndex stationIndex) {
+    int id = event.getId();
+    String start = event.getStartTime();
+    String end = event.getEndTime();
+    if (event instanceof EventBetween2Stations) {
+      EventBetween2Stations between = (EventBetween2Stations) event;
+      StationIndex.Entry[] entries = stationIndex.getEntriesOnSameLine(
+          between.getIdStationStart(), between.getIdStationEnd());
+      Station first = entries[0].getStationView().getStation();
+      Station last = entries[1].getStationView().getStation();
+      if (last.getId() < first.getId()) {
+        first = last;
+        last = entries[0].getStationView().getStation();
       }
-    });
+      String locationsStr = "from " + first.getName() + " to "
+          + last.getName();
+      String lineStr = Integer.toString(
+          entries[0].getLineView().getLine().getId());
+      if (event instanceof EventLineDelay) {
+        return lineDelayedRow(id, start, end, locationsStr,
+            Integer.toString(((EventLineDelay) event).getDelay()), lineStr);
+      }
+      return new Row(id, TYPES[2], start, end, lineStr, locationsStr, "");
+    } else if (event instanceof EventGaussianPeak) {
+      EventGaussianPeak peak = (EventGaussianPeak) event;
+      return gaussianPeakRow(id, start, end, peak.getPeakTime(),
+          Integer.toString(peak.getIdStation()),
+          Integer.toString(peak.getSize()),
+          Integer.toString(peak.getPeakWidth()));
+    } else if (event instanceof EventPeak) {
+      EventPeak peak = (EventPeak) event;
+      return rampPeakRow(id, start, end, peak.getPeakTime(),
+          Integer.toString(peak.getIdStation()),
+          Integer.toString(peak.getSize()));
+    } else if (event instanceof EventStationClosed) {
+      return new Row(id, TYPES[5], start, end, "", STATION
+          + ((EventStationClosed) event).getIdStation(), "");
+    } else if (event instanceof EventHour) {
+      EventHour hour = (EventHour) event;
+      return new Row(id, TYPES[6], start, end,
+          Integer.toString(hour.getIdLine()), "",
+          "Train amount: " + hour.getTrainNumber());
+    }
+    EventLineClosed closed = (EventLineClosed) event;
+    return new Row(id, TYPES[7], start, end,
+        Integer.toString(closed.getIdLine()), "",
+        "Closure type: " + closed.getClosureType().getValue());
+  }
 
-    // add the task pane to the taskPaneContainer
-    this.taskPaneContainer.add(taskpane);
-    this.setViewportView(taskPaneContainer);
-    taskPaneContainer.revalidate();
+  /**
+   * Highlight the row of an event if it conflicts with other events, the
+   * conflicting events being listed in its tooltip.
+   *
+   * @param id        event id
+   * @param conflicts events conflicting with the event
+   */
+  public void flagConflicts(final int id, final List<Event> conflicts) {
+    this.tableModel.setConflicts(
+        Collections.singletonMap(id, conflictsText(conflicts)));
+  }
+
+  /**
+   * Highlight the rows of several events at once, the table being notified
+   * once.
+   *
+   * @param conflictsById events conflicting with each event, by event id
+   */
+  public void flagConflicts(final Map<Integer, List<Event>> conflictsById) {
+    Map<Integer, String> texts = new HashMap<>();
+    for (Map.Entry<Integer, List<Event>> entry : conflictsById.entrySet()) {
+      texts.put(entry.getKey(), conflictsText(entry.getValue()));
+    }
+    this.tableModel.setConflicts(texts);
+  }
+
+  /**
+   * Highlight the rows of events whose stations or line are no longer in
+   * the network, the reason being shown in their tooltip.
+   *
+   * @param errorsById reason of each event, by event id
+   */
+  public void flagNetworkErrors(final Map<Integer, String> errorsById) {
+    Map<Integer, String> texts = new HashMap<>();
+    for (Map.Entry<Integer, String> entry : errorsById.entrySet()) {
+      texts.put(entry.getKey(), "Not in the network: " + entry.getValue());
+    }
+    this.tableModel.setConflicts(texts);
+  }
+
+  /**
+   * Get the tooltip of an event listing its conflicts.
+   *
+   * @param conflicts events conflicting with the event
+   * @return String the tooltip, null if there is no conflict
+   */
+  private static String conflictsText(final List<Event> conflicts) {
+    if (conflicts.isEmpty()) {
+      return null;
+    }
+    StringBuilder ids = new StringBuilder();
+    for (Event conflict : conflicts) {
+      ids.append(ids.length() == 0 ? "" : ", ").append(conflict.getId());
+    }
+    return "Conflicts with events " + ids;
+  }
+
+  /**
+   * Remove the selected events, the events they conflicted with being
+   * flagged again.
+   */
+  private void removeSelectedEvents() {
+    int[] selected = this.table.getSelectedRows();
+    Set<Integer> ids = new HashSet<>();
+    for (int viewIndex : selected) {
+      ids.add(this.tableModel.getRow(
+          this.table.convertRowIndexToModel(viewIndex)).id);
+    }
+    Data data = Data.getInstance();
+    this.tableModel.remove(ids);
+    Map<Integer, List<Event>> conflicts = new HashMap<>();
+    for (Event conflict : data.removeEvents(ids)) {
+      conflicts.put(conflict.getId(),
+          data.getEventTimeline().getConflicts(conflict));
+    }
+    this.flagConflicts(conflicts);
+    this.updateCount();
   }
 
   /**
@@ -586,8 +602,414 @@ public final class EventRecap extends JScrollPane {
    * Used when loading a new file.
    */
   public void cleanEvents() {
-    this.taskPaneContainer.removeAll();
-    this.taskPaneContainer.revalidate();
-    Data.getInstance().getEventList().clear();
+    this.tableModel.clear();
+    this.updateCount();
+    Data.getInstance().clearEvents();
+  }
+
+  /**
+   * Filter the rows with the values of the filter fields, the invalid
+   * dates and ids being ignored.
+   *
+   * <p>The line filter is a line id: it shows the events concerning the
+   * line, which are its closures and train hours, the delays and closures
+   * of stations on the line, and the peaks and closures of its stations,
+   * a station shared by several lines concerning all of them. The station
+   * filter is a station id: it shows the peaks and closures of the station
+   * and the delays and closures between two stations whose range on their
+   * line covers it. Both are matched against the stations and lines of the
+   * events on the current network (see {@link NetworkCore#eventScope}), not
+   * against the text of the rows.
+   */
+  private void applyFilter() {
+    final String type = (String) this.typeFilter.getSelectedItem();
+    final Integer line = parseFilterId(this.lineFilter);
+    final Integer station = parseFilterId(this.stationFilter);
+    final LocalDateTime from = parseFilterDate(this.fromFilter);
+    final LocalDateTime to = parseFilterDate(this.toFilter);
+    if (ALL_EVENTS.equals(type) && line == null && station == null
+        && from == null && to == null) {
+      this.sorter.setRowFilter(null);
+    } else {
+      final Set<Integer> located = line == null && station == null ? null
+          : locatedEvents(line, station);
+      this.sorter.setRowFilter(new RowFilter<EventTableModel, Integer>() {
+        @Override
+        public boolean include(final Entry<? extends EventTableModel,
+            ? extends Integer> entry) {
+          Row row = tableModel.getRow(entry.getIdentifier());
+          return (ALL_EVENTS.equals(type) || type.equals(row.type))
+              && (located == null || located.contains(row.id))
+              && (from == null
+              || (row.end != null && !row.end.isBefore(from)))
+              && (to == null
+              || (row.start != null && !row.start.isAfter(to)));
+        }
+      });
+    }
+    this.updateCount();
+  }
+
+  /**
+   * Apply the filters again after rows were added, if the rows are filtered
+   * by line or station.
+   */
+  private void refilterLocations() {
+    if (!this.lineFilter.getText().trim().isEmpty()
+        || !this.stationFilter.getText().trim().isEmpty()) {
+      this.applyFilter();
+    }
+  }
+
+  /**
+   * Get the events concerning a line and a station.
+   *
+   * @param line    line id, null for any line
+   * @param station station id, null for any station
+   * @return Set of event ids
+   */
+  private static Set<Integer> locatedEvents(final Integer line,
+                                            final Integer station) {
+    StationIndex stationIndex = MainPanel.getInstance().getStationIndex();
+    Set<Integer> ids = new HashSet<>();
+    for (Event event : Data.getInstance().getEventList()) {
+      EventTimeline.Scope scope = NetworkCore.eventScope(event,
+          stationIndex);
+      if ((line == null || scope.getLines().contains(line))
+          && (station == null || scope.getStations().contains(station))) {
+        ids.add(event.getId());
+      }
+    }
+    return ids;
+  }
+
+  /**
+   * Set the filters, as if typed in the filter fields.
+   *
+   * @param type    event type title, as in the type filter
+   * @param line    line id, empty for any line
+   * @param station station id, empty for any station
+   * @param from    start of the time window, empty for none
+   * @param to      end of the time window, empty for none
+   */
+  void setFilters(final String type, final String line, final String station,
+                  final String from, final String to) {
+    this.typeFilter.setSelectedItem(type);
+    this.lineFilter.setText(line);
+    this.stationFilter.setText(station);
+    this.fromFilter.setText(from);
+    this.toFilter.setText(to);
+  }
+
+  /**
+   * Get the table of the events.
+   *
+   * @return JTable the table
+   */
+  JTable getTable() {
+    return this.table;
+  }
+
+  /**
+   * Get the ids of the events shown, in the order of the table.
+   *
+   * @return List of event ids
+   */
+  List<Integer> getShownIds() {
+    List<Integer> ids = new ArrayList<>(this.table.getRowCount());
+    for (int i = 0; i < this.table.getRowCount(); i++) {
+      ids.add(this.tableModel.getRow(
+          this.table.convertRowIndexToModel(i)).id);
+    }
+    return ids;
+  }
+
+  /**
+   * Parse the id of a line or station field, shown in red if invalid.
+   *
+   * @param field the field
+   * @return the id, null if the field is empty or invalid
+   */
+  private static Integer parseFilterId(final JTextField field) {
+    String text = field.getText().trim();
+    field.setForeground(null);
+    if (text.isEmpty()) {
+      return null;
+    }
+    try {
+      return Integer.valueOf(text);
+    } catch (NumberFormatException e) {
+      field.setForeground(Color.RED);
+      return null;
+    }
+  }
+
+  /**
+   * Parse the date of a time window field, shown in red if invalid.
+   *
+   * @param field the field
+   * @return the date, null if the field is empty or invalid
+   */
+  private static LocalDateTime parseFilterDate(final JTextField field) {
+    String text = field.getText().trim();
+    field.setForeground(null);
+    if (text.isEmpty()) {
+      return null;
+    }
+    try {
+      return LocalDateTime.parse(text, DATE_FORMATTER);
+    } catch (DateTimeParseException e) {
+      field.setForeground(Color.RED);
+      return null;
+    }
+  }
+
+  /**
+   * Show the number of events shown out of the number of events.
+   */
+  private void updateCount() {
+    this.countLabel.setText(this.table.getRowCount() + " / "
+        + this.tableModel.getRowCount() + " events");
+  }
+
+  /**
+   * Recap of an event, a row of the table.
+   */
+  private static final class Row {
+    /** event id. */
+    private final int id;
+    /** event type title. */
+    private final String type;
+    /** event start, as entered. */
+    private final String startText;
+    /** event end, as entered. */
+    private final String endText;
+    /** event start date, null for a train hour. */
+    private final LocalDateTime start;
+    /** event end date, null for a train hour. */
+    private final LocalDateTime end;
+    /** line concerned, empty if none. */
+    private final String line;
+    /** stations concerned, empty if none. */
+    private final String location;
+    /** other details of the event. */
+    private final String details;
+    /**
+     * events conflicting with the event, or why it is not in the network,
+     * null if none.
+     */
+    private String conflicts;
+    /** index of the row in the model. */
+    private int index;
+
+    private Row(final int eventId, final String eventType,
+                final String eventStart, final String eventEnd,
+                final String eventLine, final String eventLocation,
+                final String eventDetails) {
+      this.id = eventId;
+      this.type = eventType;
+      this.startText = eventStart;
+      this.endText = eventEnd;
+      this.start = parseDate(eventStart);
+      this.end = parseDate(eventEnd);
+      this.line = eventLine;
+      this.location = eventLocation;
+      this.details = eventDetails;
+    }
+
+    private static LocalDateTime parseDate(final String date) {
+      try {
+        return LocalDateTime.parse(date, DATE_FORMATTER);
+      } catch (DateTimeParseException e) {
+        return null;
+      }
+    }
+  }
+
+  /**
+   * Rows of the events, in their order of creation.
+   */
+  private static final class EventTableModel extends AbstractTableModel {
+    /**
+     * EventTableModel serial version UID.
+     */
+    private static final long serialVersionUID = 1L;
+    /** names of the columns. */
+    private static final String[] COLUMNS = {"Id", "Event", "Start", "End",
+        "Line", "Location", "Details"};
+    /** rows of the events. */
+    private final List<Row> rows = new ArrayList<>();
+    /** rows by event id. */
+    private final Map<Integer, Row> rowsById = new HashMap<>();
+
+    private Row getRow(final int index) {
+      return rows.get(index);
+    }
+
+    private void add(final Row row) {
+      addAll(Collections.singletonList(row));
+    }
+
+    /**
+     * Append rows, replacing the rows of the same events, the table being
+     * notified of a single insertion.
+     */
+    private void addAll(final List<Row> added) {
+      Set<Row> replaced = Collections.newSetFromMap(new IdentityHashMap<>());
+      for (Row row : added) {
+        Row previous = rowsById.put(row.id, row);
+        if (previous != null) {
+          replaced.add(previous);
+        }
+      }
+      removeRows(replaced);
+      int first = rows.size();
+      for (Row row : added) {
+        if (rowsById.get(row.id) == row) {
+          row.index = rows.size();
+          rows.add(row);
+        }
+      }
+      if (rows.size() > first) {
+        fireTableRowsInserted(first, rows.size() - 1);
+      }
+    }
+
+    private void remove(final Set<Integer> ids) {
+      Set<Row> removed = Collections.newSetFromMap(new IdentityHashMap<>());
+      for (int id : ids) {
+        Row row = rowsById.remove(id);
+        if (row != null) {
+          removed.add(row);
+        }
+      }
+      removeRows(removed);
+    }
+
+    /**
+     * Remove rows in a single pass, the following rows being moved up.
+     */
+    private void removeRows(final Set<Row> removed) {
+      if (removed.isEmpty()) {
+        return;
+      }
+      int first = -1;
+      int kept = 0;
+      for (int i = 0; i < rows.size(); i++) {
+        Row row = rows.get(i);
+        if (removed.contains(row)) {
+          first = first < 0 ? i : first;
+        } else {
+          row.index = kept;
+          rows.set(kept++, row);
+        }
+      }
+      int count = rows.size() - kept;
+      rows.subList(kept, rows.size()).clear();
+      if (count == 1) {
+        fireTableRowsDeleted(first, first);
+      } else if (count > 1) {
+        fireTableDataChanged();
+      }
+    }
+
+    /**
+     * Set the conflicts of rows, the table being notified of a single
+     * update covering them.
+     */
+    private void setConflicts(final Map<Integer, String> conflicts) {
+      int first = Integer.MAX_VALUE;
+      int last = -1;
+      for (Map.Entry<Integer, String> entry : conflicts.entrySet()) {
+        Row row = rowsById.get(entry.getKey());
+        if (row != null) {
+          row.conflicts = entry.getValue();
+          first = Math.min(first, row.index);
+          last = Math.max(last, row.index);
+        }
+      }
+      if (last >= 0) {
+        fireTableRowsUpdated(first, last);
+      }
+    }
+
+    private void clear() {
+      rows.clear();
+      rowsById.clear();
+      fireTableDataChanged();
+    }
+
+    @Override
+    public int getRowCount() {
+      return rows.size();
+    }
+
+    @Override
+    public int getColumnCount() {
+      return COLUMNS.length;
+    }
+
+    @Override
+    public String getColumnName(final int column) {
+      return COLUMNS[column];
+    }
+
+    @Override
+    public Class<?> getColumnClass(final int column) {
+      return column == 0 ? Integer.class : String.class;
+    }
+
+    @Override
+    public Object getValueAt(final int rowIndex, final int column) {
+      Row row = rows.get(rowIndex);
+      switch (column) {
+        case 0:
+          return row.id;
+        case 1:
+          return row.type;
+        case 2:
+          return row.startText;
+        case 3:
+          return row.endText;
+        case 4:
+          return row.line;
+        case 5:
+          return row.location;
+        default:
+          return row.details;
+      }
+    }
+  }
+
+  /**
+   * Renderer of the cells, showing the conflicting events in red with the
+   * conflicts in the tooltip.
+   */
+  private static final class EventRenderer extends DefaultTableCellRenderer {
+    /**
+     * EventRenderer serial version UID.
+     */
+    private static final long serialVersionUID = 1L;
+
+    @Override
+    public Component getTableCellRendererComponent(final JTable table,
+        final Object value, final boolean isSelected, final boolean hasFocus,
+        final int row, final int column) {
+      super.getTableCellRendererComponent(table, value, isSelected, hasFocus,
+          row, column);
+      Row eventRow = ((EventTableModel) table.getModel()).getRow(
+          table.convertRowIndexToModel(row));
+      if (!isSelected) {
+        setForeground(eventRow.conflicts == null ? table.getForeground()
+            : Color.RED);
+      }
+      setToolTipText(eventRow.conflicts);
+      if (column == 0) {
+        setHorizontalAlignment(RIGHT);
+      } else {
+        setHorizontalAlignment(LEFT);
+      }
+      return this;
+    }
   }
 }
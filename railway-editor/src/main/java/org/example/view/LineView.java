@@ -25,10 +25,13 @@
 package org.example.view;
 
 import org.example.model.Line;
+import org.example.model.Station;
 
 import java.awt.BasicStroke;
 import java.awt.Graphics2D;
+import java.awt.Rectangle;
 import java.awt.Stroke;
+import java.util.Arrays;
 import java.util.List;
 
 /**
@@ -53,6 +56,17 @@ public class LineView {
   private List<StationView> stationViews;
   /** Stroke of the line. */
   private Stroke stroke;
+  /**
+   * Cached polyline x coordinates, relative to the first station so that
+   * panning the map does not invalidate them.
+   */
+  private int[] pointsX;
+  /** Cached polyline y coordinates, relative to the first station. */
+  private int[] pointsY;
+  /** Cached bounds of the polyline, relative to the first station. */
+  private final Rectangle bounds;
+  /** Boolean to know if the cached polyline must be rebuilt. */
+  private boolean geometryDirty;
 
   /**
    * Constructor.
@@ -66,6 +80,8 @@ public class LineView {
     this.stationViews = lineStationViews;
     this.stroke = new BasicStroke(STROKE_WIDTH, BasicStroke.CAP_SQUARE,
         BasicStroke.JOIN_ROUND, STROKE_MITERLIMIT);
+    this.bounds = new Rectangle();
+    this.geometryDirty = true;
   }
 
   // accessors
@@ -104,6 +120,7 @@ public class LineView {
    */
   public void setStationViews(final List<StationView> lineStationViews) {
     this.stationViews = lineStationViews;
+    this.geometryDirty = true;
   }
 
 
@@ -115,28 +132,174 @@ public class LineView {
    * @param g2D graphics component
    */
   public void show(final Graphics2D g2D) {
-    //x and y point array creation
-    int[] pointsX = new int[this.stationViews.size()];
-    int[] pointsY = new int[this.stationViews.size()];
-    for (int i = 0; i < this.stationViews.size(); i++) {
-      //fill arrays with the center point of circles representing stations
-      pointsX[i] = this.stationViews.get(i).getStation().getPosX();
-      pointsY[i] = this.stationViews.get(i).getStation().getPosY();
+    this.show(g2D, null);
+  }
+
+  /**
+   * Display the line shape (polyline) and its stations, skipping everything
+   * outside the viewport.
+   *
+   * @param g2D      graphics component
+   * @param viewport visible part of the panel (already including the
+   *                 stations size margin), null to draw everything
+   */
+  public void show(final Graphics2D g2D, final Rectangle viewport) {
+    this.show(g2D, viewport, null);
+  }
+
+  /**
+   * Display the line shape (polyline) and its stations, skipping everything
+   * outside the viewport as well as a station and its segments (the ones
+   * drawn on the drag overlay by {@link #showAround(Graphics2D, Station)}).
+   *
+   * @param g2D      graphics component
+   * @param viewport visible part of the panel (already including the
+   *                 stations size margin), null to draw everything
+   * @param excluded station not to draw, null to draw all of them
+   */
+  public void show(final Graphics2D g2D, final Rectangle viewport,
+                   final Station excluded) {
+    if (this.stationViews.isEmpty()) {
+      return;
+    }
+    this.updateGeometry();
+    int anchorX = this.stationViews.get(0).getStation().getPosX();
+    int anchorY = this.stationViews.get(0).getStation().getPosY();
+    if (viewport != null && !viewport.intersects(bounds.x + anchorX,
+        bounds.y + anchorY, bounds.width + 1, bounds.height + 1)) {
+      return;
     }
 
     //setting color
     g2D.setColor(this.line.getColor());
     g2D.setStroke(this.stroke);
 
-
     //draw the polyline
     if (this.stationViews.size() > 1) {
-      g2D.drawPolyline(pointsX, pointsY, this.stationViews.size());
+      g2D.translate(anchorX, anchorY);
+      int excludedIndex = this.indexOf(excluded);
+      if (excludedIndex < 0) {
+        g2D.drawPolyline(pointsX, pointsY, pointsX.length);
+      } else {
+        // split the polyline around the excluded station
+        this.drawPolyline(g2D, 0, excludedIndex);
+        this.drawPolyline(g2D, excludedIndex + 1, pointsX.length);
+      }
+      g2D.translate(-anchorX, -anchorY);
     }
     //draw the station (g2D.drawCircle)
     for (StationView stationView : stationViews) {
-      stationView.show(g2D, this.line.getColor());
+      if (stationView.getStation() != excluded && (viewport == null
+          || viewport.contains(
+          stationView.getStation().getPosX(),
+          stationView.getStation().getPosY()))) {
+        stationView.show(g2D, this.line.getColor());
+      }
+    }
+  }
+
+  /**
+   * Display a station of the line with its segments and its neighbours,
+   * from the current stations positions (drag overlay).
+   *
+   * @param g2D     graphics component
+   * @param station station to display
+   */
+  public void showAround(final Graphics2D g2D, final Station station) {
+    int index = this.indexOf(station);
+    if (index < 0) {
+      return;
+    }
+    StationView previous = index > 0 ? stationViews.get(index - 1) : null;
+    StationView next = index < stationViews.size() - 1
+        ? stationViews.get(index + 1) : null;
+    g2D.setColor(this.line.getColor());
+    g2D.setStroke(this.stroke);
+    for (StationView neighbour : new StationView[] {previous, next}) {
+      if (neighbour != null) {
+        g2D.drawLine(neighbour.getStation().getPosX(),
+            neighbour.getStation().getPosY(), station.getPosX(),
+            station.getPosY());
+      }
+    }
+    for (StationView neighbour : new StationView[] {previous, next}) {
+      if (neighbour != null) {
+        neighbour.show(g2D, this.line.getColor());
+      }
+    }
+    stationViews.get(index).show(g2D, this.line.getColor());
+  }
+
+  /**
+   * Find the position of a station in the line.
+   *
+   * @param station station to find, may be null
+   * @return int index of the station view, -1 if not found
+   */
+  private int indexOf(final Station station) {
+    if (station != null) {
+      for (int i = 0; i < stationViews.size(); i++) {
+        if (stationViews.get(i).getStation() == station) {
+          return i;
+        }
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Draw a part of the cached polyline.
+   *
+   * @param g2D  graphics component
+   * @param from index of the first point
+   * @param to   index after the last point
+   */
+  private void drawPolyline(final Graphics2D g2D, final int from,
+                            final int to) {
+    if (to - from > 1) {
+      g2D.drawPolyline(Arrays.copyOfRange(pointsX, from, to),
+          Arrays.copyOfRange(pointsY, from, to), to - from);
+    }
+  }
+
+  /**
+   * Mark the cached polyline as outdated, to call when one of the stations
+   * of the line moved on its own or when the zoom changed.
+   */
+  public void invalidateGeometry() {
+    this.geometryDirty = true;
+  }
+
+  /**
+   * Rebuild the cached polyline if it is outdated or if stations have been
+   * added or removed.
+   */
+  private void updateGeometry() {
+    int size = this.stationViews.size();
+    if (!geometryDirty && pointsX != null && pointsX.length == size) {
+      return;
+    }
+    if (pointsX == null || pointsX.length != size) {
+      pointsX = new int[size];
+      pointsY = new int[size];
+    }
+    int anchorX = this.stationViews.get(0).getStation().getPosX();
+    int anchorY = this.stationViews.get(0).getStation().getPosY();
+    int minX = 0;
+    int minY = 0;
+    int maxX = 0;
+    int maxY = 0;
+    for (int i = 0; i < size; i++) {
+      //fill arrays with the center point of circles representing stations
+      pointsX[i] = this.stationViews.get(i).getStation().getPosX() - anchorX;
+      pointsY[i] = this.stationViews.get(i).getStation().getPosY() - anchorY;
+      minX = Math.min(minX, pointsX[i]);
+      minY = Math.min(minY, pointsY[i]);
+      maxX = Math.max(maxX, pointsX[i]);
+      maxY = Math.max(maxY, pointsY[i]);
     }
+    bounds.setBounds(minX, minY, maxX - minX, maxY - minY);
+    geometryDirty = false;
   }
 
   /**
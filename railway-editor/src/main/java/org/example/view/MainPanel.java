@@ -26,29 +26,43 @@ package org.example.view;
 
 import org.example.controller.CustomMapController;
 import org.example.controller.MovingAdapter;
+import org.example.model.Projection;
+import org.example.model.Station;
+import org.example.model.Viewport;
+
+import javax.swing.SwingUtilities;
 
 import java.awt.Dimension;
 import java.awt.Graphics;
 import java.awt.Graphics2D;
+import java.awt.Point;
+import java.awt.Rectangle;
 import java.awt.RenderingHints;
 import java.awt.event.MouseListener;
 import java.awt.event.MouseMotionListener;
 import java.awt.event.MouseWheelListener;
+import java.io.File;
 import java.util.ArrayList;
 import java.util.List;
+import org.openstreetmap.gui.jmapviewer.ConcurrentTileCache;
 import org.openstreetmap.gui.jmapviewer.Coordinate;
+import org.openstreetmap.gui.jmapviewer.DiskTileCache;
 import org.openstreetmap.gui.jmapviewer.JMapViewer;
+import org.openstreetmap.gui.jmapviewer.Tile;
 
 /**
  * Main panel that extends {@link JMapViewer} and contains all the views.
  *
+ * <p>Once created, the panel is the {@link Viewport} of the
+ * {@link Projection} the models use for their pixel positions.</p>
+ *
  * @author Arthur Lagarce
  * @author Aurélie Chamouleau
  * @file MainPanel.java
  * @date N/A
  * @since 2.0
  */
-public final class MainPanel extends JMapViewer {
+public final class MainPanel extends JMapViewer implements Viewport {
   //constants
   /** Serial version UID. */
   private static final long serialVersionUID = 1L;
@@ -62,6 +76,17 @@ public final class MainPanel extends JMapViewer {
   public static final double MAIN_PANEL_HUD_POSITION_LAT = 47.46667;
   /** MainPanelHUD display position lon. */
   public static final double MAIN_PANEL_HUD_POSITION_LON = -0.55;
+  /** Margin around the panel bounds in which elements are still drawn. */
+  private static final int VIEWPORT_MARGIN = 20;
+  /** Folder of the tiles kept on disk between runs. */
+  public static final String TILE_CACHE_PATH = System.getProperty("user.dir")
+      + File.separator + "tile-cache";
+  /** Maximum size of the tiles kept on disk, in bytes. */
+  private static final long TILE_CACHE_MAX_BYTES = 256L * 1024 * 1024;
+  /** Maximum memory of the decoded tiles, in bytes. */
+  private static final long TILE_MEMORY_MAX_BYTES = 64L * 1024 * 1024;
+  /** Maximum number of decoded tiles, beyond the memory budget. */
+  private static final int TILE_MEMORY_MAX_COUNT = 4096;
   // attributes
   /** MainPanel Singleton instance. */
   private static MainPanel instance;
@@ -73,15 +98,27 @@ public final class MainPanel extends JMapViewer {
   private transient List<AreaView> areaViews;
   /** MovingAdapter. */
   private final transient MovingAdapter movingAdapter;
+  /** Spatial index of the station and area views, used for hit-tests. */
+  private final transient SpatialIndex spatialIndex;
+  /** Index of the station views by station id, used by the events. */
+  private final transient StationIndex stationIndex;
 
   /** Boolean to know if the HUD is hidden or not. */
   private boolean hideHud;
+  /** Back buffers of the map layers. */
+  private final transient MapLayers mapLayers;
+  /** Map center when the tiles layer was rendered. */
+  private Point layersCenter;
+  /** Zoom when the tiles layer was rendered. */
+  private int layersZoom;
+  /** Station being dragged, drawn on the overlay. */
+  private transient Station draggedStation;
 
   /**
    * MainPanel constructor.
    */
   private MainPanel() {
-    super();
+    super(createTileCache());
     for (MouseListener mouseListener : this.getMouseListeners()) {
       this.removeMouseListener(mouseListener);
     }
@@ -92,16 +129,20 @@ public final class MainPanel extends JMapViewer {
       this.removeMouseWheelListener(wheelListener);
     }
     new CustomMapController(this);
+    this.getTileController().setDiskCache(new DiskTileCache(
+        new File(TILE_CACHE_PATH), TILE_CACHE_MAX_BYTES));
 
     Dimension dim = new Dimension(MainPanel.PANEL_WIDTH_DEFAULT,
         MainPanel.PANEL_HEIGHT_DEFAULT);
     this.setPreferredSize(dim);
     this.lineViews = new ArrayList<>();
     this.areaViews = new ArrayList<>();
+    this.spatialIndex = new SpatialIndex();
+    this.stationIndex = new StationIndex();
+    this.mapLayers = new MapLayers();
     MovingAdapter ma = new MovingAdapter();
     this.movingAdapter = ma;
     addMouseMotionListener(ma);
-    addMouseWheelListener(ma);
     addMouseListener(ma);
     mainPanelHud = new MainPanelHud(0, MAIN_PANEL_HUD_POSITION_Y);
     this.hideHud = false;
@@ -111,6 +152,20 @@ public final class MainPanel extends JMapViewer {
     this.setZoom(2);
   }
 
+  /**
+   * Create the memory cache of the tiles, bounded by the memory of the
+   * decoded images, opaque tiles being stored in 16-bit RGB.
+   *
+   * @return the tile cache
+   */
+  private static ConcurrentTileCache createTileCache() {
+    ConcurrentTileCache tileCache = new ConcurrentTileCache(
+        TILE_MEMORY_MAX_COUNT);
+    tileCache.setMaxBytes(TILE_MEMORY_MAX_BYTES);
+    tileCache.setCompactImages(true);
+    return tileCache;
+  }
+
   /**
    * Create MainPanel Singleton.
    *
@@ -119,6 +174,7 @@ public final class MainPanel extends JMapViewer {
   public static MainPanel getInstance() {
     if (instance == null) {
       instance = new MainPanel();
+      Projection.getInstance().setViewport(instance);
     }
     return instance;
   }
@@ -139,6 +195,7 @@ public final class MainPanel extends JMapViewer {
    */
   public void addAreaView(final AreaView areaView) {
     this.areaViews.add(areaView);
+    this.spatialIndex.addArea(areaView);
   }
 
   /**
@@ -157,6 +214,8 @@ public final class MainPanel extends JMapViewer {
    */
   public void setLineViews(final List<LineView> lineViewsToSet) {
     this.lineViews = lineViewsToSet;
+    this.spatialIndex.invalidate();
+    this.stationIndex.invalidate();
   }
 
   /**
@@ -175,6 +234,52 @@ public final class MainPanel extends JMapViewer {
    */
   public void setAreaViews(final List<AreaView> areaViewsToSet) {
     this.areaViews = areaViewsToSet;
+    this.spatialIndex.invalidate();
+  }
+
+  /**
+   * get the spatial index of the station and area views, rebuilt first if
+   * the views changed since its last update.
+   *
+   * @return SpatialIndex spatialIndex
+   */
+  public SpatialIndex getSpatialIndex() {
+    this.spatialIndex.setOrigin(getOriginX(), getOriginY());
+    this.spatialIndex.validate(lineViews, areaViews);
+    return spatialIndex;
+  }
+
+  /**
+   * get the index of the station views by station id, rebuilt first if the
+   * lines changed since its last update.
+   *
+   * @return StationIndex stationIndex
+   */
+  public StationIndex getStationIndex() {
+    this.stationIndex.validate(lineViews);
+    return stationIndex;
+  }
+
+  /**
+   * get the world x pixel, at the current zoom, of the left side of the
+   * panel.
+   *
+   * @return int originX
+   */
+  @Override
+  public int getOriginX() {
+    return center.x - getWidth() / 2;
+  }
+
+  /**
+   * get the world y pixel, at the current zoom, of the top side of the
+   * panel.
+   *
+   * @return int originY
+   */
+  @Override
+  public int getOriginY() {
+    return center.y - getHeight() / 2;
   }
 
   /**
@@ -223,23 +328,172 @@ public final class MainPanel extends JMapViewer {
         RenderingHints.VALUE_ANTIALIAS_ON);
     g2D.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING,
         RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
-    super.paintComponent(g);
+    mapLayers.resize(getWidth(), getHeight(),
+        g2D.getTransform().getScaleX());
+    if (!center.equals(layersCenter) || getZoom() != layersZoom) {
+      mapLayers.invalidate(MapLayers.Layer.TILES);
+      layersCenter = new Point(center);
+      layersZoom = getZoom();
+    }
+    //tiles display
+    if (mapLayers.isDirty(MapLayers.Layer.TILES)) {
+      Graphics2D layer = mapLayers.beginRender(MapLayers.Layer.TILES,
+          getGraphicsConfiguration());
+      super.paintComponent(layer);
+      layer.dispose();
+    }
+    mapLayers.draw(g2D, MapLayers.Layer.TILES);
     //hud display
     if (!hideHud) {
-      mainPanelHud.show(g2D);
+      if (mapLayers.isDirty(MapLayers.Layer.HUD)) {
+        Graphics2D layer = mapLayers.beginRender(MapLayers.Layer.HUD,
+            getGraphicsConfiguration());
+        mainPanelHud.show(layer);
+        layer.dispose();
+      }
+      mapLayers.draw(g2D, MapLayers.Layer.HUD);
     }
+    Rectangle viewport = new Rectangle(-VIEWPORT_MARGIN, -VIEWPORT_MARGIN,
+        getWidth() + 2 * VIEWPORT_MARGIN, getHeight() + 2 * VIEWPORT_MARGIN);
     //LineViews Display
-    if (lineViews != null) {
-      for (LineView lineView : lineViews) {
-        lineView.show(g2D);
+    if (mapLayers.isDirty(MapLayers.Layer.NETWORK)) {
+      Graphics2D layer = mapLayers.beginRender(MapLayers.Layer.NETWORK,
+          getGraphicsConfiguration());
+      if (lineViews != null) {
+        for (LineView lineView : lineViews) {
+          lineView.show(layer, viewport, draggedStation);
+        }
       }
+      layer.dispose();
     }
+    mapLayers.draw(g2D, MapLayers.Layer.NETWORK);
     //AreaViews Display
-    if (this.areaViews != null) {
-      for (AreaView areaView : this.areaViews) {
-        areaView.display(g2D);
+    if (mapLayers.isDirty(MapLayers.Layer.AREAS)) {
+      Graphics2D layer = mapLayers.beginRender(MapLayers.Layer.AREAS,
+          getGraphicsConfiguration());
+      if (this.areaViews != null) {
+        for (AreaView areaView : this.areaViews) {
+          if (viewport.intersects(areaView.getArea().getPosX(),
+              areaView.getArea().getPosY(), areaView.getArea().getWidth(),
+              areaView.getArea().getHeight())) {
+            areaView.display(layer);
+          }
+        }
+      }
+      layer.dispose();
+    }
+    mapLayers.draw(g2D, MapLayers.Layer.AREAS);
+    //drag overlay: the dragged station and its segments
+    if (draggedStation != null) {
+      for (LineView lineView : getSpatialIndex().getLineViews(
+          draggedStation)) {
+        lineView.showAround(g2D, draggedStation);
+      }
+    }
+    g2D.dispose();
+  }
+
+  /**
+   * Repaint the whole panel, every layer is rendered again as the model may
+   * have changed.
+   */
+  @Override
+  public void repaint() {
+    if (mapLayers != null) {
+      mapLayers.invalidateAll();
+    }
+    super.repaint();
+  }
+
+  /**
+   * Repaint the panel rendering only one layer again, the other ones are
+   * drawn from their cache.
+   *
+   * @param layer layer which changed
+   */
+  public void repaintLayer(final MapLayers.Layer layer) {
+    mapLayers.invalidate(layer);
+    super.repaint();
+  }
+
+  /**
+   * Repaint the drag overlay only, all the layers are drawn from their
+   * cache.
+   */
+  public void repaintOverlay() {
+    super.repaint();
+  }
+
+  /**
+   * get the station being dragged, drawn on the overlay.
+   *
+   * @return Station draggedStation, null if none
+   */
+  public Station getDraggedStation() {
+    return draggedStation;
+  }
+
+  /**
+   * set the station being dragged: it is removed from the network layer and
+   * drawn on the overlay until the drag ends (null).
+   *
+   * @param station station dragged, null at the end of the drag
+   */
+  public void setDraggedStation(final Station station) {
+    this.draggedStation = station;
+    this.repaintLayer(MapLayers.Layer.NETWORK);
+  }
+
+  /**
+   * Repaint the tiles layer once a tile has been loaded. Called on the tile
+   * loader threads, the layer is invalidated on the EDT which owns the
+   * layers.
+   *
+   * @see JMapViewer#tileLoadingFinished(Tile, boolean)
+   */
+  @Override
+  public void tileLoadingFinished(final Tile tile, final boolean success) {
+    tile.setLoaded(success);
+    SwingUtilities.invokeLater(
+        () -> this.repaintLayer(MapLayers.Layer.TILES));
+  }
+
+  /**
+   * Repaint the tiles layer once a scaled placeholder is ready. Called on
+   * the placeholder thread, like {@link #tileLoadingFinished(Tile, boolean)}.
+   *
+   * @see JMapViewer#placeholderReady(Tile)
+   */
+  @Override
+  public void placeholderReady(final Tile tile) {
+    SwingUtilities.invokeLater(
+        () -> this.repaintLayer(MapLayers.Layer.TILES));
+  }
+
+  /**
+   * Invalidate the cached geometry of all the lines and the spatial index,
+   * to call when the stations positions have been recomputed.
+   */
+  public void invalidateGeometry() {
+    if (lineViews != null) {
+      for (LineView lineView : lineViews) {
+        lineView.invalidateGeometry();
       }
     }
+    if (spatialIndex != null) {
+      spatialIndex.invalidate();
+    }
+  }
+
+  /**
+   * Invalidate the cached geometry when the zoom changes.
+   *
+   * @see JMapViewer#zoomChanged(int)
+   */
+  @Override
+  protected void zoomChanged(final int oldZoom) {
+    super.zoomChanged(oldZoom);
+    this.invalidateGeometry();
   }
 
   /**
@@ -248,6 +502,8 @@ public final class MainPanel extends JMapViewer {
   public void cleanMap() {
     this.lineViews = new ArrayList<>();
     this.areaViews = new ArrayList<>();
+    this.spatialIndex.invalidate();
+    this.stationIndex.invalidate();
     EventRecap.getInstance().cleanEvents();
   }
 }
@@ -0,0 +1,193 @@
+/*
+ * License : MIT License
+ *
+ * Copyright (c) 2023 Team PFE_2023_16
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.example.view;
+
+import java.awt.AlphaComposite;
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.RenderingHints;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Back buffers of the {@link MainPanel}, one image per layer of the map.
+ *
+ * <p>Each layer is only re-rendered when it has been invalidated (its content
+ * changed) or when the panel has been resized, otherwise the cached image is
+ * drawn as is. Images are compatible with the screen configuration so that
+ * they can be accelerated by Java2D, and sized in device pixels so that the
+ * map stays sharp on scaled displays.</p>
+ *
+ * @author Team PFE_2023_16
+ * @file MapLayers.java
+ * @date 2026-10-17
+ * @since 3.0
+ */
+public class MapLayers {
+  /**
+   * Layers of the map, in drawing order.
+   */
+  public enum Layer {
+    /** OSM tiles, opaque background. */
+    TILES,
+    /** HUD with the caption and the hovered station name. */
+    HUD,
+    /** Lines and stations. */
+    NETWORK,
+    /** Areas, drawn over the lines as before. */
+    AREAS
+  }
+
+  /**
+   * Cached image of each layer.
+   */
+  private final Map<Layer, BufferedImage> images;
+  /**
+   * Layers to render again before the next draw, only used on the EDT.
+   */
+  private final Set<Layer> dirtyLayers;
+  /**
+   * Logical width of the images.
+   */
+  private int width;
+  /**
+   * Logical height of the images.
+   */
+  private int height;
+  /**
+   * Device scale of the images.
+   */
+  private double scale;
+
+  /**
+   * MapLayers constructor.
+   */
+  public MapLayers() {
+    this.images = new EnumMap<>(Layer.class);
+    this.dirtyLayers = EnumSet.allOf(Layer.class);
+    this.scale = 1;
+  }
+
+  /**
+   * Mark a layer as changed.
+   *
+   * @param layer layer to render again
+   */
+  public void invalidate(final Layer layer) {
+    this.dirtyLayers.add(layer);
+  }
+
+  /**
+   * Mark all the layers as changed.
+   */
+  public void invalidateAll() {
+    this.dirtyLayers.addAll(EnumSet.allOf(Layer.class));
+  }
+
+  /**
+   * Checks if a layer has to be rendered again.
+   *
+   * @param layer layer
+   * @return true if the layer is outdated
+   */
+  public boolean isDirty(final Layer layer) {
+    return dirtyLayers.contains(layer);
+  }
+
+  /**
+   * Resize the layers if needed, all of them are invalidated in that case.
+   *
+   * @param layersWidth  logical width of the panel
+   * @param layersHeight logical height of the panel
+   * @param deviceScale  scale of the screen graphics
+   */
+  public void resize(final int layersWidth, final int layersHeight,
+                     final double deviceScale) {
+    if (layersWidth != width || layersHeight != height
+        || deviceScale != scale) {
+      this.width = layersWidth;
+      this.height = layersHeight;
+      this.scale = deviceScale;
+      this.images.clear();
+      this.invalidateAll();
+    }
+  }
+
+  /**
+   * Get a cleared graphics to render a dirty layer, the layer is considered
+   * up to date afterwards. The caller has to dispose the graphics.
+   *
+   * @param layer layer to render
+   * @param gc    screen configuration, may be null
+   * @return Graphics2D graphics of the layer image, in logical coordinates
+   */
+  public Graphics2D beginRender(final Layer layer,
+                                final GraphicsConfiguration gc) {
+    BufferedImage image = images.get(layer);
+    if (image == null) {
+      int imageWidth = Math.max(1, (int) Math.ceil(width * scale));
+      int imageHeight = Math.max(1, (int) Math.ceil(height * scale));
+      int transparency = layer == Layer.TILES ? Transparency.OPAQUE
+          : Transparency.TRANSLUCENT;
+      if (gc != null) {
+        image = gc.createCompatibleImage(imageWidth, imageHeight,
+            transparency);
+      } else {
+        image = new BufferedImage(imageWidth, imageHeight,
+            transparency == Transparency.OPAQUE ? BufferedImage.TYPE_INT_RGB
+                : BufferedImage.TYPE_INT_ARGB);
+      }
+      images.put(layer, image);
+    }
+    Graphics2D g2D = image.createGraphics();
+    g2D.setComposite(AlphaComposite.Clear);
+    g2D.fillRect(0, 0, image.getWidth(), image.getHeight());
+    g2D.setComposite(AlphaComposite.SrcOver);
+    g2D.scale(scale, scale);
+    g2D.setRenderingHint(RenderingHints.KEY_ANTIALIASING,
+        RenderingHints.VALUE_ANTIALIAS_ON);
+    g2D.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING,
+        RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+    dirtyLayers.remove(layer);
+    return g2D;
+  }
+
+  /**
+   * Draw a cached layer.
+   *
+   * @param g2D   panel graphics
+   * @param layer layer to draw
+   */
+  public void draw(final Graphics2D g2D, final Layer layer) {
+    BufferedImage image = images.get(layer);
+    if (image != null) {
+      g2D.drawImage(image, 0, 0, width, height, null);
+    }
+  }
+}
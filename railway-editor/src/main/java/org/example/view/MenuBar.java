@@ -27,18 +27,25 @@ package org.example.view;
 import org.example.controller.ActionArchive;
 import org.example.controller.ActionConfiguration;
 import org.example.controller.ActionFile;
+import org.example.controller.ActionMetroEvent;
+import org.example.controller.ActionOfflineTiles;
 import org.example.controller.ActionThemeMode;
+import org.example.controller.NetworkHistory;
 
 import java.awt.ComponentOrientation;
+import java.awt.event.InputEvent;
+import java.awt.event.KeyEvent;
 import javax.swing.Box;
 import javax.swing.JButton;
 import javax.swing.JMenu;
 import javax.swing.JMenuBar;
 import javax.swing.JMenuItem;
+import javax.swing.KeyStroke;
 
 
 /**
- * {@link JMenuBar} of the application with file menu and configuration menu.
+ * {@link JMenuBar} of the application with file menu, edit menu and
+ * configuration menu.
  *
  * @author Aurélie CHAMOULEAU
  * @author Benoît VAVASSEUR
@@ -71,6 +78,10 @@ public final class MenuBar extends JMenuBar {
     openMap.addActionListener(e ->
         ActionFile.getInstance().showOpenDialogXml());
     file.add(openMap);
+    JMenuItem importEvents = new JMenuItem("Import events");
+    importEvents.addActionListener(e ->
+        ActionMetroEvent.getInstance().showImportDialog());
+    file.add(importEvents);
     JMenuItem save = new JMenuItem("Save");
     save.setName("Save");
     file.add(save);
@@ -79,8 +90,27 @@ public final class MenuBar extends JMenuBar {
         ActionFile.getInstance().showExportDialogXml());
     export.setName(ActionFile.EXPORT_NAME);
     file.add(export);
+    JMenuItem generate = new JMenuItem("Generate network");
+    generate.addActionListener(e ->
+        ActionFile.getInstance().showGenerateDialog());
+    file.add(generate);
     this.add(file);
 
+    // Edit menu
+    JMenu edit = new JMenu("Edit");
+    JMenuItem undo = new JMenuItem("Undo");
+    undo.setName("Undo");
+    undo.setAccelerator(KeyStroke.getKeyStroke(KeyEvent.VK_Z,
+        InputEvent.CTRL_DOWN_MASK));
+    undo.addActionListener(e -> NetworkHistory.getInstance().undoEdit());
+    edit.add(undo);
+    JMenuItem redo = new JMenuItem("Redo");
+    redo.setName("Redo");
+    redo.setAccelerator(KeyStroke.getKeyStroke(KeyEvent.VK_Y,
+        InputEvent.CTRL_DOWN_MASK));
+    redo.addActionListener(e -> NetworkHistory.getInstance().redoEdit());
+    edit.add(redo);
+
     // Configuration menu
     JMenu config = new JMenu("Configuration");
     JMenuItem editConfig = new JMenuItem("Edit");
@@ -110,6 +140,28 @@ public final class MenuBar extends JMenuBar {
     exportArchives.addActionListener(e ->
         new ActionArchive().showExportDialogJsonAndXml());
     archives.add(exportArchives);
+    JMenuItem runBatch = new JMenuItem("Run batch");
+    runBatch.setName("Run batch");
+    runBatch.addActionListener(e -> new ActionArchive().showBatchDialog());
+    archives.add(runBatch);
+
+    // Tiles menu
+    JMenu tiles = new JMenu("Tiles");
+    JMenuItem downloadTiles = new JMenuItem("Download for offline use");
+    downloadTiles.setName("Download tiles");
+    downloadTiles.addActionListener(e ->
+        ActionOfflineTiles.getInstance().showPrefetchDialog());
+    tiles.add(downloadTiles);
+    JMenuItem openTiles = new JMenuItem("Open offline tiles");
+    openTiles.setName("Open tiles");
+    openTiles.addActionListener(e ->
+        ActionOfflineTiles.getInstance().showOpenDialog());
+    tiles.add(openTiles);
+    JMenuItem onlineTiles = new JMenuItem("Use online tiles");
+    onlineTiles.setName("Online tiles");
+    onlineTiles.addActionListener(e ->
+        ActionOfflineTiles.getInstance().useOnlineTiles());
+    tiles.add(onlineTiles);
 
     // Theme menu
     JButton changeThemeBtn = new JButton("Light Mode");
@@ -117,8 +169,10 @@ public final class MenuBar extends JMenuBar {
     changeThemeBtn.addActionListener(e -> ActionThemeMode.getInstance(
         changeThemeBtn).changeTheme());
     this.add(changeThemeBtn);
+    this.add(tiles);
     this.add(archives);
     this.add(config);
+    this.add(edit);
     this.add(file);
   }
 
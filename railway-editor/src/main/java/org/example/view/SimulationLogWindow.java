@@ -0,0 +1,212 @@
+/*
+ * License : MIT License
+ *
+ * Copyright (c) 2023 Team PFE_2023_16
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.example.view;
+
+import org.example.controller.ActionRunSimulation;
+import org.example.controller.SimulatorLauncher;
+
+import javax.swing.JButton;
+import javax.swing.JFrame;
+import javax.swing.JPanel;
+import javax.swing.JScrollPane;
+import javax.swing.JTextArea;
+import javax.swing.JTextField;
+import javax.swing.SwingUtilities;
+import javax.swing.WindowConstants;
+import javax.swing.text.BadLocationException;
+import javax.swing.text.Document;
+import java.awt.BorderLayout;
+import java.awt.FlowLayout;
+import java.awt.Font;
+import java.io.IOException;
+
+/**
+ * JFrame showing the output of the simulator while it runs.
+ *
+ * <p>Lines are received from the threads of the {@link SimulatorLauncher}
+ * and appended on the EDT. Only the last {@link #MAX_LENGTH} characters are
+ * kept, so a long run does not fill the memory.
+ *
+ * @author Team PFE_2023_16
+ * @file SimulationLogWindow.java
+ * @date 2026-10-17
+ * @see ActionRunSimulation
+ * @since 3.0
+ */
+public final class SimulationLogWindow extends JFrame
+    implements SimulatorLauncher.Listener {
+  /**
+   * Serial version UID.
+   */
+  private static final long serialVersionUID = 1L;
+  /**
+   * Singleton instance.
+   */
+  private static SimulationLogWindow instance;
+  /**
+   * Log window width.
+   */
+  private static final int WINDOW_WIDTH = 700;
+  /**
+   * Log window height.
+   */
+  private static final int WINDOW_HEIGHT = 400;
+  /**
+   * Log window title.
+   */
+  private static final String TITLE = "Simulation";
+  /**
+   * Maximum number of characters kept in the log.
+   */
+  private static final int MAX_LENGTH = 200_000;
+  /**
+   * Font size of the log.
+   */
+  private static final int FONT_SIZE = 12;
+
+  /**
+   * Output of the simulator.
+   */
+  private final JTextArea logArea;
+  /**
+   * Line sent to the standard input of the simulator, which asks for the type
+   * of day to simulate.
+   */
+  private final JTextField inputField;
+  /**
+   * Button stopping the simulator.
+   */
+  private final JButton stopButton;
+
+  /**
+   * Constructor, initialize the window and its components.
+   */
+  private SimulationLogWindow() {
+    this.logArea = new JTextArea();
+    this.logArea.setEditable(false);
+    this.logArea.setFont(new Font(Font.MONOSPACED, Font.PLAIN, FONT_SIZE));
+
+    this.stopButton = new JButton("STOP");
+    this.stopButton.setEnabled(false);
+    this.stopButton.addActionListener(e ->
+        ActionRunSimulation.getInstance().cancelSimulation());
+    JButton clearButton = new JButton("CLEAR");
+    clearButton.addActionListener(e -> this.logArea.setText(""));
+
+    this.inputField = new JTextField();
+    this.inputField.setEnabled(false);
+    this.inputField.addActionListener(e -> this.sendInput());
+
+    JPanel buttons = new JPanel(new FlowLayout(FlowLayout.RIGHT));
+    buttons.add(clearButton);
+    buttons.add(this.stopButton);
+    JPanel bottom = new JPanel(new BorderLayout());
+    bottom.add(this.inputField, BorderLayout.CENTER);
+    bottom.add(buttons, BorderLayout.EAST);
+
+    this.getContentPane().add(new JScrollPane(this.logArea),
+        BorderLayout.CENTER);
+    this.getContentPane().add(bottom, BorderLayout.SOUTH);
+    this.setSize(WINDOW_WIDTH, WINDOW_HEIGHT);
+    this.setTitle(TITLE);
+    this.setDefaultCloseOperation(WindowConstants.HIDE_ON_CLOSE);
+  }
+
+  /**
+   * Create SimulationLogWindow Singleton.
+   *
+   * @return SimulationLogWindow instance
+   */
+  public static SimulationLogWindow getInstance() {
+    if (instance == null) {
+      instance = new SimulationLogWindow();
+    }
+    return instance;
+  }
+
+  /**
+   * Show the window for a new run, must be called on the EDT.
+   */
+  public void simulationStarted() {
+    this.logArea.setText("");
+    this.stopButton.setEnabled(true);
+    this.inputField.setEnabled(true);
+    this.setVisible(true);
+    this.inputField.requestFocusInWindow();
+  }
+
+  @Override
+  public void outputLine(final String line, final boolean error) {
+    SwingUtilities.invokeLater(() -> this.append(line));
+  }
+
+  @Override
+  public void finished(final int exitValue) {
+    SwingUtilities.invokeLater(() -> {
+      if (exitValue == SimulatorLauncher.KILLED_EXIT_VALUE) {
+        this.append("Simulation stopped.");
+      } else {
+        this.append("Simulation ended with exit value " + exitValue + ".");
+      }
+      this.stopButton.setEnabled(false);
+      this.inputField.setEnabled(false);
+    });
+  }
+
+  /**
+   * Send the typed line to the simulator and echo it in the log.
+   */
+  private void sendInput() {
+    String line = this.inputField.getText();
+    this.inputField.setText("");
+    this.append("> " + line);
+    try {
+      ActionRunSimulation.getInstance().sendInput(line);
+    } catch (IOException e) {
+      this.append("Unable to send the input: " + e.getMessage());
+    }
+  }
+
+  /**
+   * Append a line to the log, dropping the oldest lines past the maximum
+   * length.
+   *
+   * @param line the line to append
+   */
+  private void append(final String line) {
+    this.logArea.append(line);
+    this.logArea.append("\n");
+    Document document = this.logArea.getDocument();
+    int excess = document.getLength() - MAX_LENGTH;
+    if (excess > 0) {
+      try {
+        document.remove(0, excess);
+      } catch (BadLocationException e) {
+        e.printStackTrace();
+      }
+    }
+    this.logArea.setCaretPosition(document.getLength());
+  }
+}
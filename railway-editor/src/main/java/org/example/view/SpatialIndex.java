@@ -0,0 +1,616 @@
+/*
+ * License : MIT License
+ *
+ * Copyright (c) 2023 Team PFE_2023_16
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.example.view;
+
+import org.example.model.Area;
+import org.example.model.Station;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Uniform grid index of the {@link StationView} and {@link AreaView} drawn on
+ * the {@link MainPanel}, used to answer hit-tests without scanning every
+ * view of the map.
+ *
+ * <p>Entries are bucketed by cell of world pixels at the current zoom, so
+ * panning only changes the screen origin. Moved elements are re-bucketed one
+ * by one and a zoom (or any bulk change of the views lists) invalidates the
+ * whole index, which is then rebuilt lazily on the next query.</p>
+ *
+ * @author Team PFE_2023_16
+ * @file SpatialIndex.java
+ * @date 2026-10-17
+ * @since 3.0
+ */
+public class SpatialIndex {
+  /**
+   * Side of a grid cell in pixels.
+   */
+  public static final int CELL_SIZE = 64;
+  /**
+   * Margin added around the elements bounds, matches the area border
+   * tolerance of the hit-tests.
+   */
+  private static final int MARGIN = 2;
+  /**
+   * Number of cells above which an area is kept in a separate list instead
+   * of being bucketed (large areas once zoomed in).
+   */
+  private static final int MAX_AREA_CELLS = 256;
+  /**
+   * Shift used to pack the two cell coordinates in a single key.
+   */
+  private static final int KEY_SHIFT = 32;
+  /**
+   * Mask of the low cell coordinate in a key.
+   */
+  private static final long KEY_MASK = 0xFFFFFFFFL;
+
+  /**
+   * Station entries by cell key.
+   */
+  private final Map<Long, List<StationEntry>> stationCells;
+  /**
+   * Station entries by station.
+   */
+  private final Map<Station, List<StationEntry>> stationEntries;
+  /**
+   * Area entries by cell key.
+   */
+  private final Map<Long, List<AreaEntry>> areaCells;
+  /**
+   * Area entries by area.
+   */
+  private final Map<Area, AreaEntry> areaEntries;
+  /**
+   * Areas too large to be bucketed.
+   */
+  private final List<AreaEntry> largeAreas;
+  /**
+   * World x pixel of the screen left side.
+   */
+  private int originX;
+  /**
+   * World y pixel of the screen top side.
+   */
+  private int originY;
+  /**
+   * Next insertion order, keeps the views lists order for the hit-tests.
+   */
+  private int nextOrder;
+  /**
+   * True if the index must be rebuilt before the next query.
+   */
+  private boolean dirty;
+  /**
+   * Number of station views indexed at the last rebuild or update.
+   */
+  private int stationCount;
+  /**
+   * Number of area views indexed at the last rebuild or update.
+   */
+  private int areaCount;
+
+  /**
+   * SpatialIndex constructor.
+   */
+  public SpatialIndex() {
+    this.stationCells = new HashMap<>();
+    this.stationEntries = new IdentityHashMap<>();
+    this.areaCells = new HashMap<>();
+    this.areaEntries = new IdentityHashMap<>();
+    this.largeAreas = new ArrayList<>();
+    this.dirty = true;
+  }
+
+  /**
+   * Indexed station view with the line it belongs to.
+   */
+  public static final class StationEntry {
+    /**
+     * Indexed station view.
+     */
+    private final StationView stationView;
+    /**
+     * Line view containing the station view.
+     */
+    private final LineView lineView;
+    /**
+     * Position in the views lists.
+     */
+    private final int order;
+    /**
+     * Indexed bounds: min cell x, min cell y, max cell x, max cell y.
+     */
+    private final int[] cells = new int[4];
+
+    /**
+     * StationEntry constructor.
+     *
+     * @param stationViewToIndex station view
+     * @param lineViewToIndex    line view of the station view
+     * @param entryOrder         position in the views lists
+     */
+    private StationEntry(final StationView stationViewToIndex,
+                         final LineView lineViewToIndex,
+                         final int entryOrder) {
+      this.stationView = stationViewToIndex;
+      this.lineView = lineViewToIndex;
+      this.order = entryOrder;
+    }
+
+    /**
+     * Get the indexed station view.
+     *
+     * @return StationView stationView
+     */
+    public StationView getStationView() {
+      return stationView;
+    }
+
+    /**
+     * Get the line view of the indexed station view.
+     *
+     * @return LineView lineView
+     */
+    public LineView getLineView() {
+      return lineView;
+    }
+
+    /**
+     * Get the position of the entry in the views lists.
+     *
+     * @return int order
+     */
+    public int getOrder() {
+      return order;
+    }
+  }
+
+  /**
+   * Indexed area view.
+   */
+  public static final class AreaEntry {
+    /**
+     * Indexed area view.
+     */
+    private final AreaView areaView;
+    /**
+     * Position in the area views list.
+     */
+    private final int order;
+    /**
+     * Indexed bounds: min cell x, min cell y, max cell x, max cell y.
+     */
+    private final int[] cells = new int[4];
+    /**
+     * True if the area is kept in the large areas list.
+     */
+    private boolean large;
+
+    /**
+     * AreaEntry constructor.
+     *
+     * @param areaViewToIndex area view
+     * @param entryOrder      position in the area views list
+     */
+    private AreaEntry(final AreaView areaViewToIndex, final int entryOrder) {
+      this.areaView = areaViewToIndex;
+      this.order = entryOrder;
+    }
+
+    /**
+     * Get the indexed area view.
+     *
+     * @return AreaView areaView
+     */
+    public AreaView getAreaView() {
+      return areaView;
+    }
+
+    /**
+     * Get the position of the entry in the area views list.
+     *
+     * @return int order
+     */
+    public int getOrder() {
+      return order;
+    }
+  }
+
+  /**
+   * Rebuild the index if it has been invalidated or if the views lists
+   * changed size since the last update.
+   *
+   * @param lineViews lines displayed on the map
+   * @param areaViews areas displayed on the map
+   */
+  public void validate(final List<LineView> lineViews,
+                       final List<AreaView> areaViews) {
+    if (dirty || countStations(lineViews) != stationCount
+        || countAreas(areaViews) != areaCount) {
+      rebuild(lineViews, areaViews);
+    }
+  }
+
+  /**
+   * Force a rebuild on the next query (zoom, lists replaced...).
+   */
+  public void invalidate() {
+    this.dirty = true;
+  }
+
+  /**
+   * Rebuild the whole index from the views lists.
+   *
+   * @param lineViews lines displayed on the map
+   * @param areaViews areas displayed on the map
+   */
+  public void rebuild(final List<LineView> lineViews,
+                      final List<AreaView> areaViews) {
+    stationCells.clear();
+    stationEntries.clear();
+    areaCells.clear();
+    areaEntries.clear();
+    largeAreas.clear();
+    nextOrder = 0;
+    stationCount = 0;
+    areaCount = 0;
+    if (lineViews != null) {
+      for (LineView lineView : lineViews) {
+        for (StationView stationView : lineView.getStationViews()) {
+          addStation(stationView, lineView);
+        }
+      }
+    }
+    if (areaViews != null) {
+      for (AreaView areaView : areaViews) {
+        addArea(areaView);
+      }
+    }
+    dirty = false;
+  }
+
+  /**
+   * Set the world pixel of the screen top left corner, used to convert the
+   * screen coordinates of the queries and of the elements.
+   *
+   * @param worldOriginX world x pixel of the screen left side
+   * @param worldOriginY world y pixel of the screen top side
+   */
+  public void setOrigin(final int worldOriginX, final int worldOriginY) {
+    this.originX = worldOriginX;
+    this.originY = worldOriginY;
+  }
+
+  /**
+   * Index a station view of a line, after the ones already indexed.
+   *
+   * @param stationView station view to add
+   * @param lineView    line view of the station view
+   */
+  public void addStation(final StationView stationView,
+                         final LineView lineView) {
+    insertStation(new StationEntry(stationView, lineView, nextOrder++));
+    stationCount++;
+  }
+
+  /**
+   * Remove a station view of a line from the index.
+   *
+   * @param stationView station view to remove
+   * @param lineView    line view of the station view
+   * @return the order of the removed entry, -1 if it was not indexed
+   */
+  public int removeStation(final StationView stationView,
+                           final LineView lineView) {
+    List<StationEntry> entries = stationEntries.get(stationView.getStation());
+    if (entries == null) {
+      return -1;
+    }
+    for (StationEntry entry : entries) {
+      if (entry.stationView == stationView && entry.lineView == lineView) {
+        unbucketStation(entry);
+        entries.remove(entry);
+        if (entries.isEmpty()) {
+          stationEntries.remove(stationView.getStation());
+        }
+        stationCount--;
+        return entry.order;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Replace a station view of a line by another one, keeping its position
+   * in the hit-tests order (merge of two stations).
+   *
+   * @param oldStationView station view replaced
+   * @param newStationView station view replacing it
+   * @param lineView       line view of the station views
+   */
+  public void replaceStation(final StationView oldStationView,
+                             final StationView newStationView,
+                             final LineView lineView) {
+    int order = removeStation(oldStationView, lineView);
+    if (order < 0) {
+      order = nextOrder++;
+    }
+    insertStation(new StationEntry(newStationView, lineView, order));
+    stationCount++;
+  }
+
+  /**
+   * Update the cells of a station after it moved.
+   *
+   * @param station station moved
+   */
+  public void stationMoved(final Station station) {
+    List<StationEntry> entries = stationEntries.get(station);
+    if (entries == null) {
+      return;
+    }
+    for (StationEntry entry : entries) {
+      unbucketStation(entry);
+      bucketStation(entry);
+    }
+  }
+
+  /**
+   * Get the line views containing an indexed station.
+   *
+   * @param station station
+   * @return the line views of the station, empty if it is not indexed
+   */
+  public List<LineView> getLineViews(final Station station) {
+    List<StationEntry> entries = stationEntries.get(station);
+    if (entries == null) {
+      return Collections.emptyList();
+    }
+    List<LineView> lineViews = new ArrayList<>(entries.size());
+    for (StationEntry entry : entries) {
+      lineViews.add(entry.lineView);
+    }
+    return lineViews;
+  }
+
+  /**
+   * Index an area view, after the ones already indexed.
+   *
+   * @param areaView area view to add
+   */
+  public void addArea(final AreaView areaView) {
+    AreaEntry entry = new AreaEntry(areaView, nextOrder++);
+    areaEntries.put(areaView.getArea(), entry);
+    bucketArea(entry);
+    areaCount++;
+  }
+
+  /**
+   * Update the cells of an area after it moved or was resized.
+   *
+   * @param area area moved
+   */
+  public void areaMoved(final Area area) {
+    AreaEntry entry = areaEntries.get(area);
+    if (entry != null) {
+      unbucketArea(entry);
+      bucketArea(entry);
+    }
+  }
+
+  /**
+   * Get the station entries which may contain a point of the screen.
+   *
+   * @param x x coordinate on the screen
+   * @param y y coordinate on the screen
+   * @return the candidate entries, in no particular order
+   */
+  public List<StationEntry> getStationCandidates(final int x, final int y) {
+    List<StationEntry> cell = stationCells.get(key(cellOf(x + originX),
+        cellOf(y + originY)));
+    return cell == null ? Collections.<StationEntry>emptyList() : cell;
+  }
+
+  /**
+   * Get the area entries which may contain a point of the screen or have a
+   * border on it.
+   *
+   * @param x x coordinate on the screen
+   * @param y y coordinate on the screen
+   * @return the candidate entries, in no particular order
+   */
+  public List<AreaEntry> getAreaCandidates(final int x, final int y) {
+    List<AreaEntry> cell = areaCells.get(key(cellOf(x + originX),
+        cellOf(y + originY)));
+    if (largeAreas.isEmpty()) {
+      return cell == null ? Collections.<AreaEntry>emptyList() : cell;
+    }
+    List<AreaEntry> candidates = new ArrayList<>(largeAreas);
+    if (cell != null) {
+      candidates.addAll(cell);
+    }
+    return candidates;
+  }
+
+  /**
+   * Insert a new station entry.
+   *
+   * @param entry entry to insert
+   */
+  private void insertStation(final StationEntry entry) {
+    stationEntries.computeIfAbsent(entry.stationView.getStation(),
+        k -> new ArrayList<>(1)).add(entry);
+    bucketStation(entry);
+  }
+
+  /**
+   * Add a station entry to the cells covered by its clickable circle.
+   *
+   * @param entry entry to bucket
+   */
+  private void bucketStation(final StationEntry entry) {
+    Station station = entry.stationView.getStation();
+    int size = entry.stationView.getStationSize();
+    // clickable circle: center (pos - size / 2), radius size
+    int x = station.getPosX() + originX;
+    int y = station.getPosY() + originY;
+    entry.cells[0] = cellOf(x - size - size / 2 - MARGIN);
+    entry.cells[1] = cellOf(y - size - size / 2 - MARGIN);
+    entry.cells[2] = cellOf(x + size - size / 2 + MARGIN);
+    entry.cells[3] = cellOf(y + size - size / 2 + MARGIN);
+    for (int i = entry.cells[0]; i <= entry.cells[2]; i++) {
+      for (int j = entry.cells[1]; j <= entry.cells[3]; j++) {
+        stationCells.computeIfAbsent(key(i, j), k -> new ArrayList<>(2))
+            .add(entry);
+      }
+    }
+  }
+
+  /**
+   * Remove a station entry from its cells.
+   *
+   * @param entry entry to remove
+   */
+  private void unbucketStation(final StationEntry entry) {
+    for (int i = entry.cells[0]; i <= entry.cells[2]; i++) {
+      for (int j = entry.cells[1]; j <= entry.cells[3]; j++) {
+        Long cellKey = key(i, j);
+        List<StationEntry> cell = stationCells.get(cellKey);
+        if (cell != null) {
+          cell.remove(entry);
+          if (cell.isEmpty()) {
+            stationCells.remove(cellKey);
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * Add an area entry to the cells covered by the area and its borders.
+   *
+   * @param entry entry to bucket
+   */
+  private void bucketArea(final AreaEntry entry) {
+    Area area = entry.areaView.getArea();
+    int x = area.getPosX() + originX;
+    int y = area.getPosY() + originY;
+    entry.cells[0] = cellOf(x - MARGIN);
+    entry.cells[1] = cellOf(y - MARGIN);
+    entry.cells[2] = cellOf(x + area.getWidth() + MARGIN);
+    entry.cells[3] = cellOf(y + area.getHeight() + MARGIN);
+    long cellCount = (long) (entry.cells[2] - entry.cells[0] + 1)
+        * (entry.cells[3] - entry.cells[1] + 1);
+    entry.large = cellCount > MAX_AREA_CELLS;
+    if (entry.large) {
+      largeAreas.add(entry);
+      return;
+    }
+    for (int i = entry.cells[0]; i <= entry.cells[2]; i++) {
+      for (int j = entry.cells[1]; j <= entry.cells[3]; j++) {
+        areaCells.computeIfAbsent(key(i, j), k -> new ArrayList<>(1))
+            .add(entry);
+      }
+    }
+  }
+
+  /**
+   * Remove an area entry from its cells.
+   *
+   * @param entry entry to remove
+   */
+  private void unbucketArea(final AreaEntry entry) {
+    if (entry.large) {
+      largeAreas.remove(entry);
+      return;
+    }
+    for (int i = entry.cells[0]; i <= entry.cells[2]; i++) {
+      for (int j = entry.cells[1]; j <= entry.cells[3]; j++) {
+        Long cellKey = key(i, j);
+        List<AreaEntry> cell = areaCells.get(cellKey);
+        if (cell != null) {
+          cell.remove(entry);
+          if (cell.isEmpty()) {
+            areaCells.remove(cellKey);
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * Count the station views of the lines.
+   *
+   * @param lineViews lines displayed on the map
+   * @return int number of station views
+   */
+  private static int countStations(final List<LineView> lineViews) {
+    int count = 0;
+    if (lineViews != null) {
+      for (LineView lineView : lineViews) {
+        count += lineView.getStationViews().size();
+      }
+    }
+    return count;
+  }
+
+  /**
+   * Count the area views.
+   *
+   * @param areaViews areas displayed on the map
+   * @return int number of area views
+   */
+  private static int countAreas(final List<AreaView> areaViews) {
+    return areaViews == null ? 0 : areaViews.size();
+  }
+
+  /**
+   * Get the cell coordinate of a pixel coordinate.
+   *
+   * @param coord pixel coordinate
+   * @return int cell coordinate
+   */
+  private static int cellOf(final int coord) {
+    return Math.floorDiv(coord, CELL_SIZE);
+  }
+
+  /**
+   * Pack two cell coordinates in a single key.
+   *
+   * @param cellX cell x coordinate
+   * @param cellY cell y coordinate
+   * @return Long key of the cell
+   */
+  private static Long key(final int cellX, final int cellY) {
+    return ((long) cellX << KEY_SHIFT) | (cellY & KEY_MASK);
+  }
+}
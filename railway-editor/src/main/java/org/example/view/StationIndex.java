@@ -0,0 +1,274 @@
+/*
+ * License : MIT License
+ *
+ * Copyright (c) 2023 Team PFE_2023_16
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.example.view;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Index of the {@link StationView} of the {@link MainPanel} by station id,
+ * giving each line containing the station and the position of the station
+ * on it, used to resolve the stations of the events without scanning the
+ * network.
+ *
+ * <p>Like the {@link SpatialIndex}, stations added at the end of a line are
+ * indexed one by one, a line whose stations were removed or replaced is
+ * reindexed alone, and any bulk change of the lines list invalidates the
+ * whole index, which is then rebuilt lazily on the next query.</p>
+ *
+ * @author Team PFE_2023_16
+ * @file StationIndex.java
+ * @date 2026-10-17
+ * @since 3.0
+ */
+public class StationIndex {
+  /**
+   * Entries by station id, in the lines list order.
+   */
+  private final Map<Integer, List<Entry>> entriesById;
+  /**
+   * Entries by line view, in the order of the stations of the line.
+   */
+  private final Map<LineView, List<Entry>> entriesByLine;
+  /**
+   * True if the index must be rebuilt before the next query.
+   */
+  private boolean dirty;
+  /**
+   * Number of station views indexed at the last rebuild or update.
+   */
+  private int stationCount;
+
+  /**
+   * StationIndex constructor.
+   */
+  public StationIndex() {
+    this.entriesById = new HashMap<>();
+    this.entriesByLine = new IdentityHashMap<>();
+    this.dirty = true;
+  }
+
+  /**
+   * Indexed station view with its line and its position on the line.
+   */
+  public static final class Entry {
+    /**
+     * Indexed station view.
+     */
+    private final StationView stationView;
+    /**
+     * Line view containing the station view.
+     */
+    private final LineView lineView;
+    /**
+     * Position of the station view on the line.
+     */
+    private final int position;
+
+    /**
+     * Entry constructor.
+     *
+     * @param stationViewToIndex station view
+     * @param lineViewToIndex    line view of the station view
+     * @param stationPosition    position of the station view on the line
+     */
+    private Entry(final StationView stationViewToIndex,
+                  final LineView lineViewToIndex,
+                  final int stationPosition) {
+      this.stationView = stationViewToIndex;
+      this.lineView = lineViewToIndex;
+      this.position = stationPosition;
+    }
+
+    /**
+     * Get the indexed station view.
+     *
+     * @return StationView stationView
+     */
+    public StationView getStationView() {
+      return stationView;
+    }
+
+    /**
+     * Get the line view of the indexed station view.
+     *
+     * @return LineView lineView
+     */
+    public LineView getLineView() {
+      return lineView;
+    }
+
+    /**
+     * Get the position of the station view on its line.
+     *
+     * @return int position
+     */
+    public int getPosition() {
+      return position;
+    }
+  }
+
+  /**
+   * Rebuild the index if it was invalidated or if the lines lost or gained
+   * station views since the last update.
+   *
+   * @param lineViews lines displayed on the map
+   */
+  public void validate(final List<LineView> lineViews) {
+    if (dirty || countStations(lineViews) != stationCount) {
+      rebuild(lineViews);
+    }
+  }
+
+  /**
+   * Force a rebuild on the next query (lines list replaced...).
+   */
+  public void invalidate() {
+    this.dirty = true;
+  }
+
+  /**
+   * Rebuild the whole index from the lines list.
+   *
+   * @param lineViews lines displayed on the map
+   */
+  public void rebuild(final List<LineView> lineViews) {
+    entriesById.clear();
+    entriesByLine.clear();
+    stationCount = 0;
+    if (lineViews != null) {
+      for (LineView lineView : lineViews) {
+        for (StationView stationView : lineView.getStationViews()) {
+          addStation(stationView, lineView);
+        }
+      }
+    }
+    dirty = false;
+  }
+
+  /**
+   * Index a station view added at the end of a line.
+   *
+   * @param stationView station view added
+   * @param lineView    line view of the station view
+   */
+  public void addStation(final StationView stationView,
+                         final LineView lineView) {
+    List<Entry> lineEntries = entriesByLine.get(lineView);
+    if (lineEntries == null) {
+      lineEntries = new ArrayList<>();
+      entriesByLine.put(lineView, lineEntries);
+    }
+    Entry entry = new Entry(stationView, lineView, lineEntries.size());
+    lineEntries.add(entry);
+    List<Entry> idEntries = entriesById.get(stationView.getStation().getId());
+    if (idEntries == null) {
+      idEntries = new ArrayList<>(1);
+      entriesById.put(stationView.getStation().getId(), idEntries);
+    }
+    idEntries.add(entry);
+    stationCount++;
+  }
+
+  /**
+   * Reindex the station views of a line after some of them were removed or
+   * replaced, the positions of the following ones having changed.
+   *
+   * @param lineView line view changed
+   */
+  public void lineChanged(final LineView lineView) {
+    List<Entry> lineEntries = entriesByLine.remove(lineView);
+    if (lineEntries != null) {
+      for (Entry entry : lineEntries) {
+        int id = entry.stationView.getStation().getId();
+        List<Entry> idEntries = entriesById.get(id);
+        idEntries.remove(entry);
+        if (idEntries.isEmpty()) {
+          entriesById.remove(id);
+        }
+      }
+      stationCount -= lineEntries.size();
+    }
+    for (StationView stationView : lineView.getStationViews()) {
+      addStation(stationView, lineView);
+    }
+  }
+
+  /**
+   * Get the station views of a station id, one per line containing it.
+   *
+   * @param stationId station id
+   * @return the entries of the station, empty if it is not indexed
+   */
+  public List<Entry> getEntries(final int stationId) {
+    List<Entry> entries = entriesById.get(stationId);
+    return entries == null ? Collections.emptyList()
+        : Collections.unmodifiableList(entries);
+  }
+
+  /**
+   * Get the entries of two stations, on a line containing both if there is
+   * one, else on their first lines.
+   *
+   * @param stationIdStart id of the first station
+   * @param stationIdEnd   id of the second station
+   * @return the entries of the two stations, null if not indexed
+   */
+  public Entry[] getEntriesOnSameLine(final int stationIdStart,
+                                      final int stationIdEnd) {
+    List<Entry> starts = getEntries(stationIdStart);
+    List<Entry> ends = getEntries(stationIdEnd);
+    // a station is on a few lines at most
+    for (Entry start : starts) {
+      for (Entry end : ends) {
+        if (start.lineView == end.lineView) {
+          return new Entry[]{start, end};
+        }
+      }
+    }
+    return new Entry[]{starts.isEmpty() ? null : starts.get(0),
+        ends.isEmpty() ? null : ends.get(0)};
+  }
+
+  /**
+   * Count the station views of the lines.
+   *
+   * @param lineViews lines displayed on the map
+   * @return the number of station views
+   */
+  private static int countStations(final List<LineView> lineViews) {
+    int count = 0;
+    if (lineViews != null) {
+      for (LineView lineView : lineViews) {
+        count += lineView.getStationViews().size();
+      }
+    }
+    return count;
+  }
+}
@@ -36,6 +36,7 @@ import javax.swing.BoxLayout;
 import javax.swing.ButtonGroup;
 import javax.swing.JButton;
 import javax.swing.JLabel;
+import javax.swing.JOptionPane;
 import javax.swing.JPanel;
 import javax.swing.JRadioButton;
 import javax.swing.JToggleButton;
@@ -162,10 +163,20 @@ public class ToolBarPanel extends JToolBar {
     JButton runSimulationBtn = new JButton("RUN");
     runSimulationBtn.setName(ActionRunSimulation.ACTION_NAME);
     runSimulationBtn.addActionListener(e -> {
+      ActionRunSimulation actionRunSimulation =
+          ActionRunSimulation.getInstance();
+      actionRunSimulation.setListener(SimulationLogWindow.getInstance());
       try {
-        ActionRunSimulation.getInstance()
-            .runSimulation();
-      } catch (InterruptedException | IOException ex) {
+        if (actionRunSimulation.runSimulation() == 0) {
+          SimulationLogWindow.getInstance().simulationStarted();
+        } else {
+          SimulationLogWindow.getInstance().setVisible(true);
+        }
+      } catch (IOException ex) {
+        JOptionPane.showMessageDialog(MainWindow.getInstance(),
+            "Unable to start the simulator:\n" + ex.getMessage(),
+            "Run simulation", JOptionPane.ERROR_MESSAGE);
+      } catch (InterruptedException ex) {
         Thread.currentThread().interrupt();
       }
     });
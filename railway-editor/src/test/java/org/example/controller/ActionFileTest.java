@@ -34,28 +34,26 @@ import org.example.model.EventLineClosed;
 import org.example.model.EventMultipleStationsClosed;
 import org.example.model.EventLineDelay;
 import org.example.model.EventStationClosed;
+import org.example.model.Line;
+import org.example.model.Station;
 import org.example.view.AreaView;
+import org.example.view.LineView;
 import org.example.view.MainWindow;
+import org.example.view.StationView;
 import org.junit.jupiter.api.Test;
-import org.junit.jupiter.params.ParameterizedTest;
-import org.junit.jupiter.params.provider.Arguments;
-import org.junit.jupiter.params.provider.MethodSource;
+import org.junit.jupiter.api.io.TempDir;
+import org.openstreetmap.gui.jmapviewer.Coordinate;
 import org.openstreetmap.gui.jmapviewer.interfaces.ICoordinate;
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
-import org.w3c.dom.NamedNodeMap;
-import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
 
-import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
-import javax.xml.parsers.ParserConfigurationException;
 import java.io.File;
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
-import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
@@ -70,70 +68,65 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
  */
 class ActionFileTest {
 
-  private static Stream<Arguments> areaViewStream()
-      throws ParserConfigurationException {
-    DocumentBuilderFactory documentFactory = DocumentBuilderFactory
-        .newInstance();
-    DocumentBuilder documentBuilder = documentFactory.newDocumentBuilder();
-    Document document1 = documentBuilder.newDocument();
-    Element station = document1.createElement("station");
-    document1.appendChild(station);
-
-    Document document2 = documentBuilder.newDocument();
-    Element area = document2.createElement("area");
-    document2.appendChild(area);
-
+  @Test
+  void testExportDistributions(@TempDir final Path dir) throws Exception {
     Area areaParis = new Area(48.92430395329745, 2.23846435546875,
         48.78877122776646, 2.4444580078125);
-    AreaView areaView = new AreaView(areaParis);
-    return Stream.of(
-        Arguments.of(document1, null, station),
-        Arguments.of(document2, areaView, area)
-    );
-  }
-
-  @ParameterizedTest
-  @MethodSource("areaViewStream")
-  void testExportDistributions(final Document document, final AreaView areaView,
-                               final Element element)
-      throws NoSuchMethodException, InvocationTargetException,
-      IllegalAccessException {
+    areaParis.setNewPopulationPart(Data.AREA_WORKER, 42);
+    areaParis.setNewDestinationPart(Data.AREA_OFFICE, 24);
+    Station angers = new Station(0, 47.47, -0.55, "Ralliement");
+    List<Station> stations = new ArrayList<>();
+    stations.add(angers);
+    List<StationView> stationViews = new ArrayList<>();
+    stationViews.add(new StationView(angers));
+    List<LineView> lineViews = new ArrayList<>();
+    lineViews.add(new LineView(new Line(0, stations), stationViews));
+    List<AreaView> areaViews = new ArrayList<>();
+    areaViews.add(new AreaView(areaParis));
 
-    Method method = ActionFile.class.getDeclaredMethod(
-        "exportDistributions", Document.class, AreaView.class, Element.class);
-    method.setAccessible(true);
+    File file = dir.resolve("map.xml").toFile();
+    MapXmlWriter.write(file, new Coordinate(47.47, -0.55), 13, lineViews,
+        areaViews, new ArrayList<>());
+    Document document = DocumentBuilderFactory.newInstance()
+        .newDocumentBuilder().parse(file);
 
-    method.invoke(ActionFile.getInstance(), document, areaView, element);
-
-    // Population distribution check
-    NamedNodeMap populationAttributes = element.getFirstChild().getAttributes();
-    for (int i = 0; i < populationAttributes.getLength(); i++) {
-      Node populationAttribute = populationAttributes.item(i);
-      String attrName = populationAttribute.getNodeName();
-      String dataFieldName = Character.toUpperCase(attrName.charAt(0))
-          + attrName.substring(1);
-      int expectedValue = Area.getDefaultPopulationDistribution(dataFieldName);
-      assertEquals(expectedValue,
-          Integer.parseInt(populationAttribute.getNodeValue()), "The "
-              + dataFieldName + "population distribution should be "
-              + expectedValue);
+    // The area has its own distributions, the station without area the
+    // default ones
+    NodeList populations = document.getElementsByTagName(
+        "populationDistribution");
+    assertEquals(2, populations.getLength(),
+        "The area and the station should have a population distribution");
+    for (int i = 0; i < populations.getLength(); i++) {
+      Element population = (Element) populations.item(i);
+      boolean area = "area".equals(population.getParentNode().getNodeName());
+      for (String key : ActionFile.POPULATION_ELEMENTS) {
+        int expectedValue = area
+            ? areaParis.getDistributionPopulation().get(key)
+            : Area.getDefaultPopulationDistribution(key);
+        assertEquals(expectedValue, Integer.parseInt(
+            population.getAttribute(key.toLowerCase())), "The " + key
+            + " population distribution should be " + expectedValue);
+      }
     }
 
-    NamedNodeMap destinationAttributes =
-        element.getFirstChild().getAttributes();
-    // Destination distribution check
-    for (int i = 0; i < destinationAttributes.getLength(); i++) {
-      Node destinationAttribute = destinationAttributes.item(i);
-      String attrName = destinationAttribute.getNodeName();
-      String dataFieldName = Character.toUpperCase(attrName.charAt(0))
-          + attrName.substring(1);
-      int expectedValue = Area.getDefaultPopulationDistribution(dataFieldName);
-      assertEquals(expectedValue,
-          Integer.parseInt(destinationAttribute.getNodeValue()),
-          "The " + dataFieldName
-              + "population distribution should be " + expectedValue);
+    NodeList destinations = document.getElementsByTagName(
+        "destinationDistribution");
+    assertEquals(2, destinations.getLength(),
+        "The area and the station should have a destination distribution");
+    for (int i = 0; i < destinations.getLength(); i++) {
+      Element destination = (Element) destinations.item(i);
+      boolean area = "area".equals(destination.getParentNode().getNodeName());
+      for (String key : ActionFile.DESTINATION_ELEMENTS) {
+        int expectedValue = area
+            ? areaParis.getDistributionDestination().get(key)
+            : Area.getDefaultDestinationDistribution(key);
+        assertEquals(expectedValue, Integer.parseInt(
+            destination.getAttribute(key.toLowerCase())), "The " + key
+            + " destination distribution should be " + expectedValue);
+      }
     }
   }
+
   @Test
   void testImportMap() {
     RailwayEditor.main(new String[]{});
@@ -25,6 +25,7 @@
 package org.example.controller;
 
 
+import org.example.model.NetworkSnapshot;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
@@ -40,6 +41,10 @@ import java.io.File;
  * @since 3.0
  */
 class ActionRunSimulationTest {
+  /**
+   * Time given to the thread starting the simulator to export the map.
+   */
+  private static final long EXPORT_TIMEOUT_MILLIS = 5000;
 
   /**
    * Test the runSimulation method when no other simulator is already running.
@@ -48,6 +53,10 @@ class ActionRunSimulationTest {
    */
   @Test
   void testRunSimulationNoSimulatorRunning() throws Exception {
+    // A stub stands in for the go simulator
+    ActionRunSimulation.getInstance().setSimulatorCommand(
+        SimulatorStub.command());
+
     // Spy the ActionRunSimulation instance
     ActionRunSimulation actionRunSimulation =
         Mockito.spy(ActionRunSimulation.getInstance());
@@ -64,7 +73,8 @@ class ActionRunSimulationTest {
     // Mocking methods
     // No simulator already running so isSimulatorRunning should return false
     Mockito.when(actionRunSimulation.isSimulatorRunning()).thenReturn(false);
-    Mockito.doNothing().when(actionFile).export(Mockito.any(File.class));
+    Mockito.doNothing().when(actionFile).export(
+        Mockito.any(NetworkSnapshot.class), Mockito.any(File.class));
 
     // Run the simulation
     int exitValue = actionRunSimulation.runSimulation();
@@ -73,8 +83,10 @@ class ActionRunSimulationTest {
     Assertions.assertEquals(0, exitValue, "The simulator" +
         " should have been launched");
 
-    // Check that the methods have been called
-    Mockito.verify(actionFile).export(Mockito.any(File.class));
+    // Check that the methods have been called, the map being exported on
+    // the thread starting the simulator
+    Mockito.verify(actionFile, Mockito.timeout(EXPORT_TIMEOUT_MILLIS))
+        .export(Mockito.any(NetworkSnapshot.class), Mockito.any(File.class));
     Mockito.verifyNoMoreInteractions(actionFile);
     Mockito.verify(actionRunSimulation).isSimulatorRunning();
     Mockito.verify(actionRunSimulation).runSimulation();
@@ -104,7 +116,8 @@ class ActionRunSimulationTest {
     // Mocking methods
     // A simulator is already running so isSimulatorRunning should return true
     Mockito.when(actionRunSimulation.isSimulatorRunning()).thenReturn(true);
-    Mockito.doNothing().when(actionFile).export(Mockito.any(File.class));
+    Mockito.doNothing().when(actionFile).export(
+        Mockito.any(NetworkSnapshot.class), Mockito.any(File.class));
 
     // Run the simulation
     int exitValue = actionRunSimulation.runSimulation();
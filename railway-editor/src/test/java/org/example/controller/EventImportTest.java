@@ -0,0 +1,126 @@
+/*
+ * License : MIT License
+ *
+ * Copyright (c) 2023 Team PFE_2023_16
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.example.controller;
+
+import org.example.model.Event;
+import org.example.model.EventStationClosed;
+import org.example.model.Station;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Test-cases of the events read from CSV and JSON files.
+ *
+ * @author Team PFE_2023_16
+ * @file EventImportTest.java
+ * @date 2026-10-17
+ * @since 3.0
+ */
+class EventImportTest {
+
+  private static File write(final Path dir, final String name,
+                            final String... lines) throws IOException {
+    File file = dir.resolve(name).toFile();
+    Files.write(file.toPath(), Arrays.asList(lines), StandardCharsets.UTF_8);
+    return file;
+  }
+
+  @Test
+  void testReadCsv(@TempDir final Path dir) throws Exception {
+    File file = write(dir, "events.csv",
+        "name,event",
+        "# closures",
+        "stationClosed,2018/10/12,08:00,2018/10/12,10:00,1",
+        "",
+        "stationClose,2018/10/12,08:00,2018/10/12,10:00,1",
+        "stationClosed,2018/10/12,10:00,2018/10/12,08:00,1",
+        "hour, 07:00, 09:00, 0, 4");
+    EventImport eventImport = EventImport.read(file);
+    assertEquals(4, eventImport.getRowCount(), "There should be 4 rows");
+    List<Event> events = eventImport.getEvents();
+    assertEquals(2, events.size(), "The valid rows should be kept");
+    assertEquals(1, ((EventStationClosed) events.get(0)).getIdStation(),
+        "The station should be read");
+    assertEquals("07:00", events.get(1).getStartTime(),
+        "The spaces should be ignored");
+    List<String> errors = eventImport.getErrors();
+    assertEquals(2, errors.size(), "The invalid rows should be rejected");
+    assertTrue(errors.get(0).startsWith("events.csv, line 5: "),
+        "An error should give its line: " + errors.get(0));
+    assertTrue(errors.get(1).startsWith("events.csv, line 6: "),
+        "The errors should be in the order of the file: " + errors.get(1));
+  }
+
+  @Test
+  void testAddToNetwork(@TempDir final Path dir) throws Exception {
+    NetworkCore network = new NetworkCore();
+    network.addLine();
+    Station first = network.addStation(0, 47.47, -0.56, "Bleuet");
+    Station second = network.addStation(0, 47.48, -0.55, "Iris");
+    File json = write(dir, "events.json",
+        "[{\"name\": \"stationClosed\", \"event\": \"2018/10/12,08:00,"
+            + "2018/10/12,10:00," + second.getId() + "\"},",
+        " {\"name\": \"gaussianPeak\", \"event\": \"2018/10/12,09:00,"
+            + "2018/10/12,11:00,2018/10/12,10:00," + second.getId()
+            + ",500,30\"},",
+        " {\"name\": \"lineDelay\", \"event\": \"2018/10/12,09:00,"
+            + "2018/10/12,11:00," + first.getId() + "," + second.getId()
+            + ",15\"}]");
+    assertEquals(3, network.addEvents(json), "The events should be added");
+    assertEquals(Arrays.asList(0, 1, 2), Arrays.asList(
+        network.getEvents().get(0).getId(),
+        network.getEvents().get(1).getId(),
+        network.getEvents().get(2).getId()),
+        "The events should be numbered in the order of the file");
+    assertEquals(2, network.getEventTimeline().getConflicts(
+        network.getEvents().get(0)).size(),
+        "The closure should conflict with the peak and the delay");
+
+    File unknown = write(dir, "unknown.csv",
+        "stationClosed,2018/10/12,08:00,2018/10/12,10:00," + first.getId(),
+        "stationClosed,2018/10/12,08:00,2018/10/12,10:00,42",
+        "lineClosed,2018/10/12,08:00,2018/10/12,10:00,3,planned");
+    IOException error = assertThrows(IOException.class,
+        () -> network.addEvents(unknown),
+        "Events out of the network should be rejected");
+    assertTrue(error.getMessage().contains("line 2: unknown station 42")
+        && error.getMessage().contains("line 3: unknown line 3"),
+        "Each rejected row should be reported: " + error.getMessage());
+    assertEquals(3, network.getEvents().size(),
+        "No event of a rejected file should be added");
+  }
+}
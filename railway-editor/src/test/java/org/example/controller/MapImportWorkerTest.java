@@ -0,0 +1,119 @@
+/*
+ * License : MIT License
+ *
+ * Copyright (c) 2023 Team PFE_2023_16
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.example.controller;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.InterruptedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Test-cases of the background import of the map files, and of its
+ * cancellation.
+ *
+ * @author Team PFE_2023_16
+ * @file MapImportWorkerTest.java
+ * @date 2026-10-17
+ * @since 3.0
+ */
+class MapImportWorkerTest {
+  /**
+   * Sample map of the tests.
+   */
+  private static final File ANGERS = new File("src/test/java/org/example/"
+      + "controller/angers.xml");
+
+  @Test
+  void testImportReadsTheMap() throws Exception {
+    MapImportWorker worker = new MapImportWorker(ANGERS, null);
+    worker.execute();
+    MapXmlReader map = worker.get(30, TimeUnit.SECONDS);
+
+    assertEquals(4, map.getLineViews().size(), "The lines should be built");
+    assertEquals(7, map.createEvents().size(),
+        "The events should be created");
+  }
+
+  @Test
+  void testCancelledWorkerDoesNotRead() {
+    MapImportWorker worker = new MapImportWorker(ANGERS, null);
+    worker.cancel(true);
+
+    assertThrows(InterruptedIOException.class, worker::doInBackground,
+        "A cancelled import should stop before reading the file");
+    assertThrows(CancellationException.class, worker::get,
+        "A cancelled import has no map");
+  }
+
+  @Test
+  void testCancelStopsAnImportInProgress(@TempDir final Path dir)
+      throws Exception {
+    Path file = dir.resolve("large.xml");
+    try (Writer out = Files.newBufferedWriter(file,
+        StandardCharsets.UTF_8)) {
+      out.write("<map><stations>");
+      for (int i = 0; i < 200_000; i++) {
+        out.write("<station><id>" + i + "</id><name>S" + i + "</name>"
+            + "<position><latitude>47.47</latitude>"
+            + "<longitude>-0.55</longitude></position>"
+            + "<lines><line id=\"" + i % 10 + "\" platform=\"\"/></lines>"
+            + "</station>");
+      }
+      out.write("</stations></map>");
+    }
+    MapImportWorker worker = new MapImportWorker(file.toFile(), null);
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    try {
+      Future<MapXmlReader> result = executor.submit(worker::doInBackground);
+      while (worker.getProgress() == 0 && !result.isDone()) {
+        Thread.sleep(1);
+      }
+      worker.cancel(true);
+
+      ExecutionException e = assertThrows(ExecutionException.class,
+          () -> result.get(30, TimeUnit.SECONDS),
+          "The import should stop once cancelled");
+      assertInstanceOf(InterruptedIOException.class, e.getCause(),
+          "The import should be stopped by the cancellation");
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+}
@@ -0,0 +1,139 @@
+/*
+ * License : MIT License
+ *
+ * Copyright (c) 2023 Team PFE_2023_16
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.example.controller;
+
+import org.example.model.Event;
+import org.example.model.EventStationClosed;
+import org.example.view.LineView;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Test-cases of the streaming reader of the map files (xml).
+ *
+ * @author Team PFE_2023_16
+ * @file MapXmlReaderTest.java
+ * @date 2026-10-17
+ * @since 3.0
+ */
+class MapXmlReaderTest {
+
+  @Test
+  void testReadAngers() throws Exception {
+    MapXmlReader map = MapXmlReader.read(new File("src/test/java/org/example/"
+        + "controller/angers.xml"));
+
+    assertTrue(map.hasLocation(), "The file should have a location");
+    assertEquals(47.47776807779759, map.getLatitude(),
+        "The center of the map should be at latitude 47.47776807779759");
+    assertEquals(-0.5544662475585938, map.getLongitude(),
+        "The center of the map should be at longitude -0.5544662475585938");
+    assertEquals(13, map.getZoom(), "The zoom of the map should be 13");
+
+    List<LineView> lineViews = map.getLineViews();
+    assertEquals(4, lineViews.size(), "There should be 4 lineViews");
+    int[] stationsPerLine = {25, 10, 2, 8};
+    for (int i = 0; i < stationsPerLine.length; i++) {
+      assertEquals(i, lineViews.get(i).getLine().getId(),
+          "Lines should be ordered by id");
+      assertEquals(stationsPerLine[i],
+          lineViews.get(i).getStationViews().size(), "There should be "
+              + stationsPerLine[i] + " stations in line " + (i + 1));
+    }
+    assertEquals("3", map.getLastLineId(), "The last line should be 3");
+    assertEquals(3, map.getAreaViews().size(), "There should be 3 areaViews");
+    assertEquals(7, map.getEvents().size(), "There should be 7 events");
+    assertEquals("stationClosed", map.getEvents().get(0).getName(),
+        "The first event should be a station closure");
+    List<Event> events = map.createEvents();
+    assertEquals(7, events.size(), "There should be 7 events created");
+    assertTrue(events.get(0) instanceof EventStationClosed,
+        "The first event should be a station closure");
+    assertSame(events, map.createEvents(),
+        "The events should be created once");
+  }
+
+  @Test
+  void testSharedStationsAndSectionOrder(@TempDir final Path dir)
+      throws Exception {
+    // Lines before stations, station 1 shared by both lines.
+    Path file = dir.resolve("map.xml");
+    Files.write(file, ("<map>"
+        + "<lines>"
+        + "<line><id>0</id><stations>"
+        + "<station id=\"0\" order=\"0\"/><station id=\"1\" order=\"1\"/>"
+        + "</stations></line>"
+        + "<line><id>1</id><stations>"
+        + "<station id=\"1\" order=\"0\"/><station id=\"2\" order=\"1\"/>"
+        + "</stations></line>"
+        + "</lines>"
+        + "<stations>"
+        + station(0, 0) + station(1, 0) + station(2, 1)
+        + "</stations>"
+        + "</map>").getBytes(StandardCharsets.UTF_8));
+
+    MapXmlReader map = MapXmlReader.read(file.toFile());
+
+    assertFalse(map.hasLocation(), "The file should have no location");
+    assertEquals(2, map.getLineViews().size(), "There should be 2 lineViews");
+    assertSame(map.getLineViews().get(0).getLine().getStations().get(1),
+        map.getLineViews().get(1).getLine().getStations().get(0),
+        "Both lines should share the same station");
+    assertTrue(map.getAreaViews().isEmpty(), "There should be no area");
+    assertTrue(map.getEvents().isEmpty(), "There should be no event");
+  }
+
+  @Test
+  void testRejectsDoctype(@TempDir final Path dir) throws IOException {
+    Path file = dir.resolve("map.xml");
+    Files.write(file, ("<!DOCTYPE map [<!ENTITY x SYSTEM \"file:///\">]>"
+        + "<map><stations>&x;</stations></map>")
+        .getBytes(StandardCharsets.UTF_8));
+
+    assertThrows(Exception.class, () -> MapXmlReader.read(file.toFile()),
+        "External entities should not be resolved");
+  }
+
+  private static String station(final int id, final int lineId) {
+    return "<station><id>" + id + "</id><name>S" + id + "</name>"
+        + "<position><latitude>47." + id + "</latitude>"
+        + "<longitude>-0." + id + "</longitude></position>"
+        + "<lines><line id=\"" + lineId + "\" platform=\"\"/></lines>"
+        + "</station>";
+  }
+}
@@ -0,0 +1,128 @@
+/*
+ * License : MIT License
+ *
+ * Copyright (c) 2023 Team PFE_2023_16
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.example.controller;
+
+import org.example.model.EventLineDelay;
+import org.example.model.Projection;
+import org.example.model.Station;
+import org.example.view.AreaView;
+import org.example.view.MainPanel;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Test-cases of the network edited without the editor window.
+ *
+ * @author Team PFE_2023_16
+ * @file NetworkCoreTest.java
+ * @date 2026-10-17
+ * @since 3.0
+ */
+class NetworkCoreTest {
+
+  private static final File ANGERS = new File("src/test/java/org/example/"
+      + "controller/angers.xml");
+
+  @Test
+  void testLoadAngers() throws Exception {
+    NetworkCore network = NetworkCore.load(ANGERS);
+    assertEquals(4, network.getLineViews().size(), "There should be 4 lines");
+    assertEquals(3, network.getAreaViews().size(), "There should be 3 areas");
+    assertEquals(7, network.getEvents().size(), "There should be 7 events");
+    assertEquals(13, network.getZoom(), "The zoom should be read");
+    EventLineDelay delay = (EventLineDelay) network.getEvents().get(2);
+    assertEquals(60, delay.getDelay(), "The delay should be read");
+    assertEquals(4, delay.getIdStationStart(),
+        "The first station should be read");
+    assertEquals("2023/11/01-20:00", delay.getStartTime(),
+        "The start time should be in the editor format");
+  }
+
+  @Test
+  void testEditAndExport(@TempDir final Path dir) throws Exception {
+    NetworkCore network = new NetworkCore();
+    network.setCenter(47.47, -0.55, 13);
+    network.addLine();
+    Station first = network.addStation(0, 47.47, -0.56, "Bleuet");
+    Station second = network.addStation(0, 47.48, -0.55, "Iris");
+    AreaView area = network.addArea(47.475, -0.565, 47.465, -0.555);
+    network.addEvent("stationClosed", "2018/10/12,08:00,2018/10/12,10:00,"
+        + second.getId());
+    network.addEvent("hour", "07:00,09:00,0,4");
+
+    File file = dir.resolve("edited.xml").toFile();
+    network.export(file);
+    assertSame(area.getArea(), first.getArea(),
+        "The station inside the area should get it");
+    assertNull(second.getArea(),
+        "The station outside the area should not get it");
+
+    NetworkCore read = NetworkCore.load(file);
+    assertEquals(1, read.getLineViews().size(), "There should be 1 line");
+    assertEquals(2, read.getStationCount(), "There should be 2 stations");
+    assertEquals(1, read.getAreaViews().size(), "There should be 1 area");
+    assertEquals(2, read.getEvents().size(), "There should be 2 events");
+    Station readFirst = read.getLineViews().get(0).getLine().getStations()
+        .get(0);
+    assertEquals(47.47, readFirst.getLatitude(), 1e-6,
+        "The latitude should be kept");
+    assertEquals(-0.56, readFirst.getLongitude(), 1e-6,
+        "The longitude should be kept");
+    assertEquals(2, read.addStation(0, 47.49, -0.54, "Lys").getId(),
+        "New stations should get the next id");
+  }
+
+  @Test
+  void testInvalidEvents() {
+    NetworkCore network = new NetworkCore();
+    assertThrows(IllegalArgumentException.class,
+        () -> network.addEvent("flood", "2018/10/12,08:00"),
+        "An unknown event should be rejected");
+    assertThrows(IllegalArgumentException.class,
+        () -> network.addEvent("lineClosed",
+            "2018/10/12,08:00,2018/10/12,10:00,0,sometimes"),
+        "An invalid closure type should be rejected");
+    assertThrows(IllegalArgumentException.class,
+        () -> network.addEvent("stationClosed", "2018/10/12,08:00"),
+        "An event with missing fields should be rejected");
+    assertEquals(0, network.getEvents().size(),
+        "Invalid events should not be added");
+  }
+
+  @Test
+  void testPanelIsTheViewportOnceCreated() {
+    MainPanel mainPanel = MainPanel.getInstance();
+    assertSame(mainPanel, Projection.getInstance().getViewport(),
+        "The map panel should be the viewport of the models");
+  }
+}
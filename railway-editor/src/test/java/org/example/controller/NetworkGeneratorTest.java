@@ -0,0 +1,137 @@
+/*
+ * License : MIT License
+ *
+ * Copyright (c) 2023 Team PFE_2023_16
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.example.controller;
+
+import org.example.data.Data;
+import org.example.model.Area;
+import org.example.model.Station;
+import org.example.view.AreaView;
+import org.example.view.LineView;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Test-cases of the synthetic network generator.
+ *
+ * @author Team PFE_2023_16
+ * @file NetworkGeneratorTest.java
+ * @date 2026-10-17
+ * @since 3.0
+ */
+class NetworkGeneratorTest {
+
+  private static NetworkGenerator generator() {
+    NetworkGenerator generator = new NetworkGenerator(4, 120, 47.47, -0.55);
+    generator.setEventCount(14);
+    generator.setSeed(1);
+    return generator;
+  }
+
+  @Test
+  void testGeneratedFileIsReadBack(@TempDir final Path dir)
+      throws Exception {
+    File file = dir.resolve("generated.xml").toFile();
+    NetworkGenerator.Network network = generator().generate();
+    network.write(file);
+
+    MapXmlReader map = MapXmlReader.read(file);
+    assertEquals(4, map.getLineViews().size(), "There should be 4 lines");
+    Set<Integer> ids = new HashSet<>();
+    for (LineView lineView : map.getLineViews()) {
+      for (Station station : lineView.getLine().getStations()) {
+        ids.add(station.getId());
+      }
+    }
+    assertEquals(network.getStationCount(), ids.size(),
+        "Every generated station should be read back");
+    assertTrue(ids.size() <= 120 && ids.size() > 100,
+        "Interchanges should only merge a few stations");
+    assertEquals(14, map.getEvents().size(), "There should be 14 events");
+    assertEquals(network.getAreaViews().size(), map.getAreaViews().size(),
+        "Every generated area should be read back");
+    for (AreaView areaView : map.getAreaViews()) {
+      Area area = areaView.getArea();
+      assertEquals(100, sum(area.getDistributionPopulation().values()),
+          "The population distribution should sum to 100");
+      assertEquals(100, sum(area.getDistributionDestination().values()),
+          "The destination distribution should sum to 100");
+    }
+  }
+
+  @Test
+  void testSameSeedSameFile(@TempDir final Path dir) throws Exception {
+    File first = dir.resolve("first.xml").toFile();
+    File second = dir.resolve("second.xml").toFile();
+    generator().generate().write(first);
+    generator().generate().write(second);
+    assertArrayEquals(Files.readAllBytes(first.toPath()),
+        Files.readAllBytes(second.toPath()),
+        "The same seed should generate the same file");
+  }
+
+  @Test
+  void testTooFewStations() {
+    assertThrows(IllegalArgumentException.class,
+        () -> new NetworkGenerator(10, 15, 0, 0),
+        "Each line needs at least two stations");
+  }
+
+  @Test
+  void testStationNamesNeverRunOut() {
+    int length = Data.getStationsNames().length;
+    Set<String> names = new HashSet<>();
+    for (int i = 0; i < 3 * length; i++) {
+      names.add(Data.getStationName(i));
+    }
+    Set<String> firstRound = new HashSet<>();
+    for (int i = 0; i < length; i++) {
+      firstRound.add(Data.getStationName(i));
+    }
+    assertEquals(3 * firstRound.size(), names.size(),
+        "Each round should give names not given before");
+    assertEquals(Data.getStationName(0) + " 3",
+        Data.getStationName(2 * length),
+        "The third round should be numbered");
+  }
+
+  private static int sum(final Iterable<Integer> values) {
+    int total = 0;
+    for (int value : values) {
+      total += value;
+    }
+    return total;
+  }
+}
@@ -0,0 +1,173 @@
+/*
+ * License : MIT License
+ *
+ * Copyright (c) 2023 Team PFE_2023_16
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.example.controller;
+
+import org.example.data.Data;
+import org.example.model.Event;
+import org.example.model.EventStationClosed;
+import org.example.model.Line;
+import org.example.model.NetworkSnapshot;
+import org.example.model.Station;
+import org.example.view.LineView;
+import org.example.view.MainPanel;
+import org.example.view.StationView;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.awt.Color;
+import java.io.File;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Test-cases of the undo, redo and export of the network snapshots.
+ *
+ * @author Team PFE_2023_16
+ * @file NetworkHistoryTest.java
+ * @date 2026-10-17
+ * @since 3.0
+ */
+class NetworkHistoryTest {
+
+  private static final double LATITUDE = 47.47;
+  private static final double MOVED_LATITUDE = 47.49;
+
+  private Station station;
+
+  @BeforeEach
+  void setUp() {
+    MainPanel mainPanel = MainPanel.getInstance();
+    mainPanel.setLineViews(new ArrayList<>());
+    mainPanel.setAreaViews(new ArrayList<>());
+    NetworkHistory.getInstance().reset();
+
+    station = new Station(0, LATITUDE, -0.55, "Bleuet");
+    List<Station> stations = new ArrayList<>();
+    stations.add(station);
+    List<StationView> stationViews = new ArrayList<>();
+    stationViews.add(new StationView(station));
+    mainPanel.addLineView(new LineView(new Line(0, stations), stationViews));
+    NetworkHistory.getInstance().commit();
+  }
+
+  @AfterEach
+  void tearDown() {
+    MainPanel.getInstance().setLineViews(new ArrayList<>());
+    NetworkHistory.getInstance().reset();
+  }
+
+  @Test
+  void testUndoRedo() {
+    NetworkHistory history = NetworkHistory.getInstance();
+    station.setLatitude(MOVED_LATITUDE);
+    history.commit();
+
+    assertTrue(history.undo(), "The move should be undone");
+    assertEquals(LATITUDE, firstStation().getLatitude(),
+        "The station should be back in place");
+    assertTrue(history.redo(), "The move should be redone");
+    assertEquals(MOVED_LATITUDE, firstStation().getLatitude(),
+        "The station should be moved again");
+
+    assertTrue(history.undo(), "The move should be undone");
+    assertTrue(history.undo(), "The line creation should be undone");
+    assertTrue(MainPanel.getInstance().getLineViews().isEmpty(),
+        "The line should be removed");
+    assertFalse(history.undo(), "There should be nothing left to undo");
+  }
+
+  @Test
+  void testUndoColorsTheEvents() {
+    NetworkHistory history = NetworkHistory.getInstance();
+    EventStationClosed closure = new EventStationClosed(-1,
+        "2018/12/12-12:00", "2018/12/12-13:00", Event.EventType.STATION);
+    closure.setIdStation(station.getId());
+    List<Event> events = Data.getInstance().getEventList();
+    events.add(closure);
+    try {
+      station.setLatitude(MOVED_LATITUDE);
+      history.commit();
+
+      assertTrue(history.undo(), "The move should be undone");
+      assertEquals(Color.RED, MainPanel.getInstance().getLineViews().get(0)
+              .getStationViews().get(0).getCenterCircleColor(),
+          "The closed station should be colored again");
+      assertTrue(history.undo(),
+          "The line creation should be undone with the station closed");
+      assertTrue(history.redo(), "The line creation should be redone");
+      assertEquals(Color.RED, MainPanel.getInstance().getLineViews().get(0)
+              .getStationViews().get(0).getCenterCircleColor(),
+          "The station back in the network should be colored again");
+    } finally {
+      events.remove(closure);
+    }
+  }
+
+  @Test
+  void testExportSnapshotWhileEditing(@TempDir final Path dir)
+      throws Exception {
+    NetworkSnapshot snapshot = NetworkHistory.getInstance().commit();
+    station.setLatitude(MOVED_LATITUDE);
+    File file = dir.resolve("snapshot.xml").toFile();
+    ActionFile.getInstance().export(snapshot, file);
+
+    NetworkCore network = NetworkCore.load(file);
+    assertEquals(LATITUDE, network.getLineViews().get(0).getLine()
+            .getStations().get(0).getLatitude(),
+        "The edit after the snapshot should not be exported");
+  }
+
+  @Test
+  void testExportDoesNotRecordAnEdit(@TempDir final Path dir)
+      throws Exception {
+    NetworkHistory history = NetworkHistory.getInstance();
+    history.reset();
+    station.setLatitude(MOVED_LATITUDE);
+    File file = dir.resolve("export.xml").toFile();
+    ActionFile.getInstance().export(file);
+
+    assertFalse(history.canUndo(), "The export should not be an undo step");
+    NetworkCore network = NetworkCore.load(file);
+    assertEquals(MOVED_LATITUDE, network.getLineViews().get(0).getLine()
+            .getStations().get(0).getLatitude(),
+        "The edit not committed yet should be exported");
+    assertTrue(history.undo(), "The move should still be undone");
+    assertEquals(LATITUDE, firstStation().getLatitude(),
+        "The station should be back in place");
+    assertFalse(history.canUndo(), "The move should be a single step");
+  }
+
+  private static Station firstStation() {
+    return MainPanel.getInstance().getLineViews().get(0).getLine()
+        .getStations().get(0);
+  }
+}
@@ -0,0 +1,123 @@
+/*
+ * License : MIT License
+ *
+ * Copyright (c) 2023 Team PFE_2023_16
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.example.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Test-cases of the parameter sweeps, with a stub simulator.
+ *
+ * @author Team PFE_2023_16
+ * @file SimulationBatchTest.java
+ * @date 2026-10-17
+ * @since 3.0
+ */
+class SimulationBatchTest {
+
+  @TempDir
+  File folder;
+
+  private static Map<String, List<Object>> grid() {
+    Map<String, List<Object>> grid = new LinkedHashMap<>();
+    grid.put("population", Arrays.asList(1000, 2000));
+    grid.put("seed", Arrays.asList(1, 2));
+    return grid;
+  }
+
+  @Test
+  void testCombinations() {
+    List<Map<String, Object>> combinations =
+        SimulationBatch.combinations(grid());
+
+    assertEquals(4, combinations.size(), "Each pair of values is a run");
+    assertEquals("{population=1000, seed=1}",
+        combinations.get(0).toString(), "The first combination");
+    assertEquals("{population=1000, seed=2}",
+        combinations.get(1).toString(), "The last parameter varies first");
+    assertEquals("{population=2000, seed=2}",
+        combinations.get(3).toString(), "The last combination");
+  }
+
+  @Test
+  void testRun() throws Exception {
+    File configs = new File(this.folder, "configs");
+    assertTrue(configs.mkdirs());
+    Files.write(new File(configs, SimulationBatch.CONFIG_FILE).toPath(),
+        "{\"population\": 10, \"day type\": 1}"
+            .getBytes(StandardCharsets.UTF_8));
+    Files.write(new File(configs, "nameLineList.json").toPath(),
+        "[]".getBytes(StandardCharsets.UTF_8));
+    File map = new File(this.folder, "map.xml");
+    Files.write(map.toPath(), "<map/>".getBytes(StandardCharsets.UTF_8));
+    File batchFolder = new File(this.folder, "batch");
+
+    SimulationBatch batch = new SimulationBatch(
+        SimulatorStub.command("-read"), configs);
+    batch.setPoolSize(2);
+    List<SimulationBatch.RunResult> results =
+        batch.run(map, grid(), batchFolder);
+
+    assertEquals(4, results.size(), "One result per combination");
+    assertEquals(4, results.stream().map(r -> r.getFolder()).distinct()
+        .count(),
+        "Each run should have its own folder");
+    ObjectMapper mapper = new ObjectMapper();
+    for (SimulationBatch.RunResult result : results) {
+      assertTrue(result.isSuccess(), "The run should succeed");
+      File runConfigs = new File(result.getFolder(), "src/configs");
+      Map<?, ?> config = mapper.readValue(
+          new File(runConfigs, SimulationBatch.CONFIG_FILE), Map.class);
+      assertEquals(result.getParameters().get("population"),
+          config.get("population"), "The parameter should be overridden");
+      assertEquals(result.getParameters().get("seed"), config.get("seed"),
+          "The parameter should be added");
+      assertEquals(1, config.get("day type"),
+          "The other parameters should be kept");
+      assertTrue(new File(runConfigs, ActionRunSimulation.CONFIG_NAME)
+          .isFile(), "The map should be copied");
+      assertTrue(new File(runConfigs, "nameLineList.json").isFile(),
+          "The name lists should be copied");
+      assertTrue(Files.readAllLines(new File(result.getFolder(),
+          SimulationBatch.OUTPUT_FILE).toPath()).contains("read 1"),
+          "The output should be saved with the run");
+    }
+    assertEquals(5, Files.readAllLines(
+        new File(batchFolder, SimulationBatch.SUMMARY_FILE).toPath()).size(),
+        "The summary should list every run");
+  }
+}
@@ -0,0 +1,181 @@
+/*
+ * License : MIT License
+ *
+ * Copyright (c) 2023 Team PFE_2023_16
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.example.controller;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Test-cases of the launcher of the simulator, with a stub simulator.
+ *
+ * @author Team PFE_2023_16
+ * @file SimulatorLauncherTest.java
+ * @date 2026-10-17
+ * @since 3.0
+ */
+class SimulatorLauncherTest {
+
+  /**
+   * Listener recording the output and the exit value of a run.
+   */
+  private static final class Recorder implements SimulatorLauncher.Listener {
+    private final List<String> out = new CopyOnWriteArrayList<>();
+    private final List<String> err = new CopyOnWriteArrayList<>();
+    private final CountDownLatch done = new CountDownLatch(1);
+    private volatile int exitValue;
+
+    @Override
+    public void outputLine(final String line, final boolean error) {
+      (error ? this.err : this.out).add(line);
+    }
+
+    @Override
+    public void finished(final int value) {
+      this.exitValue = value;
+      this.done.countDown();
+    }
+
+    private boolean await() throws InterruptedException {
+      return this.done.await(30, TimeUnit.SECONDS);
+    }
+  }
+
+  @Test
+  void testOutputAndExitValue() throws Exception {
+    Recorder recorder = new Recorder();
+    SimulatorLauncher launcher = new SimulatorLauncher(
+        SimulatorStub.command("-configname", "map.xml", "-exit", "3"),
+        new File("."));
+    launcher.start(recorder, 0);
+
+    assertTrue(recorder.await(), "The simulator should have finished");
+    assertFalse(launcher.isRunning(), "The simulator should be stopped");
+    assertEquals(3, recorder.exitValue, "The exit value should be 3");
+    assertEquals(Collections.singletonList("stub -configname map.xml"),
+        recorder.out, "The standard output should be streamed");
+    assertEquals(Collections.singletonList("stub error"), recorder.err,
+        "The error output should be streamed");
+  }
+
+  @Test
+  void testSendInput() throws Exception {
+    Recorder recorder = new Recorder();
+    SimulatorLauncher launcher = new SimulatorLauncher(
+        SimulatorStub.command("-read"), new File("."));
+    launcher.start(recorder, 0);
+    launcher.sendInput("1");
+
+    assertTrue(recorder.await(), "The simulator should have finished");
+    assertEquals(0, recorder.exitValue, "The exit value should be 0");
+    assertEquals(Arrays.asList("stub ", "read 1"), recorder.out,
+        "The input should be read by the simulator");
+  }
+
+  @Test
+  void testTimeout() throws Exception {
+    Recorder recorder = new Recorder();
+    SimulatorLauncher launcher = new SimulatorLauncher(
+        SimulatorStub.command("-sleep", "60000"), new File("."));
+    launcher.start(recorder, 500);
+
+    assertTrue(recorder.await(), "The simulator should have been killed");
+    assertEquals(SimulatorLauncher.KILLED_EXIT_VALUE, recorder.exitValue,
+        "A killed simulator should report the killed exit value");
+  }
+
+  @Test
+  void testCancel() throws Exception {
+    Recorder recorder = new Recorder();
+    SimulatorLauncher launcher = new SimulatorLauncher(
+        SimulatorStub.command("-sleep", "60000"), new File("."));
+    launcher.start(recorder, 0);
+    assertTrue(launcher.isRunning(), "The simulator should be running");
+
+    launcher.cancel();
+
+    assertTrue(recorder.await(), "The simulator should have been killed");
+    assertFalse(launcher.isRunning(), "The simulator should be stopped");
+    assertEquals(SimulatorLauncher.KILLED_EXIT_VALUE, recorder.exitValue,
+        "A cancelled simulator should report the killed exit value");
+  }
+
+  @Test
+  void testCancelWithChildProcess() throws Exception {
+    // the child keeps the outputs open after its parent is killed
+    Recorder recorder = new Recorder();
+    SimulatorLauncher launcher = new SimulatorLauncher(
+        SimulatorStub.command("-child", "20000", "-sleep", "60000"),
+        new File("."));
+    launcher.start(recorder, 0);
+    // the stub writes its first line once the child is started
+    for (int i = 0; i < 300 && recorder.out.isEmpty(); i++) {
+      Thread.sleep(100);
+    }
+    assertFalse(recorder.out.isEmpty(), "The child should be started");
+
+    long start = System.nanoTime();
+    launcher.cancel();
+
+    assertTrue(recorder.await(), "The simulator should have been killed");
+    assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(10),
+        "The end should not wait for the child process");
+    assertEquals(SimulatorLauncher.KILLED_EXIT_VALUE, recorder.exitValue,
+        "A cancelled simulator should report the killed exit value");
+  }
+
+  @Test
+  void testDefaultCommandRunsTheBinary(@TempDir final Path goProject)
+      throws Exception {
+    File binary = SimulatorLauncher.binary(goProject.toFile());
+    assertNull(binary, "The simulator should not be built");
+    boolean windows = System.getProperty("os.name").toLowerCase()
+        .startsWith("windows");
+    Files.createFile(goProject.resolve(windows
+        ? SimulatorLauncher.BINARY_NAME + ".exe"
+        : SimulatorLauncher.BINARY_NAME));
+
+    List<String> command = SimulatorLauncher.defaultCommand(
+        goProject.toFile(), "map.xml");
+    assertEquals(Arrays.asList(
+        SimulatorLauncher.binary(goProject.toFile()).getAbsolutePath(),
+        "-configname", "map.xml"), command,
+        "The built simulator should be run directly, not through go run");
+  }
+}
@@ -0,0 +1,101 @@
+/*
+ * License : MIT License
+ *
+ * Copyright (c) 2023 Team PFE_2023_16
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.example.controller;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Stub standing in for the go simulator in the tests.
+ *
+ * <p>Writes one line on each output then exits. Arguments: {@code -read}
+ * echoes a line read on the standard input, {@code -sleep N} waits N
+ * milliseconds before exiting, {@code -exit N} exits with the value N,
+ * {@code -child N} starts a stub sleeping N milliseconds sharing its outputs,
+ * as {@code go run} starts the simulator, other arguments are echoed.
+ *
+ * @author Team PFE_2023_16
+ * @file SimulatorStub.java
+ * @date 2026-10-17
+ * @since 3.0
+ */
+public final class SimulatorStub {
+
+  private SimulatorStub() {
+  }
+
+  /**
+   * Command running the stub with the given arguments.
+   *
+   * @param args the arguments of the stub
+   * @return the command
+   */
+  static List<String> command(final String... args) {
+    List<String> command = new ArrayList<>(Arrays.asList(
+        System.getProperty("java.home") + File.separator + "bin"
+            + File.separator + "java",
+        "-cp", System.getProperty("java.class.path"),
+        SimulatorStub.class.getName()));
+    command.addAll(Arrays.asList(args));
+    return command;
+  }
+
+  public static void main(final String[] args)
+      throws InterruptedException, IOException {
+    boolean read = false;
+    long sleep = 0;
+    int exitValue = 0;
+    List<String> echo = new ArrayList<>();
+    for (int i = 0; i < args.length; i++) {
+      if ("-read".equals(args[i])) {
+        read = true;
+      } else if ("-sleep".equals(args[i])) {
+        sleep = Long.parseLong(args[++i]);
+      } else if ("-child".equals(args[i])) {
+        new ProcessBuilder(command("-sleep", args[++i])).inheritIO()
+            .start();
+      } else if ("-exit".equals(args[i])) {
+        exitValue = Integer.parseInt(args[++i]);
+      } else {
+        echo.add(args[i]);
+      }
+    }
+    System.out.println("stub " + String.join(" ", echo));
+    System.err.println("stub error");
+    System.out.flush();
+    if (read) {
+      System.out.println("read " + new BufferedReader(new InputStreamReader(
+          System.in, StandardCharsets.UTF_8)).readLine());
+    }
+    Thread.sleep(sleep);
+    System.exit(exitValue);
+  }
+}
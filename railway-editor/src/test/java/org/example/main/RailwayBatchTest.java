@@ -0,0 +1,141 @@
+/*
+ * License : MIT License
+ *
+ * Copyright (c) 2023 Team PFE_2023_16
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.example.main;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledOnOs;
+import org.junit.jupiter.api.condition.OS;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Test-cases of the command line preparing the scenarios.
+ *
+ * @author Team PFE_2023_16
+ * @file RailwayBatchTest.java
+ * @date 2026-10-17
+ * @since 3.0
+ */
+class RailwayBatchTest {
+
+  private static final String ANGERS = "src/test/java/org/example/"
+      + "controller/angers.xml";
+
+  private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+  private final ByteArrayOutputStream err = new ByteArrayOutputStream();
+
+  private int run(final String... args) {
+    return RailwayBatch.run(args,
+        new PrintStream(out, true), new PrintStream(err, true));
+  }
+
+  private static File write(final Path dir, final String name,
+                            final String... lines) throws IOException {
+    File file = dir.resolve(name).toFile();
+    Files.write(file.toPath(), Arrays.asList(lines), StandardCharsets.UTF_8);
+    return file;
+  }
+
+  @Test
+  void testImportEditExport(@TempDir final Path dir) throws IOException {
+    File events = write(dir, "events.txt", "# closures",
+        "stationClosed 2018/10/12,08:00,2018/10/12,10:00,12", "",
+        "hour 07:00,09:00,0,4");
+    File config = write(dir, "config.json",
+        "{\"populationSize\": 100, \"sortingName\": \"name\"}");
+    File configOut = dir.resolve("out.json").toFile();
+    File map = dir.resolve("out.xml").toFile();
+
+    assertEquals(RailwayBatch.EXIT_OK, run("--map", ANGERS,
+        "--events", events.getPath(), "--config", config.getPath(),
+        "--set", "populationSize=2500", "--set", "ratio=0.5",
+        "--config-out", configOut.getPath(), "--export", map.getPath()),
+        "The scenario should be prepared: " + err);
+
+    assertTrue(map.isFile(), "The map should be written");
+    String xml = new String(Files.readAllBytes(map.toPath()),
+        StandardCharsets.UTF_8);
+    assertEquals(9, xml.split("<stationClosed>|<hour>|<lineDelay>"
+            + "|<multipleStationsClosed>|<gaussianPeak>|<lineClosed>",
+        -1).length - 1, "The 7 events of the map and the 2 added");
+    @SuppressWarnings("unchecked")
+    Map<String, Object> written = new ObjectMapper().readValue(configOut,
+        Map.class);
+    assertEquals(2500, written.get("populationSize"),
+        "The override should be an integer");
+    assertEquals(0.5, written.get("ratio"), "The new key should be added");
+    assertEquals("name", written.get("sortingName"),
+        "The other keys should be kept");
+  }
+
+  @Test
+  void testInvalidArguments(@TempDir final Path dir) throws IOException {
+    assertEquals(RailwayBatch.EXIT_USAGE, run("--export", "out.xml"),
+        "The map is required");
+    assertEquals(RailwayBatch.EXIT_USAGE, run("--map", ANGERS, "--set",
+        "novalue"), "An override needs a value");
+    File events = write(dir, "events.txt", "lineClosed 2018/10/12,08:00");
+    File map = dir.resolve("out.xml").toFile();
+    assertEquals(RailwayBatch.EXIT_FAILURE, run("--map", ANGERS,
+        "--events", events.getPath(), "--export", map.getPath()),
+        "An invalid event should fail the scenario");
+    assertFalse(map.exists(), "No map should be written on failure");
+    assertTrue(err.toString().contains("events.txt:1"),
+        "The invalid line should be reported: " + err);
+  }
+
+  @Test
+  @DisabledOnOs(OS.WINDOWS)
+  void testRunSimulator(@TempDir final Path dir) throws IOException {
+    Files.createDirectories(dir.resolve("src").resolve("configs"));
+    File simulator = write(dir, "metro_simulator", "#!/bin/sh",
+        "read day", "echo \"day $day $*\"", "exit 3");
+    assertTrue(simulator.setExecutable(true), "The stub should be runnable");
+
+    assertEquals(3, run("--map", ANGERS, "--run", "--go-project",
+        dir.toString(), "--day-type", "2"),
+        "The exit value of the simulator should be returned");
+    assertTrue(out.toString().contains(
+        "day 2 -configname runThisSimulation.xml"),
+        "The simulator should read its day type: " + out);
+    assertTrue(dir.resolve("src").resolve("configs")
+        .resolve("runThisSimulation.xml").toFile().isFile(),
+        "The map should be exported for the simulator");
+  }
+}
@@ -0,0 +1,76 @@
+/*
+ * License : MIT License
+ *
+ * Copyright (c) 2023 Team PFE_2023_16
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.example.model;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Test-case of the {@link AreaIndex} queries.
+ *
+ * @author Team PFE_2023_16
+ * @file AreaIndexTest.java
+ * @date 2026-10-17
+ * @since 3.0
+ */
+public class AreaIndexTest {
+    private static final int AREAS = 300;
+    private static final int POINTS = 2000;
+
+    @Test
+    public void testFindsTheLastAreaContainingThePoint() {
+        Random random = new Random(16);
+        double[] bounds = new double[AREAS * 4];
+        for (int i = 0; i < AREAS; i++) {
+            double left = random.nextDouble() * 1000;
+            double top = random.nextDouble() * 1000;
+            bounds[i * 4] = left;
+            bounds[i * 4 + 1] = top;
+            bounds[i * 4 + 2] = left + random.nextDouble() * 200;
+            bounds[i * 4 + 3] = top + random.nextDouble() * 200;
+        }
+        AreaIndex index = new AreaIndex(bounds);
+        assertEquals(AREAS, index.size());
+
+        for (int p = 0; p < POINTS; p++) {
+            double x = random.nextDouble() * 1200;
+            double y = random.nextDouble() * 1200;
+            int expected = -1;
+            for (int i = 0; i < AREAS; i++) {
+                if (AreaIndex.contains(bounds, i, x, y)) {
+                    expected = i;
+                }
+            }
+            assertEquals(expected, index.find(x, y));
+        }
+    }
+
+    @Test
+    public void testEmptyIndex() {
+        assertEquals(-1, new AreaIndex(new double[0]).find(1, 1));
+    }
+}
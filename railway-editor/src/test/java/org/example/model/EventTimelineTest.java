@@ -0,0 +1,233 @@
+/*
+ * License : MIT License
+ *
+ * Copyright (c) 2023 Team PFE_2023_16
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.example.model;
+
+import org.example.controller.NetworkCore;
+import org.example.view.LineView;
+import org.example.view.StationIndex;
+import org.example.view.StationView;
+import org.junit.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test-case of the {@link EventTimeline} queries and conflicts.
+ *
+ * @author Team PFE_2023_16
+ * @file EventTimelineTest.java
+ * @date 2026-10-17
+ * @since 3.0
+ */
+public class EventTimelineTest {
+
+    private static EventTimeline.Scope station(final int stationId,
+                                               final int lineId) {
+        return new EventTimeline.Scope(Collections.singletonList(stationId),
+            Collections.singletonList(lineId));
+    }
+
+    private static EventTimeline.Scope line(final int lineId) {
+        return new EventTimeline.Scope(Collections.emptyList(),
+            Collections.singletonList(lineId));
+    }
+
+    /**
+     * Test the events active at a date and overlapping a window, among
+     * many events.
+     */
+    @Test
+    public void testQueries() {
+        EventTimeline timeline = new EventTimeline();
+        List<Event> events = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            int hour = i % 24;
+            Event event = new EventStationClosed(i,
+                String.format("2024/01/%02d-%02d:00", 1 + i / 24 % 28, hour),
+                String.format("2024/01/%02d-%02d:30", 1 + i / 24 % 28, hour),
+                EventStationClosed.EventType.STATION);
+            events.add(event);
+            assertTrue(timeline.add(event, station(i % 10, 0)));
+        }
+        assertEquals(1000, timeline.size());
+        // events 0 and 672 start on the 1st at 00:00
+        List<Event> active = timeline.activeAt(
+            LocalDateTime.of(2024, 1, 1, 0, 30));
+        assertEquals(Arrays.asList(events.get(0), events.get(672)), active);
+        assertTrue(timeline.activeAt(
+            LocalDateTime.of(2024, 1, 1, 0, 31)).isEmpty());
+        List<Event> onStation = timeline.overlappingStation(2,
+            LocalDateTime.of(2024, 1, 1, 1, 0),
+            LocalDateTime.of(2024, 1, 1, 12, 0));
+        assertEquals(Arrays.asList(events.get(2), events.get(682),
+            events.get(12)), onStation);
+        assertTrue(timeline.remove(events.get(12)));
+        assertFalse(timeline.remove(events.get(12)));
+        assertEquals(999, timeline.size());
+        assertEquals(2, timeline.overlappingStation(2,
+            LocalDateTime.of(2024, 1, 1, 1, 0),
+            LocalDateTime.of(2024, 1, 1, 12, 0)).size());
+        assertEquals(1, timeline.overlappingLine(0,
+            LocalDateTime.of(2024, 1, 1, 12, 30),
+            LocalDateTime.of(2024, 1, 1, 12, 30)).size());
+    }
+
+    /**
+     * Test the closures conflicting with a peak, on its station or on its
+     * line, and the events without date.
+     */
+    @Test
+    public void testConflicts() {
+        EventTimeline timeline = new EventTimeline();
+        Event peak = new EventGaussianPeak(0, "2024/01/18-08:00",
+            "2024/01/18-10:00", EventGaussianPeak.EventType.STATION);
+        Event stationClosed = new EventStationClosed(1, "2024/01/18-10:00",
+            "2024/01/18-12:00", EventStationClosed.EventType.STATION);
+        Event otherStationClosed = new EventStationClosed(2,
+            "2024/01/18-08:00", "2024/01/18-10:00",
+            EventStationClosed.EventType.STATION);
+        Event lineClosed = new EventLineClosed(3, "2024/01/18-07:00",
+            "2024/01/18-08:00", EventLineClosed.EventType.LINE);
+        Event laterLineClosed = new EventLineClosed(4, "2024/01/18-10:01",
+            "2024/01/18-11:00", EventLineClosed.EventType.LINE);
+        Event hour = new EventHour(5, "08:00", "10:00",
+            EventHour.EventType.LINE);
+        timeline.add(peak, station(7, 1));
+        timeline.add(stationClosed, station(7, 1));
+        timeline.add(otherStationClosed, station(8, 1));
+        timeline.add(lineClosed, line(1));
+        timeline.add(laterLineClosed, line(1));
+        assertFalse(timeline.add(hour, line(1)));
+
+        assertEquals(Arrays.asList(stationClosed, lineClosed),
+            timeline.getConflicts(peak));
+        assertEquals(Collections.singletonList(peak),
+            timeline.getConflicts(lineClosed));
+        assertTrue(timeline.getConflicts(otherStationClosed).isEmpty());
+        assertTrue(timeline.getConflicts(laterLineClosed).isEmpty());
+
+        timeline.remove(peak);
+        assertTrue(timeline.getConflicts(stationClosed).isEmpty());
+        assertTrue(timeline.getConflicts(peak).isEmpty());
+    }
+
+    /**
+     * Test that an indexed event is moved when its dates are edited.
+     */
+    @Test
+    public void testEditedDatesAreReindexed() {
+        EventTimeline timeline = new EventTimeline();
+        Event peak = new EventGaussianPeak(0, "2024/01/18-08:00",
+            "2024/01/18-10:00", EventGaussianPeak.EventType.STATION);
+        Event stationClosed = new EventStationClosed(1, "2024/01/18-12:00",
+            "2024/01/18-14:00", EventStationClosed.EventType.STATION);
+        timeline.add(peak, station(7, 1));
+        timeline.add(stationClosed, station(7, 1));
+        assertTrue(timeline.getConflicts(peak).isEmpty());
+
+        peak.setEndTime("2024/01/18-13:00");
+        assertEquals(Collections.singletonList(stationClosed),
+            timeline.getConflicts(peak));
+        peak.setStartTime("2024/01/18-11:00");
+        assertTrue(timeline.activeAt(
+            LocalDateTime.of(2024, 1, 18, 9, 0)).isEmpty());
+
+        timeline.remove(peak);
+        peak.setStartTime("2024/01/18-08:00");
+        assertTrue(timeline.activeAt(
+            LocalDateTime.of(2024, 1, 18, 9, 0)).isEmpty());
+    }
+
+    /**
+     * Test that the scopes are computed again when a station is inserted in
+     * the range of a delay, then removed from it.
+     */
+    @Test
+    public void testNetworkEditRescopesEvents() {
+        Station first = new Station(0, 47.0, -0.5, "First");
+        Station second = new Station(1, 47.0, -0.6, "Second");
+        Station third = new Station(2, 47.0, -0.7, "Third");
+        Station moved = new Station(3, 47.1, -0.5, "Moved");
+        List<LineView> lineViews = new ArrayList<>(Arrays.asList(
+            lineView(0, first, second, third), lineView(1, moved)));
+        StationIndex stationIndex = new StationIndex();
+        stationIndex.rebuild(lineViews);
+
+        EventTimeline timeline = new EventTimeline();
+        EventLineDelay delay = new EventLineDelay(0, "2024/01/18-08:00",
+            "2024/01/18-10:00", EventLineDelay.EventType.STATION);
+        delay.setIdStationStart(0);
+        delay.setIdStationEnd(2);
+        EventStationClosed closed = new EventStationClosed(1,
+            "2024/01/18-09:00", "2024/01/18-11:00",
+            EventStationClosed.EventType.STATION);
+        closed.setIdStation(3);
+        timeline.add(delay, NetworkCore.eventScope(delay, stationIndex));
+        timeline.add(closed, NetworkCore.eventScope(closed, stationIndex));
+        assertTrue(timeline.getConflicts(delay).isEmpty());
+        assertTrue(timeline.rescope(event -> NetworkCore.eventScope(event,
+            stationIndex)).isEmpty());
+
+        // the closed station is moved between the ends of the delay
+        lineViews.set(0, lineView(0, first, moved, second, third));
+        lineViews.set(1, lineView(1));
+        stationIndex.rebuild(lineViews);
+        Set<Event> affected = timeline.rescope(
+            event -> NetworkCore.eventScope(event, stationIndex));
+        assertEquals(new HashSet<>(Arrays.asList(delay, closed)), affected);
+        assertEquals(Collections.singletonList(closed),
+            timeline.getConflicts(delay));
+        assertEquals(Collections.singletonList(delay),
+            timeline.getConflicts(closed));
+
+        // and deleted
+        lineViews.set(0, lineView(0, first, second, third));
+        stationIndex.rebuild(lineViews);
+        affected = timeline.rescope(
+            event -> NetworkCore.eventScope(event, stationIndex));
+        assertEquals(new HashSet<>(Arrays.asList(delay, closed)), affected);
+        assertTrue(timeline.getConflicts(delay).isEmpty());
+        assertTrue(timeline.getConflicts(closed).isEmpty());
+    }
+
+    private static LineView lineView(final int lineId,
+                                     final Station... stations) {
+        List<StationView> stationViews = new ArrayList<>();
+        for (Station station : stations) {
+            stationViews.add(new StationView(station));
+        }
+        return new LineView(new Line(lineId,
+            new ArrayList<>(Arrays.asList(stations))), stationViews);
+    }
+}
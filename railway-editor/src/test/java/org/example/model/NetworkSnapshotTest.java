@@ -0,0 +1,134 @@
+/*
+ * License : MIT License
+ *
+ * Copyright (c) 2023 Team PFE_2023_16
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.example.model;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+/**
+ * Test-case of the {@link NetworkSnapshot} capture and restore.
+ *
+ * @author Team PFE_2023_16
+ * @file NetworkSnapshotTest.java
+ * @date 2026-10-17
+ * @since 3.0
+ */
+public class NetworkSnapshotTest {
+    private static final double LATITUDE = 47.47;
+    private static final double LONGITUDE = -0.55;
+
+    @Test
+    public void testUnchangedNetworkIsShared() {
+        Station shared = new Station(0, LATITUDE, LONGITUDE, "Bleuet");
+        List<Line> lines = new ArrayList<>();
+        lines.add(new Line(0, stations(shared,
+            new Station(1, LATITUDE, -0.56, "Iris"))));
+        lines.add(new Line(1, stations(shared,
+            new Station(2, 47.48, LONGITUDE, "Lys"))));
+        List<Area> areas = Collections.emptyList();
+        List<Event> events = Collections.emptyList();
+
+        NetworkSnapshot first = NetworkSnapshot.capture(NetworkSnapshot.EMPTY,
+            lines, areas, events, LATITUDE, LONGITUDE, 13);
+        assertSame(first, NetworkSnapshot.capture(first, lines, areas, events,
+            LATITUDE, LONGITUDE, 13));
+
+        lines.get(1).getStations().get(1).setLatitude(47.49);
+        NetworkSnapshot second = NetworkSnapshot.capture(first, lines, areas,
+            events, LATITUDE, LONGITUDE, 13);
+        assertNotSame(first, second);
+        assertEquals(2, second.getLineCount());
+        assertEquals(47.49, second.toLines().get(1).getStations().get(1)
+            .getLatitude(), 0);
+    }
+
+    @Test
+    public void testSharedStationIsRestoredOnce() {
+        Station shared = new Station(0, LATITUDE, LONGITUDE, "Bleuet");
+        List<Line> lines = new ArrayList<>();
+        lines.add(new Line(0, stations(shared)));
+        lines.add(new Line(1, stations(shared)));
+        NetworkSnapshot snapshot = NetworkSnapshot.capture(
+            NetworkSnapshot.EMPTY, lines, Collections.emptyList(),
+            Collections.emptyList(), LATITUDE, LONGITUDE, 13);
+
+        List<Line> restored = snapshot.toLines();
+        assertNotSame(shared, restored.get(0).getStations().get(0));
+        assertSame(restored.get(0).getStations().get(0),
+            restored.get(1).getStations().get(0));
+    }
+
+    @Test
+    public void testStationAreasFollowTheEdits() {
+        Station center = new Station(0, LATITUDE, LONGITUDE, "Bleuet");
+        Station east = new Station(1, LATITUDE, -0.50, "Iris");
+        List<Line> lines = new ArrayList<>();
+        lines.add(new Line(0, stations(center, east)));
+        List<Area> areas = new ArrayList<>();
+        areas.add(new Area(47.50, -0.60, 47.40, -0.45));
+        areas.add(new Area(47.50, -0.60, 47.40, -0.52));
+        List<Event> events = Collections.emptyList();
+
+        NetworkSnapshot first = NetworkSnapshot.capture(NetworkSnapshot.EMPTY,
+            lines, areas, events, LATITUDE, LONGITUDE, 13);
+        List<Area> restoredAreas = first.toAreas();
+        List<Station> restored = first.toLines(restoredAreas).get(0)
+            .getStations();
+        assertSame(restoredAreas.get(1), restored.get(0).getArea());
+        assertSame(restoredAreas.get(0), restored.get(1).getArea());
+
+        areas.get(0).setLongitudeBot(-0.51);
+        NetworkSnapshot second = NetworkSnapshot.capture(first, lines, areas,
+            events, LATITUDE, LONGITUDE, 13);
+        restoredAreas = second.toAreas();
+        restored = second.toLines(restoredAreas).get(0).getStations();
+        assertSame(restoredAreas.get(1), restored.get(0).getArea());
+        assertNull(restored.get(1).getArea());
+
+        areas.remove(1);
+        east.setLongitude(-0.53);
+        NetworkSnapshot third = NetworkSnapshot.capture(second, lines, areas,
+            events, LATITUDE, LONGITUDE, 13);
+        restoredAreas = third.toAreas();
+        restored = third.toLines(restoredAreas).get(0).getStations();
+        assertSame(restoredAreas.get(0), restored.get(0).getArea());
+        assertSame(restoredAreas.get(0), restored.get(1).getArea());
+        assertNull(third.toLines().get(0).getStations().get(0).getArea());
+    }
+
+    private static List<Station> stations(final Station... stations) {
+        List<Station> list = new ArrayList<>();
+        Collections.addAll(list, stations);
+        return list;
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * License : MIT License
+ *
+ * Copyright (c) 2023 Team PFE_2023_16
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.example.model;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Test-case of the {@link Projection} of the models on the viewport.
+ *
+ * @author Team PFE_2023_16
+ * @file ProjectionTest.java
+ * @date 2026-10-17
+ * @since 3.0
+ */
+public class ProjectionTest {
+    private static final double LATITUDE = 47.4777;
+    private static final double LONGITUDE = -0.5544;
+
+    private Viewport previous;
+
+    @Before
+    public void setUp() {
+        previous = Projection.getInstance().getViewport();
+        Projection.getInstance().setViewport(Projection.FixedViewport
+            .centeredOn(LATITUDE, LONGITUDE, 13, 1000, 600));
+    }
+
+    @After
+    public void tearDown() {
+        Projection.getInstance().setViewport(previous);
+    }
+
+    @Test
+    public void testStationAtTheCenter() {
+        Station station = new Station(0, LATITUDE, LONGITUDE, "eglantine");
+        assertEquals(500, station.getPosX());
+        assertEquals(300, station.getPosY());
+    }
+
+    @Test
+    public void testViewportChangeKeepsCoordinates() {
+        Station station = new Station(0, LATITUDE, LONGITUDE, "eglantine");
+        Projection.getInstance().setViewport(Projection.FixedViewport
+            .centeredOn(LATITUDE, LONGITUDE, 14, 1000, 600));
+        assertEquals(500, station.getPosX());
+        assertEquals(LATITUDE, station.getLatitude(), 0);
+        station.moveStation(10, 0);
+        assertEquals(510, station.getPosX());
+        assertEquals(LATITUDE, station.getLatitude(), 1e-4);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNullViewport() {
+        Projection.getInstance().setViewport(null);
+    }
+}
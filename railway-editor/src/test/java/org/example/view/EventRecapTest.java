@@ -0,0 +1,221 @@
+/*
+ * License : MIT License
+ *
+ * Copyright (c) 2023 Team PFE_2023_16
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.example.view;
+
+import org.example.controller.EventFactory;
+import org.example.controller.NetworkCore;
+import org.example.data.Data;
+import org.example.model.Event;
+import org.example.model.EventTimeline;
+import org.example.model.Line;
+import org.example.model.Station;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.swing.JComponent;
+import javax.swing.JTable;
+import javax.swing.KeyStroke;
+import java.awt.Color;
+import java.awt.event.ActionEvent;
+import java.awt.event.KeyEvent;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Test-case of the {@link EventRecap} rows, removal, conflict highlighting
+ * and filters, on a network of two lines sharing station 2: line 0 holds
+ * the stations 0 to 3, line 1 the stations 2, 4 and 5.
+ *
+ * @author Team PFE_2023_16
+ * @file EventRecapTest.java
+ * @date 2026-10-17
+ * @since 3.0
+ */
+public class EventRecapTest {
+    private static final String PERIOD = "2024/01/18,08:00,2024/01/18,10:00,";
+    private static final String ALL = "All events";
+
+    @Before
+    public void setUp() {
+        Station[] stations = new Station[6];
+        for (int i = 0; i < stations.length; i++) {
+            stations[i] = new Station(i, 47.0 + i / 100.0, -0.5,
+                "Station " + i);
+        }
+        List<LineView> lineViews = new ArrayList<>();
+        lineViews.add(lineView(0, stations[0], stations[1], stations[2],
+            stations[3]));
+        lineViews.add(lineView(1, stations[2], stations[4], stations[5]));
+        MainPanel.getInstance().setLineViews(lineViews);
+        EventRecap.getInstance().cleanEvents();
+        EventRecap.getInstance().setFilters(ALL, "", "", "", "");
+    }
+
+    @After
+    public void tearDown() {
+        EventRecap.getInstance().setFilters(ALL, "", "", "", "");
+        EventRecap.getInstance().cleanEvents();
+        MainPanel.getInstance().setLineViews(new ArrayList<>());
+    }
+
+    /**
+     * Test that the line and station filters match the stations and lines
+     * of the events, whatever the text of their rows.
+     */
+    @Test
+    public void testLineAndStationFilters() {
+        add(EventFactory.create("lineDelay", 0, PERIOD + "0,3,15"),
+            EventFactory.create("gaussianPeak", 1,
+                PERIOD + "2024/01/18,09:00,1,100,30"),
+            EventFactory.create("stationClosed", 2, PERIOD + "4"),
+            EventFactory.create("lineClosed", 3, PERIOD + "1,planned"),
+            EventFactory.create("hour", 4, "08:00,10:00,0,5"),
+            EventFactory.create("multipleStationsClosed", 5,
+                PERIOD + "4,5"),
+            EventFactory.create("rampPeak", 6,
+                PERIOD + "2024/01/18,09:00,2,100"));
+        EventRecap recap = EventRecap.getInstance();
+
+        // the delay covers station 2 between its ends
+        recap.setFilters(ALL, "", "2", "", "");
+        assertEquals(Arrays.asList(0, 6), recap.getShownIds());
+        recap.setFilters(ALL, "", "1", "", "");
+        assertEquals(Arrays.asList(0, 1), recap.getShownIds());
+        recap.setFilters(ALL, "", "4", "", "");
+        assertEquals(Arrays.asList(2, 5), recap.getShownIds());
+
+        // station events match the lines of their station
+        recap.setFilters(ALL, "0", "", "", "");
+        assertEquals(Arrays.asList(0, 1, 4, 6), recap.getShownIds());
+        recap.setFilters(ALL, "1", "", "", "");
+        assertEquals(Arrays.asList(2, 3, 5, 6), recap.getShownIds());
+        recap.setFilters(ALL, "1", "4", "", "");
+        assertEquals(Arrays.asList(2, 5), recap.getShownIds());
+        recap.setFilters("Station Closed", "1", "", "", "");
+        assertEquals(Collections.singletonList(2), recap.getShownIds());
+
+        // an invalid id is ignored
+        recap.setFilters(ALL, "x", "", "", "");
+        assertEquals(Arrays.asList(0, 1, 2, 3, 4, 5, 6),
+            recap.getShownIds());
+
+        // events added while filtering are filtered too
+        recap.setFilters(ALL, "", "1", "", "");
+        add(EventFactory.create("stationClosed", 7, PERIOD + "1"),
+            EventFactory.create("stationClosed", 8, PERIOD + "5"));
+        assertEquals(Arrays.asList(0, 1, 7), recap.getShownIds());
+    }
+
+    /**
+     * Test that the rows of the events are appended in a batch, an event
+     * added again replacing its row.
+     */
+    @Test
+    public void testAddEvents() {
+        add(EventFactory.create("stationClosed", 0, PERIOD + "0"),
+            EventFactory.create("lineClosed", 1, PERIOD + "0,unexpected"),
+            EventFactory.create("hour", 2, "08:00,10:00,1,5"));
+        EventRecap recap = EventRecap.getInstance();
+        JTable table = recap.getTable();
+        assertEquals(Arrays.asList(0, 1, 2), recap.getShownIds());
+        assertEquals("Station Closed", table.getModel().getValueAt(0, 1));
+        assertEquals("1", table.getModel().getValueAt(2, 4));
+
+        recap.createEventStationClosed(1, "2024/01/18-08:00",
+            "2024/01/18-10:00", "3");
+        assertEquals(Arrays.asList(0, 2, 1), recap.getShownIds());
+        assertEquals("Station: 3", table.getModel().getValueAt(2, 5));
+    }
+
+    /**
+     * Test that the Delete key removes the selected events, and that the
+     * events they conflicted with are no longer shown in red.
+     */
+    @Test
+    public void testDeleteKeyRemovesSelectedEvents() {
+        Event closed = EventFactory.create("stationClosed", 0, PERIOD + "1");
+        Event peak = EventFactory.create("gaussianPeak", 1,
+            PERIOD + "2024/01/18,09:00,1,100,30");
+        Event otherPeak = EventFactory.create("rampPeak", 2,
+            PERIOD + "2024/01/18,09:00,4,100");
+        add(closed, peak, otherPeak);
+        EventRecap recap = EventRecap.getInstance();
+        EventTimeline timeline = Data.getInstance().getEventTimeline();
+        for (Event event : Arrays.asList(closed, peak, otherPeak)) {
+            timeline.add(event, NetworkCore.eventScope(event,
+                MainPanel.getInstance().getStationIndex()));
+        }
+        for (Event event : Arrays.asList(closed, peak, otherPeak)) {
+            recap.flagConflicts(event.getId(), timeline.getConflicts(event));
+        }
+        JTable table = recap.getTable();
+        assertEquals("Conflicts with events 1",
+            render(table, 0).getToolTipText());
+        assertEquals(Color.RED, render(table, 1).getForeground());
+        assertNull(render(table, 2).getToolTipText());
+
+        table.setRowSelectionInterval(0, 0);
+        Object key = table.getInputMap(JComponent.WHEN_FOCUSED).get(
+            KeyStroke.getKeyStroke(KeyEvent.VK_DELETE, 0));
+        table.getActionMap().get(key).actionPerformed(
+            new ActionEvent(table, ActionEvent.ACTION_PERFORMED, ""));
+
+        assertEquals(Arrays.asList(1, 2), recap.getShownIds());
+        assertEquals(Arrays.asList(peak, otherPeak),
+            Data.getInstance().getEventList());
+        assertFalse(timeline.contains(closed));
+        assertNull(render(table, 0).getToolTipText());
+        assertEquals(table.getForeground(),
+            render(table, 0).getForeground());
+    }
+
+    private static JComponent render(final JTable table, final int row) {
+        return (JComponent) table.prepareRenderer(
+            table.getCellRenderer(row, 1), row, 1);
+    }
+
+    private static void add(final Event... events) {
+        List<Event> added = Arrays.asList(events);
+        Data.getInstance().getEventList().addAll(added);
+        EventRecap.getInstance().addEvents(added,
+            MainPanel.getInstance().getStationIndex());
+    }
+
+    private static LineView lineView(final int lineId,
+                                     final Station... stations) {
+        List<StationView> stationViews = new ArrayList<>();
+        for (Station station : stations) {
+            stationViews.add(new StationView(station));
+        }
+        return new LineView(new Line(lineId,
+            new ArrayList<>(Arrays.asList(stations))), stationViews);
+    }
+}
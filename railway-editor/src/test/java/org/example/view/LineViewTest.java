@@ -0,0 +1,164 @@
+/*
+ * License : MIT License
+ *
+ * Copyright (c) 2023 Team PFE_2023_16
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.example.view;
+
+import org.example.model.Line;
+import org.example.model.Station;
+import org.junit.Test;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test-case of the {@link LineView} cached polyline and viewport culling,
+ * checked on the drawn pixels.
+ *
+ * @author Team PFE_2023_16
+ * @file LineViewTest.java
+ * @date 2026-10-17
+ * @since 3.0
+ */
+public class LineViewTest {
+    private static final int SIZE = 200;
+
+    @Test
+    public void testPanningMovesTheCachedPolyline() {
+        Station first = new Station(0, 20, 20, "First");
+        Station second = new Station(1, 100, 20, "Second");
+        Station third = new Station(2, 100, 100, "Third");
+        LineView lineView = lineView(first, second, third);
+        BufferedImage image = draw(lineView, null, null);
+        assertTrue(isLine(image, 60, 20));
+        assertTrue(isLine(image, 100, 60));
+
+        // the whole line moves with the map, no invalidation needed
+        for (Station station : Arrays.asList(first, second, third)) {
+            station.moveStation(30, 40);
+        }
+        image = draw(lineView, null, null);
+        assertTrue(isLine(image, 90, 60));
+        assertTrue(isLine(image, 130, 100));
+        assertFalse(isLine(image, 60, 20));
+    }
+
+    @Test
+    public void testInvalidationRebuildsThePolyline() {
+        Station first = new Station(0, 20, 20, "First");
+        Station second = new Station(1, 100, 20, "Second");
+        LineView lineView = lineView(first, second);
+        assertTrue(isLine(draw(lineView, null, null), 60, 20));
+
+        // a station moved on its own keeps the cached shape until invalidated
+        second.setPosY(100);
+        assertTrue(isLine(draw(lineView, null, null), 60, 20));
+        lineView.invalidateGeometry();
+        BufferedImage image = draw(lineView, null, null);
+        assertTrue(isLine(image, 60, 60));
+        assertFalse(isLine(image, 60, 20));
+
+        // an added station is picked up without invalidation
+        lineView.getStationViews().add(new StationView(
+            new Station(2, 180, 100, "Third")));
+        assertTrue(isLine(draw(lineView, null, null), 140, 100));
+
+        // as well as new station views, even with the same count
+        lineView.setStationViews(new ArrayList<>(Arrays.asList(
+            new StationView(first), new StationView(second),
+            new StationView(new Station(3, 100, 180, "Fourth")))));
+        image = draw(lineView, null, null);
+        assertTrue(isLine(image, 100, 140));
+        assertFalse(isLine(image, 140, 100));
+    }
+
+    @Test
+    public void testCullingAndExcludedStation() {
+        Station first = new Station(0, 20, 20, "First");
+        Station second = new Station(1, 100, 20, "Second");
+        Station third = new Station(2, 100, 100, "Third");
+        LineView lineView = lineView(first, second, third);
+
+        assertTrue(isBlank(draw(lineView, new Rectangle(120, 120, 50, 50),
+            null)));
+        // a viewport on a single segment draws the whole line
+        BufferedImage image = draw(lineView, new Rectangle(50, 10, 20, 20),
+            null);
+        assertTrue(isLine(image, 60, 20));
+        assertTrue(isLine(image, 100, 60));
+
+        // the segments of the dragged station are left to the overlay
+        image = draw(lineView, null, second);
+        assertFalse(isLine(image, 60, 20));
+        assertFalse(isLine(image, 100, 60));
+        lineView.getStationViews().add(new StationView(
+            new Station(3, 180, 100, "Fourth")));
+        image = draw(lineView, null, second);
+        assertFalse(isLine(image, 60, 20));
+        assertTrue(isLine(image, 140, 100));
+    }
+
+    private static LineView lineView(final Station... stations) {
+        List<StationView> stationViews = new ArrayList<>();
+        for (Station station : stations) {
+            stationViews.add(new StationView(station));
+        }
+        Line line = new Line(0, new ArrayList<>(Arrays.asList(stations)));
+        line.setColor(Color.BLUE);
+        return new LineView(line, stationViews);
+    }
+
+    private static BufferedImage draw(final LineView lineView,
+                                      final Rectangle viewport,
+                                      final Station excluded) {
+        BufferedImage image = new BufferedImage(SIZE, SIZE,
+            BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g2D = image.createGraphics();
+        lineView.show(g2D, viewport, excluded);
+        g2D.dispose();
+        return image;
+    }
+
+    private static boolean isLine(final BufferedImage image, final int x,
+                                  final int y) {
+        return image.getRGB(x, y) == Color.BLUE.getRGB();
+    }
+
+    private static boolean isBlank(final BufferedImage image) {
+        for (int x = 0; x < SIZE; x++) {
+            for (int y = 0; y < SIZE; y++) {
+                if (image.getRGB(x, y) != 0) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+}
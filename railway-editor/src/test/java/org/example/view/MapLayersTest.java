@@ -0,0 +1,133 @@
+/*
+ * License : MIT License
+ *
+ * Copyright (c) 2023 Team PFE_2023_16
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.example.view;
+
+import org.junit.Test;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test-case of the {@link MapLayers} back buffers invalidation.
+ *
+ * @author Team PFE_2023_16
+ * @file MapLayersTest.java
+ * @date 2026-10-17
+ * @since 3.0
+ */
+public class MapLayersTest {
+
+    @Test
+    public void testOnlyInvalidatedLayersAreDirty() {
+        MapLayers layers = new MapLayers();
+        layers.resize(100, 50, 1);
+        for (MapLayers.Layer layer : MapLayers.Layer.values()) {
+            assertTrue(layers.isDirty(layer));
+            render(layers, layer, Color.RED);
+            assertFalse(layers.isDirty(layer));
+        }
+
+        layers.invalidate(MapLayers.Layer.NETWORK);
+        for (MapLayers.Layer layer : MapLayers.Layer.values()) {
+            assertEquals(layer == MapLayers.Layer.NETWORK,
+                layers.isDirty(layer));
+        }
+        render(layers, MapLayers.Layer.NETWORK, Color.RED);
+
+        // the same size keeps the images
+        layers.resize(100, 50, 1);
+        assertNoneDirty(layers);
+        layers.invalidateAll();
+        for (MapLayers.Layer layer : MapLayers.Layer.values()) {
+            assertTrue(layers.isDirty(layer));
+        }
+    }
+
+    @Test
+    public void testResizeInvalidatesAllLayers() {
+        MapLayers layers = new MapLayers();
+        layers.resize(100, 50, 1);
+        for (MapLayers.Layer layer : MapLayers.Layer.values()) {
+            render(layers, layer, Color.RED);
+        }
+        layers.resize(120, 50, 1);
+        for (MapLayers.Layer layer : MapLayers.Layer.values()) {
+            assertTrue(layers.isDirty(layer));
+            render(layers, layer, Color.RED);
+        }
+        layers.resize(120, 50, 2);
+        for (MapLayers.Layer layer : MapLayers.Layer.values()) {
+            assertTrue(layers.isDirty(layer));
+        }
+    }
+
+    @Test
+    public void testCachedImageIsDrawnUntilRenderedAgain() {
+        MapLayers layers = new MapLayers();
+        layers.resize(100, 50, 2);
+        render(layers, MapLayers.Layer.NETWORK, Color.RED);
+        assertEquals(Color.RED.getRGB(), draw(layers).getRGB(99, 49));
+
+        // invalidating does not clear the image, re-rendering does
+        layers.invalidate(MapLayers.Layer.NETWORK);
+        assertEquals(Color.RED.getRGB(), draw(layers).getRGB(99, 49));
+        Graphics2D g2D = layers.beginRender(MapLayers.Layer.NETWORK, null);
+        g2D.setColor(Color.BLUE);
+        g2D.fillRect(0, 0, 10, 10);
+        g2D.dispose();
+        BufferedImage image = draw(layers);
+        assertEquals(Color.BLUE.getRGB(), image.getRGB(9, 9));
+        assertEquals(0, image.getRGB(50, 25));
+        assertFalse(layers.isDirty(MapLayers.Layer.NETWORK));
+    }
+
+    private static void render(final MapLayers layers,
+                               final MapLayers.Layer layer,
+                               final Color color) {
+        Graphics2D g2D = layers.beginRender(layer, null);
+        g2D.setColor(color);
+        g2D.fillRect(0, 0, 100, 50);
+        g2D.dispose();
+    }
+
+    private static BufferedImage draw(final MapLayers layers) {
+        BufferedImage image = new BufferedImage(100, 50,
+            BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g2D = image.createGraphics();
+        layers.draw(g2D, MapLayers.Layer.NETWORK);
+        g2D.dispose();
+        return image;
+    }
+
+    private static void assertNoneDirty(final MapLayers layers) {
+        for (MapLayers.Layer layer : MapLayers.Layer.values()) {
+            assertFalse(layers.isDirty(layer));
+        }
+    }
+}
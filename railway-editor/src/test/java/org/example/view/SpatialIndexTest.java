@@ -0,0 +1,211 @@
+/*
+ * License : MIT License
+ *
+ * Copyright (c) 2023 Team PFE_2023_16
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.example.view;
+
+import org.example.model.Area;
+import org.example.model.Line;
+import org.example.model.Station;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test-case of the {@link SpatialIndex} candidates, checked against a scan
+ * of every view with the hit-tests of the map.
+ *
+ * @author Team PFE_2023_16
+ * @file SpatialIndexTest.java
+ * @date 2026-10-17
+ * @since 3.0
+ */
+public class SpatialIndexTest {
+    private static final int LINES = 4;
+    private static final int STEPS = 400;
+    private static final int MAP_SIZE = 2000;
+    private static final int PROBES = 300;
+    /** Tolerance of the area borders hit-tests. */
+    private static final int BORDER = 2;
+
+    @Test
+    public void testCandidatesMatchAScan() {
+        Random random = new Random(1);
+        List<LineView> lineViews = new ArrayList<>();
+        for (int i = 0; i < LINES; i++) {
+            lineViews.add(new LineView(new Line(i, new ArrayList<>()),
+                new ArrayList<>()));
+        }
+        List<AreaView> areaViews = new ArrayList<>();
+        SpatialIndex index = new SpatialIndex();
+        index.validate(lineViews, areaViews);
+        int stationCount = 0;
+
+        for (int step = 0; step < STEPS; step++) {
+            LineView lineView = lineViews.get(random.nextInt(LINES));
+            List<StationView> stationViews = lineView.getStationViews();
+            int action = random.nextInt(6);
+            if (action < 2 || stationViews.isEmpty()) {
+                // insert a station
+                Station station = new Station(stationCount++,
+                    random.nextInt(MAP_SIZE), random.nextInt(MAP_SIZE),
+                    "S");
+                StationView stationView = new StationView(station);
+                lineView.getLine().addStation(station);
+                stationViews.add(stationView);
+                index.addStation(stationView, lineView);
+            } else if (action == 2) {
+                // move a station
+                Station station = stationViews.get(random.nextInt(
+                    stationViews.size())).getStation();
+                station.setPosX(random.nextInt(MAP_SIZE));
+                station.setPosY(random.nextInt(MAP_SIZE));
+                index.stationMoved(station);
+            } else if (action == 3) {
+                // delete a station
+                StationView stationView = stationViews.remove(
+                    random.nextInt(stationViews.size()));
+                lineView.getLine().getStations().remove(
+                    stationView.getStation());
+                index.removeStation(stationView, lineView);
+            } else if (action == 4 || areaViews.isEmpty()) {
+                // insert an area, sometimes too large to be bucketed
+                int size = random.nextInt(10) == 0 ? 1500 : 200;
+                AreaView areaView = new AreaView(new Area(
+                    random.nextInt(MAP_SIZE), random.nextInt(MAP_SIZE),
+                    1 + random.nextInt(size), 1 + random.nextInt(size)));
+                areaViews.add(areaView);
+                index.addArea(areaView);
+            } else {
+                // move and resize an area
+                Area area = areaViews.get(random.nextInt(areaViews.size()))
+                    .getArea();
+                area.setPosX(random.nextInt(MAP_SIZE));
+                area.setPosY(random.nextInt(MAP_SIZE));
+                area.setWidth(1 + random.nextInt(300));
+                area.setHeight(1 + random.nextInt(300));
+                index.areaMoved(area);
+            }
+            checkCandidates(index, lineViews, areaViews, random);
+        }
+    }
+
+    @Test
+    public void testBulkChangeRebuildsTheIndex() {
+        Station station = new Station(0, 100, 100, "S");
+        StationView stationView = new StationView(station);
+        List<LineView> lineViews = new ArrayList<>();
+        lineViews.add(new LineView(new Line(0,
+            new ArrayList<>(Collections.singletonList(station))),
+            new ArrayList<>(Collections.singletonList(stationView))));
+        SpatialIndex index = new SpatialIndex();
+        index.validate(lineViews, new ArrayList<>());
+        assertTrue(stations(index.getStationCandidates(100, 100))
+            .contains(stationView));
+
+        // lines replaced without updating the index
+        lineViews.clear();
+        index.validate(lineViews, new ArrayList<>());
+        assertTrue(index.getStationCandidates(100, 100).isEmpty());
+    }
+
+    private static void checkCandidates(final SpatialIndex index,
+                                        final List<LineView> lineViews,
+                                        final List<AreaView> areaViews,
+                                        final Random random) {
+        Set<StationView> indexedStations = newSet();
+        for (LineView lineView : lineViews) {
+            indexedStations.addAll(lineView.getStationViews());
+        }
+        for (int i = 0; i < PROBES; i++) {
+            int x = random.nextInt(MAP_SIZE + 400) - 200;
+            int y = random.nextInt(MAP_SIZE + 400) - 200;
+            Set<StationView> stations = stations(
+                index.getStationCandidates(x, y));
+            for (StationView stationView : indexedStations) {
+                if (hits(stationView, x, y)) {
+                    assertTrue("station " + stationView.getStation().getId()
+                        + " should be a candidate at " + x + "," + y,
+                        stations.contains(stationView));
+                }
+            }
+            for (StationView stationView : stations) {
+                assertTrue("a deleted station should not be a candidate",
+                    indexedStations.contains(stationView));
+            }
+            Set<AreaView> areas = newSet();
+            for (SpatialIndex.AreaEntry entry
+                : index.getAreaCandidates(x, y)) {
+                areas.add(entry.getAreaView());
+            }
+            for (AreaView areaView : areaViews) {
+                if (touches(areaView.getArea(), x, y)) {
+                    assertTrue("area should be a candidate at " + x + ","
+                        + y, areas.contains(areaView));
+                }
+            }
+        }
+    }
+
+    /**
+     * Same test as the clicks on a station of the map.
+     */
+    private static boolean hits(final StationView stationView, final int x,
+                                final int y) {
+        Station station = stationView.getStation();
+        int size = stationView.getStationSize();
+        return Math.pow(x - (station.getPosX() - size / 2f), 2)
+            + Math.pow(y - (station.getPosY() - size / 2f), 2)
+            < Math.pow(size, 2);
+    }
+
+    /**
+     * Whether a point is in an area or on its borders.
+     */
+    private static boolean touches(final Area area, final int x,
+                                   final int y) {
+        return x >= area.getPosX() - BORDER
+            && x <= area.getPosX() + area.getWidth() + BORDER
+            && y >= area.getPosY() - BORDER
+            && y <= area.getPosY() + area.getHeight() + BORDER;
+    }
+
+    private static Set<StationView> stations(
+        final List<SpatialIndex.StationEntry> entries) {
+        Set<StationView> stations = newSet();
+        for (SpatialIndex.StationEntry entry : entries) {
+            stations.add(entry.getStationView());
+        }
+        return stations;
+    }
+
+    private static <T> Set<T> newSet() {
+        return Collections.newSetFromMap(new IdentityHashMap<>());
+    }
+}
@@ -0,0 +1,211 @@
+/*
+ * License : MIT License
+ *
+ * Copyright (c) 2023 Team PFE_2023_16
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.example.view;
+
+import org.example.model.Line;
+import org.example.model.Station;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+/**
+ * Test-case of the {@link StationIndex} updates, checked against a scan of
+ * the lines.
+ *
+ * @author Team PFE_2023_16
+ * @file StationIndexTest.java
+ * @date 2026-10-17
+ * @since 3.0
+ */
+public class StationIndexTest {
+    private static final int LINES = 6;
+    private static final int STEPS = 500;
+
+    @Test
+    public void testIncrementalUpdatesMatchTheLines() {
+        Random random = new Random(21);
+        List<LineView> lineViews = new ArrayList<>();
+        for (int i = 0; i < LINES; i++) {
+            lineViews.add(newLineView(i));
+        }
+        StationIndex index = new StationIndex();
+        index.validate(lineViews);
+        int stationCount = 0;
+
+        for (int step = 0; step < STEPS; step++) {
+            LineView lineView = lineViews.get(random.nextInt(LINES));
+            List<StationView> stationViews = lineView.getStationViews();
+            int action = random.nextInt(4);
+            if (action < 2 || stationViews.isEmpty()) {
+                // append a new station
+                StationView stationView = newStationView(stationCount++);
+                stationViews.add(stationView);
+                index.addStation(stationView, lineView);
+            } else if (action == 2) {
+                // merge a station with the one of another line
+                List<StationView> others = lineViews.get(
+                    random.nextInt(LINES)).getStationViews();
+                if (others.isEmpty()) {
+                    continue;
+                }
+                stationViews.set(random.nextInt(stationViews.size()),
+                    others.get(random.nextInt(others.size())));
+                index.lineChanged(lineView);
+            } else {
+                // delete a station
+                stationViews.remove(random.nextInt(stationViews.size()));
+                index.lineChanged(lineView);
+            }
+            index.validate(lineViews);
+            assertMatchesLines(lineViews, index, stationCount, random);
+        }
+
+        StationIndex rebuilt = new StationIndex();
+        rebuilt.validate(lineViews);
+        assertMatchesLines(lineViews, rebuilt, stationCount, random);
+    }
+
+    @Test
+    public void testBulkChangeRebuildsTheIndex() {
+        Random random = new Random(22);
+        List<LineView> lineViews = new ArrayList<>();
+        lineViews.add(newLineView(0));
+        lineViews.get(0).getStationViews().add(newStationView(0));
+        StationIndex index = new StationIndex();
+        index.validate(lineViews);
+
+        // a line added without telling the index changes the station count
+        LineView added = newLineView(1);
+        added.getStationViews().add(newStationView(1));
+        added.getStationViews().add(lineViews.get(0).getStationViews().get(0));
+        lineViews.add(added);
+        index.validate(lineViews);
+        assertMatchesLines(lineViews, index, 2, random);
+
+        // a replaced lines list with the same count needs an invalidation
+        lineViews.set(0, newLineView(0));
+        lineViews.get(0).getStationViews().add(newStationView(2));
+        index.invalidate();
+        index.validate(lineViews);
+        assertMatchesLines(lineViews, index, 3, random);
+    }
+
+    private static void assertMatchesLines(final List<LineView> lineViews,
+                                           final StationIndex index,
+                                           final int stationCount,
+                                           final Random random) {
+        for (int id = 0; id < stationCount; id++) {
+            assertEquals("entries of station " + id, scan(lineViews, id),
+                entries(lineViews, index.getEntries(id)));
+        }
+        for (int i = 0; i < stationCount; i++) {
+            int idStart = random.nextInt(stationCount);
+            int idEnd = random.nextInt(stationCount);
+            StationIndex.Entry[] entries = index.getEntriesOnSameLine(idStart,
+                idEnd);
+            assertEntry(lineViews, idStart, entries[0]);
+            assertEntry(lineViews, idEnd, entries[1]);
+            if (sameLine(lineViews, idStart, idEnd)) {
+                assertSame(entries[0].getLineView(), entries[1].getLineView());
+            }
+        }
+    }
+
+    private static void assertEntry(final List<LineView> lineViews,
+                                    final int id,
+                                    final StationIndex.Entry entry) {
+        if (scan(lineViews, id).isEmpty()) {
+            assertNull(entry);
+        } else {
+            assertNotNull(entry);
+            StationView stationView = entry.getLineView().getStationViews()
+                .get(entry.getPosition());
+            assertSame(entry.getStationView(), stationView);
+            assertEquals(id, stationView.getStation().getId());
+        }
+    }
+
+    private static List<String> scan(final List<LineView> lineViews,
+                                     final int id) {
+        List<String> result = new ArrayList<>();
+        for (int i = 0; i < lineViews.size(); i++) {
+            List<StationView> stationViews = lineViews.get(i)
+                .getStationViews();
+            for (int j = 0; j < stationViews.size(); j++) {
+                if (stationViews.get(j).getStation().getId() == id) {
+                    result.add(i + ":" + j);
+                }
+            }
+        }
+        Collections.sort(result);
+        return result;
+    }
+
+    private static List<String> entries(
+        final List<LineView> lineViews,
+        final List<StationIndex.Entry> entries) {
+        List<String> result = new ArrayList<>();
+        for (StationIndex.Entry entry : entries) {
+            assertSame(entry.getStationView(), entry.getLineView()
+                .getStationViews().get(entry.getPosition()));
+            result.add(lineViews.indexOf(entry.getLineView()) + ":"
+                + entry.getPosition());
+        }
+        Collections.sort(result);
+        return result;
+    }
+
+    private static boolean sameLine(final List<LineView> lineViews,
+                                    final int idStart, final int idEnd) {
+        for (LineView lineView : lineViews) {
+            boolean start = false;
+            boolean end = false;
+            for (StationView stationView : lineView.getStationViews()) {
+                start |= stationView.getStation().getId() == idStart;
+                end |= stationView.getStation().getId() == idEnd;
+            }
+            if (start && end) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static LineView newLineView(final int id) {
+        return new LineView(new Line(id, new ArrayList<>()),
+            new ArrayList<>());
+    }
+
+    private static StationView newStationView(final int id) {
+        return new StationView(new Station(id, 47.47, -0.55, "S" + id));
+    }
+}
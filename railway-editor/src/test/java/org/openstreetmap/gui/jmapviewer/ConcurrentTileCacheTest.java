@@ -0,0 +1,170 @@
+// License: GPL. For details, see Readme.txt file.
+package org.openstreetmap.gui.jmapviewer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Test;
+import org.openstreetmap.gui.jmapviewer.interfaces.TileCache;
+import org.openstreetmap.gui.jmapviewer.interfaces.TileSource;
+import org.openstreetmap.gui.jmapviewer.tilesources.OsmTileSource;
+
+/**
+ * Test-cases of the concurrent tile cache, with a stress test of the paint
+ * loop against the loader threads.
+ */
+class ConcurrentTileCacheTest {
+
+  private static final TileSource SOURCE = new OsmTileSource.Mapnik();
+  private static final int LOADERS = 8;
+  private static final int PAINTS = 2000;
+
+  @Test
+  void testClockEviction() {
+    ConcurrentTileCache cache = new ConcurrentTileCache(3);
+    for (int x = 0; x < 3; x++) {
+      cache.addTile(new Tile(SOURCE, x, 0, 5));
+    }
+    assertNotNull(cache.getTile(SOURCE, 0, 0, 5), "Reference the first tile");
+    cache.addTile(new Tile(SOURCE, 3, 0, 5));
+
+    assertEquals(3, cache.getTileCount(), "The cache should keep its size");
+    assertNotNull(cache.getTile(SOURCE, 0, 0, 5), "A referenced tile gets a second chance");
+    assertNull(cache.getTile(SOURCE, 1, 0, 5), "The oldest unreferenced tile should be evicted");
+  }
+
+  @Test
+  void testAddTwice() {
+    ConcurrentTileCache cache = new ConcurrentTileCache(3);
+    Tile tile = new Tile(SOURCE, 0, 0, 5);
+    cache.addTile(tile);
+    cache.addTile(new Tile(SOURCE, 0, 0, 5));
+
+    assertEquals(1, cache.getTileCount(), "A tile is cached once");
+    assertTrue(tile == cache.getTile(SOURCE, 0, 0, 5), "The first tile should be kept");
+  }
+
+  /**
+   * Adds a tile and loads an opaque 256x256 RGB image into it.
+   */
+  private static Tile addLoaded(ConcurrentTileCache cache, int x) {
+    Tile tile = new Tile(SOURCE, x, 0, 5);
+    cache.addTile(tile);
+    tile.setImage(new BufferedImage(256, 256, BufferedImage.TYPE_INT_RGB));
+    tile.setLoaded(true);
+    cache.tileLoaded(tile);
+    return tile;
+  }
+
+  @Test
+  void testByteBudget() {
+    ConcurrentTileCache cache = new ConcurrentTileCache(100);
+    cache.setMaxBytes(3 * 256 * 256 * 4);
+    for (int x = 0; x < 3; x++) {
+      addLoaded(cache, x);
+    }
+    assertEquals(3 * 256 * 256 * 4, cache.getTotalBytes(), "Decoded images should be accounted");
+    assertEquals(0, cache.getEvictions(), "The tiles fit the budget");
+
+    addLoaded(cache, 3);
+
+    assertEquals(3, cache.getTileCount(), "A tile should be evicted to fit the budget");
+    assertEquals(1, cache.getEvictions(), "The eviction should be counted");
+    assertTrue(cache.getTotalBytes() <= cache.getMaxBytes(), "The memory should be bounded");
+    cache.clear();
+    assertEquals(0, cache.getTotalBytes(), "Clearing the cache releases the memory");
+  }
+
+  @Test
+  void testCompactImages() {
+    ConcurrentTileCache cache = new ConcurrentTileCache(100);
+    cache.setCompactImages(true);
+    Tile tile = addLoaded(cache, 0);
+
+    assertEquals(BufferedImage.TYPE_USHORT_565_RGB, tile.getImage().getType(),
+        "Opaque tiles should be stored in 16-bit RGB");
+    assertEquals(256 * 256 * 2, cache.getTotalBytes(), "The compact image takes half the memory");
+    BufferedImage translucent = new BufferedImage(8, 8, BufferedImage.TYPE_INT_ARGB);
+    assertTrue(translucent == ConcurrentTileCache.compact(translucent),
+        "Translucent tiles should be kept");
+  }
+
+  @Test
+  void testCounters() {
+    ConcurrentTileCache cache = new ConcurrentTileCache(100);
+    cache.addTile(new Tile(SOURCE, 0, 0, 5));
+    cache.getTile(SOURCE, 0, 0, 5);
+    cache.getTile(SOURCE, 0, 0, 5);
+    cache.getTile(SOURCE, 1, 0, 5);
+
+    assertEquals(2, cache.getHits(), "The hits should be counted");
+    assertEquals(1, cache.getMisses(), "The misses should be counted");
+  }
+
+  @Test
+  void testPaintUnderLoad() throws Exception {
+    paintUnderLoad(new MemoryTileCache(200));
+    paintUnderLoad(new ConcurrentTileCache(200));
+  }
+
+  /**
+   * Runs passes of the paint loop over a screen of tiles while loader
+   * threads keep adding tiles. The latency of the passes is measured by
+   * the TilePaintBenchmark of the railway-benchmarks module.
+   */
+  private static void paintUnderLoad(TileCache cache) throws Exception {
+    AtomicBoolean painting = new AtomicBoolean(true);
+    AtomicReference<Throwable> failure = new AtomicReference<>();
+    CountDownLatch started = new CountDownLatch(LOADERS);
+    List<Thread> loaders = new ArrayList<>();
+    for (int i = 0; i < LOADERS; i++) {
+      Thread loader = new Thread(() -> {
+        started.countDown();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        try {
+          while (painting.get()) {
+            cache.addTile(new Tile(SOURCE, random.nextInt(1024), random.nextInt(1024), 10));
+          }
+        } catch (Throwable t) {
+          failure.set(t);
+        }
+      });
+      loader.start();
+      loaders.add(loader);
+    }
+    assertTrue(started.await(10, TimeUnit.SECONDS), "The loaders should start");
+
+    // The paint loop: a 6x4 screen of tiles, half of them cached
+    for (int x = 0; x < 6; x++) {
+      for (int y = 0; y < 2; y++) {
+        cache.addTile(new Tile(SOURCE, x, y, 3));
+      }
+    }
+    for (int pass = 0; pass < PAINTS; pass++) {
+      for (int x = 0; x < 6; x++) {
+        for (int y = 0; y < 4; y++) {
+          cache.getTile(SOURCE, x, y, 3);
+        }
+      }
+    }
+    painting.set(false);
+    for (Thread loader : loaders) {
+      loader.join();
+    }
+
+    assertNull(failure.get(), "The loaders should not fail");
+    assertTrue(cache.getTileCount() <= cache.getCacheSize() + LOADERS,
+        "The cache should stay bounded");
+  }
+}
@@ -0,0 +1,159 @@
+// License: GPL. For details, see Readme.txt file.
+package org.openstreetmap.gui.jmapviewer;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.file.Files;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.imageio.ImageIO;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.openstreetmap.gui.jmapviewer.interfaces.TileLoaderListener;
+import org.openstreetmap.gui.jmapviewer.interfaces.TileSource;
+import org.openstreetmap.gui.jmapviewer.tilesources.TMSTileSource;
+import org.openstreetmap.gui.jmapviewer.tilesources.TileSourceInfo;
+
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Test-cases of the disk tile cache, with a local tile server.
+ */
+class DiskTileCacheTest {
+
+  @TempDir
+  File folder;
+
+  private static byte[] png() throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    ImageIO.write(new BufferedImage(4, 4, BufferedImage.TYPE_INT_RGB), "png", bytes);
+    return bytes.toByteArray();
+  }
+
+  private static TileSource source(String url) {
+    return new TMSTileSource(new TileSourceInfo("test", url, "test"));
+  }
+
+  /**
+   * Loads a tile with an {@link OsmTileLoader} and waits for the end.
+   */
+  private static Tile load(TileSource source, DiskTileCache cache) throws InterruptedException {
+    CountDownLatch done = new CountDownLatch(1);
+    TileLoaderListener listener = (tile, success) -> done.countDown();
+    OsmTileLoader loader = new OsmTileLoader(listener);
+    loader.setDiskCache(cache);
+    Tile tile = new Tile(source, 1, 2, 3);
+    loader.createTileLoaderJob(tile).submit();
+    assertTrue(done.await(30, TimeUnit.SECONDS), "The tile should be loaded");
+    return tile;
+  }
+
+  @Test
+  void testStoreAndReload() throws Exception {
+    TileSource source = source("http://localhost");
+    byte[] data = png();
+    Tile tile = new Tile(source, 1, 2, 3);
+    tile.putValue(DiskTileCache.ETAG, "\"v1\"");
+    new DiskTileCache(folder, 1 << 20).putTileData(tile, data);
+
+    DiskTileCache cache = new DiskTileCache(folder, 1 << 20);
+    assertEquals(1, cache.getTileCount(), "The stored tile should be indexed");
+    Tile cached = cache.getTile(source, 1, 2, 3);
+    assertNotNull(cached, "The tile should be read from disk");
+    assertTrue(cached.isLoaded(), "A tile without expiry date is fresh");
+    assertEquals(4, cached.getImage().getWidth(), "The image should be decoded");
+    assertEquals("\"v1\"", cached.getValue(DiskTileCache.ETAG), "The metadata should be kept");
+    assertNull(cache.getTile(source, 2, 2, 3), "Other tiles are not cached");
+  }
+
+  @Test
+  void testIndexedOnFirstUse() throws Exception {
+    TileSource source = source("http://localhost");
+    byte[] data = png();
+    new DiskTileCache(folder, 1 << 20).putTileData(new Tile(source, 1, 2, 3), data);
+
+    DiskTileCache cache = new DiskTileCache(folder, 1 << 20);
+    // stored after the construction, found by the walk of the first use
+    new DiskTileCache(folder, 1 << 20).putTileData(new Tile(source, 2, 2, 3), data);
+    assertNotNull(cache.getTile(source, 2, 2, 3), "The directory should be walked on first use");
+    assertNotNull(cache.getTile(source, 1, 2, 3), "The older tile should be indexed too");
+    assertEquals(2, cache.getTileCount(), "Both stored tiles should be counted");
+  }
+
+  @Test
+  void testEviction() throws Exception {
+    TileSource source = source("http://localhost");
+    byte[] data = png();
+    DiskTileCache cache = new DiskTileCache(folder, 1 << 20);
+    for (int x = 0; x < 3; x++) {
+      cache.putTileData(new Tile(source, x, 0, 3), data);
+    }
+    cache.setMaxBytes(cache.getTotalBytes());
+    assertNotNull(cache.getTile(source, 0, 0, 3), "Touch the first tile");
+    cache.putTileData(new Tile(source, 3, 0, 3), data);
+
+    assertTrue(cache.getTotalBytes() <= cache.getMaxBytes(), "The size should be bounded");
+    assertNotNull(cache.getTile(source, 0, 0, 3), "The recently used tile should be kept");
+    assertNull(cache.getTile(source, 1, 0, 3), "The least recently used tile should be evicted");
+    assertFalse(new File(folder, "test/3/1/0" + DiskTileCache.TILE_EXTENSION).exists(),
+        "The evicted tile should be deleted from disk");
+  }
+
+  @Test
+  void testLoaderUsesDiskAndRevalidates() throws Exception {
+    byte[] data = png();
+    AtomicInteger downloads = new AtomicInteger();
+    AtomicInteger notModified = new AtomicInteger();
+    HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+    server.createContext("/", exchange -> {
+      exchange.getResponseHeaders().set("ETag", "\"v1\"");
+      exchange.getResponseHeaders().set("Cache-Control", "max-age=0");
+      if ("\"v1\"".equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+        notModified.incrementAndGet();
+        exchange.sendResponseHeaders(304, -1);
+      } else {
+        downloads.incrementAndGet();
+        exchange.sendResponseHeaders(200, data.length);
+        try (OutputStream body = exchange.getResponseBody()) {
+          body.write(data);
+        }
+      }
+      exchange.close();
+    });
+    server.start();
+    try {
+      TileSource source = source("http://localhost:" + server.getAddress().getPort());
+      DiskTileCache cache = new DiskTileCache(folder, 1 << 20);
+
+      Tile downloaded = load(source, cache);
+      assertFalse(downloaded.hasError(), "The tile should be downloaded");
+      assertEquals(1, downloads.get(), "The first load downloads the tile");
+      File stored = new File(folder, "test/3/1/2" + DiskTileCache.TILE_EXTENSION);
+      assertArrayEquals(data, Files.readAllBytes(stored.toPath()),
+          "The downloaded bytes should be stored");
+
+      // Expired at once: the next load revalidates instead of downloading
+      Tile revalidated = load(source, new DiskTileCache(folder, 1 << 20));
+      assertFalse(revalidated.hasError(), "The tile should be revalidated");
+      assertEquals(4, revalidated.getImage().getWidth(), "The stored image should be used");
+      assertEquals(1, downloads.get(), "The tile should not be downloaded again");
+      assertEquals(1, notModified.get(), "The tile should be revalidated with its etag");
+    } finally {
+      server.stop(0);
+    }
+  }
+}
@@ -0,0 +1,79 @@
+// License: GPL. For details, see Readme.txt file.
+package org.openstreetmap.gui.jmapviewer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.awt.Color;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.openstreetmap.gui.jmapviewer.interfaces.TileLoaderListener;
+import org.openstreetmap.gui.jmapviewer.interfaces.TileSource;
+import org.openstreetmap.gui.jmapviewer.tilesources.OsmTileSource;
+
+/**
+ * Test-cases of the scaled placeholders built in the background.
+ */
+class PlaceholderCacheTest {
+
+  private static final TileSource SOURCE = new OsmTileSource.Mapnik();
+
+  private static Tile loadedTile(int x, int y, int zoom, Color color) {
+    BufferedImage image = new BufferedImage(256, 256, BufferedImage.TYPE_INT_RGB);
+    for (int i = 0; i < 256; i++) {
+      for (int j = 0; j < 256; j++) {
+        image.setRGB(i, j, color.getRGB());
+      }
+    }
+    Tile tile = new Tile(SOURCE, x, y, zoom, image);
+    tile.finishLoading();
+    return tile;
+  }
+
+  @Test
+  void testPlaceholderBuiltOnceInBackground() throws InterruptedException {
+    ConcurrentTileCache tiles = new ConcurrentTileCache();
+    tiles.addTile(loadedTile(5, 5, 9, Color.RED));
+    PlaceholderCache placeholders = new PlaceholderCache(8);
+    CountDownLatch ready = new CountDownLatch(1);
+    TileLoaderListener listener = new TileLoaderListener() {
+      @Override
+      public void tileLoadingFinished(Tile tile, boolean success) {
+      }
+
+      @Override
+      public void placeholderReady(Tile tile) {
+        ready.countDown();
+      }
+    };
+
+    Tile child = new Tile(SOURCE, 11, 10, 10);
+    placeholders.request(child, tiles, listener);
+    assertTrue(ready.await(10, TimeUnit.SECONDS), "The placeholder should be built");
+    assertNotSame(Tile.LOADING_IMAGE, child.getImage());
+    assertEquals(Color.RED.getRGB(), child.getImage().getRGB(128, 128), "The parent tile is scaled up");
+    assertEquals(1, placeholders.getCount());
+
+    // the same tile requested again, once evicted from the tile cache
+    Tile again = new Tile(SOURCE, 11, 10, 10);
+    placeholders.request(again, tiles, listener);
+    assertSame(child.getImage(), again.getImage(), "The cached placeholder is set at once");
+  }
+
+  @Test
+  void testLoadedImageNeverReplaced() {
+    Tile tile = new Tile(SOURCE, 1, 1, 3);
+    BufferedImage placeholder = new BufferedImage(256, 256, BufferedImage.TYPE_INT_ARGB);
+    assertTrue(tile.setPlaceholder(placeholder));
+    BufferedImage loaded = new BufferedImage(256, 256, BufferedImage.TYPE_INT_RGB);
+    tile.setImage(loaded);
+    assertFalse(tile.setPlaceholder(placeholder), "A placeholder built late is ignored");
+    assertSame(loaded, tile.getImage());
+  }
+}
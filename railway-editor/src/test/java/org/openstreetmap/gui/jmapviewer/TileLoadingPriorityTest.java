@@ -0,0 +1,159 @@
+// License: GPL. For details, see Readme.txt file.
+package org.openstreetmap.gui.jmapviewer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.net.URLConnection;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import javax.imageio.ImageIO;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.openstreetmap.gui.jmapviewer.interfaces.TileJob;
+import org.openstreetmap.gui.jmapviewer.interfaces.TileLoader;
+import org.openstreetmap.gui.jmapviewer.interfaces.TileSource;
+import org.openstreetmap.gui.jmapviewer.tilesources.OsmTileSource;
+
+/**
+ * Test-cases of the priority of the tile downloads and of the prefetch of
+ * the tiles around the viewport.
+ */
+class TileLoadingPriorityTest {
+
+  private static final TileSource SOURCE = new OsmTileSource.Mapnik();
+  private static final int THREADS = 8;
+
+  @TempDir
+  File folder;
+
+  /**
+   * Loader recording the order in which the tiles are taken, each download
+   * waiting for a permit.
+   */
+  private static final class RecordingLoader extends OsmTileLoader {
+    private final List<String> taken = Collections.synchronizedList(new ArrayList<>());
+    private final Semaphore permits = new Semaphore(0);
+    private final File png;
+
+    RecordingLoader(File png) {
+      super((tile, success) -> { });
+      this.png = png;
+    }
+
+    @Override
+    protected URLConnection loadTileFromOsm(Tile tile) throws IOException {
+      taken.add(tile.getXtile() + "," + tile.getYtile());
+      try {
+        permits.tryAcquire(30, TimeUnit.SECONDS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      return png.toURI().toURL().openConnection();
+    }
+
+    void awaitTaken(int count) throws InterruptedException {
+      long end = System.currentTimeMillis() + 30_000;
+      while (taken.size() < count && System.currentTimeMillis() < end) {
+        Thread.sleep(5);
+      }
+      assertEquals(count, taken.size(), "The expected tiles should be taken");
+    }
+  }
+
+  @Test
+  void testNearestTilesFirst() throws Exception {
+    File png = new File(folder, "tile.png");
+    ImageIO.write(new BufferedImage(4, 4, BufferedImage.TYPE_INT_RGB), "png", png);
+    RecordingLoader loader = new RecordingLoader(png);
+    try {
+      // occupy every download thread
+      for (int i = 0; i < THREADS; i++) {
+        loader.createTileLoaderJob(new Tile(SOURCE, 100 + i, 0, 10)).submit();
+      }
+      loader.awaitTaken(THREADS);
+
+      // viewport of tiles 0..4 x 0..2 centered on tile 2,1
+      loader.setViewport(new TileViewport(10, 2.5, 1.5, 0, 0, 4, 2));
+      for (String xy : Arrays.asList("4,2", "0,0", "2,1", "9,9", "3,1", "2,0")) {
+        String[] parts = xy.split(",");
+        loader.createTileLoaderJob(new Tile(SOURCE, Integer.parseInt(parts[0]),
+            Integer.parseInt(parts[1]), 10)).submit();
+      }
+      Tile otherZoom = new Tile(SOURCE, 2, 1, 11);
+      loader.createTileLoaderJob(otherZoom).submit();
+
+      // one download at a time: each free thread takes the best tile, the
+      // tiles at the same distance in the order they were requested
+      for (int i = 1; i <= 5; i++) {
+        loader.permits.release();
+        loader.awaitTaken(THREADS + i);
+      }
+      assertEquals(Arrays.asList("2,1", "3,1", "2,0", "4,2", "0,0"),
+          loader.taken.subList(THREADS, THREADS + 5), "Tiles nearest to the center come first");
+      assertEquals(2, loader.getDroppedJobs(), "Tiles off the viewport or zoom should be dropped");
+      assertFalse(otherZoom.isLoading(), "A dropped tile is not loaded");
+    } finally {
+      loader.permits.release(100);
+    }
+  }
+
+  @Test
+  void testPrefetchRingInPanDirection() {
+    List<Tile> requested = new ArrayList<>();
+    TileController controller = new TileController(SOURCE, new ConcurrentTileCache(), (tile, success) -> { });
+    controller.setTileLoader(new TileLoader() {
+      @Override
+      public TileJob createTileLoaderJob(Tile tile) {
+        return new TileJob() {
+          @Override
+          public void run() {
+          }
+
+          @Override
+          public void submit() {
+            requested.add(tile);
+          }
+
+          @Override
+          public void submit(boolean force) {
+            submit();
+          }
+        };
+      }
+
+      @Override
+      public boolean hasOutstandingTasks() {
+        return false;
+      }
+
+      @Override
+      public void cancelOutstandingTasks() {
+      }
+    });
+
+    controller.setViewport(new TileViewport(10, 12.5, 11.5, 10, 10, 14, 12));
+    assertTrue(requested.isEmpty(), "Nothing is prefetched before a move");
+    // panning to the east
+    controller.setViewport(new TileViewport(10, 13.0, 11.5, 11, 10, 15, 12));
+
+    assertEquals(5, requested.size(), "The column east of the view should be requested");
+    for (Tile tile : requested) {
+      assertEquals(16, tile.getXtile(), "Only the tiles in the direction of the move");
+    }
+    assertNotNull(controller.getTileCache().getTile(SOURCE, 16, 9, 10), "Prefetched tiles are cached");
+    assertNull(controller.getTileCache().getTile(SOURCE, 10, 9, 10), "Tiles behind the move are not");
+  }
+}
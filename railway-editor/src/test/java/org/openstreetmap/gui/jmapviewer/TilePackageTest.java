@@ -0,0 +1,167 @@
+// License: GPL. For details, see Readme.txt file.
+package org.openstreetmap.gui.jmapviewer;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.imageio.ImageIO;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.openstreetmap.gui.jmapviewer.tilesources.OfflineTileSource;
+import org.openstreetmap.gui.jmapviewer.tilesources.TMSTileSource;
+import org.openstreetmap.gui.jmapviewer.tilesources.TileSourceInfo;
+
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Test-cases of the offline tile packages, the prefetch being served by a
+ * local tile server.
+ */
+class TilePackageTest {
+
+  @TempDir
+  File folder;
+
+  private static byte[] bytes(String text) {
+    return text.getBytes(StandardCharsets.US_ASCII);
+  }
+
+  @Test
+  void testPackageFile() throws Exception {
+    File file = new File(folder, "test" + TilePackage.EXTENSION);
+    try (TilePackage.Writer writer = TilePackage.create(file)) {
+      writer.putTile(12, 2000, 1400, bytes("b"));
+      writer.putTile(11, 1000, 700, bytes("a"));
+      writer.putTile(12, 2000, 1400, bytes("duplicate"));
+    }
+
+    try (TilePackage tilePackage = TilePackage.open(file)) {
+      assertArrayEquals(bytes("a"), tilePackage.getTile(11, 1000, 700), "The tile should be read");
+      assertArrayEquals(bytes("b"), tilePackage.getTile(12, 2000, 1400), "The first copy is kept");
+      assertNull(tilePackage.getTile(12, 2000, 1401), "Missing tiles are null");
+      assertEquals(11, tilePackage.getMinZoom(), "The lowest zoom of the package");
+      assertEquals(12, tilePackage.getMaxZoom(), "The highest zoom of the package");
+    }
+  }
+
+  @Test
+  void testNotAPackage() throws Exception {
+    File file = new File(folder, "map.xml");
+    Files.write(file.toPath(), bytes("<map>not a tile package at all</map>"));
+
+    assertThrows(IOException.class, () -> TilePackage.open(file), "Other files should be rejected");
+  }
+
+  @Test
+  void testDirectory() throws Exception {
+    File tile = new File(folder, "5/10/12.png");
+    assertTrue(tile.getParentFile().mkdirs());
+    Files.write(tile.toPath(), bytes("png"));
+
+    TilePackage tilePackage = TilePackage.open(folder);
+    assertArrayEquals(bytes("png"), tilePackage.getTile(5, 10, 12), "The tile should be read");
+    assertNull(tilePackage.getTile(5, 10, 13), "Missing tiles are null");
+    assertEquals(5, tilePackage.getMaxZoom(), "The zoom folders give the zoom range");
+  }
+
+  @Test
+  void testPrefetchAndLoadOffline() throws Exception {
+    ByteArrayOutputStream png = new ByteArrayOutputStream();
+    ImageIO.write(new BufferedImage(4, 4, BufferedImage.TYPE_INT_RGB), "png", png);
+    byte[] data = png.toByteArray();
+    AtomicInteger requests = new AtomicInteger();
+    HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+    server.createContext("/", exchange -> {
+      requests.incrementAndGet();
+      exchange.sendResponseHeaders(200, data.length);
+      try (OutputStream body = exchange.getResponseBody()) {
+        body.write(data);
+      }
+      exchange.close();
+    });
+    server.start();
+    File file = new File(folder, "angers" + TilePackage.EXTENSION);
+    TilePrefetcher prefetcher;
+    long count;
+    int added;
+    try {
+      prefetcher = new TilePrefetcher(new TMSTileSource(new TileSourceInfo("test",
+          "http://localhost:" + server.getAddress().getPort(), "test")), 3);
+      // Angers, as in the sample map
+      count = prefetcher.countTiles(47.44, -0.6, 47.5, -0.5, 10, 13);
+      AtomicInteger progress = new AtomicInteger();
+      try (TilePackage.Writer writer = TilePackage.create(file)) {
+        added = prefetcher.prefetch(writer, 47.44, -0.6, 47.5, -0.5, 10, 13,
+            (done, total) -> progress.accumulateAndGet(done, Math::max));
+      }
+      assertEquals(count, progress.get(), "The progress should reach the tile count");
+    } finally {
+      server.stop(0);
+    }
+    assertTrue(count > 4, "Several tiles cover the region");
+    assertEquals(count, added, "Every tile should be added");
+    assertEquals(count, requests.get(), "Each tile is downloaded once");
+
+    TilePackage tilePackage = TilePackage.open(file);
+    OfflineTileSource source = new OfflineTileSource(tilePackage);
+    TileXY xy = source.latLonToTileXY(47.47, -0.55, 13);
+    CountDownLatch done = new CountDownLatch(1);
+    Tile tile = new Tile(source, xy.getXIndex(), xy.getYIndex(), 13);
+    new OfflineTileLoader((loaded, success) -> done.countDown()).createTileLoaderJob(tile).submit();
+    assertTrue(done.await(30, TimeUnit.SECONDS), "The tile should be loaded");
+    assertFalse(tile.hasError(), "The tile should be read from the package");
+    assertEquals(4, tile.getImage().getWidth(), "The image should be decoded");
+  }
+
+  @Test
+  void testStalledServerTimesOut() throws Exception {
+    CountDownLatch release = new CountDownLatch(1);
+    HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+    server.createContext("/", exchange -> {
+      try {
+        // never answers before the end of the test
+        release.await();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      exchange.close();
+    });
+    server.setExecutor(Executors.newCachedThreadPool());
+    server.start();
+    File file = new File(folder, "stalled" + TilePackage.EXTENSION);
+    try {
+      TilePrefetcher prefetcher = new TilePrefetcher(new TMSTileSource(new TileSourceInfo("test",
+          "http://localhost:" + server.getAddress().getPort(), "test")), 3);
+      prefetcher.timeoutRead = 200;
+      long start = System.nanoTime();
+      int added;
+      try (TilePackage.Writer writer = TilePackage.create(file)) {
+        added = prefetcher.prefetch(writer, 47.44, -0.6, 47.5, -0.5, 10, 11, null);
+      }
+      assertEquals(0, added, "No tile is received");
+      assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(10),
+          "The downloads should give up after the read timeout");
+    } finally {
+      release.countDown();
+      server.stop(0);
+    }
+  }
+}